@@ -8,9 +8,13 @@
 package org.duracloud.audit.provider;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.duracloud.audit.logger.ReadLogger;
 import org.duracloud.audit.logger.WriteLogger;
@@ -20,7 +24,10 @@ import org.duracloud.common.model.AclType;
 import org.duracloud.common.queue.TaskQueue;
 import org.duracloud.common.queue.task.Task;
 import org.duracloud.common.util.UserUtil;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.DeleteContentsException;
+import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.provider.StorageProvider;
 
 /**
@@ -194,6 +201,35 @@ public class AuditStorageProvider implements StorageProvider {
         return content;
     }
 
+    @Override
+    public RetrievedContent getContentWithProperties(String spaceId,
+                                                     String contentId) {
+        RetrievedContent content =
+            target.getContentWithProperties(spaceId, contentId);
+
+        String action = AuditTask.ActionType.GET_CONTENT.name();
+        submitReadTask(action, spaceId, contentId);
+        return content;
+    }
+
+    @Override
+    public boolean supportsRangeRetrieval() {
+        return target.supportsRangeRetrieval();
+    }
+
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        InputStream content =
+            target.getContent(spaceId, contentId, startByte, endByte);
+
+        String action = AuditTask.ActionType.GET_CONTENT.name();
+        submitReadTask(action, spaceId, contentId);
+        return content;
+    }
+
     @Override
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId) {
@@ -296,6 +332,57 @@ public class AuditStorageProvider implements StorageProvider {
                         contentSize, null, null, AuditTask.NA, AuditTask.NA);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The properties of each item are gathered for its audit event, then the
+     * items are removed from the target in a single batch. If the removal
+     * fails part of the way through, the items which were removed are still
+     * audited.
+     */
+    @Override
+    public void deleteContents(String spaceId, List<String> contentIds) {
+        List<String> existing = new ArrayList<>();
+        List<Map<String, String>> existingProps = new ArrayList<>();
+        for (String contentId : contentIds) {
+            try {
+                existingProps.add(target.getContentProperties(spaceId, contentId));
+                existing.add(contentId);
+            } catch (NotFoundException e) {
+                // Nothing to delete or audit
+            }
+        }
+        try {
+            target.deleteContents(spaceId, existing);
+        } catch (DeleteContentsException e) {
+            // The items which were removed before the failure are audited
+            submitDeleteTasks(spaceId, existing, existingProps,
+                              new HashSet<>(e.getUndeletedContentIds()));
+            throw e;
+        }
+        submitDeleteTasks(spaceId, existing, existingProps,
+                          Collections.<String>emptySet());
+    }
+
+    private void submitDeleteTasks(String spaceId,
+                                   List<String> contentIds,
+                                   List<Map<String, String>> contentProps,
+                                   Set<String> undeletedContentIds) {
+        String action = AuditTask.ActionType.DELETE_CONTENT.name();
+        for (int i = 0; i < contentIds.size(); i++) {
+            String contentId = contentIds.get(i);
+            if (undeletedContentIds.contains(contentId)) {
+                continue;
+            }
+            Map<String, String> props = contentProps.get(i);
+            submitWriteTask(action, spaceId, contentId,
+                            props.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM),
+                            props.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE),
+                            props.get(StorageProvider.PROPERTIES_CONTENT_SIZE),
+                            null, null, AuditTask.NA, AuditTask.NA);
+        }
+    }
+
     @Override
     public void setContentProperties(String spaceId, String contentId,
                                      Map<String, String> contentProperties) {
@@ -307,4 +394,58 @@ public class AuditStorageProvider implements StorageProvider {
                         AuditTask.NA);
     }
 
+    @Override
+    public boolean supportsMultipartUpload() {
+        return target.supportsMultipartUpload();
+    }
+
+    @Override
+    public String startMultipartUpload(String spaceId,
+                                       String contentId,
+                                       String contentMimeType,
+                                       Map<String, String> userProperties,
+                                       String contentChecksum) {
+        return target.startMultipartUpload(spaceId, contentId, contentMimeType,
+                                           userProperties, contentChecksum);
+    }
+
+    @Override
+    public String addContentPart(String spaceId,
+                                 String contentId,
+                                 String uploadId,
+                                 int partNumber,
+                                 long partSize,
+                                 InputStream part) {
+        return target.addContentPart(spaceId, contentId, uploadId,
+                                     partNumber, partSize, part);
+    }
+
+    @Override
+    public String completeMultipartUpload(String spaceId,
+                                          String contentId,
+                                          String uploadId,
+                                          List<String> partChecksums) {
+        String contentChecksum =
+            target.completeMultipartUpload(spaceId, contentId,
+                                           uploadId, partChecksums);
+
+        // The content item only comes into existence once the upload is
+        // completed, so it is audited as an add at this point
+        Map<String, String> props = target.getContentProperties(spaceId, contentId);
+        String contentMimetype = props.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE);
+        String contentSize = props.get(StorageProvider.PROPERTIES_CONTENT_SIZE);
+        String action = AuditTask.ActionType.ADD_CONTENT.name();
+        submitWriteTask(action, spaceId, contentId, contentChecksum,
+                        contentMimetype, contentSize, props, null,
+                        AuditTask.NA, AuditTask.NA);
+        return contentChecksum;
+    }
+
+    @Override
+    public void abortMultipartUpload(String spaceId,
+                                     String contentId,
+                                     String uploadId) {
+        target.abortMultipartUpload(spaceId, contentId, uploadId);
+    }
+
 }
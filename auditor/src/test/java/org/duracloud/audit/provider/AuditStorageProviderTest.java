@@ -10,8 +10,10 @@ package org.duracloud.audit.provider;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,6 +25,8 @@ import org.duracloud.common.queue.TaskQueue;
 import org.duracloud.common.queue.task.Task;
 import org.duracloud.common.util.UserUtil;
 import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.DeleteContentsException;
+import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
@@ -386,6 +390,74 @@ public class AuditStorageProviderTest extends EasyMockSupport {
 
     }
 
+    @Test
+    public void testDeleteContents() throws Exception {
+        Capture<Task> auditTaskCapture = mockAuditCall();
+        Capture<Task> logCapture = mockWriteLogCall();
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_MIMETYPE, contentMimeType);
+        props.put(StorageProvider.PROPERTIES_CONTENT_SIZE, contentSize + "");
+        props.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM, contentChecksum);
+
+        String missingContentId = "missing-content-id";
+        EasyMock.expect(targetProvider.getContentProperties(spaceId, contentId))
+                .andReturn(props);
+        EasyMock.expect(targetProvider.getContentProperties(spaceId, missingContentId))
+                .andThrow(new NotFoundException(missingContentId));
+
+        // Only the item which exists is deleted and audited
+        targetProvider.deleteContents(spaceId, Arrays.asList(contentId));
+        EasyMock.expectLastCall().once();
+        replayAll();
+        provider.deleteContents(spaceId, Arrays.asList(contentId, missingContentId));
+
+        Task auditTask = auditTaskCapture.getValue();
+        assertEquals(auditTask, logCapture.getValue());
+        Map<String, String> taskProps =
+            verifyTask(auditTask, AuditTask.ActionType.DELETE_CONTENT.name());
+        assertEquals(contentId, taskProps.get(AuditTask.CONTENT_ID_PROP));
+        assertEquals(contentChecksum, taskProps.get(AuditTask.CONTENT_CHECKSUM_PROP));
+    }
+
+    @Test
+    public void testDeleteContentsPartialFailure() throws Exception {
+        Capture<Task> auditTaskCapture = mockAuditCall();
+        Capture<Task> logCapture = mockWriteLogCall();
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM, contentChecksum);
+
+        String failedContentId = "failed-content-id";
+        String skippedContentId = "skipped-content-id";
+        for (String id : Arrays.asList(contentId, failedContentId, skippedContentId)) {
+            EasyMock.expect(targetProvider.getContentProperties(spaceId, id))
+                    .andReturn(props);
+        }
+
+        // The target fails on the second item, and does not attempt the third
+        DeleteContentsException error =
+            new DeleteContentsException("failed", null, true,
+                                        Arrays.asList(failedContentId, skippedContentId));
+        targetProvider.deleteContents(spaceId, Arrays.asList(contentId, failedContentId,
+                                                             skippedContentId));
+        EasyMock.expectLastCall().andThrow(error);
+        replayAll();
+
+        try {
+            provider.deleteContents(spaceId, Arrays.asList(contentId, failedContentId,
+                                                           skippedContentId));
+            fail("Exception expected");
+        } catch (DeleteContentsException e) {
+            assertEquals(error, e);
+        }
+
+        // Only the item which was removed is audited
+        Task auditTask = auditTaskCapture.getValue();
+        assertEquals(auditTask, logCapture.getValue());
+        Map<String, String> taskProps =
+            verifyTask(auditTask, AuditTask.ActionType.DELETE_CONTENT.name());
+        assertEquals(contentId, taskProps.get(AuditTask.CONTENT_ID_PROP));
+    }
+
     @Test
     public void testSetContentProperties() throws Exception {
         Capture<Task> auditTaskCapture = mockAuditCall();
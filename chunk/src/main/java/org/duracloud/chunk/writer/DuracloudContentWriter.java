@@ -11,13 +11,14 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.FileUtils;
 import org.duracloud.chunk.ChunkableContent;
@@ -32,7 +33,6 @@ import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.common.retry.Retriable;
 import org.duracloud.common.retry.Retrier;
 import org.duracloud.common.util.ChecksumUtil;
-import org.duracloud.common.util.IOUtil;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.slf4j.Logger;
@@ -40,8 +40,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This class implements the ContentWriter interface to write the provided
- * content to the Duracloud storeclient interface. Warning: this class is NOT
- * thread-safe.
+ * content to the Duracloud storeclient interface. A single writer may be
+ * shared by multiple threads, each writing different content. The results
+ * of a write, as well as the checksum utility and copy buffer used to
+ * process chunks, are held per thread.
  *
  * @author Andrew Woods
  * Date: Feb 5, 2010
@@ -52,9 +54,15 @@ public class DuracloudContentWriter implements ContentWriter {
 
     private ContentStore contentStore;
     private String username;
-    private Set<String> existingSpaces = new HashSet<String>();
-    private List<AddContentResult> results = new ArrayList<AddContentResult>();
-    private ChecksumUtil checksumUtil = new ChecksumUtil(ChecksumUtil.Algorithm.MD5);
+    private Set<String> existingSpaces = ConcurrentHashMap.newKeySet();
+    private ThreadLocal<List<AddContentResult>> results =
+        ThreadLocal.withInitial(ArrayList::new);
+    private ThreadLocal<ChecksumUtil> checksumUtil =
+        ThreadLocal.withInitial(() -> new ChecksumUtil(ChecksumUtil.Algorithm.MD5));
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<byte[]> copyBuffer =
+        ThreadLocal.withInitial(() -> new byte[COPY_BUFFER_SIZE]);
 
     // if true, skip writing results and throw exception when errors occur
     private boolean throwOnError = false;
@@ -112,8 +120,11 @@ public class DuracloudContentWriter implements ContentWriter {
         return this.maxRetries;
     }
 
+    /**
+     * @return results of the most recent write performed by the calling thread
+     */
     public List<AddContentResult> getResults() {
-        return results;
+        return results.get();
     }
 
     public void ignore(String spaceId, String contentId, long contentSize) {
@@ -121,7 +132,7 @@ public class DuracloudContentWriter implements ContentWriter {
                                                        contentId,
                                                        contentSize);
         result.setState(AddContentResult.State.IGNORED);
-        results.add(result);
+        results.get().add(result);
     }
 
     /**
@@ -148,7 +159,7 @@ public class DuracloudContentWriter implements ContentWriter {
         log.debug("write: " + spaceId);
         createSpaceIfNotExist(spaceId);
         boolean errorsExist = false;
-        results.clear();
+        results.get().clear();
         for (ChunkInputStream chunk : chunkable) {
             writeChunk(spaceId, chunk);
             if (errorsExist = errorsExist()) {
@@ -182,7 +193,7 @@ public class DuracloudContentWriter implements ContentWriter {
 
     protected boolean errorsExist() {
         boolean containsErrors = false;
-        for (AddContentResult result : this.results) {
+        for (AddContentResult result : this.results.get()) {
             if (result.getState().equals(AddContentResult.State.ERROR)) {
                 containsErrors = true;
                 break;
@@ -199,7 +210,7 @@ public class DuracloudContentWriter implements ContentWriter {
         throws NotFoundException {
         // Write chunk as a temp file
         String chunkId = chunk.getChunkId();
-        File chunkFile = IOUtil.writeStreamToFile(chunk);
+        File chunkFile = writeChunkToFile(chunk);
 
         try {
             String chunkChecksum = getChunkChecksum(chunkFile);
@@ -239,12 +250,35 @@ public class DuracloudContentWriter implements ContentWriter {
         }
     }
 
+    /*
+     * Writes the chunk to a temp file, using the copy buffer of the calling
+     * thread
+     */
+    private File writeChunkToFile(InputStream chunk) {
+        File chunkFile = null;
+        try {
+            chunkFile = File.createTempFile("file", ".tmp");
+            try (OutputStream outStream = FileUtils.openOutputStream(chunkFile)) {
+                byte[] buffer = copyBuffer.get();
+                int read;
+                while ((read = chunk.read(buffer)) != -1) {
+                    outStream.write(buffer, 0, read);
+                }
+            }
+            return chunkFile;
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(chunkFile);
+            throw new DuraCloudRuntimeException("Error writing stream to file: " +
+                                                e.getMessage(), e);
+        }
+    }
+
     /*
      * Determine the checksum of the chunk file
      */
     private String getChunkChecksum(File chunkFile) {
         try {
-            return checksumUtil.generateChecksum(chunkFile);
+            return checksumUtil.get().generateChecksum(chunkFile);
         } catch (IOException e) {
             throw new DuraCloudRuntimeException("Unable to generate checksum for file " +
                                                 chunkFile + " due to: " + e.getMessage());
@@ -252,28 +286,26 @@ public class DuracloudContentWriter implements ContentWriter {
     }
 
     protected void setChecksumUtil(ChecksumUtil checksumUtil) {
-        this.checksumUtil = checksumUtil;
+        this.checksumUtil = ThreadLocal.withInitial(() -> checksumUtil);
     }
 
     /*
-     * Determines if a file chunk exists in DuraCloud storage with the given checksum
+     * Determines if a file chunk exists in DuraCloud storage with the given
+     * checksum. Existence and checksum are determined with a single request
+     * for the chunk properties, which is not retried if the chunk is not found.
      */
     private boolean chunkInStorage(String spaceId, String contentId, String checksum) {
         try {
-            if (contentStore.contentExists(spaceId, contentId)) { // dc file exists
-                Map<String, String> props =
-                    contentStore.getContentProperties(spaceId, contentId);
-                String dcChecksum = props.get(ContentStore.CONTENT_CHECKSUM);
-                if (null != checksum && null != dcChecksum && checksum.equals(dcChecksum)) {
-                    return true; // File with matching checksum already in DuraCloud
-                } else {
-                    return false; // File exists in DuraCloud, but checksums don't match
-                }
-            } else {
+            Map<String, String> props =
+                contentStore.getContentPropertiesIfExists(spaceId, contentId);
+            if (null == props) {
                 return false; // File does not exist in DuraCloud
             }
+            String dcChecksum = props.get(ContentStore.CONTENT_CHECKSUM);
+            // True if a file with matching checksum is already in DuraCloud
+            return null != checksum && null != dcChecksum && checksum.equals(dcChecksum);
         } catch (ContentStoreException e) {
-            return false; // File does not exist in DuraCloud
+            return false; // File could not be checked, so is written
         }
     }
 
@@ -359,7 +391,7 @@ public class DuracloudContentWriter implements ContentWriter {
             createRetrier().execute(() -> {
                 try (KnownLengthInputStream manifestBody = manifest.getBody()) {
                     String manifestChecksum =
-                        checksumUtil.generateChecksum(manifest.getBody());
+                        checksumUtil.get().generateChecksum(manifest.getBody());
                     int manifestLength = manifestBody.getLength();
                     addContentThenReport(spaceId,
                                          manifestId,
@@ -424,7 +456,7 @@ public class DuracloudContentWriter implements ContentWriter {
                 result.setMd5(md5);
                 result.setState(AddContentResult.State.SUCCESS);
             }
-            results.add(result);
+            results.get().add(result);
         }
     }
 
@@ -0,0 +1,111 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.chunk.writer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.duracloud.chunk.ChunkableContent;
+import org.duracloud.client.ContentStore;
+import org.duracloud.client.ContentStoreImpl;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.common.web.RestHttpHelper;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the requests made by the writer through a ContentStoreImpl, with its
+ * retry behavior, against an in-process DuraStore stand-in which holds no
+ * content.
+ */
+public class DuracloudContentWriterRequestTest {
+
+    private static final String SPACE_ID = "space1";
+
+    private HttpServer server;
+    private ContentStore store;
+
+    private final Map<String, AtomicInteger> heads = new ConcurrentHashMap<>();
+    private final AtomicInteger puts = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/durastore", this::handle);
+        server.start();
+
+        String baseURL = "http://127.0.0.1:" + server.getAddress().getPort() +
+                         "/durastore";
+        store = new ContentStoreImpl(baseURL, StorageProviderType.AMAZON_S3, "0",
+                                     new RestHttpHelper(), 3);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if ("PUT".equals(method)) {
+            puts.incrementAndGet();
+            String checksum;
+            try (InputStream body = exchange.getRequestBody()) {
+                checksum = new ChecksumUtil(ChecksumUtil.Algorithm.MD5)
+                    .generateChecksum(body);
+            }
+            exchange.getResponseHeaders().add("Content-MD5", checksum);
+            exchange.sendResponseHeaders(201, -1);
+        } else if ("HEAD".equals(method) && !path.startsWith("/durastore/acl/")) {
+            // No content exists
+            heads.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            exchange.sendResponseHeaders(404, -1);
+        } else {
+            exchange.sendResponseHeaders(200, -1);
+        }
+        exchange.close();
+    }
+
+    @Test
+    public void testMissingChunksCheckedOnce() throws Exception {
+        DuracloudContentWriter writer =
+            new DuracloudContentWriter(store, "user", false, false);
+
+        int chunkSize = 1000;
+        int chunkCount = 4;
+        byte[] content = new byte[chunkSize * chunkCount];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        ChunkableContent chunkable =
+            new ChunkableContent("item", new ByteArrayInputStream(content),
+                                 content.length, chunkSize);
+        writer.write(SPACE_ID, chunkable);
+
+        // Each chunk, and the unchunked content ID, is checked with one request
+        assertEquals(chunkCount + 1, heads.size());
+        for (Map.Entry<String, AtomicInteger> head : heads.entrySet()) {
+            assertEquals(head.getKey(), 1, head.getValue().get());
+        }
+        // Each chunk and the manifest are written
+        assertEquals(chunkCount + 1, puts.get());
+    }
+
+}
@@ -12,12 +12,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.duracloud.chunk.ChunkableContent;
 import org.duracloud.chunk.error.NotFoundException;
+import org.duracloud.chunk.manifest.ChunksManifest;
 import org.duracloud.chunk.stream.ChunkInputStream;
 import org.duracloud.client.ContentStore;
 import org.duracloud.common.error.DuraCloudRuntimeException;
@@ -110,6 +113,10 @@ public class DuracloudContentWriterTest {
                                                        EasyMock.isA(String.class)))
                     .andReturn(false)
                     .anyTimes();
+            EasyMock.expect(contentStore.getContentPropertiesIfExists(EasyMock.isA(String.class),
+                                                                      EasyMock.isA(String.class)))
+                    .andReturn(null)
+                    .anyTimes();
         } else {
             EasyMock.expect(contentStore.contentExists(EasyMock.isA(String.class),
                                                        EasyMock.isA(String.class)))
@@ -118,8 +125,8 @@ public class DuracloudContentWriterTest {
 
             Map<String, String> props = new HashMap<>();
             props.put(ContentStore.CONTENT_CHECKSUM, checksum);
-            EasyMock.expect(contentStore.getContentProperties(EasyMock.isA(String.class),
-                                                              EasyMock.isA(String.class)))
+            EasyMock.expect(contentStore.getContentPropertiesIfExists(EasyMock.isA(String.class),
+                                                                      EasyMock.isA(String.class)))
                     .andReturn(props)
                     .anyTimes();
         }
@@ -135,6 +142,10 @@ public class DuracloudContentWriterTest {
                                                         EasyMock.isA(String.class)))
                 .andReturn(false)
                 .anyTimes();
+        EasyMock.expect(contentStoreThrow.getContentPropertiesIfExists(EasyMock.isA(String.class),
+                                                                       EasyMock.isA(String.class)))
+                .andReturn(null)
+                .anyTimes();
 
         contentStoreThrow.createSpace(EasyMock.isA(String.class));
         EasyMock.expectLastCall().anyTimes();
@@ -273,6 +284,75 @@ public class DuracloudContentWriterTest {
         doTestWrite(false, false);
     }
 
+    /*
+     * Tests that a single request is made to determine whether each chunk is
+     * already in storage
+     */
+    @Test
+    public void testWriteChunkCheckRequests() throws Exception {
+        createMockContentStore(true, true);
+        expectDelete(false);
+        EasyMock.expect(contentStore.getContentPropertiesIfExists(EasyMock.eq(spaceId),
+                                                                  EasyMock.isA(String.class)))
+                .andReturn(null)
+                .times(4);
+        doTestWrite(false, false);
+    }
+
+    /*
+     * Tests that a single writer can be shared by threads writing
+     * different content
+     */
+    @Test
+    public void testWriteSharedAcrossThreads() throws Exception {
+        int threadCount = 10;
+        EasyMock.expect(contentStore.addContent(EasyMock.isA(String.class),
+                                                EasyMock.isA(String.class),
+                                                EasyMock.isA(InputStream.class),
+                                                EasyMock.anyLong(),
+                                                EasyMock.isA(String.class),
+                                                EasyMock.isA(String.class),
+                                                (Map) EasyMock.anyObject()))
+                .andReturn("")
+                .times(threadCount * 5); // 4 chunks and a manifest each
+        EasyMock.expect(contentStore.getSpaceACLs(spaceId))
+                .andReturn(new HashMap<String, AclType>())
+                .anyTimes();
+        updateMockContentStoreContentCheck(false);
+        DuracloudContentWriter writer =
+            new DuracloudContentWriter(contentStore, username, true, false);
+        replayMocks();
+
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            String threadContentId = contentId + i;
+            threads.add(new Thread(() -> {
+                try {
+                    long contentSize = 4000;
+                    ChunkableContent chunkable =
+                        new ChunkableContent(threadContentId,
+                                             createContentStream(contentSize),
+                                             contentSize,
+                                             1000);
+                    ChunksManifest manifest = writer.write(spaceId, chunkable);
+                    Assert.assertEquals(4, manifest.getEntries().size());
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertTrue(errors.toString(), errors.isEmpty());
+        EasyMock.verify(contentStore);
+    }
+
     private void doTestWrite(boolean validChecksum, boolean jumpStart) throws Exception {
         DuracloudContentWriter writer =
             new DuracloudContentWriter(contentStore, username, false, jumpStart);
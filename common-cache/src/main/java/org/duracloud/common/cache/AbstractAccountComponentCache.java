@@ -7,8 +7,9 @@
  */
 package org.duracloud.common.cache;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @param <T>
@@ -18,7 +19,7 @@ public abstract class AbstractAccountComponentCache<T> implements AccountCompone
     private Map<String, T> cache;
 
     public AbstractAccountComponentCache() {
-        this.cache = new HashMap<>();
+        this.cache = new ConcurrentHashMap<>();
     }
 
     protected void remove(String key) {
@@ -29,6 +30,20 @@ public abstract class AbstractAccountComponentCache<T> implements AccountCompone
         this.cache.clear();
     }
 
+    /**
+     * @return the cached instance for an account, or null if none is cached
+     */
+    protected T getCached(String accountId) {
+        return this.cache.get(accountId);
+    }
+
+    /**
+     * @return the IDs of the accounts for which an instance is cached
+     */
+    protected Set<String> getCachedAccountIds() {
+        return this.cache.keySet();
+    }
+
     @Override
     public T get(String accountId) {
         T instance = this.cache.get(accountId);
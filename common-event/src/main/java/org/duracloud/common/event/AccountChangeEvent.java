@@ -19,7 +19,10 @@ public class AccountChangeEvent {
         USERS_CHANGED,
         STORAGE_PROVIDERS_CHANGED,
         ALL_ACCOUNTS_CHANGED,
-        STORAGE_PROVIDER_CACHE_ON_NODE_CHANGED;   //indicates that storage provider data cached on a node changed
+        STORAGE_PROVIDER_CACHE_ON_NODE_CHANGED,   //indicates that storage provider data cached on a node changed
+        STORAGE_CREDENTIALS_CHANGED, //the credentials or options of an account's storage providers changed
+        STREAMING_CHANGED,           //the streaming configuration of an account (or of all accounts) changed
+        ROOT_USERS_CHANGED;          //root users, which have access to all accounts, changed
     }
 
     private EventType eventType;
@@ -28,6 +28,22 @@ public interface AccountChangeNotifier {
      */
     public void storageProvidersChanged(String account);
 
+    /**
+     * Notifies listeners that the credentials or options of one or more of
+     * the storage providers associated with an account have changed, while
+     * the set of storage providers is unchanged.
+     *
+     * @param account
+     */
+    public void storageCredentialsChanged(String account);
+
+    /**
+     * Notifies listeners that the streaming configuration of an account has changed.
+     *
+     * @param account the account, or null if the configuration of all accounts changed
+     */
+    public void streamingChanged(String account);
+
     /**
      * Notifies listeners that the set of users associated with an account have changed
      *
@@ -12,17 +12,23 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.amazonaws.services.sns.AmazonSNS;
 import com.amazonaws.services.sns.model.SubscribeResult;
 import com.amazonaws.services.sqs.AmazonSQS;
 import com.amazonaws.services.sqs.model.CreateQueueRequest;
 import com.amazonaws.services.sqs.model.CreateQueueResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
 import com.amazonaws.services.sqs.model.GetQueueAttributesResult;
 import com.amazonaws.services.sqs.model.GetQueueUrlResult;
 import com.amazonaws.services.sqs.model.Message;
 import com.amazonaws.services.sqs.model.QueueNameExistsException;
-import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
 import com.amazonaws.services.sqs.model.SetQueueAttributesRequest;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.common.util.WaitUtil;
@@ -30,19 +36,35 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Subscribes a queue to an SNS topic and passes the messages which arrive on
+ * the queue to the registered listeners.
+ *
+ * The queue is long-polled for up to 10 messages at a time. The messages of
+ * each batch are dispatched to the listeners on a small pool of threads, then
+ * deleted from the queue with a single batch request. Polling backs off
+ * exponentially while requests to the queue are failing.
+ *
  * @author Daniel Bernstein
  */
 public class SnsSubscriptionManager {
     private Logger log = LoggerFactory.getLogger(SnsSubscriptionManager.class);
 
+    protected static final int MAX_MESSAGES_PER_RECEIVE = 10;
+    protected static final int RECEIVE_WAIT_TIME_SECONDS = 20;
+    protected static final long MIN_BACKOFF_MILLIS = 1000;
+    protected static final long MAX_BACKOFF_MILLIS = 60000;
+    private static final int DISPATCH_THREADS = 4;
+
     private AmazonSQS sqsClient;
     private AmazonSNS snsClient;
     private String topicArn;
     private String queueName;
     private String queueUrl;
     private String subscriptionArn;
-    private boolean initialized = false;
+    private volatile boolean initialized = false;
     private List<MessageListener> messageListeners = new ArrayList<>();
+    private ExecutorService dispatchExecutor;
+    private Thread pollingThread;
 
     public SnsSubscriptionManager(AmazonSQS sqsClient,
                                   AmazonSNS snsClient,
@@ -131,27 +153,103 @@ public class SnsSubscriptionManager {
     }
 
     private void startPolling() {
-        new Thread(new Runnable() {
-            @Override
-            public void run() {
-                while (initialized) {
-                    try {
-                        ReceiveMessageResult result = sqsClient.receiveMessage(queueUrl);
-                        List<Message> messages = result.getMessages();
-                        for (Message message : messages) {
-                            dispatch(message);
-                            log.debug("{} dispatched", message);
-                            sqsClient.deleteMessage(queueUrl, message.getReceiptHandle());
-                            log.debug("{} deleted", message);
-                        }
-
-                    } catch (Exception ex) {
-                        log.warn("failed to poll queue: " + ex.getMessage(), ex);
-                    }
+        AtomicInteger threadCount = new AtomicInteger();
+        dispatchExecutor = Executors.newFixedThreadPool(DISPATCH_THREADS, runnable -> {
+            Thread thread = new Thread(runnable,
+                                       "sqs-message-dispatcher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pollingThread = new Thread(this::poll, "sqs-long-poller");
+        pollingThread.start();
+    }
+
+    /**
+     * Stops polling the queue. Messages which are being dispatched are left to
+     * complete.
+     */
+    protected void stopPolling() {
+        this.initialized = false;
+        if (null != pollingThread) {
+            pollingThread.interrupt();
+        }
+        if (null != dispatchExecutor) {
+            dispatchExecutor.shutdown();
+        }
+    }
+
+    private void poll() {
+        long backoffMillis = 0;
+        while (initialized) {
+            try {
+                ReceiveMessageRequest request =
+                    new ReceiveMessageRequest(queueUrl)
+                        .withMaxNumberOfMessages(MAX_MESSAGES_PER_RECEIVE)
+                        .withWaitTimeSeconds(RECEIVE_WAIT_TIME_SECONDS);
+                List<Message> messages = sqsClient.receiveMessage(request).getMessages();
+                if (!messages.isEmpty()) {
+                    dispatchAll(messages);
+                    delete(messages);
+                }
+                backoffMillis = 0;
+            } catch (InterruptedException ex) {
+                log.debug("polling interrupted");
+                return;
+            } catch (Exception ex) {
+                if (!initialized) {
+                    return;
+                }
+                backoffMillis = (0 == backoffMillis) ? MIN_BACKOFF_MILLIS :
+                                Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+                log.warn("failed to poll queue, retrying in " + backoffMillis +
+                         " ms: " + ex.getMessage(), ex);
+                try {
+                    backOff(backoffMillis);
+                } catch (InterruptedException e) {
+                    log.debug("polling interrupted");
+                    return;
                 }
             }
+        }
+    }
 
-        }, "sqs-long-poller").start();
+    /**
+     * Waits before the queue is polled again following an error
+     */
+    protected void backOff(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    /*
+     * Waits for all messages to be dispatched, so that messages are only
+     * deleted once they have been handled
+     */
+    private void dispatchAll(List<Message> messages) throws InterruptedException {
+        List<Callable<Void>> tasks = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            tasks.add(() -> {
+                dispatch(message);
+                log.debug("{} dispatched", message);
+                return null;
+            });
+        }
+        dispatchExecutor.invokeAll(tasks);
+    }
+
+    private void delete(List<Message> messages) {
+        List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            entries.add(new DeleteMessageBatchRequestEntry(String.valueOf(i),
+                                                           messages.get(i).getReceiptHandle()));
+        }
+        DeleteMessageBatchResult result = sqsClient.deleteMessageBatch(queueUrl, entries);
+        log.debug("{} messages deleted", result.getSuccessful().size());
+        result.getFailed().forEach(failure -> {
+            // The message will be received (and dispatched) again
+            log.warn("failed to delete message {}: {}",
+                     messages.get(Integer.parseInt(failure.getId())),
+                     failure.getMessage());
+        });
     }
 
     private void dispatch(Message message) {
@@ -176,13 +274,13 @@ public class SnsSubscriptionManager {
         }
 
         log.info("disconnecting");
+        stopPolling();
         log.info("unsubscribing {}", this.subscriptionArn);
         this.snsClient.unsubscribe(this.subscriptionArn);
         log.info("unsubscribed {}", this.subscriptionArn);
         log.info("deleting queue {}", this.subscriptionArn);
         this.sqsClient.deleteQueue(this.queueUrl);
         log.info("deleted queue {}", this.subscriptionArn);
-        this.initialized = false;
         //Redeploys will fail due to amazon sqs requirement to wait
         //60 seconds before recreating a queue exit without waiting.
         WaitUtil.wait(60);
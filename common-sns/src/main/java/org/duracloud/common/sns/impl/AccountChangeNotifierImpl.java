@@ -76,6 +76,18 @@ public class AccountChangeNotifierImpl implements AccountChangeNotifier {
                 accountId);
     }
 
+    @Override
+    public void storageCredentialsChanged(String accountId) {
+        publish(EventType.STORAGE_CREDENTIALS_CHANGED,
+                accountId);
+    }
+
+    @Override
+    public void streamingChanged(String accountId) {
+        publish(EventType.STREAMING_CHANGED,
+                accountId);
+    }
+
     @Override
     public void userStoreChanged(String accountId) {
         publish(EventType.USERS_CHANGED,
@@ -84,7 +96,7 @@ public class AccountChangeNotifierImpl implements AccountChangeNotifier {
 
     @Override
     public void rootUsersChanged() {
-        publish(EventType.ALL_ACCOUNTS_CHANGED, null);
+        publish(EventType.ROOT_USERS_CHANGED, null);
     }
 
     @Override
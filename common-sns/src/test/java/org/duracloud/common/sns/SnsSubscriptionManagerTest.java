@@ -0,0 +1,233 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.sns;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.sns.AmazonSNS;
+import com.amazonaws.services.sns.model.SubscribeResult;
+import com.amazonaws.services.sqs.AbstractAmazonSQS;
+import com.amazonaws.services.sqs.model.CreateQueueRequest;
+import com.amazonaws.services.sqs.model.CreateQueueResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.GetQueueAttributesResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.amazonaws.services.sqs.model.SetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.SetQueueAttributesResult;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the polling of the subscription queue, using an in-memory queue in
+ * place of SQS
+ */
+public class SnsSubscriptionManagerTest {
+
+    private static final String TOPIC_ARN = "topic-arn";
+    private static final String QUEUE_ARN = "queue-arn";
+    private static final long WAIT_SECONDS = 10;
+
+    private FakeSqs sqs;
+    private AmazonSNS sns;
+    private TestSubscriptionManager manager;
+
+    @Before
+    public void setUp() {
+        sqs = new FakeSqs();
+        sns = EasyMock.createMock(AmazonSNS.class);
+        EasyMock.expect(sns.subscribe(TOPIC_ARN, "sqs", QUEUE_ARN))
+                .andReturn(new SubscribeResult().withSubscriptionArn("subscription-arn"));
+        EasyMock.replay(sns);
+        manager = new TestSubscriptionManager(sqs, sns);
+    }
+
+    @After
+    public void tearDown() {
+        manager.stopPolling();
+        EasyMock.verify(sns);
+    }
+
+    @Test
+    public void testBatchedReceiveAndDelete() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            sqs.send("message-" + i);
+        }
+
+        CountDownLatch dispatched = new CountDownLatch(25);
+        Set<String> listenerThreads = Collections.synchronizedSet(new HashSet<>());
+        manager.addListener(message -> {
+            listenerThreads.add(Thread.currentThread().getName());
+            dispatched.countDown();
+        });
+        manager.connect();
+
+        assertTrue(dispatched.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(sqs.awaitDeleted(25));
+
+        // Received and deleted in batches of up to 10
+        assertEquals(Arrays.asList(10, 10, 5), sqs.deleteBatchSizes);
+        for (ReceiveMessageRequest request : sqs.receiveRequests) {
+            assertEquals(Integer.valueOf(SnsSubscriptionManager.MAX_MESSAGES_PER_RECEIVE),
+                         request.getMaxNumberOfMessages());
+            assertEquals(Integer.valueOf(SnsSubscriptionManager.RECEIVE_WAIT_TIME_SECONDS),
+                         request.getWaitTimeSeconds());
+        }
+        assertEquals(25, new HashSet<>(sqs.deletedReceiptHandles).size());
+
+        // Listeners are not called on the polling thread
+        assertFalse(listenerThreads.contains("sqs-long-poller"));
+    }
+
+    @Test
+    public void testMessageDeletedAfterListenerFailure() throws Exception {
+        sqs.send("message");
+        manager.addListener(message -> {
+            throw new RuntimeException("listener failure");
+        });
+        manager.connect();
+
+        assertTrue(sqs.awaitDeleted(1));
+    }
+
+    @Test
+    public void testBackOffOnErrors() throws Exception {
+        sqs.failures.set(8);
+        sqs.send("message");
+        CountDownLatch dispatched = new CountDownLatch(1);
+        manager.addListener(message -> dispatched.countDown());
+        manager.connect();
+
+        assertTrue(dispatched.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(1000L, 2000L, 4000L, 8000L, 16000L,
+                                   32000L, 60000L, 60000L),
+                     manager.backOffs);
+
+        // The backoff starts over once the queue is polled successfully
+        sqs.failures.set(1);
+        long end = System.currentTimeMillis() + WAIT_SECONDS * 1000;
+        while (manager.backOffs.size() < 9 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertEquals(9, manager.backOffs.size());
+        assertEquals(Long.valueOf(SnsSubscriptionManager.MIN_BACKOFF_MILLIS),
+                     manager.backOffs.get(8));
+    }
+
+    /**
+     * Records backoff times rather than waiting
+     */
+    private static class TestSubscriptionManager extends SnsSubscriptionManager {
+        private final List<Long> backOffs = new CopyOnWriteArrayList<>();
+
+        TestSubscriptionManager(FakeSqs sqs, AmazonSNS sns) {
+            super(sqs, sns, TOPIC_ARN, "queue");
+        }
+
+        @Override
+        protected void backOff(long millis) {
+            backOffs.add(millis);
+        }
+    }
+
+    /**
+     * Queue held in memory
+     */
+    private static class FakeSqs extends AbstractAmazonSQS {
+        private final BlockingQueue<Message> queue = new LinkedBlockingQueue<>();
+        private final AtomicInteger messageCount = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final List<ReceiveMessageRequest> receiveRequests = new CopyOnWriteArrayList<>();
+        private final List<Integer> deleteBatchSizes = new CopyOnWriteArrayList<>();
+        private final List<String> deletedReceiptHandles = new CopyOnWriteArrayList<>();
+
+        void send(String body) {
+            queue.add(new Message().withBody(body)
+                                   .withReceiptHandle("receipt-" + messageCount.incrementAndGet()));
+        }
+
+        boolean awaitDeleted(int count) throws InterruptedException {
+            long end = System.currentTimeMillis() + WAIT_SECONDS * 1000;
+            while (deletedReceiptHandles.size() < count && System.currentTimeMillis() < end) {
+                Thread.sleep(10);
+            }
+            return deletedReceiptHandles.size() == count;
+        }
+
+        @Override
+        public CreateQueueResult createQueue(CreateQueueRequest request) {
+            return new CreateQueueResult().withQueueUrl("queue-url");
+        }
+
+        @Override
+        public GetQueueAttributesResult getQueueAttributes(String queueUrl,
+                                                           List<String> attributeNames) {
+            return new GetQueueAttributesResult().addAttributesEntry("QueueArn", QUEUE_ARN);
+        }
+
+        @Override
+        public SetQueueAttributesResult setQueueAttributes(SetQueueAttributesRequest request) {
+            return new SetQueueAttributesResult();
+        }
+
+        @Override
+        public ReceiveMessageResult receiveMessage(ReceiveMessageRequest request) {
+            if (failures.getAndUpdate(f -> Math.max(f - 1, 0)) > 0) {
+                throw new AmazonServiceException("receive failure");
+            }
+            receiveRequests.add(request);
+
+            List<Message> messages = new ArrayList<>();
+            try {
+                // Waits briefly for a message, in place of a long poll
+                Message message = queue.poll(10, TimeUnit.MILLISECONDS);
+                if (null != message) {
+                    messages.add(message);
+                    queue.drainTo(messages, request.getMaxNumberOfMessages() - 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ReceiveMessageResult().withMessages(messages);
+        }
+
+        @Override
+        public DeleteMessageBatchResult deleteMessageBatch(String queueUrl,
+                                                           List<DeleteMessageBatchRequestEntry> entries) {
+            deleteBatchSizes.add(entries.size());
+            List<DeleteMessageBatchResultEntry> successful = new ArrayList<>();
+            for (DeleteMessageBatchRequestEntry entry : entries) {
+                deletedReceiptHandles.add(entry.getReceiptHandle());
+                successful.add(new DeleteMessageBatchResultEntry().withId(entry.getId()));
+            }
+            return new DeleteMessageBatchResult().withSuccessful(successful);
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies which may be recorded from any number of threads
+ * without locking.
+ *
+ * Latencies are kept in microseconds, in a fixed set of buckets: every power
+ * of two is split into 32 linear sub-buckets, so a value read back from the
+ * histogram is within about 3% of the value which was recorded. Latencies
+ * above MAX_MICROS (about 12 days) are counted in the highest bucket. The
+ * memory used by a histogram does not grow with the number of values
+ * recorded.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+
+    protected static final long MAX_MICROS = (1L << (MAX_EXPONENT + 1)) - 1;
+    protected static final int BUCKETS =
+        (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a single latency.
+     *
+     * @param elapsedNanos latency in nanoseconds, negative values count as 0
+     */
+    public void record(long elapsedNanos) {
+        long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), 0),
+                               MAX_MICROS);
+        buckets.incrementAndGet(getBucket(micros));
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Clears all recorded values. Values recorded while the reset is under
+     * way may or may not be kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalMicros.reset();
+        maxMicros.reset();
+    }
+
+    /**
+     * Captures the current state of the histogram. Values recorded while the
+     * snapshot is being taken may or may not be included.
+     *
+     * @param name of the snapshot
+     * @param errorCount number of the recorded operations which failed
+     */
+    public LatencySnapshot snapshot(String name, long errorCount) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        long max = maxMicros.get();
+        double mean = total == 0 ? 0 : (double) totalMicros.sum() / count.sum();
+
+        return new LatencySnapshot(name,
+                                   total,
+                                   errorCount,
+                                   toMillis(mean),
+                                   toMillis(getValueAtPercentile(counts, total, 50, max)),
+                                   toMillis(getValueAtPercentile(counts, total, 90, max)),
+                                   toMillis(getValueAtPercentile(counts, total, 99, max)),
+                                   toMillis(getValueAtPercentile(counts, total, 99.9, max)),
+                                   toMillis(max));
+    }
+
+    /**
+     * @return the highest value in the bucket which holds the given
+     * percentile of all values, but no more than the largest value recorded
+     */
+    private long getValueAtPercentile(long[] counts,
+                                      long total,
+                                      double percentile,
+                                      long max) {
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max((long) Math.ceil(total * percentile / 100), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(getHighestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    protected static int getBucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (micros >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    protected static long getHighestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = SUB_BUCKETS + bucket % SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private double toMillis(double micros) {
+        return micros / 1000;
+    }
+
+}
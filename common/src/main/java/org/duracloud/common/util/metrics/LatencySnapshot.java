@@ -0,0 +1,95 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Point in time view of the latencies recorded for a single operation.
+ * All latencies are in milliseconds.
+ */
+public class LatencySnapshot {
+
+    private final String name;
+    private final long count;
+    private final long errorCount;
+    private final double meanMillis;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+    private final double p999Millis;
+    private final double maxMillis;
+
+    @ConstructorProperties({"name", "count", "errorCount", "meanMillis",
+                            "p50Millis", "p90Millis", "p99Millis",
+                            "p999Millis", "maxMillis"})
+    public LatencySnapshot(String name,
+                           long count,
+                           long errorCount,
+                           double meanMillis,
+                           double p50Millis,
+                           double p90Millis,
+                           double p99Millis,
+                           double p999Millis,
+                           double maxMillis) {
+        this.name = name;
+        this.count = count;
+        this.errorCount = errorCount;
+        this.meanMillis = meanMillis;
+        this.p50Millis = p50Millis;
+        this.p90Millis = p90Millis;
+        this.p99Millis = p99Millis;
+        this.p999Millis = p999Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP90Millis() {
+        return p90Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getP999Millis() {
+        return p999Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d, errors=%d, mean=%.3fms, p50=%.3fms, " +
+                             "p90=%.3fms, p99=%.3fms, p99.9=%.3fms, max=%.3fms",
+                             name, count, errorCount, meanMillis, p50Millis,
+                             p90Millis, p99Millis, p999Millis, maxMillis);
+    }
+
+}
@@ -20,8 +20,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * This class writes the contents of a MetricsTable to the provided
- * metricsFileName.
+ * This class writes the contents of a MetricsTable, or the latencies collected
+ * by an OperationMetrics, to the provided metricsFileName.
  *
  * @author Andrew Woods
  */
@@ -54,6 +54,34 @@ public class MetricsReport {
         formatter.close();
     }
 
+    public void writeReport(OperationMetrics metrics) {
+        writeProlog();
+
+        String text = "Latencies of: " + metrics.getName();
+        formatter.format("%n%n%s", text);
+        int width = this.LINE_WIDTH - text.length();
+        formatter.format("%1$" + width + "s%n", "millis");
+        separator('-');
+        formatter.format("%-24s%8s%8s%8s%8s%8s%8s%8s%n", "operation", "count",
+                         "errors", "mean", "p50", "p90", "p99", "max");
+        separator('-');
+        for (LatencySnapshot snapshot : metrics.getSnapshots()) {
+            formatter.format("%-24.24s%8d%8d%8.1f%8.1f%8.1f%8.1f%8.1f%n",
+                             snapshot.getName(),
+                             snapshot.getCount(),
+                             snapshot.getErrorCount(),
+                             snapshot.getMeanMillis(),
+                             snapshot.getP50Millis(),
+                             snapshot.getP90Millis(),
+                             snapshot.getP99Millis(),
+                             snapshot.getMaxMillis());
+        }
+        separator('-');
+
+        formatter.flush();
+        formatter.close();
+    }
+
     private void writeMetrics(MetricsTable table, int level) {
         Iterator<Metric> metrics = table.getMetrics();
         while (metrics.hasNext()) {
@@ -0,0 +1,154 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects latency histograms and error counts for each of the operations of
+ * a single component (such as a storage provider). Operations may be recorded
+ * from any number of threads without locking.
+ *
+ * The number of operations tracked is limited to MAX_OPERATIONS, any further
+ * operations are counted together under OTHER_OPERATION, so memory use stays
+ * bounded even if operation names are not.
+ *
+ * The collected values can be viewed over JMX once the metrics have been
+ * registered, or written out with a MetricsReport.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(OperationMetrics.class);
+
+    public static final String OTHER_OPERATION = "other";
+
+    protected static final int MAX_OPERATIONS = 128;
+
+    private static final String JMX_DOMAIN = "org.duracloud";
+
+    private final String name;
+    private final Map<String, OperationRecorder> recorders =
+        new ConcurrentHashMap<>();
+    private ObjectName objectName;
+
+    public OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a single call to an operation.
+     *
+     * @param operation    name of the operation
+     * @param elapsedNanos time taken by the call
+     * @param failed       true if the call ended with an error
+     */
+    public void record(String operation, long elapsedNanos, boolean failed) {
+        OperationRecorder recorder = getRecorder(operation);
+        recorder.histogram.record(elapsedNanos);
+        if (failed) {
+            recorder.errors.increment();
+        }
+    }
+
+    private OperationRecorder getRecorder(String operation) {
+        OperationRecorder recorder = recorders.get(operation);
+        if (null == recorder) {
+            if (recorders.size() >= MAX_OPERATIONS) {
+                operation = OTHER_OPERATION;
+            }
+            recorder = recorders.computeIfAbsent(operation,
+                                                 op -> new OperationRecorder());
+        }
+        return recorder;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return a snapshot of each operation which has been recorded, ordered
+     * by operation name
+     */
+    @Override
+    public List<LatencySnapshot> getSnapshots() {
+        List<LatencySnapshot> snapshots = new ArrayList<>();
+        recorders.forEach((operation, recorder) -> snapshots.add(
+            recorder.histogram.snapshot(operation, recorder.errors.sum())));
+        snapshots.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return snapshots;
+    }
+
+    @Override
+    public void reset() {
+        recorders.clear();
+    }
+
+    /**
+     * Makes these metrics available over JMX in the platform MBean server.
+     * A failure to register is logged rather than thrown, as metrics are not
+     * essential to the caller.
+     */
+    public synchronized void register() {
+        if (null != objectName) {
+            return;
+        }
+        try {
+            ObjectName newName =
+                new ObjectName(JMX_DOMAIN + ":type=OperationMetrics,name=" +
+                               ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(newName)) {
+                server.unregisterMBean(newName);
+            }
+            server.registerMBean(this, newName);
+            objectName = newName;
+        } catch (JMException e) {
+            log.warn("Unable to register operation metrics " + name +
+                     " due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes these metrics from JMX, if they have been registered.
+     */
+    public synchronized void unregister() {
+        if (null == objectName) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Unable to unregister operation metrics " + name +
+                     " due to: " + e.getMessage());
+        }
+        objectName = null;
+    }
+
+    private static class OperationRecorder {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+
+}
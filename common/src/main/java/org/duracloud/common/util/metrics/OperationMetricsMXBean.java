@@ -0,0 +1,23 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.metrics;
+
+import java.util.List;
+
+/**
+ * JMX view of the latencies collected by an OperationMetrics.
+ */
+public interface OperationMetricsMXBean {
+
+    public String getName();
+
+    public List<LatencySnapshot> getSnapshots();
+
+    public void reset();
+
+}
@@ -0,0 +1,95 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        // Every value falls in a bucket whose highest value is within 1/32
+        for (long micros = 0; micros < 1000000; micros += 7) {
+            int bucket = LatencyHistogram.getBucket(micros);
+            long highest = LatencyHistogram.getHighestValue(bucket);
+            assertTrue(micros <= highest);
+            assertTrue(highest - micros <= Math.max(micros / 32, 0) + 1);
+            assertEquals(bucket, LatencyHistogram.getBucket(highest));
+        }
+
+        int last = LatencyHistogram.getBucket(LatencyHistogram.MAX_MICROS);
+        assertEquals(LatencyHistogram.BUCKETS - 1, last);
+        assertEquals(LatencyHistogram.MAX_MICROS,
+                     LatencyHistogram.getHighestValue(last));
+    }
+
+    @Test
+    public void testSnapshot() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        LatencySnapshot empty = histogram.snapshot("empty", 0);
+        assertEquals(0, empty.getCount());
+        assertEquals(0, empty.getP99Millis(), 0);
+
+        // 1ms to 1000ms
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        // Out of range values are kept within range
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+
+        LatencySnapshot snapshot = histogram.snapshot("op", 3);
+        assertEquals("op", snapshot.getName());
+        assertEquals(1002, snapshot.getCount());
+        assertEquals(3, snapshot.getErrorCount());
+        assertEquals(500, snapshot.getP50Millis(), 500 / 32.0);
+        assertEquals(900, snapshot.getP90Millis(), 900 / 32.0);
+        assertEquals(990, snapshot.getP99Millis(), 990 / 32.0);
+        assertEquals(LatencyHistogram.MAX_MICROS / 1000.0,
+                     snapshot.getMaxMillis(), 0.001);
+        assertTrue(snapshot.getMeanMillis() > 500);
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.snapshot("op", 0).getMaxMillis(), 0);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final int threads = 8;
+        final int values = 100000;
+
+        List<Thread> recorders = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < values; i++) {
+                    histogram.record(TimeUnit.MICROSECONDS.toNanos(i % 100));
+                }
+            });
+            recorders.add(thread);
+            thread.start();
+        }
+        for (Thread thread : recorders) {
+            thread.join();
+        }
+
+        LatencySnapshot snapshot = histogram.snapshot("op", 0);
+        assertEquals(threads * values, snapshot.getCount());
+        assertEquals(threads * values, histogram.getCount());
+        assertEquals(0.099, snapshot.getMaxMillis(), 0.0001);
+    }
+
+}
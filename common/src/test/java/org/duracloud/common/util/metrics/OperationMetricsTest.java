@@ -0,0 +1,114 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+public class OperationMetricsTest {
+
+    @Test
+    public void testRecord() {
+        OperationMetrics metrics = new OperationMetrics("provider");
+        metrics.record("getContent", TimeUnit.MILLISECONDS.toNanos(5), false);
+        metrics.record("getContent", TimeUnit.MILLISECONDS.toNanos(7), true);
+        metrics.record("addContent", TimeUnit.MILLISECONDS.toNanos(9), false);
+
+        List<LatencySnapshot> snapshots = metrics.getSnapshots();
+        assertEquals(2, snapshots.size());
+
+        LatencySnapshot add = snapshots.get(0);
+        assertEquals("addContent", add.getName());
+        assertEquals(1, add.getCount());
+        assertEquals(0, add.getErrorCount());
+
+        LatencySnapshot get = snapshots.get(1);
+        assertEquals("getContent", get.getName());
+        assertEquals(2, get.getCount());
+        assertEquals(1, get.getErrorCount());
+        assertEquals(6, get.getMeanMillis(), 0.01);
+        assertEquals(7, get.getMaxMillis(), 0.01);
+
+        metrics.reset();
+        assertTrue(metrics.getSnapshots().isEmpty());
+    }
+
+    @Test
+    public void testOperationLimit() {
+        OperationMetrics metrics = new OperationMetrics("provider");
+        int operations = OperationMetrics.MAX_OPERATIONS + 10;
+        for (int i = 0; i < operations; i++) {
+            metrics.record("op-" + i, 1000, false);
+        }
+
+        List<LatencySnapshot> snapshots = metrics.getSnapshots();
+        assertEquals(OperationMetrics.MAX_OPERATIONS + 1, snapshots.size());
+        LatencySnapshot other = null;
+        for (LatencySnapshot snapshot : snapshots) {
+            if (OperationMetrics.OTHER_OPERATION.equals(snapshot.getName())) {
+                other = snapshot;
+            }
+        }
+        assertEquals(10, other.getCount());
+    }
+
+    @Test
+    public void testRegister() throws Exception {
+        OperationMetrics metrics = new OperationMetrics("test, provider");
+        metrics.record("getSpaces", 1000, false);
+        metrics.register();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(
+                "org.duracloud:type=OperationMetrics,name=" +
+                ObjectName.quote("test, provider"));
+            assertTrue(server.isRegistered(name));
+
+            CompositeData[] snapshots =
+                (CompositeData[]) server.getAttribute(name, "Snapshots");
+            assertEquals(1, snapshots.length);
+            assertEquals("getSpaces", snapshots[0].get("name"));
+            assertEquals(1L, snapshots[0].get("count"));
+
+            metrics.unregister();
+            assertFalse(server.isRegistered(name));
+        } finally {
+            metrics.unregister();
+        }
+    }
+
+    @Test
+    public void testReport() throws Exception {
+        OperationMetrics metrics = new OperationMetrics("provider");
+        metrics.record("getContent", TimeUnit.MILLISECONDS.toNanos(5), false);
+
+        File reportFile = File.createTempFile("operation-metrics", ".txt");
+        try {
+            new MetricsReport("test", reportFile.getAbsolutePath())
+                .writeReport(metrics);
+            String report = FileUtils.readFileToString(reportFile, "UTF-8");
+            assertTrue(report, report.contains("Latencies of: provider"));
+            assertTrue(report, report.contains("getContent"));
+        } finally {
+            reportFile.delete();
+        }
+    }
+
+}
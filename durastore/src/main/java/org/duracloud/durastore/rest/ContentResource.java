@@ -11,6 +11,7 @@ import java.io.InputStream;
 import java.util.Map;
 
 import org.duracloud.durastore.error.ResourceException;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.error.InvalidIdException;
 
 /**
@@ -22,6 +23,11 @@ public interface ContentResource {
     InputStream getContent(String spaceID, String contentID, String storeID)
         throws ResourceException;
 
+    RetrievedContent getContentWithProperties(String spaceID,
+                                              String contentID,
+                                              String storeID)
+        throws ResourceException;
+
     Map<String, String> getContentProperties(String spaceID,
                                              String contentID,
                                              String storeID)
@@ -14,6 +14,8 @@ import org.duracloud.durastore.error.ResourceChecksumException;
 import org.duracloud.durastore.error.ResourceException;
 import org.duracloud.durastore.error.ResourceNotFoundException;
 import org.duracloud.durastore.error.ResourceStateException;
+import org.duracloud.durastore.util.ParallelContentCopier;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.error.ChecksumMismatchException;
 import org.duracloud.storage.error.InvalidIdException;
 import org.duracloud.storage.error.NotFoundException;
@@ -36,9 +38,16 @@ public class ContentResourceImpl implements ContentResource {
     private static final Logger log = LoggerFactory.getLogger(ContentResource.class);
 
     private StorageProviderFactory storageProviderFactory;
+    private ParallelContentCopier contentCopier;
 
     public ContentResourceImpl(StorageProviderFactory storageProviderFactory) {
+        this(storageProviderFactory, new ParallelContentCopier());
+    }
+
+    public ContentResourceImpl(StorageProviderFactory storageProviderFactory,
+                               ParallelContentCopier contentCopier) {
         this.storageProviderFactory = storageProviderFactory;
+        this.contentCopier = contentCopier;
     }
 
     /**
@@ -68,7 +77,39 @@ public class ContentResourceImpl implements ContentResource {
                                              contentID,
                                              e);
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(storeID);
+            storageProviderFactory.expireStorageProvider(storeID, e);
+            throw new ResourceException("get content", spaceID, contentID, e);
+        }
+    }
+
+    /**
+     * Retrieves content from a space along with the properties of that content.
+     *
+     * @param spaceID
+     * @param contentID
+     * @return content stream and content properties
+     */
+    @Override
+    public RetrievedContent getContentWithProperties(String spaceID,
+                                                     String contentID,
+                                                     String storeID)
+        throws ResourceException {
+        try {
+            StorageProvider storage =
+                storageProviderFactory.getStorageProvider(storeID);
+            return storage.getContentWithProperties(spaceID, contentID);
+        } catch (NotFoundException e) {
+            throw new ResourceNotFoundException("get content",
+                                                spaceID,
+                                                contentID,
+                                                e);
+        } catch (StorageStateException e) {
+            throw new ResourceStateException("get content",
+                                             spaceID,
+                                             contentID,
+                                             e);
+        } catch (Exception e) {
+            storageProviderFactory.expireStorageProvider(storeID, e);
             throw new ResourceException("get content", spaceID, contentID, e);
         }
     }
@@ -95,7 +136,7 @@ public class ContentResourceImpl implements ContentResource {
                                                 contentID,
                                                 e);
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(storeID);
+            storageProviderFactory.expireStorageProvider(storeID, e);
             throw new ResourceException("get properties for content",
                                         spaceID,
                                         contentID,
@@ -134,7 +175,7 @@ public class ContentResourceImpl implements ContentResource {
                                              contentID,
                                              e);
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(storeID);
+            storageProviderFactory.expireStorageProvider(storeID, e);
             throw new ResourceException("update properties for content",
                                         spaceID,
                                         contentID,
@@ -206,7 +247,7 @@ public class ContentResourceImpl implements ContentResource {
                                                 contentID,
                                                 e);
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(storeID);
+            storageProviderFactory.expireStorageProvider(storeID, e);
             throw new ResourceException("add content", spaceID, contentID, e);
         }
     }
@@ -267,9 +308,7 @@ public class ContentResourceImpl implements ContentResource {
                                                       String destSpaceID,
                                                       String destContentID,
                                                       String destStoreID) throws ResourceException {
-        try (InputStream inputStream =
-                 srcStorage.getContent(srcSpaceID, srcContentID)) {
-
+        try {
             Map<String, String> properties =
                 srcStorage.getContentProperties(srcSpaceID, srcContentID);
 
@@ -285,16 +324,34 @@ public class ContentResourceImpl implements ContentResource {
                 log.warn(msg, ex);
             }
 
-            String md5 =
-                destStorage.addContent(destSpaceID,
-                                       destContentID,
-                                       properties.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE),
-                                       properties,
-                                       contentSize,
-                                       properties.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM),
-                                       inputStream);
+            String checksum = properties.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM);
+
+            // Items spanning more than one part are copied in parallel ranges,
+            // provided the source can serve ranges without reading from the start
+            if (null != contentSize && null != checksum &&
+                contentSize > contentCopier.getPartSize() &&
+                srcStorage.supportsRangeRetrieval()) {
+                return contentCopier.copy(srcStorage,
+                                          srcStoreID,
+                                          srcSpaceID,
+                                          srcContentID,
+                                          destStorage,
+                                          destStoreID,
+                                          destSpaceID,
+                                          destContentID,
+                                          properties);
+            }
 
-            return md5;
+            try (InputStream inputStream =
+                     srcStorage.getContent(srcSpaceID, srcContentID)) {
+                return destStorage.addContent(destSpaceID,
+                                              destContentID,
+                                              properties.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE),
+                                              properties,
+                                              contentSize,
+                                              checksum,
+                                              inputStream);
+            }
         } catch (NotFoundException e) {
             throw new ResourceNotFoundException("copy content",
                                                 srcStorage.getTargetType().name(),
@@ -314,8 +371,8 @@ public class ContentResourceImpl implements ContentResource {
                                              destContentID,
                                              e);
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(srcStoreID);
-            storageProviderFactory.expireStorageProvider(destStoreID);
+            storageProviderFactory.expireStorageProvider(srcStoreID, e);
+            storageProviderFactory.expireStorageProvider(destStoreID, e);
             throw new ResourceException("copy content",
                                         srcStorage.getTargetType().name(),
                                         srcSpaceID,
@@ -355,7 +412,7 @@ public class ContentResourceImpl implements ContentResource {
                                              destContentID,
                                              e);
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(storeID);
+            storageProviderFactory.expireStorageProvider(storeID, e);
             throw new ResourceException("copy content",
                                         srcSpaceID,
                                         srcContentID,
@@ -386,7 +443,7 @@ public class ContentResourceImpl implements ContentResource {
                                                 contentID,
                                                 e);
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(storeID);
+            storageProviderFactory.expireStorageProvider(storeID, e);
             throw new ResourceException("delete content", spaceID, contentID, e);
         }
     }
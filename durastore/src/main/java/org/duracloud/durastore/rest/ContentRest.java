@@ -42,6 +42,7 @@ import org.duracloud.durastore.error.ResourceChecksumException;
 import org.duracloud.durastore.error.ResourceException;
 import org.duracloud.durastore.error.ResourceNotFoundException;
 import org.duracloud.durastore.error.ResourceStateException;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.error.InvalidIdException;
 import org.duracloud.storage.error.InvalidRequestException;
 import org.duracloud.storage.provider.StorageProvider;
@@ -71,8 +72,7 @@ public class ContentRest extends BaseRest {
     }
 
     /**
-     * see ContentResource.getContent()
-     * see ContentResource.getContentProperties()
+     * see ContentResource.getContentWithProperties()
      *
      * @return 200 response with content stream as body and content properties as headers
      */
@@ -113,10 +113,10 @@ public class ContentRest extends BaseRest {
                                   String contentID,
                                   String storeID,
                                   boolean attachment) throws ResourceException {
-        Map<String, String> properties =
-            contentResource.getContentProperties(spaceID, contentID, storeID);
+        RetrievedContent retrievedContent =
+            contentResource.getContentWithProperties(spaceID, contentID, storeID);
         InputStream content =
-            new AutoCloseInputStream(contentResource.getContent(spaceID, contentID, storeID));
+            new AutoCloseInputStream(retrievedContent.getContentStream());
 
         ResponseBuilder responseBuilder = Response.ok(content);
 
@@ -124,7 +124,7 @@ public class ContentRest extends BaseRest {
             addContentDispositionHeader(responseBuilder, contentID);
         }
         return addContentPropertiesToResponse(responseBuilder,
-                                              properties);
+                                              retrievedContent.getContentProperties());
     }
 
     private void addContentDispositionHeader(ResponseBuilder responseBuilder,
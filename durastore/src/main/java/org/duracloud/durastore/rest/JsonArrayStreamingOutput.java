@@ -0,0 +1,52 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import javax.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes the items of an iterator to a response body as a JSON array, one
+ * item at a time, so that neither the full list of items nor the full JSON
+ * document needs to be held in memory. Items are written with Jackson's
+ * default bean mapping, which matches the JSON produced for a List response
+ * entity.
+ */
+public class JsonArrayStreamingOutput<T> implements StreamingOutput {
+
+    // The response stream is closed by the container, and flushed as the
+    // generator's buffer fills rather than after each item
+    private static final ObjectWriter WRITER =
+        new ObjectMapper().writer()
+                          .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                          .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private Iterator<T> items;
+
+    public JsonArrayStreamingOutput(Iterator<T> items) {
+        this.items = items;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        try (SequenceWriter writer = WRITER.writeValuesAsArray(output)) {
+            while (items.hasNext()) {
+                writer.write(items.next());
+            }
+        }
+    }
+
+}
@@ -65,7 +65,7 @@ public class SpaceResource {
                 spacesElem.addContent(spaceElem);
             }
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(storeID);
+            storageProviderFactory.expireStorageProvider(storeID, e);
             throw new ResourceException("Error attempting to build spaces XML",
                                         e);
         }
@@ -89,7 +89,7 @@ public class SpaceResource {
         } catch (NotFoundException e) {
             throw new ResourceNotFoundException("retrieve space properties for", spaceID, e);
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(storeID);
+            storageProviderFactory.expireStorageProvider(storeID, e);
             throw new ResourceException("retrieve space properties for", spaceID, e);
         }
     }
@@ -108,7 +108,7 @@ public class SpaceResource {
         } catch (NotFoundException e) {
             throw new ResourceNotFoundException("retrieve space ACLs for", spaceID, e);
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(storeID);
+            storageProviderFactory.expireStorageProvider(storeID, e);
             throw new ResourceException("retrieve space ACLs for", spaceID, e);
         }
     }
@@ -148,7 +148,7 @@ public class SpaceResource {
         } catch (NotFoundException e) {
             throw new ResourceNotFoundException("build space XML for", spaceID, e);
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(storeID);
+            storageProviderFactory.expireStorageProvider(storeID, e);
             throw new ResourceException("build space XML for", spaceID, e);
         }
 
@@ -176,7 +176,7 @@ public class SpaceResource {
         } catch (NotFoundException e) {
             throw new InvalidIdException(e.getMessage());
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(storeID);
+            storageProviderFactory.expireStorageProvider(storeID, e);
             throw new ResourceException("add space", spaceID, e);
         }
     }
@@ -231,7 +231,7 @@ public class SpaceResource {
         } catch (NotFoundException e) {
             throw new ResourceNotFoundException("update space ACLs for", spaceID, e);
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(storeID);
+            storageProviderFactory.expireStorageProvider(storeID, e);
             throw new ResourceException("update space ACLs for", spaceID, e);
         }
     }
@@ -249,7 +249,7 @@ public class SpaceResource {
         } catch (NotFoundException e) {
             throw new ResourceNotFoundException("delete space", spaceID, e);
         } catch (Exception e) {
-            storageProviderFactory.expireStorageProvider(storeID);
+            storageProviderFactory.expireStorageProvider(storeID, e);
             throw new ResourceException("delete space", spaceID, e);
         }
     }
@@ -9,11 +9,12 @@ package org.duracloud.durastore.rest;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.function.Function;
 
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.mill.db.repo.JpaSpaceStatsRepo;
@@ -33,6 +34,7 @@ public class StorageStatsResource {
     protected static final Logger log = LoggerFactory.getLogger(SpaceResource.class);
 
     private JpaSpaceStatsRepo spaceStatsRepo;
+    private StorageStatsRollupCache rollupCache;
 
     public static enum GroupBy {
         day,
@@ -42,30 +44,36 @@ public class StorageStatsResource {
 
     @Autowired
     public StorageStatsResource(JpaSpaceStatsRepo spaceStatsRepo) {
+        this(spaceStatsRepo, new StorageStatsRollupCache());
+    }
+
+    protected StorageStatsResource(JpaSpaceStatsRepo spaceStatsRepo,
+                                   StorageStatsRollupCache rollupCache) {
         this.spaceStatsRepo = spaceStatsRepo;
+        this.rollupCache = rollupCache;
     }
 
+    /**
+     * Retrieves the stats of a space over time. The stats of complete
+     * intervals are reused from earlier calls with the same parameters.
+     */
     public List<SpaceStatsDTO> getSpaceStats(String accountId,
-                                             String storeId,
-                                             String spaceId,
-                                             Date start,
-                                             Date end,
-                                             GroupBy groupBy) {
+                                                 String storeId,
+                                                 String spaceId,
+                                                 Date start,
+                                                 Date end,
+                                                 GroupBy groupBy) {
 
         String interval = getInterval(groupBy);
-        List<Object[]> list =
-            this.spaceStatsRepo.getByAccountIdAndStoreIdAndSpaceId(accountId, storeId, spaceId, start, end, interval);
-        List<SpaceStatsDTO> dtos = new ArrayList<>(list.size());
-        for (Object[] s : list) {
-            dtos.add(new SpaceStatsDTO(new Date(((BigInteger) s[0]).longValue() * 1000),
-                                       s[1].toString(),
-                                       s[2].toString(),
-                                       s[3].toString(),
-                                       ((BigDecimal) s[4]).longValue(),
-                                       ((BigDecimal) s[5]).longValue()));
-        }
-
-        return dtos;
+        String key = getRollupKey(accountId, storeId, spaceId, interval, start);
+        List<Object[]> list = rollupCache.getStats(key, start, end, (from, to) ->
+            this.spaceStatsRepo.getByAccountIdAndStoreIdAndSpaceId(accountId, storeId, spaceId, from, to, interval));
+        return toStats(list, s -> new SpaceStatsDTO(toDate(s[0]),
+                                                    s[1].toString(),
+                                                    s[2].toString(),
+                                                    s[3].toString(),
+                                                    toLong(s[4]),
+                                                    toLong(s[5])));
     }
 
     protected String getInterval(GroupBy groupBy) {
@@ -84,25 +92,30 @@ public class StorageStatsResource {
         }
     }
 
+    /**
+     * Retrieves the stats of a storage provider over time. The stats of
+     * complete intervals are reused from earlier calls with the same
+     * parameters.
+     */
     public List<StoreStatsDTO> getStorageProviderStats(String account,
                                                        String storeId,
                                                        Date start,
                                                        Date end,
                                                        GroupBy groupBy) {
         String interval = getInterval(groupBy);
-        List<Object[]> list = this.spaceStatsRepo.getByAccountIdAndStoreId(account, storeId, start, end, interval);
-        List<StoreStatsDTO> dtos = new ArrayList<>(list.size());
-        for (Object[] s : list) {
-            dtos.add(new StoreStatsDTO(new Date(((BigInteger) s[0]).longValue() * 1000),
-                                       s[1].toString(),
-                                       s[2].toString(),
-                                       ((BigDecimal) s[3]).longValue(),
-                                       ((BigDecimal) s[4]).longValue()));
-        }
-
-        return dtos;
+        String key = getRollupKey(account, storeId, null, interval, start);
+        List<Object[]> list = rollupCache.getStats(key, start, end, (from, to) ->
+            this.spaceStatsRepo.getByAccountIdAndStoreId(account, storeId, from, to, interval));
+        return toStats(list, s -> new StoreStatsDTO(toDate(s[0]),
+                                                    s[1].toString(),
+                                                    s[2].toString(),
+                                                    toLong(s[3]),
+                                                    toLong(s[4])));
     }
 
+    /**
+     * Retrieves the stats of each space in a storage provider on a given day.
+     */
     public List<SpaceStatsDTO> getStorageProviderByDay(String account,
                                                        String storeId,
                                                        Date date) {
@@ -125,17 +138,45 @@ public class StorageStatsResource {
         Date end = c.getTime();
 
         List<Object[]> list = this.spaceStatsRepo.getByAccountIdAndStoreIdAndDay(account, storeId, start, end);
-        List<SpaceStatsDTO> dtos = new ArrayList<>(list.size());
-        for (Object[] s : list) {
-            dtos.add(new SpaceStatsDTO(start,
-                                       s[1].toString(),
-                                       s[2].toString(),
-                                       s[3].toString(),
-                                       ((BigDecimal) s[4]).longValue(),
-                                       ((BigDecimal) s[5]).longValue()));
+        return toStats(list, s -> new SpaceStatsDTO(start,
+                                                    s[1].toString(),
+                                                    s[2].toString(),
+                                                    s[3].toString(),
+                                                    toLong(s[4]),
+                                                    toLong(s[5])));
+    }
+
+    /*
+     * The rows are converted before the stats are returned, rather than as
+     * they are written, so that a row which cannot be converted results in an
+     * error response instead of a truncated response body.
+     */
+    private <T> List<T> toStats(List<Object[]> rows, Function<Object[], T> converter) {
+        List<T> stats = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            stats.add(converter.apply(row));
         }
+        return stats;
+    }
+
+    /*
+     * A null space ID identifies the stats of the full storage provider
+     */
+    private String getRollupKey(String account,
+                                String storeId,
+                                String spaceId,
+                                String interval,
+                                Date start) {
+        return account + "/" + storeId + "/" + (null == spaceId ? "" : spaceId) +
+               "/" + interval + "/" + start.getTime();
+    }
+
+    private Date toDate(Object epochSeconds) {
+        return new Date(((BigInteger) epochSeconds).longValue() * 1000);
+    }
 
-        return dtos;
+    private long toLong(Object value) {
+        return ((BigDecimal) value).longValue();
     }
 
 }
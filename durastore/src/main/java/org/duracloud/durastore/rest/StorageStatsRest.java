@@ -84,7 +84,7 @@ public class StorageStatsRest extends BaseRest {
                                        startDate,
                                        endDate,
                                        getGroupBy(groupBy));
-            return responseOk(stats);
+            return responseOkJsonStream(stats);
 
         } catch (Exception e) {
             return handleException(e, MessageFormat.format("error getting storage stats, {0}:{1}:{2} [{3}:{4}]",
@@ -126,7 +126,7 @@ public class StorageStatsRest extends BaseRest {
                                                  startDate,
                                                  endDate,
                                                  getGroupBy(groupBy));
-            return responseOk(stats);
+            return responseOkJsonStream(stats);
 
         } catch (Exception e) {
             return handleException(e, MessageFormat.format("error getting storage stats, {0}:{1} [{3}:{4}]",
@@ -193,13 +193,22 @@ public class StorageStatsRest extends BaseRest {
             storeId = getStoreId(storeId);
             List<SpaceStatsDTO> stats =
                 resource.getStorageProviderByDay(account, storeId, theDate);
-            return responseOk(stats);
+            return responseOkJsonStream(stats);
         } catch (Exception e) {
             return handleException(e, MessageFormat.format("error getting storage stats, {0}:{1}:{2} [{3}]",
                                                            account, storeId, dateMs));
         }
     }
 
+    /*
+     * Stats are written to the response one at a time, without building the
+     * full JSON document
+     */
+    private Response responseOkJsonStream(List<?> stats) {
+        return Response.ok(new JsonArrayStreamingOutput<>(stats.iterator()),
+                           MediaType.APPLICATION_JSON_VALUE).build();
+    }
+
     private Response handleException(Exception e, String defaultErrorMessage) {
         if (e instanceof NumberFormatException || e instanceof IllegalArgumentException) {
             log.error(e.getMessage(), e);
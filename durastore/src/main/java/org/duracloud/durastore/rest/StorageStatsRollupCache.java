@@ -0,0 +1,125 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the aggregated (day, week or month) storage stats rows of recent
+ * stats queries, so that repeated queries only need to aggregate the stats
+ * of the most recent interval.
+ *
+ * Each query result is a list of rows ordered by interval, where the first
+ * column of a row is the time of its interval in epoch seconds. All
+ * intervals other than the last one returned are considered complete, as new
+ * stats are only added for the current time. When the same query is run
+ * again, the rows of the complete intervals are reused and the underlying
+ * query is only run from the time of the last interval onward. Rows are
+ * dropped after a maximum age, which picks up any late changes to past stats.
+ */
+public class StorageStatsRollupCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final long DEFAULT_MAX_AGE_MILLIS = 6 * 60 * 60 * 1000L;
+
+    /**
+     * Runs a stats query over a time range
+     */
+    @FunctionalInterface
+    public interface StatsQuery {
+        List<Object[]> query(Date start, Date end);
+    }
+
+    private final long maxAgeMillis;
+    private final Map<String, Rollup> rollups;
+
+    public StorageStatsRollupCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    /**
+     * @param maxEntries   number of queries for which rows are kept
+     * @param maxAgeMillis time after which the rows of a query are dropped
+     */
+    public StorageStatsRollupCache(final int maxEntries, long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+        this.rollups = Collections.synchronizedMap(
+            new LinkedHashMap<String, Rollup>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Rollup> eldest) {
+                    return size() > maxEntries;
+                }
+            });
+    }
+
+    /**
+     * Retrieves the stats rows of a query.
+     *
+     * @param key   identifies the query, including all of its parameters
+     *              other than the end date
+     * @param start start of the time range
+     * @param end   end of the time range
+     * @param query runs the underlying query over a time range
+     * @return stats rows ordered by interval
+     */
+    public List<Object[]> getStats(String key, Date start, Date end, StatsQuery query) {
+        long now = System.currentTimeMillis();
+        Rollup rollup = rollups.get(key);
+        if (null != rollup && now >= rollup.expires) {
+            rollups.remove(key);
+            rollup = null;
+        }
+
+        if (null != rollup && end.before(rollup.openFrom)) {
+            // Ends within the complete intervals, which may then be cut short
+            return query.query(start, end);
+        }
+
+        List<Object[]> completeRows = Collections.emptyList();
+        Date queryStart = start;
+        long expires = now + maxAgeMillis;
+        if (null != rollup) {
+            completeRows = rollup.completeRows;
+            queryStart = rollup.openFrom;
+            expires = rollup.expires;
+        }
+
+        List<Object[]> newRows = query.query(queryStart, end);
+        List<Object[]> rows = new ArrayList<>(completeRows.size() + newRows.size());
+        rows.addAll(completeRows);
+        rows.addAll(newRows);
+
+        if (!newRows.isEmpty()) {
+            Object[] lastRow = newRows.get(newRows.size() - 1);
+            Date openFrom = new Date(((Number) lastRow[0]).longValue() * 1000);
+            List<Object[]> complete = new ArrayList<>(rows.subList(0, rows.size() - 1));
+            rollups.put(key, new Rollup(Collections.unmodifiableList(complete),
+                                        openFrom,
+                                        expires));
+        }
+        return rows;
+    }
+
+    private static class Rollup {
+        private final List<Object[]> completeRows;
+        private final Date openFrom;
+        private final long expires;
+
+        Rollup(List<Object[]> completeRows, Date openFrom, long expires) {
+            this.completeRows = completeRows;
+            this.openFrom = openFrom;
+            this.expires = expires;
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.task;
+
+import org.duracloud.StorageTaskConstants;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.provider.TaskRunner;
+import org.duracloud.storage.util.StorageProviderFactory;
+import org.duracloud.storageprovider.dto.CopySpaceTaskParameters;
+import org.duracloud.storageprovider.dto.CopySpaceTaskResult;
+
+/**
+ * Task which starts an asynchronous copy of all content in a space (or all
+ * content with IDs that start with a given prefix) to another space, which
+ * may be in another store. The result includes the ID of the copy job, which
+ * is used to check on the progress of the copy.
+ */
+public class CopySpaceTaskRunner implements TaskRunner {
+
+    private static final String TASK_NAME =
+        StorageTaskConstants.COPY_SPACE_TASK_NAME;
+
+    private StorageProviderFactory storageProviderFactory;
+    private SpaceCopyManager spaceCopyManager;
+    private String storeId;
+
+    public CopySpaceTaskRunner(StorageProviderFactory storageProviderFactory,
+                               SpaceCopyManager spaceCopyManager,
+                               String storeId) {
+        this.storageProviderFactory = storageProviderFactory;
+        this.spaceCopyManager = spaceCopyManager;
+        this.storeId = storeId;
+    }
+
+    @Override
+    public String getName() {
+        return TASK_NAME;
+    }
+
+    @Override
+    public String performTask(String taskParameters) {
+        CopySpaceTaskParameters taskParams =
+            CopySpaceTaskParameters.deserialize(taskParameters);
+
+        String srcSpaceId = taskParams.getSpaceId();
+        String destSpaceId = taskParams.getDestSpaceId();
+        String destStoreId = taskParams.getDestStoreId();
+        if (null == destStoreId || destStoreId.isEmpty()) {
+            destStoreId = storeId;
+        }
+
+        // Providers are retrieved here, as they are tied to the current request
+        StorageProvider srcProvider =
+            storageProviderFactory.getStorageProvider(storeId);
+        StorageProvider destProvider =
+            storageProviderFactory.getStorageProvider(destStoreId);
+
+        // Will throw if either space does not exist
+        srcProvider.getSpaceProperties(srcSpaceId);
+        destProvider.getSpaceProperties(destSpaceId);
+
+        String jobId = spaceCopyManager.startCopy(srcProvider,
+                                                  storeId,
+                                                  srcSpaceId,
+                                                  taskParams.getPrefix(),
+                                                  destProvider,
+                                                  destStoreId,
+                                                  destSpaceId);
+        String result = "Copy of space " + srcSpaceId + " to space " +
+                        destSpaceId + " in store " + destStoreId + " has started";
+        return new CopySpaceTaskResult(jobId, result).serialize();
+    }
+
+}
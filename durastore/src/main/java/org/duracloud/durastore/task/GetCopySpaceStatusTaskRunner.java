@@ -0,0 +1,48 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.task;
+
+import org.duracloud.StorageTaskConstants;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.TaskRunner;
+import org.duracloud.storageprovider.dto.GetCopySpaceStatusTaskParameters;
+import org.duracloud.storageprovider.dto.GetCopySpaceStatusTaskResult;
+
+/**
+ * Task which retrieves the progress of a space copy
+ */
+public class GetCopySpaceStatusTaskRunner implements TaskRunner {
+
+    private static final String TASK_NAME =
+        StorageTaskConstants.GET_COPY_SPACE_STATUS_TASK_NAME;
+
+    private SpaceCopyManager spaceCopyManager;
+
+    public GetCopySpaceStatusTaskRunner(SpaceCopyManager spaceCopyManager) {
+        this.spaceCopyManager = spaceCopyManager;
+    }
+
+    @Override
+    public String getName() {
+        return TASK_NAME;
+    }
+
+    @Override
+    public String performTask(String taskParameters) {
+        GetCopySpaceStatusTaskParameters taskParams =
+            GetCopySpaceStatusTaskParameters.deserialize(taskParameters);
+
+        String jobId = taskParams.getJobId();
+        GetCopySpaceStatusTaskResult status = spaceCopyManager.getStatus(jobId);
+        if (null == status) {
+            throw new NotFoundException("No space copy found with job ID " + jobId);
+        }
+        return status.serialize();
+    }
+
+}
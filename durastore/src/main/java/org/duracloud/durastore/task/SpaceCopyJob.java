@@ -0,0 +1,385 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.task;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.duracloud.durastore.util.ParallelContentCopier;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.TaskJobManager;
+import org.duracloud.storageprovider.dto.GetCopySpaceStatusTaskResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Copies the content of one space (or the content of a space with IDs that
+ * start with a given prefix) into another space.
+ *
+ * The source space is listed one chunk at a time, and the items in each chunk
+ * are copied in parallel on a shared copy executor. Once every item of a
+ * chunk has been handled, the ID of the last item in the chunk is written to
+ * a checkpoint file along with the progress counts up to that point. A job
+ * which is started again after a failure or a restart continues from the
+ * chunk which follows that item.
+ *
+ * When the source and destination are in the same store, items are copied
+ * with the storage provider's own (server side) copy. Otherwise items are
+ * read from the source and written to the destination.
+ */
+public class SpaceCopyJob implements TaskJobManager.Job {
+
+    private static final Logger log = LoggerFactory.getLogger(SpaceCopyJob.class);
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETE, FAILED
+    }
+
+    protected static final int MAX_FAILED_IDS = 100;
+
+    private static final String SOURCE_STORE = "source-store";
+    private static final String SOURCE_SPACE = "source-space";
+    private static final String PREFIX = "prefix";
+    private static final String DEST_STORE = "dest-store";
+    private static final String DEST_SPACE = "dest-space";
+    private static final String STATE = "state";
+    private static final String LAST_CONTENT_ID = "last-content-id";
+    private static final String ITEMS_COPIED = "items-copied";
+    private static final String ITEMS_FAILED = "items-failed";
+    private static final String FAILED_ID_PREFIX = "failed.";
+    private static final String ERROR = "error";
+
+    private final String jobId;
+    private final StorageProvider srcProvider;
+    private final String srcStoreId;
+    private final String srcSpaceId;
+    private final String prefix;
+    private final StorageProvider destProvider;
+    private final String destStoreId;
+    private final String destSpaceId;
+    private final File checkpointFile;
+    private final ExecutorService copyExecutor;
+    private final ParallelContentCopier contentCopier;
+    private final int chunkSize;
+    private final SecurityContext securityContext;
+
+    private volatile State state = State.QUEUED;
+    private volatile String lastContentId;
+    private volatile String error;
+    private final AtomicLong itemsCopied = new AtomicLong();
+    private final AtomicLong itemsFailed = new AtomicLong();
+    private final List<String> failedContentIds = new ArrayList<>();
+
+    // Progress as of the last completed chunk, which is what is checkpointed
+    private long checkpointCopied;
+    private long checkpointFailed;
+    private int checkpointFailedIds;
+
+    /**
+     * Creates a copy job. If the checkpoint file holds the progress of an
+     * earlier run of this job which did not complete, the job continues from
+     * that point.
+     */
+    public SpaceCopyJob(String jobId,
+                        StorageProvider srcProvider,
+                        String srcStoreId,
+                        String srcSpaceId,
+                        String prefix,
+                        StorageProvider destProvider,
+                        String destStoreId,
+                        String destSpaceId,
+                        File checkpointFile,
+                        ExecutorService copyExecutor,
+                        ParallelContentCopier contentCopier,
+                        int chunkSize) {
+        this.jobId = jobId;
+        this.srcProvider = srcProvider;
+        this.srcStoreId = srcStoreId;
+        this.srcSpaceId = srcSpaceId;
+        this.prefix = prefix;
+        this.destProvider = destProvider;
+        this.destStoreId = destStoreId;
+        this.destSpaceId = destSpaceId;
+        this.checkpointFile = checkpointFile;
+        this.copyExecutor = copyExecutor;
+        this.contentCopier = contentCopier;
+        this.chunkSize = chunkSize;
+        // Copies run outside of the request, but act on behalf of its caller
+        this.securityContext = SecurityContextHolder.getContext();
+
+        Properties checkpoint = loadCheckpoint(checkpointFile);
+        if (!checkpoint.isEmpty() &&
+            !State.COMPLETE.name().equals(checkpoint.getProperty(STATE))) {
+            lastContentId = checkpoint.getProperty(LAST_CONTENT_ID);
+            itemsCopied.set(Long.parseLong(checkpoint.getProperty(ITEMS_COPIED, "0")));
+            itemsFailed.set(Long.parseLong(checkpoint.getProperty(ITEMS_FAILED, "0")));
+            failedContentIds.addAll(getFailedIds(checkpoint));
+            markCheckpoint();
+            log.info("Resuming space copy {} after content item {}",
+                     jobId, lastContentId);
+        }
+        saveCheckpoint();
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    @Override
+    public boolean isDone() {
+        return state == State.COMPLETE || state == State.FAILED;
+    }
+
+    @Override
+    public void run() {
+        SecurityContextHolder.setContext(securityContext);
+        state = State.RUNNING;
+        saveCheckpoint();
+        log.info("Starting copy of space {}/{} (prefix: {}) to {}/{}",
+                 srcStoreId, srcSpaceId, prefix, destStoreId, destSpaceId);
+        try {
+            List<String> chunk;
+            do {
+                chunk = srcProvider.getSpaceContentsChunked(srcSpaceId,
+                                                            prefix,
+                                                            chunkSize,
+                                                            lastContentId);
+                copyChunk(chunk);
+                if (!chunk.isEmpty()) {
+                    lastContentId = chunk.get(chunk.size() - 1);
+                    markCheckpoint();
+                    saveCheckpoint();
+                }
+            } while (chunk.size() >= chunkSize);
+
+            state = State.COMPLETE;
+            log.info("Completed copy of space {}/{} to {}/{}, {} items copied, " +
+                     "{} items failed", srcStoreId, srcSpaceId, destStoreId,
+                     destSpaceId, itemsCopied.get(), itemsFailed.get());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            error = e.getMessage();
+            state = State.FAILED;
+            log.error("Copy of space " + srcStoreId + "/" + srcSpaceId +
+                      " to " + destStoreId + "/" + destSpaceId + " failed after " +
+                      "content item " + lastContentId + " due to: " + e.getMessage(), e);
+        } finally {
+            saveCheckpoint();
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void markCheckpoint() {
+        checkpointCopied = itemsCopied.get();
+        checkpointFailed = itemsFailed.get();
+        synchronized (failedContentIds) {
+            checkpointFailedIds = failedContentIds.size();
+        }
+    }
+
+    private void copyChunk(List<String> chunk)
+        throws InterruptedException, ExecutionException {
+        List<Future<?>> copies = new ArrayList<>();
+        try {
+            for (String contentId : chunk) {
+                copies.add(copyExecutor.submit(() -> copyItem(contentId)));
+            }
+            for (Future<?> copy : copies) {
+                copy.get();
+            }
+        } finally {
+            for (Future<?> copy : copies) {
+                copy.cancel(false);
+            }
+        }
+    }
+
+    private void copyItem(String contentId) {
+        SecurityContextHolder.setContext(securityContext);
+        try {
+            if (srcStoreId.equals(destStoreId)) {
+                srcProvider.copyContent(srcSpaceId, contentId, destSpaceId, contentId);
+            } else {
+                copyBetweenProviders(contentId);
+            }
+            itemsCopied.incrementAndGet();
+        } catch (Exception e) {
+            itemsFailed.incrementAndGet();
+            synchronized (failedContentIds) {
+                if (failedContentIds.size() < MAX_FAILED_IDS) {
+                    failedContentIds.add(contentId);
+                }
+            }
+            log.warn("Unable to copy {}/{}/{} to {}/{} due to: {}", srcStoreId,
+                     srcSpaceId, contentId, destStoreId, destSpaceId, e.getMessage());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void copyBetweenProviders(String contentId) throws IOException {
+        Map<String, String> properties =
+            srcProvider.getContentProperties(srcSpaceId, contentId);
+        String size = properties.get(StorageProvider.PROPERTIES_CONTENT_SIZE);
+        Long contentSize = null == size ? null : Long.valueOf(size);
+        String checksum = properties.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM);
+
+        if (null != contentSize && null != checksum &&
+            contentSize > contentCopier.getPartSize() &&
+            srcProvider.supportsRangeRetrieval()) {
+            contentCopier.copy(srcProvider, srcStoreId, srcSpaceId, contentId,
+                               destProvider, destStoreId, destSpaceId, contentId,
+                               properties);
+            return;
+        }
+
+        try (InputStream content = srcProvider.getContent(srcSpaceId, contentId)) {
+            destProvider.addContent(destSpaceId,
+                                    contentId,
+                                    properties.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE),
+                                    properties,
+                                    null == contentSize ? -1 : contentSize,
+                                    checksum,
+                                    content);
+        }
+    }
+
+    /**
+     * @return the current status of this job
+     */
+    public GetCopySpaceStatusTaskResult getStatus() {
+        GetCopySpaceStatusTaskResult status = new GetCopySpaceStatusTaskResult();
+        status.setJobId(jobId);
+        status.setStatus(state.name());
+        status.setItemsCopied(itemsCopied.get());
+        status.setItemsFailed(itemsFailed.get());
+        status.setLastContentId(lastContentId);
+        synchronized (failedContentIds) {
+            status.setFailedContentIds(new ArrayList<>(failedContentIds));
+        }
+        status.setError(error);
+        return status;
+    }
+
+    /**
+     * Reads the status of a job from its checkpoint file. This allows the
+     * status of a job to be retrieved after the job is no longer held in
+     * memory, such as after a restart.
+     *
+     * @param jobId          ID of the job
+     * @param checkpointFile checkpoint file of the job
+     * @return job status, or null if no checkpoint exists for the job
+     */
+    public static GetCopySpaceStatusTaskResult readStatus(String jobId,
+                                                          File checkpointFile) {
+        Properties checkpoint = loadCheckpoint(checkpointFile);
+        if (checkpoint.isEmpty()) {
+            return null;
+        }
+
+        GetCopySpaceStatusTaskResult status = new GetCopySpaceStatusTaskResult();
+        status.setJobId(jobId);
+        status.setItemsCopied(Long.parseLong(checkpoint.getProperty(ITEMS_COPIED, "0")));
+        status.setItemsFailed(Long.parseLong(checkpoint.getProperty(ITEMS_FAILED, "0")));
+        status.setLastContentId(checkpoint.getProperty(LAST_CONTENT_ID));
+        status.setFailedContentIds(getFailedIds(checkpoint));
+
+        String state = checkpoint.getProperty(STATE);
+        if (State.COMPLETE.name().equals(state) || State.FAILED.name().equals(state)) {
+            status.setStatus(state);
+            status.setError(checkpoint.getProperty(ERROR));
+        } else {
+            // No longer running, the process which ran it must have stopped
+            status.setStatus(State.FAILED.name());
+            status.setError("The copy was interrupted. Start the copy again " +
+                            "to continue from the last checkpoint.");
+        }
+        return status;
+    }
+
+    private static List<String> getFailedIds(Properties checkpoint) {
+        List<String> failedIds = new ArrayList<>();
+        String failedId = checkpoint.getProperty(FAILED_ID_PREFIX + 0);
+        while (null != failedId) {
+            failedIds.add(failedId);
+            failedId = checkpoint.getProperty(FAILED_ID_PREFIX + failedIds.size());
+        }
+        return failedIds;
+    }
+
+    private static Properties loadCheckpoint(File checkpointFile) {
+        Properties checkpoint = new Properties();
+        if (checkpointFile.exists()) {
+            try (InputStream input = new FileInputStream(checkpointFile)) {
+                checkpoint.load(input);
+            } catch (IOException e) {
+                log.warn("Unable to read space copy checkpoint {}: {}",
+                         checkpointFile.getAbsolutePath(), e.getMessage());
+                checkpoint.clear();
+            }
+        }
+        return checkpoint;
+    }
+
+    private synchronized void saveCheckpoint() {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty(SOURCE_STORE, srcStoreId);
+        checkpoint.setProperty(SOURCE_SPACE, srcSpaceId);
+        if (null != prefix) {
+            checkpoint.setProperty(PREFIX, prefix);
+        }
+        checkpoint.setProperty(DEST_STORE, destStoreId);
+        checkpoint.setProperty(DEST_SPACE, destSpaceId);
+        checkpoint.setProperty(STATE, state.name());
+        if (null != lastContentId) {
+            checkpoint.setProperty(LAST_CONTENT_ID, lastContentId);
+        }
+        checkpoint.setProperty(ITEMS_COPIED, String.valueOf(checkpointCopied));
+        checkpoint.setProperty(ITEMS_FAILED, String.valueOf(checkpointFailed));
+        synchronized (failedContentIds) {
+            for (int i = 0; i < checkpointFailedIds; i++) {
+                checkpoint.setProperty(FAILED_ID_PREFIX + i, failedContentIds.get(i));
+            }
+        }
+        if (null != error) {
+            checkpoint.setProperty(ERROR, error);
+        }
+
+        File tempFile = new File(checkpointFile.getAbsolutePath() + ".tmp");
+        try {
+            try (OutputStream output = new FileOutputStream(tempFile)) {
+                checkpoint.store(output, null);
+            }
+            Files.move(tempFile.toPath(), checkpointFile.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // The copy can continue, a restart will just redo more work
+            log.warn("Unable to write space copy checkpoint {}: {}",
+                     checkpointFile.getAbsolutePath(), e.getMessage());
+        }
+    }
+
+}
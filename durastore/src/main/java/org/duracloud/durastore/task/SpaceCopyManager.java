@@ -0,0 +1,129 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.task;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+
+import org.duracloud.durastore.util.ParallelContentCopier;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.TaskJobManager;
+import org.duracloud.storageprovider.dto.GetCopySpaceStatusTaskResult;
+
+/**
+ * Starts and tracks the space copy jobs of an account. Each account has a
+ * single manager, held by AccountTaskManagers, so that a job is never run
+ * twice at once.
+ *
+ * The items of all running jobs are copied on a single bounded pool of copy
+ * threads. The progress of each job is kept in a checkpoint file
+ * in the work directory, named by the job ID. The job ID is derived from the
+ * job parameters, so starting a copy which was interrupted again (with the
+ * same parameters) resumes it from its checkpoint.
+ */
+public class SpaceCopyManager extends TaskJobManager<SpaceCopyJob> {
+
+    public static final int DEFAULT_COPY_THREADS = 10;
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    private final File workDir;
+    private final int chunkSize;
+    private final ParallelContentCopier contentCopier;
+    private final ExecutorService copyExecutor;
+
+    public SpaceCopyManager(File workDir) {
+        this(workDir, DEFAULT_COPY_THREADS, DEFAULT_CHUNK_SIZE,
+             new ParallelContentCopier());
+    }
+
+    /**
+     * @param workDir       directory in which job checkpoints are kept
+     * @param copyThreads   number of content items copied at the same time,
+     *                      across all jobs
+     * @param chunkSize     number of content items listed (and checkpointed)
+     *                      at a time
+     * @param contentCopier used to copy large content items between providers
+     */
+    public SpaceCopyManager(File workDir,
+                            int copyThreads,
+                            int chunkSize,
+                            ParallelContentCopier contentCopier) {
+        super("space-copy-job");
+        if (copyThreads <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException(
+                "Thread count and chunk size must be greater than 0");
+        }
+        this.workDir = workDir;
+        this.chunkSize = chunkSize;
+        this.contentCopier = contentCopier;
+        this.copyExecutor = createExecutor(copyThreads, "space-copy");
+    }
+
+    /**
+     * Starts copying the content of a space. If the same copy is already
+     * running, that copy is left to continue.
+     *
+     * @return ID of the copy job
+     */
+    public String startCopy(StorageProvider srcProvider,
+                            String srcStoreId,
+                            String srcSpaceId,
+                            String prefix,
+                            StorageProvider destProvider,
+                            String destStoreId,
+                            String destSpaceId) {
+        String jobId = getJobId(srcStoreId, srcSpaceId, prefix,
+                                destStoreId, destSpaceId);
+        return startJob(jobId, id -> {
+            workDir.mkdirs();
+            return new SpaceCopyJob(id,
+                                    srcProvider,
+                                    srcStoreId,
+                                    srcSpaceId,
+                                    prefix,
+                                    destProvider,
+                                    destStoreId,
+                                    destSpaceId,
+                                    getCheckpointFile(id),
+                                    copyExecutor,
+                                    contentCopier,
+                                    chunkSize);
+        });
+    }
+
+    /**
+     * @return status of the copy job, or null if the job is not known
+     */
+    public GetCopySpaceStatusTaskResult getStatus(String jobId) {
+        SpaceCopyJob job = getJob(jobId);
+        if (null != job) {
+            return job.getStatus();
+        }
+        if (!jobId.matches("[0-9a-f]+")) {
+            // Not a job ID, so not a checkpoint file name
+            return null;
+        }
+        return SpaceCopyJob.readStatus(jobId, getCheckpointFile(jobId));
+    }
+
+    private String getJobId(String srcStoreId,
+                            String srcSpaceId,
+                            String prefix,
+                            String destStoreId,
+                            String destSpaceId) {
+        return generateJobId(srcStoreId + "/" + srcSpaceId + "/" + (null == prefix ? "" : prefix) +
+                             "->" + destStoreId + "/" + destSpaceId);
+    }
+
+    private File getCheckpointFile(String jobId) {
+        return new File(workDir, jobId + CHECKPOINT_SUFFIX);
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.duracloud.storage.provider.TaskProvider;
+import org.duracloud.storage.provider.TaskProviderBase;
+import org.duracloud.storage.util.StorageProviderFactory;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adds the space copy tasks, which are available for every type of storage
+ * provider, to the tasks of a provider specific TaskProvider.
+ */
+public class SpaceCopyTaskProvider extends TaskProviderBase {
+
+    private TaskProvider providerTasks;
+
+    /**
+     * @param providerTasks          provider specific tasks, may be null if the
+     *                               provider has none
+     * @param storageProviderFactory used to retrieve the stores being copied
+     * @param spaceCopyManager       runs space copies
+     * @param storeId                store with which the tasks are associated
+     */
+    public SpaceCopyTaskProvider(TaskProvider providerTasks,
+                                 StorageProviderFactory storageProviderFactory,
+                                 SpaceCopyManager spaceCopyManager,
+                                 String storeId) {
+        super(storeId);
+        log = LoggerFactory.getLogger(SpaceCopyTaskProvider.class);
+        this.providerTasks = providerTasks;
+
+        taskList.add(new CopySpaceTaskRunner(storageProviderFactory,
+                                             spaceCopyManager,
+                                             storeId));
+        taskList.add(new GetCopySpaceStatusTaskRunner(spaceCopyManager));
+    }
+
+    @Override
+    public List<String> getSupportedTasks() {
+        List<String> supportedTasks = new ArrayList<>();
+        if (null != providerTasks) {
+            supportedTasks.addAll(providerTasks.getSupportedTasks());
+        }
+        supportedTasks.addAll(super.getSupportedTasks());
+        return supportedTasks;
+    }
+
+    @Override
+    public String performTask(String taskName, String taskParameters) throws Exception {
+        if (null != providerTasks &&
+            providerTasks.getSupportedTasks().contains(taskName)) {
+            return providerTasks.performTask(taskName, taskParameters);
+        }
+        return super.performTask(taskName, taskParameters);
+    }
+
+}
@@ -15,6 +15,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.duracloud.common.error.NoUserLoggedInException;
 import org.duracloud.common.model.AclType;
@@ -22,6 +23,7 @@ import org.duracloud.common.rest.DuraCloudRequestContextUtil;
 import org.duracloud.common.sns.AccountChangeNotifier;
 import org.duracloud.security.context.SecurityContextUtil;
 import org.duracloud.security.impl.DuracloudUserDetails;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
@@ -45,10 +47,7 @@ public class ACLStorageProvider implements StorageProvider {
     private final StorageProvider targetProvider;
     private SecurityContextUtil securityContextUtil;
 
-    private Map<String, Map<String, AclType>> spaceACLMap;
-    private boolean loaded;
-
-    private Thread cacheLoaderThread = null;
+    private final SpaceACLCache spaceACLCache;
 
     private AccountChangeNotifier notifier;
 
@@ -74,40 +73,177 @@ public class ACLStorageProvider implements StorageProvider {
 
         this.targetProvider = targetProvider;
         this.securityContextUtil = securityContextUtil;
-        this.spaceACLMap = new HashMap<String, Map<String, AclType>>();
-        this.loaded = false;
+        this.spaceACLCache = new SpaceACLCache(targetProvider);
         this.notifier = notifier;
         this.requestContextUtil = requestContextUtil;
-        ensureCacheLoaderThreadIsRunning();
+        spaceACLCache.ensureLoading();
     }
 
-    private void ensureCacheLoaderThreadIsRunning() {
-        if (this.cacheLoaderThread == null || !this.cacheLoaderThread.isAlive()) {
-            log.info("cacheLoaderThread was not running. Starting it up...");
-            this.cacheLoaderThread = new Thread(new CacheLoader());
-            this.cacheLoaderThread.start();
-            log.info("cacheLoaderThread has been started");
-        } else {
-            log.debug("cacheLoaderThread is already running.");
-        }
+    /**
+     * Creates a provider for the same store as an existing provider, for
+     * instance after the credentials of the store have changed. The space
+     * ACL cache of the existing provider is taken over, and is loaded
+     * through the new provider from then on.
+     *
+     * @param targetProvider   provider for the store
+     * @param existingProvider provider for the store which is being replaced
+     */
+    public ACLStorageProvider(StorageProvider targetProvider,
+                              ACLStorageProvider existingProvider) {
+        assert targetProvider != null;
+        assert existingProvider != null;
+
+        this.targetProvider = targetProvider;
+        this.securityContextUtil = existingProvider.securityContextUtil;
+        this.spaceACLCache = existingProvider.spaceACLCache;
+        this.notifier = existingProvider.notifier;
+        this.requestContextUtil = existingProvider.requestContextUtil;
+        spaceACLCache.setSource(targetProvider);
+        spaceACLCache.ensureLoading();
     }
 
     /**
-     * This nested class loads the cache of space ACLs and AccessTypes.
+     * This nested class holds the cache of space ACLs of a store.
+     *
+     * Loads of the cache run one at a time, on a single loader thread. A
+     * load requested while another is running is made once the running load
+     * is complete, so the data of the last load requested is the data kept.
+     * Changes made to the cache while a load is running are applied again to
+     * the loaded ACLs before they replace the cache, as the load may have
+     * read the ACLs of a space before the change was made.
      */
-    private class CacheLoader implements Runnable {
-        public void run() {
-            Iterator<String> spaces = targetProvider.getSpaces();
+    private static class SpaceACLCache {
+        private final Logger log = LoggerFactory.getLogger(SpaceACLCache.class);
+
+        private volatile StorageProvider source;
+        private volatile Map<String, Map<String, AclType>> spaceACLMap =
+            new ConcurrentHashMap<>();
+        private volatile boolean loaded = false;
+
+        // Guarded by this. A null value marks the removal of a space.
+        private Map<String, Map<String, AclType>> changesDuringLoad = null;
+        private boolean loading = false;
+        private boolean loadRequested = false;
+
+        SpaceACLCache(StorageProvider source) {
+            this.source = source;
+        }
+
+        void setSource(StorageProvider source) {
+            this.source = source;
+        }
+
+        boolean isLoaded() {
+            return loaded;
+        }
+
+        Map<String, Map<String, AclType>> getSpaceACLMap() {
+            return spaceACLMap;
+        }
+
+        Map<String, AclType> get(String spaceId) {
+            return spaceACLMap.get(spaceId);
+        }
+
+        synchronized void put(String spaceId, Map<String, AclType> acls) {
+            spaceACLMap.put(spaceId, acls);
+            if (null != changesDuringLoad) {
+                changesDuringLoad.put(spaceId, acls);
+            }
+        }
+
+        synchronized void remove(String spaceId) {
+            spaceACLMap.remove(spaceId);
+            if (null != changesDuringLoad) {
+                changesDuringLoad.put(spaceId, null);
+            }
+        }
+
+        /*
+         * Starts the initial load, unless it has completed or is in progress
+         */
+        synchronized void ensureLoading() {
+            if (!loaded && !loading) {
+                requestLoad();
+            }
+        }
+
+        /*
+         * Empties the cache and loads it again. Requests wait for the load.
+         */
+        synchronized void clear() {
+            spaceACLMap = new ConcurrentHashMap<>();
+            loaded = false;
+            requestLoad();
+        }
+
+        synchronized void requestLoad() {
+            loadRequested = true;
+            if (!loading) {
+                loading = true;
+                new Thread(this::runLoads, "acl-cache-loader").start();
+                log.info("space ACL cache loader has been started");
+            }
+        }
+
+        private void runLoads() {
+            while (true) {
+                synchronized (this) {
+                    if (!loadRequested) {
+                        loading = false;
+                        return;
+                    }
+                    loadRequested = false;
+                    changesDuringLoad = new HashMap<>();
+                }
+
+                Map<String, Map<String, AclType>> acls;
+                try {
+                    acls = loadSpaceACLs();
+                } catch (RuntimeException e) {
+                    log.warn("Error loading space acls, err: {}", e.getMessage());
+                    synchronized (this) {
+                        changesDuringLoad = null;
+                    }
+                    continue;
+                }
+
+                synchronized (this) {
+                    for (Map.Entry<String, Map<String, AclType>> change :
+                        changesDuringLoad.entrySet()) {
+                        if (null == change.getValue()) {
+                            acls.remove(change.getKey());
+                        } else {
+                            acls.put(change.getKey(), change.getValue());
+                        }
+                    }
+                    changesDuringLoad = null;
+                    spaceACLMap = acls;
+                    loaded = true;
+                }
+            }
+        }
+
+        /*
+         * The ACLs are collected in a new map, so that the cache in use is
+         * only replaced once all ACLs are loaded
+         */
+        private Map<String, Map<String, AclType>> loadSpaceACLs() {
+            StorageProvider provider = source;
+            Map<String, Map<String, AclType>> acls = new ConcurrentHashMap<>();
+            Iterator<String> spaces = provider.getSpaces();
             while (spaces.hasNext()) {
                 String space = spaces.next();
-                spaceACLMap.put(space, getSpaceACLs(space));
+                acls.put(space, getSpaceACLs(provider, space));
             }
-            loaded = true;
+            return acls;
         }
 
-        private Map<String, AclType> getSpaceACLs(String space) {
+        private Map<String, AclType> getSpaceACLs(StorageProvider provider,
+                                                  String space) {
             try {
-                return targetProvider.getSpaceACLs(space);
+                Map<String, AclType> acls = provider.getSpaceACLs(space);
+                return null == acls ? new HashMap<String, AclType>() : acls;
 
             } catch (StorageException e) {
                 log.warn("Error getting space acls: {}, err: {}", space, e);
@@ -116,11 +252,25 @@ public class ACLStorageProvider implements StorageProvider {
         }
     }
 
+    /**
+     * Reloads the cached space ACLs, for instance after the ACLs were changed
+     * through another node. Requests continue to use the current cache until
+     * the reload is complete.
+     */
+    public void refreshCache() {
+        if (!spaceACLCache.isLoaded()) {
+            // The initial load will pick up the changes
+            return;
+        }
+        log.info("refreshing space ACL cache of {}", targetProvider.getClass().getName());
+        spaceACLCache.requestLoad();
+    }
+
     private void waitForCache() {
 
-        while (!loaded) {
+        while (!spaceACLCache.isLoaded()) {
 
-            ensureCacheLoaderThreadIsRunning();
+            spaceACLCache.ensureLoading();
 
             log.debug("waiting: {}", targetProvider.getClass().getName());
             try {
@@ -153,9 +303,10 @@ public class ACLStorageProvider implements StorageProvider {
         waitForCache();
 
         List<String> spaces = new ArrayList<String>();
+        Map<String, Map<String, AclType>> spaceACLMap = spaceACLCache.getSpaceACLMap();
         for (String space : spaceACLMap.keySet()) {
             Map<String, AclType> acls = spaceACLMap.get(space);
-            if (userHasAccess(user, acls) && !spaces.contains(space)) {
+            if (null != acls && userHasAccess(user, acls) && !spaces.contains(space)) {
                 spaces.add(space);
             }
         }
@@ -244,7 +395,7 @@ public class ACLStorageProvider implements StorageProvider {
             Map<String, AclType> acl = new HashMap<String, AclType>();
             acl.put(PROPERTIES_SPACE_ACL + userDetails.getUsername(),
                     AclType.WRITE);
-            spaceACLMap.put(spaceId, acl);
+            spaceACLCache.put(spaceId, acl);
         }
     }
 
@@ -255,7 +406,7 @@ public class ACLStorageProvider implements StorageProvider {
         StorageException storageException = null;
         try {
             targetProvider.deleteSpace(spaceId);
-            spaceACLMap.remove(spaceId);
+            spaceACLCache.remove(spaceId);
 
         } catch (StorageException e) {
             storageException = e;
@@ -265,10 +416,7 @@ public class ACLStorageProvider implements StorageProvider {
         if ((getClass().getSimpleName() + "-cache").equalsIgnoreCase(spaceId)) {
             log.info("cycling cache.");
 
-            this.spaceACLMap.clear();
-            this.loaded = false;
-
-            new Thread(new CacheLoader()).start();
+            spaceACLCache.clear();
         }
 
         if (null != storageException) {
@@ -284,18 +432,21 @@ public class ACLStorageProvider implements StorageProvider {
     @Override
     public Map<String, AclType> getSpaceACLs(String spaceId) {
         DuracloudUserDetails user = getCurrentUserDetails();
-        if (isAdmin(user) && !loaded) {
+        if (isAdmin(user) && !spaceACLCache.isLoaded()) {
             return targetProvider.getSpaceACLs(spaceId);
         }
 
         waitForCache();
 
-        if (spaceACLMap.containsKey(spaceId)) {
-            return spaceACLMap.get(spaceId);
+        Map<String, AclType> cachedAcls = spaceACLCache.get(spaceId);
+        if (null != cachedAcls) {
+            return cachedAcls;
 
         } else {
             Map<String, AclType> acls = targetProvider.getSpaceACLs(spaceId);
-            spaceACLMap.put(spaceId, acls);
+            if (null != acls) {
+                spaceACLCache.put(spaceId, acls);
+            }
             return acls;
         }
     }
@@ -308,7 +459,7 @@ public class ACLStorageProvider implements StorageProvider {
 
         if (null != spaceACLs) {
             // update cache
-            this.spaceACLMap.put(spaceId, spaceACLs);
+            spaceACLCache.put(spaceId, spaceACLs);
         }
 
         sendCacheChangedNotification();
@@ -352,6 +503,12 @@ public class ACLStorageProvider implements StorageProvider {
         return targetProvider.getContent(spaceId, contentId);
     }
 
+    @Override
+    public RetrievedContent getContentWithProperties(String spaceId,
+                                                     String contentId) {
+        return targetProvider.getContentWithProperties(spaceId, contentId);
+    }
+
     @Override
     public void deleteContent(String spaceId, String contentId) {
         targetProvider.deleteContent(spaceId, contentId);
@@ -372,4 +529,68 @@ public class ACLStorageProvider implements StorageProvider {
                                                     String contentId) {
         return targetProvider.getContentProperties(spaceId, contentId);
     }
+
+    @Override
+    public boolean supportsRangeRetrieval() {
+        return targetProvider.supportsRangeRetrieval();
+    }
+
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        return targetProvider.getContent(spaceId, contentId, startByte, endByte);
+    }
+
+    @Override
+    public boolean supportsMultipartUpload() {
+        return targetProvider.supportsMultipartUpload();
+    }
+
+    @Override
+    public String startMultipartUpload(String spaceId,
+                                       String contentId,
+                                       String contentMimeType,
+                                       Map<String, String> userProperties,
+                                       String contentChecksum) {
+        return targetProvider.startMultipartUpload(spaceId,
+                                                   contentId,
+                                                   contentMimeType,
+                                                   userProperties,
+                                                   contentChecksum);
+    }
+
+    @Override
+    public String addContentPart(String spaceId,
+                                 String contentId,
+                                 String uploadId,
+                                 int partNumber,
+                                 long partSize,
+                                 InputStream part) {
+        return targetProvider.addContentPart(spaceId,
+                                             contentId,
+                                             uploadId,
+                                             partNumber,
+                                             partSize,
+                                             part);
+    }
+
+    @Override
+    public String completeMultipartUpload(String spaceId,
+                                          String contentId,
+                                          String uploadId,
+                                          List<String> partChecksums) {
+        return targetProvider.completeMultipartUpload(spaceId,
+                                                      contentId,
+                                                      uploadId,
+                                                      partChecksums);
+    }
+
+    @Override
+    public void abortMultipartUpload(String spaceId,
+                                     String contentId,
+                                     String uploadId) {
+        targetProvider.abortMultipartUpload(spaceId, contentId, uploadId);
+    }
 }
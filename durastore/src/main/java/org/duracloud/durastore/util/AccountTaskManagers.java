@@ -0,0 +1,103 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.duracloud.durastore.task.SpaceCopyManager;
+import org.duracloud.glaciertask.GlacierRestoreManager;
+import org.duracloud.s3task.streaming.StreamingDistributionCache;
+import org.duracloud.s3task.streaming.StreamingDistributionWatcher;
+
+/**
+ * Holds the managers of the long running tasks of an account, along with the
+ * streaming distribution watcher (and distribution cache) of each of the
+ * account's storage accounts.
+ *
+ * The TaskProviderFactoryImpl of an account is replaced whenever the account
+ * changes, but the jobs started through it keep running. The managers are
+ * therefore held by TaskProviderFactoryCache, one set for each account, and
+ * handed to each replacement factory, so that there is only ever one manager
+ * tracking (and starting) the jobs of an account.
+ */
+public class AccountTaskManagers {
+
+    private final SpaceCopyManager spaceCopyManager;
+    private final GlacierRestoreManager glacierRestoreManager;
+    private final Map<String, StreamingDistributionCache> distributionCaches =
+        new ConcurrentHashMap<>();
+    private final Map<String, StreamingDistributionWatcher> distributionWatchers =
+        new ConcurrentHashMap<>();
+
+    /**
+     * @param accountName name of the account, used to keep the work files of
+     *                    each account apart, may be null
+     */
+    public AccountTaskManagers(String accountName) {
+        this(new SpaceCopyManager(getWorkDir(accountName, "duracloud-space-copy")),
+             new GlacierRestoreManager());
+    }
+
+    public AccountTaskManagers(SpaceCopyManager spaceCopyManager,
+                               GlacierRestoreManager glacierRestoreManager) {
+        this.spaceCopyManager = spaceCopyManager;
+        this.glacierRestoreManager = glacierRestoreManager;
+    }
+
+    public SpaceCopyManager getSpaceCopyManager() {
+        return spaceCopyManager;
+    }
+
+    public GlacierRestoreManager getGlacierRestoreManager() {
+        return glacierRestoreManager;
+    }
+
+    /**
+     * @param storageAccountId ID of the storage account
+     * @return the distribution cache of the storage account
+     */
+    public StreamingDistributionCache getDistributionCache(String storageAccountId) {
+        return distributionCaches.computeIfAbsent(storageAccountId,
+                                                  id -> new StreamingDistributionCache());
+    }
+
+    /**
+     * @param storageAccountId ID of the storage account
+     * @param watcherCreator   creates the watcher from the storage account ID,
+     *                         only called if the storage account has no
+     *                         watcher yet
+     * @return the distribution watcher of the storage account
+     */
+    public StreamingDistributionWatcher getDistributionWatcher(
+        String storageAccountId,
+        Function<String, StreamingDistributionWatcher> watcherCreator) {
+        return distributionWatchers.computeIfAbsent(storageAccountId, watcherCreator);
+    }
+
+    /**
+     * @return the distribution watchers created so far, by storage account ID
+     */
+    public Map<String, StreamingDistributionWatcher> getDistributionWatchers() {
+        return Collections.unmodifiableMap(distributionWatchers);
+    }
+
+    /**
+     * @param accountName name of the account, may be null
+     * @param dirName     name of the work directory
+     * @return the work directory of the account
+     */
+    protected static File getWorkDir(String accountName, String dirName) {
+        File workDir = WorkDirUtil.getWorkDir(dirName);
+        return null == accountName ? workDir : new File(workDir, accountName);
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import org.duracloud.common.util.metrics.MetricsProbed;
+import org.duracloud.common.util.metrics.OperationMetrics;
+import org.duracloud.storage.provider.ProbedStorageProvider;
+import org.duracloud.storage.provider.StorageProvider;
+
+/**
+ * Records the latency and errors of the calls made to the storage provider of
+ * a storage account. The OperationMetrics are held by the factory, so that
+ * they are kept when the provider is rebuilt.
+ */
+public class MetricsStorageProvider extends ProbedStorageProvider {
+
+    public MetricsStorageProvider(StorageProvider storageProvider,
+                                  OperationMetrics operationMetrics) {
+        setStorageProvider(storageProvider);
+        setOperationMetrics(operationMetrics);
+    }
+
+    @Override
+    protected MetricsProbed getProbedCore() {
+        // Only used when a MetricsTable has been set, the wrapped provider
+        // collects no metrics of its own
+        return metricsTable -> {
+        };
+    }
+
+}
@@ -0,0 +1,610 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import static org.duracloud.common.util.ChecksumUtil.Algorithm.MD5;
+import static org.duracloud.storage.error.StorageException.RETRY;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.storage.error.ChecksumMismatchException;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.error.StorageException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.StorageProviderUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copies a content item from one storage provider to another by reading the
+ * source in byte ranges, several at a time.
+ *
+ * When the destination supports multipart upload, each range is added to the
+ * destination as one part of that upload. Otherwise the ranges are written to
+ * a local spool file, which is added to the destination once all ranges have
+ * arrived.
+ *
+ * Each completed range is recorded in a checkpoint file in the work
+ * directory. A copy which fails part way through keeps its checkpoint (and
+ * its multipart upload or spool file), so retrying the same copy only
+ * transfers the ranges which had not yet completed. In both cases the MD5 of
+ * the finished destination item is compared with that of the source.
+ *
+ * A copy holds a lock on the files of its checkpoint for as long as it runs.
+ * A second copy of the same item which starts in the meantime works with
+ * files of its own, which are not resumed.
+ */
+public class ParallelContentCopier {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(ParallelContentCopier.class);
+
+    public static final long DEFAULT_PART_SIZE = 64L * 1024 * 1024;
+    public static final int DEFAULT_THREADS = 4;
+    protected static final int MAX_PART_ATTEMPTS = 3;
+    protected static final int MAX_PARTS = 10000;
+    protected static final long CHECKPOINT_EXPIRATION_MILLIS =
+        2L * 24 * 60 * 60 * 1000;
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private static final String SPOOL_SUFFIX = ".spool";
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String UPLOAD_ID = "upload-id";
+    private static final String PART_PREFIX = "part.";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int TERMINATION_WAIT_MINUTES = 5;
+
+    private final File workDir;
+    private final long partSize;
+    private final int threads;
+
+    public ParallelContentCopier() {
+        this(WorkDirUtil.getWorkDir("duracloud-copy"),
+             DEFAULT_PART_SIZE,
+             DEFAULT_THREADS);
+    }
+
+    /**
+     * @param workDir  directory in which checkpoint and spool files are kept
+     * @param partSize size (in bytes) of each range read from the source,
+     *                 raised for items which would need more than 10000 parts
+     * @param threads  number of ranges transferred at the same time
+     */
+    public ParallelContentCopier(File workDir, long partSize, int threads) {
+        if (partSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException(
+                "Part size and thread count must be greater than 0");
+        }
+        this.workDir = workDir;
+        this.partSize = partSize;
+        this.threads = threads;
+    }
+
+    public long getPartSize() {
+        return partSize;
+    }
+
+    /**
+     * Copies a content item between storage providers. The source provider
+     * is expected to support ranged retrieval.
+     *
+     * @param srcProvider   provider holding the content to copy
+     * @param srcStoreId    ID of the source store
+     * @param srcSpaceId    space of the content to copy
+     * @param srcContentId  ID of the content to copy
+     * @param destProvider  provider to which the content is copied
+     * @param destStoreId   ID of the destination store
+     * @param destSpaceId   space of the copied content
+     * @param destContentId ID of the copied content
+     * @param properties    properties of the source content, which must
+     *                      include its size and checksum
+     * @return MD5 checksum of the copied content
+     * @throws ChecksumMismatchException if the copied content does not match
+     *                                   the source checksum
+     * @throws StorageException          if errors occur
+     */
+    public String copy(StorageProvider srcProvider,
+                       String srcStoreId,
+                       String srcSpaceId,
+                       String srcContentId,
+                       StorageProvider destProvider,
+                       String destStoreId,
+                       String destSpaceId,
+                       String destContentId,
+                       Map<String, String> properties) {
+        long contentSize =
+            Long.parseLong(properties.get(StorageProvider.PROPERTIES_CONTENT_SIZE));
+        String checksum = properties.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM);
+        String mimetype = properties.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE);
+        long copyPartSize =
+            Math.max(partSize, (contentSize + MAX_PARTS - 1) / MAX_PARTS);
+
+        workDir.mkdirs();
+        purgeExpiredFiles();
+
+        // The key identifies this copy of this version of the source, so
+        // that a retry picks up the checkpoint of the earlier attempt
+        String key = new ChecksumUtil(MD5).generateChecksum(
+            srcStoreId + "/" + srcSpaceId + "/" + srcContentId + "->" +
+            destStoreId + "/" + destSpaceId + "/" + destContentId + "|" +
+            contentSize + "|" + checksum + "|" + copyPartSize);
+        try (KeyLock lock = lockKey(key)) {
+            if (!lock.isHeld()) {
+                log.info("A copy of {}/{} to {}/{} is already in progress, " +
+                         "this copy will not be resumable", srcSpaceId,
+                         srcContentId, destSpaceId, destContentId);
+                key = key + "-" + UUID.randomUUID();
+            }
+            File checkpointFile = new File(workDir, key + CHECKPOINT_SUFFIX);
+            File spoolFile = new File(workDir, key + SPOOL_SUFFIX);
+            Properties checkpoint = loadCheckpoint(checkpointFile);
+
+            CopyJob job = new CopyJob(srcProvider, srcSpaceId, srcContentId,
+                                      destProvider, destSpaceId, destContentId,
+                                      contentSize, copyPartSize, checkpoint,
+                                      checkpointFile);
+            try {
+                String destChecksum =
+                    copy(job, spoolFile, mimetype, properties, checksum);
+                lock.discard();
+                return destChecksum;
+            } catch (ChecksumMismatchException e) {
+                lock.discard();
+                throw e;
+            }
+        }
+    }
+
+    private String copy(CopyJob job,
+                        File spoolFile,
+                        String mimetype,
+                        Map<String, String> properties,
+                        String checksum) {
+        StorageProvider destProvider = job.destProvider;
+        String destSpaceId = job.destSpaceId;
+        String destContentId = job.destContentId;
+        Properties checkpoint = job.checkpoint;
+        File checkpointFile = job.checkpointFile;
+        boolean multipart = destProvider.supportsMultipartUpload();
+        try {
+            String destChecksum;
+            if (multipart) {
+                destChecksum = copyMultipart(job, mimetype, properties, checksum);
+            } else {
+                destChecksum =
+                    copySpooled(job, spoolFile, mimetype, properties, checksum);
+            }
+            StorageProviderUtil.compareChecksum(destChecksum,
+                                                destSpaceId,
+                                                destContentId,
+                                                checksum);
+            checkpointFile.delete();
+            spoolFile.delete();
+            return destChecksum;
+        } catch (ChecksumMismatchException e) {
+            // Transferred data cannot be trusted, start over on retry
+            String uploadId = checkpoint.getProperty(UPLOAD_ID);
+            if (multipart && null != uploadId) {
+                abortUpload(destProvider, destSpaceId, destContentId, uploadId);
+            }
+            checkpointFile.delete();
+            spoolFile.delete();
+            throw e;
+        }
+    }
+
+    private String copyMultipart(CopyJob job,
+                                 String mimetype,
+                                 Map<String, String> properties,
+                                 String checksum) {
+        String uploadId = job.checkpoint.getProperty(UPLOAD_ID);
+        if (null == uploadId) {
+            uploadId = job.destProvider.startMultipartUpload(job.destSpaceId,
+                                                             job.destContentId,
+                                                             mimetype,
+                                                             properties,
+                                                             checksum);
+            job.checkpoint.setProperty(UPLOAD_ID, uploadId);
+            saveCheckpoint(job.checkpoint, job.checkpointFile);
+        }
+
+        final String partUploadId = uploadId;
+        transferParts(job, (part, startByte, length) -> {
+            try (InputStream content = job.getRange(startByte, length)) {
+                DigestInputStream digestStream =
+                    ChecksumUtil.wrapStream(content, MD5);
+                String partChecksum =
+                    job.destProvider.addContentPart(job.destSpaceId,
+                                                    job.destContentId,
+                                                    partUploadId,
+                                                    part + 1,
+                                                    length,
+                                                    digestStream);
+                return StorageProviderUtil.compareChecksum(
+                    partChecksum,
+                    job.destSpaceId,
+                    job.destContentId,
+                    ChecksumUtil.getChecksum(digestStream));
+            }
+        });
+
+        List<String> partChecksums = new ArrayList<>();
+        for (int part = 0; part < job.partCount; part++) {
+            partChecksums.add(job.checkpoint.getProperty(PART_PREFIX + part));
+        }
+        return job.destProvider.completeMultipartUpload(job.destSpaceId,
+                                                        job.destContentId,
+                                                        uploadId,
+                                                        partChecksums);
+    }
+
+    private String copySpooled(CopyJob job,
+                               File spoolFile,
+                               String mimetype,
+                               Map<String, String> properties,
+                               String checksum) {
+        if (!spoolFile.exists()) {
+            // Ranges recorded without the spool file behind them are useless
+            job.checkpoint.clear();
+        }
+
+        try (FileChannel spool =
+                 FileChannel.open(spoolFile.toPath(),
+                                  StandardOpenOption.CREATE,
+                                  StandardOpenOption.WRITE)) {
+            transferParts(job, (part, startByte, length) -> {
+                try (InputStream content = job.getRange(startByte, length)) {
+                    DigestInputStream digestStream =
+                        ChecksumUtil.wrapStream(content, MD5);
+                    long written = writeToSpool(digestStream, spool, startByte);
+                    if (written != length) {
+                        throw new IOException("Expected " + length +
+                                              " bytes from offset " + startByte +
+                                              " but received " + written);
+                    }
+                    // Make sure the range is on disk before it is checkpointed
+                    spool.force(false);
+                    return ChecksumUtil.getChecksum(digestStream);
+                }
+            });
+        } catch (IOException e) {
+            throw new StorageException("Unable to write spool file " +
+                                       spoolFile.getAbsolutePath() + ": " +
+                                       e.getMessage(), e, RETRY);
+        }
+
+        try (InputStream content = new FileInputStream(spoolFile)) {
+            // Passing the source checksum has the destination verify the
+            // assembled content end to end
+            return job.destProvider.addContent(job.destSpaceId,
+                                               job.destContentId,
+                                               mimetype,
+                                               properties,
+                                               job.contentSize,
+                                               checksum,
+                                               content);
+        } catch (IOException e) {
+            throw new StorageException("Unable to read spool file " +
+                                       spoolFile.getAbsolutePath() + ": " +
+                                       e.getMessage(), e, RETRY);
+        }
+    }
+
+    private long writeToSpool(InputStream content,
+                              FileChannel spool,
+                              long position) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long written = 0;
+        int read = content.read(buffer);
+        while (read >= 0) {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+            while (byteBuffer.hasRemaining()) {
+                written += spool.write(byteBuffer, position + written);
+            }
+            read = content.read(buffer);
+        }
+        return written;
+    }
+
+    /*
+     * Transfers each part which is not yet recorded in the checkpoint, using
+     * up to the configured number of threads. Each completed part is
+     * checkpointed as soon as it finishes.
+     */
+    private void transferParts(CopyJob job, PartTransfer transfer) {
+        List<Integer> remaining = new ArrayList<>();
+        for (int part = 0; part < job.partCount; part++) {
+            if (null == job.checkpoint.getProperty(PART_PREFIX + part)) {
+                remaining.add(part);
+            }
+        }
+        if (remaining.isEmpty()) {
+            return;
+        }
+        if (remaining.size() < job.partCount) {
+            log.info("Resuming copy of {}/{} to {}/{}, {} of {} parts remain",
+                     job.srcSpaceId, job.srcContentId, job.destSpaceId,
+                     job.destContentId, remaining.size(), job.partCount);
+        }
+
+        ExecutorService executor =
+            Executors.newFixedThreadPool(Math.min(threads, remaining.size()));
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int part : remaining) {
+                futures.add(executor.submit(() -> {
+                    String partChecksum = transferPart(job, transfer, part);
+                    synchronized (job.checkpoint) {
+                        job.checkpoint.setProperty(PART_PREFIX + part,
+                                                   partChecksum);
+                        saveCheckpoint(job.checkpoint, job.checkpointFile);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new StorageException("Copy of " + job.srcContentId +
+                                       " failed: " + cause.getMessage(),
+                                       cause, RETRY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Copy of " + job.srcContentId +
+                                       " was interrupted", e, RETRY);
+        } finally {
+            // Parts which have not started are dropped, but those in flight
+            // are allowed to finish and be checkpointed so that the state
+            // left for a retry is consistent
+            for (Future<?> future : futures) {
+                future.cancel(false);
+            }
+            executor.shutdown();
+            awaitTermination(executor);
+        }
+    }
+
+    private void awaitTermination(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(TERMINATION_WAIT_MINUTES,
+                                           TimeUnit.MINUTES)) {
+                log.warn("Copy workers did not finish within {} minutes",
+                         TERMINATION_WAIT_MINUTES);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String transferPart(CopyJob job, PartTransfer transfer, int part)
+        throws IOException {
+        long startByte = part * job.partSize;
+        long length = Math.min(job.partSize, job.contentSize - startByte);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transfer.transfer(part, startByte, length);
+            } catch (NotFoundException e) {
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                if (attempt >= MAX_PART_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Attempt {} to copy bytes {}-{} of {}/{} failed: {}",
+                         attempt, startByte, startByte + length - 1,
+                         job.srcSpaceId, job.srcContentId, e.getMessage());
+            }
+        }
+    }
+
+    private void abortUpload(StorageProvider destProvider,
+                             String destSpaceId,
+                             String destContentId,
+                             String uploadId) {
+        try {
+            destProvider.abortMultipartUpload(destSpaceId,
+                                              destContentId,
+                                              uploadId);
+        } catch (RuntimeException e) {
+            log.warn("Unable to abort upload {} of {}/{}: {}",
+                     uploadId, destSpaceId, destContentId, e.getMessage());
+        }
+    }
+
+    /*
+     * Locks the files of a copy key against use by another copy, whether in
+     * this process or another. The lock is released by the OS if the process
+     * ends, so a copy which did not finish can always be resumed.
+     */
+    private KeyLock lockKey(String key) {
+        File lockFile = new File(workDir, key + LOCK_SUFFIX);
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockFile.toPath(),
+                                       StandardOpenOption.CREATE,
+                                       StandardOpenOption.WRITE);
+            return new KeyLock(lockFile, channel, channel.tryLock());
+        } catch (OverlappingFileLockException e) {
+            // Held by another copy in this process
+            return new KeyLock(lockFile, channel, null);
+        } catch (IOException e) {
+            log.warn("Unable to lock copy files {}: {}",
+                     lockFile.getAbsolutePath(), e.getMessage());
+            return new KeyLock(lockFile, channel, null);
+        }
+    }
+
+    private Properties loadCheckpoint(File checkpointFile) {
+        Properties checkpoint = new Properties();
+        if (checkpointFile.exists()) {
+            try (InputStream input = new FileInputStream(checkpointFile)) {
+                checkpoint.load(input);
+            } catch (IOException e) {
+                log.warn("Unable to read copy checkpoint {}, starting over: {}",
+                         checkpointFile.getAbsolutePath(), e.getMessage());
+                checkpoint.clear();
+            }
+        }
+        return checkpoint;
+    }
+
+    private void saveCheckpoint(Properties checkpoint, File checkpointFile) {
+        File tempFile = new File(checkpointFile.getAbsolutePath() + ".tmp");
+        try {
+            try (OutputStream output = new FileOutputStream(tempFile)) {
+                checkpoint.store(output, null);
+            }
+            Files.move(tempFile.toPath(), checkpointFile.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // The copy can continue, a retry will just redo more work
+            log.warn("Unable to write copy checkpoint {}: {}",
+                     checkpointFile.getAbsolutePath(), e.getMessage());
+        }
+    }
+
+    /*
+     * Removes checkpoint and spool files of copies which were never retried
+     */
+    private void purgeExpiredFiles() {
+        File[] files = workDir.listFiles();
+        if (null == files) {
+            return;
+        }
+        long expiration = System.currentTimeMillis() - CHECKPOINT_EXPIRATION_MILLIS;
+        for (File file : files) {
+            if (file.lastModified() < expiration) {
+                file.delete();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PartTransfer {
+        /**
+         * Transfers one range of the source content
+         *
+         * @return MD5 checksum of the range
+         */
+        String transfer(int part, long startByte, long length) throws IOException;
+    }
+
+    private static class KeyLock implements AutoCloseable {
+        private final File lockFile;
+        private final FileChannel channel;
+        private final FileLock lock;
+        private boolean discard = false;
+
+        KeyLock(File lockFile, FileChannel channel, FileLock lock) {
+            this.lockFile = lockFile;
+            this.channel = channel;
+            this.lock = lock;
+        }
+
+        boolean isHeld() {
+            return null != lock;
+        }
+
+        /**
+         * Has the lock file removed when the lock is released, once the copy
+         * has no files left to resume from
+         */
+        void discard() {
+            discard = true;
+        }
+
+        @Override
+        public void close() {
+            if (discard && isHeld()) {
+                // Removed while still locked, so no other copy is using it
+                lockFile.delete();
+            }
+            if (null != channel) {
+                try {
+                    // Closing the channel releases the lock
+                    channel.close();
+                } catch (IOException e) {
+                    log.warn("Unable to release copy lock: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static class CopyJob {
+        private final StorageProvider srcProvider;
+        private final String srcSpaceId;
+        private final String srcContentId;
+        private final StorageProvider destProvider;
+        private final String destSpaceId;
+        private final String destContentId;
+        private final long contentSize;
+        private final long partSize;
+        private final int partCount;
+        private final Properties checkpoint;
+        private final File checkpointFile;
+
+        CopyJob(StorageProvider srcProvider,
+                String srcSpaceId,
+                String srcContentId,
+                StorageProvider destProvider,
+                String destSpaceId,
+                String destContentId,
+                long contentSize,
+                long partSize,
+                Properties checkpoint,
+                File checkpointFile) {
+            this.srcProvider = srcProvider;
+            this.srcSpaceId = srcSpaceId;
+            this.srcContentId = srcContentId;
+            this.destProvider = destProvider;
+            this.destSpaceId = destSpaceId;
+            this.destContentId = destContentId;
+            this.contentSize = contentSize;
+            this.partSize = partSize;
+            this.partCount = (int) ((contentSize + partSize - 1) / partSize);
+            this.checkpoint = checkpoint;
+            this.checkpointFile = checkpointFile;
+        }
+
+        InputStream getRange(long startByte, long length) {
+            return srcProvider.getContent(srcSpaceId,
+                                          srcContentId,
+                                          startByte,
+                                          startByte + length - 1);
+        }
+    }
+
+}
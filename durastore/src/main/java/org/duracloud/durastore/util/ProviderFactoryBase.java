@@ -22,7 +22,7 @@ public abstract class ProviderFactoryBase {
     private Logger log =
         LoggerFactory.getLogger(ProviderFactoryBase.class);
 
-    private StorageAccountManager storageAccountManager;
+    private volatile StorageAccountManager storageAccountManager;
     private DuraStoreInitConfig initConfig;
 
     public ProviderFactoryBase(StorageAccountManager storageAccountManager) {
@@ -53,6 +53,16 @@ public abstract class ProviderFactoryBase {
         return storageAccountManager;
     }
 
+    /**
+     * Replaces the account manager, for use when the storage account
+     * information (such as credentials) it holds has changed.
+     *
+     * @param storageAccountManager initialized account manager
+     */
+    public void refreshAccountManager(StorageAccountManager storageAccountManager) {
+        this.storageAccountManager = storageAccountManager;
+    }
+
     /**
      * @return the DuraStore init config
      * @throws StorageException if not initialized
@@ -8,6 +8,9 @@
 package org.duracloud.durastore.util;
 
 import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.duracloud.account.db.repo.DuracloudMillRepo;
 import org.duracloud.common.cache.AbstractAccountComponentCache;
@@ -27,6 +30,12 @@ import org.slf4j.LoggerFactory;
  * This class is responsible for loading and caching global account information
  * from a remote data store.
  *
+ * Account change events only refresh the parts of an account's storage
+ * providers which they affect: a change to the set of storage providers
+ * replaces the account's factory, a change of credentials rebuilds the
+ * providers on their next use, and a change of space ACLs on another node
+ * reloads the cached ACLs.
+ *
  * @author Daniel Bernstein
  */
 public class StorageProviderFactoryCache extends AbstractAccountComponentCache<StorageProviderFactory> {
@@ -36,6 +45,7 @@ public class StorageProviderFactoryCache extends AbstractAccountComponentCache<S
     private DuracloudMillRepo millRepo;
     private DuraCloudRequestContextUtil contextUtil;
     private AccountChangeNotifier notifier;
+    private Set<String> changedAccountIds = ConcurrentHashMap.newKeySet();
 
     private Logger log = LoggerFactory.getLogger(StorageProviderFactoryCache.class);
 
@@ -60,25 +70,70 @@ public class StorageProviderFactoryCache extends AbstractAccountComponentCache<S
         EventType eventType = event.getEventType();
         if (accountId != null) {
             if (eventType.equals(EventType.STORAGE_PROVIDERS_CHANGED) ||
-                eventType.equals(EventType.ACCOUNT_CHANGED) ||
-                isAnotherNode(event)) {
+                eventType.equals(EventType.ACCOUNT_CHANGED)) {
+                changedAccountIds.remove(accountId);
                 remove(accountId);
+            } else if (eventType.equals(EventType.STORAGE_CREDENTIALS_CHANGED)) {
+                // Storage account information can only be loaded in the
+                // context of a request for the account, so it is reloaded on
+                // the next request
+                if (null != getCached(accountId)) {
+                    changedAccountIds.add(accountId);
+                }
+            } else if (isAnotherNode(event)) {
+                StorageProviderFactory factory = getCached(accountId);
+                if (factory instanceof StorageProviderFactoryImpl) {
+                    ((StorageProviderFactoryImpl) factory).refreshSpaceACLs();
+                }
             }
         } else if (eventType.equals(EventType.ALL_ACCOUNTS_CHANGED)) {
+            changedAccountIds.clear();
             removeAll();
         }
     }
 
+    @Override
+    public StorageProviderFactory get(String accountId) {
+        StorageProviderFactory factory = super.get(accountId);
+        if (changedAccountIds.remove(accountId) &&
+            factory instanceof ProviderFactoryBase) {
+            log.info("Reloading storage account information of account {}", accountId);
+            ((ProviderFactoryBase) factory).refreshAccountManager(
+                this.storageAccountManagerFactory.createInstance());
+        }
+        return factory;
+    }
+
+    /*
+     * A factory which is removed from the cache is no longer used, so the
+     * metrics of its providers are removed as well
+     */
+    @Override
+    protected void remove(String accountId) {
+        StorageProviderFactory factory = getCached(accountId);
+        super.remove(accountId);
+        if (factory instanceof StorageProviderFactoryImpl) {
+            ((StorageProviderFactoryImpl) factory).unregisterMetrics();
+        }
+    }
+
+    @Override
+    protected void removeAll() {
+        for (String accountId : new ArrayList<>(getCachedAccountIds())) {
+            remove(accountId);
+        }
+    }
+
     private boolean isAnotherNode(AccountChangeEvent event) {
         if (event.getEventType()
                  .equals(EventType.STORAGE_PROVIDER_CACHE_ON_NODE_CHANGED)) {
             try {
                 String host = InetAddress.getLocalHost().getHostName();
                 if (!host.equals(event.getSourceHost())) {
-                    log.debug("This node {} is identical to the event source.", host);
+                    log.debug("This node {} is different from the event source.", host);
                     return true;
                 } else {
-                    log.debug("This node {} is different from event source.", host);
+                    log.debug("This node {} is identical to the event source.", host);
                 }
             } catch (Exception ex) {
                 log.warn("failed to check host: " + ex.getMessage(), ex);
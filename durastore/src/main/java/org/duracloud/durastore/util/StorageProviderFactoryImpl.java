@@ -20,6 +20,7 @@ import org.duracloud.common.queue.noop.NoopTaskQueue;
 import org.duracloud.common.rest.DuraCloudRequestContextUtil;
 import org.duracloud.common.sns.AccountChangeNotifier;
 import org.duracloud.common.util.UserUtil;
+import org.duracloud.common.util.metrics.OperationMetrics;
 import org.duracloud.durastore.test.MockRetryStorageProvider;
 import org.duracloud.durastore.test.MockVerifyCreateStorageProvider;
 import org.duracloud.durastore.test.MockVerifyDeleteStorageProvider;
@@ -27,6 +28,7 @@ import org.duracloud.glacierstorage.GlacierStorageProvider;
 import org.duracloud.irodsstorage.IrodsStorageProvider;
 import org.duracloud.rackspacestorage.RackspaceStorageProvider;
 import org.duracloud.s3storage.S3StorageProvider;
+import org.duracloud.s3storage.SpaceItemCounter;
 import org.duracloud.sdscstorage.SDSCStorageProvider;
 import org.duracloud.snapshotstorage.ChronopolisStorageProvider;
 import org.duracloud.snapshotstorage.DpnStorageProvider;
@@ -42,6 +44,7 @@ import org.duracloud.storage.provider.StatelessStorageProvider;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.provider.StorageProviderBase;
 import org.duracloud.storage.util.StorageProviderFactory;
+import org.duracloud.storage.util.StorageProviderUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,8 +59,18 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
     private Logger log =
         LoggerFactory.getLogger(StorageProviderFactoryImpl.class);
 
+    /**
+     * Minimum time between expirations of a storage provider due to errors
+     */
+    protected static final long MIN_EXPIRE_INTERVAL_MILLIS = 60000;
+
     private StatelessStorageProvider statelessProvider;
     private Map<String, StorageProvider> storageProviders;
+    private Map<String, ACLStorageProvider> aclProviders = new ConcurrentHashMap<>();
+    private Map<String, Object> providerLocks = new ConcurrentHashMap<>();
+    private Map<String, Long> expirationTimes = new ConcurrentHashMap<>();
+    private Map<String, OperationMetrics> operationMetrics = new ConcurrentHashMap<>();
+    private Map<String, SpaceItemCounter> spaceItemCounters = new ConcurrentHashMap<>();
     private UserUtil userUtil;
     private TaskQueue auditQueue;
     private boolean cacheStorageProvidersOnInit = false;
@@ -115,7 +128,9 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
     }
 
     private void initializeStorageProviders() {
+        unregisterMetrics();
         this.storageProviders = new ConcurrentHashMap<>();
+        this.aclProviders = new ConcurrentHashMap<>();
         if (this.cacheStorageProvidersOnInit) {
             log.info("Caching storage providers on init is enabled: building storage provider cache...");
             Iterator<String> ids = getAccountManager().getStorageAccountIds();
@@ -192,10 +207,29 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
         // If no store ID is provided, retrieves the primary store ID
         storageAccountId = checkStorageAccountId(storageAccountId);
 
-        if (storageProviders.containsKey(storageAccountId)) {
-            return storageProviders.get(storageAccountId);
+        StorageProvider cachedProvider = storageProviders.get(storageAccountId);
+        if (null != cachedProvider) {
+            return cachedProvider;
+        }
+
+        // Only one request builds a provider, others wait for and share it
+        synchronized (getProviderLock(storageAccountId)) {
+            cachedProvider = storageProviders.get(storageAccountId);
+            if (null != cachedProvider) {
+                return cachedProvider;
+            }
+
+            StorageProvider provider = createStorageProvider(storageAccountId);
+            storageProviders.put(storageAccountId, provider);
+            return provider;
         }
+    }
+
+    private Object getProviderLock(String storageAccountId) {
+        return providerLocks.computeIfAbsent(storageAccountId, id -> new Object());
+    }
 
+    private StorageProvider createStorageProvider(String storageAccountId) {
         StorageAccountManager storageAccountManager = getAccountManager();
         StorageAccount account =
             storageAccountManager.getStorageAccount(storageAccountId);
@@ -241,9 +275,20 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
                                        + storageAccountId + "): unable to create");
         }
 
+        // Space item counts are kept by the providers which replace this one
+        if (storageProvider instanceof S3StorageProvider) {
+            ((S3StorageProvider) storageProvider).setSpaceItemCounter(
+                spaceItemCounters.computeIfAbsent(storageAccountId, id -> new SpaceItemCounter()));
+        }
+
+        String accountName = storageAccountManager.getAccountName();
+        StorageProvider probedProvider =
+            new MetricsStorageProvider(storageProvider,
+                                       getOperationMetrics(accountName, storageAccountId));
+
         StorageProvider auditProvider =
-            new AuditStorageProvider(storageProvider,
-                                     storageAccountManager.getAccountName(),
+            new AuditStorageProvider(probedProvider,
+                                     accountName,
                                      storageAccountId,
                                      type.getName(),
                                      userUtil,
@@ -253,17 +298,49 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
             ((StorageProviderBase) storageProvider).setWrappedStorageProvider(auditProvider);
         }
 
-        StorageProvider aclProvider = new ACLStorageProvider(auditProvider, notifier, contextUtil);
+        // A provider which replaces an expired one keeps its cached ACLs
+        ACLStorageProvider existingAclProvider = aclProviders.get(storageAccountId);
+        ACLStorageProvider aclProvider;
+        if (null == existingAclProvider) {
+            aclProvider = new ACLStorageProvider(auditProvider, notifier, contextUtil);
+        } else {
+            aclProvider = new ACLStorageProvider(auditProvider, existingAclProvider);
+        }
+        aclProviders.put(storageAccountId, aclProvider);
+
         StorageProvider brokeredProvider =
             new BrokeredStorageProvider(statelessProvider,
                                         aclProvider,
                                         type,
                                         storageAccountId);
-
-        storageProviders.put(storageAccountId, brokeredProvider);
         return brokeredProvider;
     }
 
+    /*
+     * The metrics of a storage account are registered with JMX when its first
+     * provider is built, and are kept (and added to) by the providers which
+     * replace it.
+     */
+    private OperationMetrics getOperationMetrics(String accountName,
+                                                 String storageAccountId) {
+        return operationMetrics.computeIfAbsent(storageAccountId, id -> {
+            OperationMetrics metrics = new OperationMetrics(accountName + "/" + id);
+            metrics.register();
+            return metrics;
+        });
+    }
+
+    /**
+     * Removes the operation metrics of the storage providers from JMX, for
+     * use when this factory is no longer in use.
+     */
+    public void unregisterMetrics() {
+        for (OperationMetrics metrics : operationMetrics.values()) {
+            metrics.unregister();
+        }
+        operationMetrics.clear();
+    }
+
     private String checkStorageAccountId(String storageAccountId) {
         if (null == storageAccountId) {
             return getAccountManager().getPrimaryStorageAccount().getId();
@@ -281,8 +358,78 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
     public void expireStorageProvider(String storageAccountId) {
         storageAccountId = checkStorageAccountId(storageAccountId);
 
+        synchronized (getProviderLock(storageAccountId)) {
+            expire(storageAccountId);
+        }
+    }
+
+    /**
+     * Removes a particular storage provider from the cache following an
+     * error. The provider is kept if the error is one which a new provider
+     * would not resolve, or if the provider was already expired within the
+     * last MIN_EXPIRE_INTERVAL_MILLIS (so a burst of errors leads to at most
+     * one rebuild of the provider).
+     *
+     * @param storageAccountId - the ID of the storage provider account
+     * @param error            - the error raised by the storage provider
+     */
+    @Override
+    public void expireStorageProvider(String storageAccountId, Throwable error) {
+        storageAccountId = checkStorageAccountId(storageAccountId);
+
+        if (!StorageProviderUtil.isProviderRefreshRequired(error)) {
+            log.debug("Not expiring storage provider {}, error does not " +
+                      "require a new connection: {}", storageAccountId, error);
+            return;
+        }
+
+        synchronized (getProviderLock(storageAccountId)) {
+            Long lastExpired = expirationTimes.get(storageAccountId);
+            if (null != lastExpired &&
+                System.currentTimeMillis() - lastExpired < MIN_EXPIRE_INTERVAL_MILLIS) {
+                log.debug("Not expiring storage provider {}, it was expired " +
+                          "recently", storageAccountId);
+                return;
+            }
+            expire(storageAccountId);
+        }
+    }
+
+    /**
+     * Replaces the storage account information, then expires all storage
+     * providers so that they are rebuilt (with the new information) on their
+     * next use. Requests in progress complete with the providers they hold.
+     * The space ACLs cached for each provider are kept.
+     *
+     * @param storageAccountManager initialized account manager
+     */
+    @Override
+    public void refreshAccountManager(StorageAccountManager storageAccountManager) {
+        super.refreshAccountManager(storageAccountManager);
+        for (String storageAccountId : storageProviders.keySet()) {
+            synchronized (getProviderLock(storageAccountId)) {
+                log.info("Expiring storage provider {} following a change of " +
+                         "storage account information", storageAccountId);
+                storageProviders.remove(storageAccountId);
+            }
+        }
+    }
+
+    /**
+     * Reloads the space ACLs cached for each storage provider, without
+     * otherwise changing the providers. Requests continue to use the current
+     * ACLs until the reload is complete.
+     */
+    public void refreshSpaceACLs() {
+        for (ACLStorageProvider aclProvider : aclProviders.values()) {
+            aclProvider.refreshCache();
+        }
+    }
+
+    private void expire(String storageAccountId) {
         log.info("Expiring storage provider connection!  Storage account id: {}", storageAccountId);
         storageProviders.remove(storageAccountId);
+        expirationTimes.put(storageAccountId, System.currentTimeMillis());
     }
 
 }
@@ -7,6 +7,10 @@
  */
 package org.duracloud.durastore.util;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.duracloud.common.cache.AbstractAccountComponentCache;
 import org.duracloud.common.event.AccountChangeEvent;
 import org.duracloud.common.event.AccountChangeEvent.EventType;
@@ -20,6 +24,13 @@ import org.duracloud.storage.util.StorageProviderFactory;
  * This class is responsible for loading and caching global account information
  * from a remote data store.
  *
+ * Task providers are created on each use from the account's storage account
+ * information, so changes to credentials or streaming configuration only
+ * require that information to be reloaded, while changes to space ACLs do not
+ * affect the cached factories. The managers of the long running tasks of each
+ * account are kept here rather than in the factories, as the jobs they run
+ * continue when a factory is replaced.
+ *
  * @author Daniel Bernstein
  */
 public class TaskProviderFactoryCache extends AbstractAccountComponentCache<TaskProviderFactory> {
@@ -27,6 +38,8 @@ public class TaskProviderFactoryCache extends AbstractAccountComponentCache<Task
     private StorageProviderFactory storageProviderFactory;
     private ManifestStore manifestStore;
     private DuraCloudRequestContextUtil contextUtil;
+    private Set<String> changedAccountIds = ConcurrentHashMap.newKeySet();
+    private Map<String, AccountTaskManagers> taskManagers = new ConcurrentHashMap<>();
 
     public TaskProviderFactoryCache(DuraCloudRequestContextUtil contextUtil,
                                     StorageAccountManagerFactory storageAccountManagerFactory,
@@ -45,13 +58,33 @@ public class TaskProviderFactoryCache extends AbstractAccountComponentCache<Task
         EventType eventType = event.getEventType();
         if (accountId != null) {
             if (eventType.equals(EventType.STORAGE_PROVIDERS_CHANGED) ||
-                eventType.equals(EventType.ACCOUNT_CHANGED) ||
-                eventType.equals(EventType.STORAGE_PROVIDER_CACHE_ON_NODE_CHANGED)) {
+                eventType.equals(EventType.ACCOUNT_CHANGED)) {
+                changedAccountIds.remove(accountId);
                 remove(accountId);
+            } else if (eventType.equals(EventType.STORAGE_CREDENTIALS_CHANGED) ||
+                       eventType.equals(EventType.STREAMING_CHANGED)) {
+                // Reloaded on the next request for the account
+                if (null != getCached(accountId)) {
+                    changedAccountIds.add(accountId);
+                }
             }
         } else if (eventType.equals(EventType.ALL_ACCOUNTS_CHANGED)) {
+            changedAccountIds.clear();
             removeAll();
+        } else if (eventType.equals(EventType.STREAMING_CHANGED)) {
+            changedAccountIds.addAll(getCachedAccountIds());
+        }
+    }
+
+    @Override
+    public TaskProviderFactory get(String accountId) {
+        TaskProviderFactory factory = super.get(accountId);
+        if (changedAccountIds.remove(accountId) &&
+            factory instanceof ProviderFactoryBase) {
+            ((ProviderFactoryBase) factory).refreshAccountManager(
+                this.storageAccountManagerFactory.createInstance());
         }
+        return factory;
     }
 
     public TaskProviderFactory getObject() throws Exception {
@@ -63,7 +96,12 @@ public class TaskProviderFactoryCache extends AbstractAccountComponentCache<Task
         // retrieve account info from db
         StorageAccountManager storageAccountManager =
             this.storageAccountManagerFactory.createInstance();
-        return new TaskProviderFactoryImpl(storageAccountManager, storageProviderFactory, manifestStore);
+        AccountTaskManagers accountTaskManagers =
+            taskManagers.computeIfAbsent(
+                accountId,
+                id -> new AccountTaskManagers(storageAccountManager.getAccountName()));
+        return new TaskProviderFactoryImpl(storageAccountManager, storageProviderFactory,
+                                           manifestStore, accountTaskManagers);
     }
 
 }
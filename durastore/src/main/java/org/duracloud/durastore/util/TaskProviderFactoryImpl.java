@@ -7,16 +7,20 @@
  */
 package org.duracloud.durastore.util;
 
+import java.io.File;
 import java.util.Map;
 
 import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
 import com.amazonaws.services.s3.AmazonS3Client;
+import org.duracloud.durastore.task.SpaceCopyTaskProvider;
 import org.duracloud.glacierstorage.GlacierStorageProvider;
 import org.duracloud.glaciertask.GlacierTaskProvider;
 import org.duracloud.mill.manifest.ManifestStore;
 import org.duracloud.s3storage.S3ProviderUtil;
 import org.duracloud.s3storage.S3StorageProvider;
 import org.duracloud.s3task.S3TaskProvider;
+import org.duracloud.s3task.streaming.StreamingDistributionCache;
+import org.duracloud.s3task.streaming.StreamingDistributionWatcher;
 import org.duracloud.snapshotstorage.ChronopolisStorageProvider;
 import org.duracloud.snapshotstorage.DpnStorageProvider;
 import org.duracloud.snapshotstorage.SnapshotStorageProvider;
@@ -41,13 +45,63 @@ public class TaskProviderFactoryImpl extends ProviderFactoryBase
 
     private StorageProviderFactory storageProviderFactory;
     private ManifestStore manifestStore;
+    private AccountTaskManagers taskManagers;
 
     public TaskProviderFactoryImpl(StorageAccountManager storageAccountManager,
                                    StorageProviderFactory storageProviderFactory,
                                    ManifestStore manifestStore) {
+        this(storageAccountManager,
+             storageProviderFactory,
+             manifestStore,
+             new AccountTaskManagers(storageAccountManager.getAccountName()));
+    }
+
+    /**
+     * @param taskManagers managers of the account's long running tasks,
+     *                     which are shared with the factories which replace
+     *                     this one
+     */
+    public TaskProviderFactoryImpl(StorageAccountManager storageAccountManager,
+                                   StorageProviderFactory storageProviderFactory,
+                                   ManifestStore manifestStore,
+                                   AccountTaskManagers taskManagers) {
         super(storageAccountManager);
         this.storageProviderFactory = storageProviderFactory;
         this.manifestStore = manifestStore;
+        this.taskManagers = taskManagers;
+        updateDistributionWatchers(storageAccountManager);
+    }
+
+    /**
+     * Also replaces the CloudFront client of each streaming distribution
+     * watcher with one using the account's current credentials, as waiting
+     * deletes outlive the task providers which started them.
+     */
+    @Override
+    public void refreshAccountManager(StorageAccountManager storageAccountManager) {
+        super.refreshAccountManager(storageAccountManager);
+        updateDistributionWatchers(storageAccountManager);
+    }
+
+    /*
+     * The watchers are shared with the factories which this one replaced, so
+     * they are given clients using the current credentials
+     */
+    private void updateDistributionWatchers(StorageAccountManager storageAccountManager) {
+        taskManagers.getDistributionWatchers().forEach((storageAccountId, distributionWatcher) -> {
+            StorageAccount account =
+                storageAccountManager.getStorageAccount(storageAccountId);
+            if (null != account &&
+                account.getType().equals(StorageProviderType.AMAZON_S3)) {
+                distributionWatcher.setCloudFrontClient(
+                    S3ProviderUtil.getAmazonCloudFrontClient(account.getUsername(),
+                                                             account.getPassword()));
+            }
+        });
+    }
+
+    protected AccountTaskManagers getTaskManagers() {
+        return taskManagers;
     }
 
     @Override
@@ -86,6 +140,20 @@ public class TaskProviderFactoryImpl extends ProviderFactoryBase
                 opts.get(StorageAccount.OPTS.CF_KEY_ID.name());
             String cfKeyPath =
                 opts.get(StorageAccount.OPTS.CF_KEY_PATH.name());
+            // Distribution lookups are cached across requests
+            StreamingDistributionCache distributionCache =
+                taskManagers.getDistributionCache(storageAccountId);
+            // Waiting distribution deletes are resumed after a restart
+            StreamingDistributionWatcher distributionWatcher =
+                taskManagers.getDistributionWatcher(
+                    storageAccountId,
+                    id -> new StreamingDistributionWatcher(
+                        cfClient,
+                        new File(AccountTaskManagers.getWorkDir(
+                                     storageAccountManager.getAccountName(),
+                                     "duracloud-streaming"),
+                                 id + "-deletes.properties"),
+                        (distId, error) -> distributionCache.invalidate()));
             taskProvider = new S3TaskProvider(storageProvider,
                                               unwrappedS3Provider,
                                               s3Client,
@@ -93,6 +161,8 @@ public class TaskProviderFactoryImpl extends ProviderFactoryBase
                                               cfAccountId,
                                               cfKeyId,
                                               cfKeyPath,
+                                              distributionCache,
+                                              distributionWatcher,
                                               storageAccountId);
         } else if (type.equals(StorageProviderType.AMAZON_GLACIER)) {
             GlacierStorageProvider unwrappedGlacierProvider =
@@ -102,6 +172,7 @@ public class TaskProviderFactoryImpl extends ProviderFactoryBase
             taskProvider = new GlacierTaskProvider(storageProvider,
                                                    unwrappedGlacierProvider,
                                                    s3Client,
+                                                   taskManagers.getGlacierRestoreManager(),
                                                    storageAccountId);
         } else if (type.equals(StorageProviderType.DPN) ||
                    type.equals(StorageProviderType.CHRONOPOLIS)) {
@@ -149,10 +220,14 @@ public class TaskProviderFactoryImpl extends ProviderFactoryBase
                                                     this.storageProviderFactory.getAuditQueue(),
                                                     this.manifestStore);
         } else {
-            throw new TaskException("No TaskProvider is available for " + type);
+            // Only the tasks which apply to all providers are available
+            taskProvider = null;
         }
 
-        return taskProvider;
+        return new SpaceCopyTaskProvider(taskProvider,
+                                         storageProviderFactory,
+                                         taskManagers.getSpaceCopyManager(),
+                                         storageAccountId);
     }
 
 }
\ No newline at end of file
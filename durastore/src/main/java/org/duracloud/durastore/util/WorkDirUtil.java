@@ -0,0 +1,42 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.io.File;
+
+/**
+ * Determines where DuraStore keeps the files which track work in progress,
+ * such as copy checkpoints.
+ */
+public class WorkDirUtil {
+
+    public static final String DURACLOUD_HOME_PROPERTY = "duracloud.home";
+    public static final String WORK_DIR_NAME = "work";
+
+    private WorkDirUtil() {
+        // Ensures no instances are made of this class, as there are only static members.
+    }
+
+    /**
+     * Gets a directory for work files. The directory is within the DuraCloud
+     * home directory (the duracloud.home system property), so that the work
+     * files are kept across restarts. The temp directory is only used when no
+     * home directory is configured.
+     *
+     * @param dirName name of the directory
+     * @return the work directory, which may not yet exist
+     */
+    public static File getWorkDir(String dirName) {
+        String home = System.getProperty(DURACLOUD_HOME_PROPERTY);
+        if (null == home || home.isEmpty()) {
+            return new File(System.getProperty("java.io.tmpdir"), dirName);
+        }
+        return new File(new File(home, WORK_DIR_NAME), dirName);
+    }
+
+}
@@ -13,6 +13,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.duracloud.durastore.error.ResourceException;
+import org.duracloud.durastore.util.ParallelContentCopier;
 import org.duracloud.storage.error.InvalidIdException;
 import org.duracloud.storage.provider.BrokeredStorageProvider;
 import org.duracloud.storage.provider.StorageProvider;
@@ -183,6 +184,63 @@ public class ContentResourceImplTest {
                 .andReturn(expectedMd5);
     }
 
+    @Test
+    public void testInterProviderCopyLargeContent() throws Exception {
+        String srcStoreId = "0";
+        String srcSpaceId = "src-space-id";
+        String srcContentId = "src-content-id";
+        String destStoreId = "1";
+        String destSpaceId = "dest-space-id";
+        String destContentId = "dest-content-id";
+        String expectedMd5 = "md5";
+
+        ParallelContentCopier copier =
+            EasyMock.createMock("ParallelContentCopier",
+                                ParallelContentCopier.class);
+
+        EasyMock.expect(storageProviderFactory.getStorageProvider(srcStoreId))
+                .andReturn(storageProvider);
+        EasyMock.expect(storageProviderFactory.getStorageProvider(destStoreId))
+                .andReturn(destStorageProvider);
+
+        Map<String, String> map = new HashMap<String, String>();
+        map.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM, expectedMd5);
+        map.put(StorageProvider.PROPERTIES_CONTENT_SIZE, "2000");
+        map.put(StorageProvider.PROPERTIES_CONTENT_MIMETYPE, "text/plain");
+        EasyMock.expect(storageProvider.getContentProperties(srcSpaceId,
+                                                             srcContentId))
+                .andReturn(map);
+        EasyMock.expect(storageProvider.supportsRangeRetrieval())
+                .andReturn(true);
+
+        EasyMock.expect(copier.getPartSize()).andReturn(1000L);
+        EasyMock.expect(copier.copy(storageProvider,
+                                    srcStoreId,
+                                    srcSpaceId,
+                                    srcContentId,
+                                    destStorageProvider,
+                                    destStoreId,
+                                    destSpaceId,
+                                    destContentId,
+                                    map))
+                .andReturn(expectedMd5);
+
+        replayMocks();
+        EasyMock.replay(copier);
+
+        contentResource =
+            new ContentResourceImpl(storageProviderFactory, copier);
+        String md5 = contentResource.copyContent(srcStoreId,
+                                                 srcSpaceId,
+                                                 srcContentId,
+                                                 destStoreId,
+                                                 destSpaceId,
+                                                 destContentId);
+
+        Assert.assertEquals(expectedMd5, md5);
+        EasyMock.verify(copier);
+    }
+
     @Test
     public void testDuracloud757() throws ResourceException, InvalidIdException {
 
@@ -41,6 +41,8 @@ public class ContentRestExceptionsTest {
 
         EasyMock.expect(resource.getContentProperties(null, null, null)).andThrow(
             support.createRuntimeException()).anyTimes();
+        EasyMock.expect(resource.getContentWithProperties(null, null, null)).andThrow(
+            support.createRuntimeException()).anyTimes();
         resource.deleteContent(null, null, null);
         EasyMock.expectLastCall()
                 .andThrow(support.createRuntimeException())
@@ -0,0 +1,114 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.duracloud.reportdata.storage.SpaceStatsDTO;
+import org.junit.Test;
+
+/**
+ * Tests the streaming of JSON arrays
+ */
+public class JsonArrayStreamingOutputTest {
+
+    @Test
+    public void testWrite() throws Exception {
+        List<SpaceStatsDTO> stats = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            stats.add(new SpaceStatsDTO(new Date(i * 1000L), "account", "store",
+                                        "space-" + i, i * 100L, i));
+        }
+
+        // Output matches that of serializing the full list
+        String expected = new ObjectMapper().writeValueAsString(stats);
+        assertEquals(expected, write(stats));
+    }
+
+    @Test
+    public void testWriteEmpty() throws Exception {
+        assertEquals("[]", write(Collections.emptyList()));
+    }
+
+    /**
+     * Writes the stats of 10k spaces, checking that the memory allocated while
+     * streaming them is less than the size of the JSON document, and well
+     * below that allocated while serializing the same stats as one document.
+     */
+    @Test
+    public void testWriteAllocation() throws Exception {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported() &&
+                   allocationBean.isThreadAllocatedMemoryEnabled());
+        long threadId = Thread.currentThread().getId();
+
+        List<SpaceStatsDTO> stats = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            stats.add(new SpaceStatsDTO(new Date(i * 1000L), "account", "store",
+                                        "space-" + i, i * 100L, i));
+        }
+
+        // Warm up, so that one-time serializer setup is not measured
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.writeValueAsBytes(stats.subList(0, 10));
+        new JsonArrayStreamingOutput<>(stats.subList(0, 10).iterator()).write(new CountingOutputStream());
+
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        byte[] document = mapper.writeValueAsBytes(stats);
+        long documentAllocation = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        CountingOutputStream output = new CountingOutputStream();
+        before = allocationBean.getThreadAllocatedBytes(threadId);
+        new JsonArrayStreamingOutput<>(stats.iterator()).write(output);
+        long streamingAllocation = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(document.length, output.count);
+        assertTrue("Streaming allocated " + streamingAllocation + " bytes for a document of " +
+                   document.length + " bytes", streamingAllocation < document.length);
+        assertTrue("Streaming allocated " + streamingAllocation + " bytes, serializing the document allocated " +
+                   documentAllocation + " bytes", streamingAllocation < documentAllocation / 2);
+    }
+
+    private String write(List<?> items) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new JsonArrayStreamingOutput<>(items.iterator()).write(output);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Discards the bytes written, keeping only a count of them
+     */
+    private static class CountingOutputStream extends OutputStream {
+        private long count = 0;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+}
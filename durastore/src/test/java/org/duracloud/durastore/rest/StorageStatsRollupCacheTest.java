@@ -0,0 +1,195 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.function.LongUnaryOperator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the reuse of aggregated stats rows, using an in-memory table of raw
+ * stats in place of the database
+ */
+public class StorageStatsRollupCacheTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final long DAY = 24 * HOUR;
+    private static final long BASE_TIME = 1500000000000L / DAY * DAY;
+    private static final int DAYS = 90;
+    private static final int STATS_PER_DAY = 4;
+
+    private static final LongUnaryOperator BY_DAY = time -> time / DAY * DAY;
+    private static final LongUnaryOperator BY_MONTH = time -> {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.setTimeInMillis(time);
+        calendar.set(Calendar.DAY_OF_MONTH, 1);
+        return BY_DAY.applyAsLong(calendar.getTimeInMillis());
+    };
+
+    private StatsTable table;
+    private Date start;
+
+    @Before
+    public void setUp() {
+        table = new StatsTable();
+        for (int day = 0; day < DAYS; day++) {
+            for (int i = 0; i < STATS_PER_DAY; i++) {
+                table.add(BASE_TIME + day * DAY + i * HOUR, 1000 * day + i);
+            }
+        }
+        start = new Date(0);
+    }
+
+    private List<Object[]> getStats(StorageStatsRollupCache cache,
+                                    LongUnaryOperator interval,
+                                    Date end) {
+        return cache.getStats("key", start, end,
+                              (from, to) -> table.query(from, to, interval));
+    }
+
+    @Test
+    public void testDailyRollup() {
+        StorageStatsRollupCache cache = new StorageStatsRollupCache();
+        Date end = new Date(BASE_TIME + DAYS * DAY);
+
+        List<Object[]> rows = getStats(cache, BY_DAY, end);
+        assertEquals(DAYS, rows.size());
+        assertEquals(DAYS * STATS_PER_DAY, table.rowsRead);
+        assertRows(table.query(start, end, BY_DAY), rows);
+
+        // New stats on the last day and on the day after
+        long lastDay = BASE_TIME + (DAYS - 1) * DAY;
+        table.add(lastDay + 20 * HOUR, 5);
+        table.add(lastDay + DAY, 7);
+        table.add(lastDay + DAY + HOUR, 9);
+        end = new Date(BASE_TIME + (DAYS + 1) * DAY);
+
+        table.rowsRead = 0;
+        rows = getStats(cache, BY_DAY, end);
+        assertEquals(DAYS + 1, rows.size());
+        // Only the stats of the last day and the new day are read
+        assertEquals(STATS_PER_DAY + 3, table.rowsRead);
+        assertRows(table.query(start, end, BY_DAY), rows);
+
+        table.rowsRead = 0;
+        rows = getStats(cache, BY_DAY, end);
+        assertEquals(2, table.rowsRead);
+        assertRows(table.query(start, end, BY_DAY), rows);
+    }
+
+    @Test
+    public void testMonthlyRollup() {
+        StorageStatsRollupCache cache = new StorageStatsRollupCache();
+        Date end = new Date(BASE_TIME + DAYS * DAY);
+
+        List<Object[]> rows = getStats(cache, BY_MONTH, end);
+        assertRows(table.query(start, end, BY_MONTH), rows);
+
+        long lastDay = BASE_TIME + (DAYS - 1) * DAY;
+        table.add(lastDay + 20 * HOUR, 5);
+
+        table.rowsRead = 0;
+        rows = getStats(cache, BY_MONTH, end);
+        // Only the stats of the last month are read
+        long lastMonth = BY_MONTH.applyAsLong(lastDay);
+        assertEquals((lastDay - lastMonth) / DAY * STATS_PER_DAY + STATS_PER_DAY + 1,
+                     table.rowsRead);
+        assertRows(table.query(start, end, BY_MONTH), rows);
+    }
+
+    @Test
+    public void testEndWithinCompleteIntervals() {
+        StorageStatsRollupCache cache = new StorageStatsRollupCache();
+        getStats(cache, BY_DAY, new Date(BASE_TIME + DAYS * DAY));
+
+        Date end = new Date(BASE_TIME + 10 * DAY + HOUR);
+        List<Object[]> rows = getStats(cache, BY_DAY, end);
+        assertEquals(11, rows.size());
+        assertRows(table.query(start, end, BY_DAY), rows);
+    }
+
+    @Test
+    public void testExpiredRollup() {
+        StorageStatsRollupCache cache = new StorageStatsRollupCache(10, 0);
+        Date end = new Date(BASE_TIME + DAYS * DAY);
+        getStats(cache, BY_DAY, end);
+
+        table.rowsRead = 0;
+        List<Object[]> rows = getStats(cache, BY_DAY, end);
+        assertEquals(DAYS * STATS_PER_DAY, table.rowsRead);
+        assertRows(table.query(start, end, BY_DAY), rows);
+    }
+
+    private void assertRows(List<Object[]> expected, List<Object[]> actual) {
+        assertEquals(toLists(expected), toLists(actual));
+    }
+
+    private List<List<Object>> toLists(List<Object[]> rows) {
+        List<List<Object>> lists = new ArrayList<>();
+        for (Object[] row : rows) {
+            lists.add(Arrays.asList(row));
+        }
+        return lists;
+    }
+
+    /**
+     * Raw stats, aggregated by interval in the same form as the stats
+     * repository: interval time (epoch seconds of the earliest stats in the
+     * interval), account, store, space, average byte count and average object
+     * count.
+     */
+    private static class StatsTable {
+        private final List<long[]> stats = new ArrayList<>();
+        private int rowsRead;
+
+        void add(long time, long byteCount) {
+            stats.add(new long[] {time, byteCount});
+        }
+
+        List<Object[]> query(Date start, Date end, LongUnaryOperator interval) {
+            Map<Long, List<long[]>> intervals = new TreeMap<>();
+            for (long[] stat : stats) {
+                if (stat[0] >= start.getTime() && stat[0] <= end.getTime()) {
+                    rowsRead++;
+                    intervals.computeIfAbsent(interval.applyAsLong(stat[0]),
+                                              k -> new ArrayList<>()).add(stat);
+                }
+            }
+
+            List<Object[]> rows = new ArrayList<>();
+            for (List<long[]> intervalStats : intervals.values()) {
+                long earliest = Long.MAX_VALUE;
+                long byteTotal = 0;
+                for (long[] stat : intervalStats) {
+                    earliest = Math.min(earliest, stat[0]);
+                    byteTotal += stat[1];
+                }
+                long byteCount = byteTotal / intervalStats.size();
+                rows.add(new Object[] {BigInteger.valueOf(earliest / 1000),
+                                       "account", "store", "space",
+                                       BigDecimal.valueOf(byteCount),
+                                       BigDecimal.valueOf(byteCount / 100)});
+            }
+            return rows;
+        }
+    }
+
+}
@@ -0,0 +1,297 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.task;
+
+import static org.duracloud.common.util.ChecksumUtil.Algorithm.MD5;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.durastore.util.ParallelContentCopier;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.error.StorageException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.provider.mock.MockStorageProvider;
+import org.duracloud.storageprovider.dto.GetCopySpaceStatusTaskResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests space copies between in-memory storage providers
+ */
+public class SpaceCopyManagerTest {
+
+    private static final int ITEMS = 25;
+    private static final int CHUNK_SIZE = 10;
+    private static final int THREADS = 4;
+    private static final long WAIT_MILLIS = 10000;
+
+    private File workDir;
+    private LocalStorageProvider source;
+
+    @Before
+    public void setUp() {
+        workDir = new File("target", "space-copy-" + System.nanoTime());
+        source = new LocalStorageProvider();
+        for (int i = 0; i < ITEMS; i++) {
+            source.put("src-space", String.format("item-%02d", i), "content " + i);
+        }
+        source.put("src-space", "other/item", "not under the prefix");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workDir);
+    }
+
+    private SpaceCopyManager createManager() {
+        return new SpaceCopyManager(workDir, THREADS, CHUNK_SIZE,
+                                    new ParallelContentCopier(workDir, 1024, 2));
+    }
+
+    private GetCopySpaceStatusTaskResult waitForCompletion(SpaceCopyManager manager,
+                                                           String jobId)
+        throws InterruptedException {
+        long end = System.currentTimeMillis() + WAIT_MILLIS;
+        while (System.currentTimeMillis() < end) {
+            GetCopySpaceStatusTaskResult status = manager.getStatus(jobId);
+            if (SpaceCopyJob.State.COMPLETE.name().equals(status.getStatus()) ||
+                SpaceCopyJob.State.FAILED.name().equals(status.getStatus())) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("Copy did not complete within " + WAIT_MILLIS + "ms");
+        return null;
+    }
+
+    @Test
+    public void testCopyWithinStore() throws Exception {
+        SpaceCopyManager manager = createManager();
+        String jobId = manager.startCopy(source, "0", "src-space", "item-",
+                                         source, "0", "dest-space");
+
+        GetCopySpaceStatusTaskResult status = waitForCompletion(manager, jobId);
+        assertEquals(SpaceCopyJob.State.COMPLETE.name(), status.getStatus());
+        assertEquals(ITEMS, status.getItemsCopied());
+        assertEquals(0, status.getItemsFailed());
+        assertEquals(String.format("item-%02d", ITEMS - 1), status.getLastContentId());
+
+        // Items are copied with the provider's own copy
+        assertEquals(ITEMS, source.serverSideCopies.size());
+        assertEquals(0, source.added.size());
+        for (int i = 0; i < ITEMS; i++) {
+            assertEquals("content " + i,
+                         source.get("dest-space", String.format("item-%02d", i)));
+        }
+        assertNull(source.get("dest-space", "other/item"));
+    }
+
+    @Test
+    public void testCopyBetweenStores() throws Exception {
+        LocalStorageProvider dest = new LocalStorageProvider();
+
+        SpaceCopyManager manager = createManager();
+        String jobId = manager.startCopy(source, "0", "src-space", null,
+                                         dest, "1", "dest-space");
+
+        GetCopySpaceStatusTaskResult status = waitForCompletion(manager, jobId);
+        assertEquals(SpaceCopyJob.State.COMPLETE.name(), status.getStatus());
+        assertEquals(ITEMS + 1, status.getItemsCopied());
+        assertEquals(0, source.serverSideCopies.size());
+        assertEquals(ITEMS + 1, dest.added.size());
+        assertEquals("not under the prefix", dest.get("dest-space", "other/item"));
+        assertEquals("content 7", dest.get("dest-space", "item-07"));
+    }
+
+    @Test
+    public void testFailedItems() throws Exception {
+        source.failingContentId = "item-03";
+
+        SpaceCopyManager manager = createManager();
+        String jobId = manager.startCopy(source, "0", "src-space", "item-",
+                                         source, "0", "dest-space");
+
+        GetCopySpaceStatusTaskResult status = waitForCompletion(manager, jobId);
+        assertEquals(SpaceCopyJob.State.COMPLETE.name(), status.getStatus());
+        assertEquals(ITEMS - 1, status.getItemsCopied());
+        assertEquals(1, status.getItemsFailed());
+        assertEquals(Arrays.asList("item-03"), status.getFailedContentIds());
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        // Listing of the third chunk fails
+        source.failingMarker = String.format("item-%02d", 2 * CHUNK_SIZE - 1);
+
+        SpaceCopyManager manager = createManager();
+        String jobId = manager.startCopy(source, "0", "src-space", "item-",
+                                         source, "0", "dest-space");
+        GetCopySpaceStatusTaskResult status = waitForCompletion(manager, jobId);
+        assertEquals(SpaceCopyJob.State.FAILED.name(), status.getStatus());
+        assertEquals(2 * CHUNK_SIZE, status.getItemsCopied());
+        assertNotNull(status.getError());
+
+        // Starting the same copy again picks up after the last full chunk
+        source.failingMarker = null;
+        source.serverSideCopies.clear();
+        String resumedJobId = manager.startCopy(source, "0", "src-space", "item-",
+                                                source, "0", "dest-space");
+        assertEquals(jobId, resumedJobId);
+
+        status = waitForCompletion(manager, jobId);
+        assertEquals(SpaceCopyJob.State.COMPLETE.name(), status.getStatus());
+        assertEquals(ITEMS, status.getItemsCopied());
+        assertEquals(ITEMS - 2 * CHUNK_SIZE, source.serverSideCopies.size());
+        assertFalse(source.serverSideCopies.contains("item-00"));
+    }
+
+    @Test
+    public void testStatusFromCheckpoint() throws Exception {
+        SpaceCopyManager manager = createManager();
+        String jobId = manager.startCopy(source, "0", "src-space", "item-",
+                                         source, "0", "dest-space");
+        waitForCompletion(manager, jobId);
+
+        // A new manager (as after a restart) finds the status in the checkpoint
+        SpaceCopyManager restarted = createManager();
+        GetCopySpaceStatusTaskResult status = restarted.getStatus(jobId);
+        assertNotNull(status);
+        assertEquals(SpaceCopyJob.State.COMPLETE.name(), status.getStatus());
+        assertEquals(ITEMS, status.getItemsCopied());
+
+        assertNull(restarted.getStatus("0123456789abcdef"));
+        assertNull(restarted.getStatus("../not-a-job"));
+    }
+
+    /**
+     * Storage provider which holds content in memory
+     */
+    private static class LocalStorageProvider extends MockStorageProvider {
+        private final Map<String, String> items = new ConcurrentSkipListMap<>();
+        private final List<String> serverSideCopies = new CopyOnWriteArrayList<>();
+        private final List<String> added = new CopyOnWriteArrayList<>();
+        private volatile String failingContentId;
+        private volatile String failingMarker;
+
+        void put(String spaceId, String contentId, String content) {
+            items.put(spaceId + "/" + contentId, content);
+        }
+
+        String get(String spaceId, String contentId) {
+            return items.get(spaceId + "/" + contentId);
+        }
+
+        private String getExisting(String spaceId, String contentId) {
+            String content = get(spaceId, contentId);
+            if (null == content || contentId.equals(failingContentId)) {
+                throw new NotFoundException(contentId);
+            }
+            return content;
+        }
+
+        @Override
+        public List<String> getSpaceContentsChunked(String spaceId,
+                                                    String prefix,
+                                                    long maxResults,
+                                                    String marker) {
+            if (null != marker && marker.equals(failingMarker)) {
+                throw new StorageException("Listing failed");
+            }
+            String spacePrefix = spaceId + "/";
+            List<String> chunk = new ArrayList<>();
+            for (String key : items.keySet()) {
+                if (!key.startsWith(spacePrefix)) {
+                    continue;
+                }
+                String contentId = key.substring(spacePrefix.length());
+                if ((null == prefix || contentId.startsWith(prefix)) &&
+                    (null == marker || contentId.compareTo(marker) > 0) &&
+                    chunk.size() < maxResults) {
+                    chunk.add(contentId);
+                }
+            }
+            return chunk;
+        }
+
+        @Override
+        public String copyContent(String sourceSpaceId,
+                                  String sourceContentId,
+                                  String destSpaceId,
+                                  String destContentId) {
+            String content = getExisting(sourceSpaceId, sourceContentId);
+            serverSideCopies.add(sourceContentId);
+            put(destSpaceId, destContentId, content);
+            return checksum(content);
+        }
+
+        @Override
+        public Map<String, String> getContentProperties(String spaceId,
+                                                        String contentId) {
+            String content = getExisting(spaceId, contentId);
+            Map<String, String> properties = new HashMap<>();
+            properties.put(StorageProvider.PROPERTIES_CONTENT_SIZE,
+                           String.valueOf(content.length()));
+            properties.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM,
+                           checksum(content));
+            properties.put(StorageProvider.PROPERTIES_CONTENT_MIMETYPE, "text/plain");
+            return properties;
+        }
+
+        @Override
+        public InputStream getContent(String spaceId, String contentId) {
+            return new ByteArrayInputStream(
+                getExisting(spaceId, contentId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String addContent(String spaceId,
+                                 String contentId,
+                                 String contentMimeType,
+                                 Map<String, String> userProperties,
+                                 long contentSize,
+                                 String contentChecksum,
+                                 InputStream content) {
+            try {
+                String value = IOUtils.toString(content, StandardCharsets.UTF_8);
+                assertEquals(contentChecksum, checksum(value));
+                assertTrue(contentSize == value.length());
+                added.add(contentId);
+                put(spaceId, contentId, value);
+                return contentChecksum;
+            } catch (IOException e) {
+                throw new StorageException(e);
+            }
+        }
+
+        private String checksum(String content) {
+            return new ChecksumUtil(MD5).generateChecksum(content);
+        }
+    }
+
+}
@@ -14,12 +14,18 @@ import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.duracloud.common.model.AclType;
 import org.duracloud.common.rest.DuraCloudRequestContextUtil;
@@ -280,6 +286,192 @@ public class ACLStorageProviderTest {
         Assert.assertEquals(origAcls, acls);
     }
 
+    @Test
+    public void testRefreshCache() throws InterruptedException {
+        String spaceId = spacePrefix + 2;
+        createMockStorageProvider(2);
+        replayMocks();
+
+        provider = createProvider();
+        Map<String, AclType> acls = provider.getSpaceACLs(spaceId);
+        Assert.assertEquals(1, acls.size());
+
+        // method under test
+        provider.refreshCache();
+
+        // the cache continues to be used while it is reloaded
+        acls = provider.getSpaceACLs(spaceId);
+        Assert.assertEquals(1, acls.size());
+
+        // wait for the cache to be reloaded
+        for (int i = 0; i < 100; i++) {
+            try {
+                verify(mockProvider);
+                break;
+            } catch (AssertionError e) {
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    @Test
+    public void testSetSpaceACLsDuringRefresh() throws Exception {
+        setupNotification();
+        String spaceId = spacePrefix + 2;
+        String reloadedSpaceId = spacePrefix + 0;
+        CountDownLatch reloadStarted = new CountDownLatch(1);
+        CountDownLatch continueReload = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        mockProvider = createMock("StorageProvider", StorageProvider.class);
+        expect(mockProvider.getSpaces())
+            .andAnswer(() -> Arrays.asList(reloadedSpaceId, spaceId).iterator())
+            .times(2);
+        expect(mockProvider.getSpaceACLs(reloadedSpaceId))
+            .andReturn(new HashMap<String, AclType>());
+        expect(mockProvider.getSpaceACLs(reloadedSpaceId))
+            .andReturn(createSpaceACLs());
+        Map<String, AclType> storedAcls = new HashMap<String, AclType>();
+        storedAcls.put(PROPERTIES_SPACE_ACL + username, AclType.READ);
+        expect(mockProvider.getSpaceACLs(spaceId))
+            .andReturn(storedAcls)
+            .times(2);
+
+        Map<String, AclType> newAcls = createSpaceACLs();
+        mockProvider.setSpaceACLs(spaceId, newAcls);
+        expectLastCall().once();
+        replayMocks();
+
+        provider = createProvider(onGetSpaces(() -> {
+            if (loads.incrementAndGet() == 2) {
+                reloadStarted.countDown();
+                continueReload.await(10, TimeUnit.SECONDS);
+            }
+        }));
+        Assert.assertEquals(0, provider.getSpaceACLs(reloadedSpaceId).size());
+
+        // method under test
+        provider.refreshCache();
+        Assert.assertTrue(reloadStarted.await(10, TimeUnit.SECONDS));
+        provider.setSpaceACLs(spaceId, newAcls);
+        continueReload.countDown();
+
+        waitForAcls(reloadedSpaceId, createSpaceACLs());
+
+        // the ACLs set during the reload are not replaced by the reloaded ACLs
+        Assert.assertEquals(newAcls, provider.getSpaceACLs(spaceId));
+    }
+
+    @Test
+    public void testOverlappingRefreshes() throws Exception {
+        String spaceId = spacePrefix + 0;
+        CountDownLatch reloadStarted = new CountDownLatch(1);
+        CountDownLatch continueReload = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger loading = new AtomicInteger();
+        AtomicInteger maxLoading = new AtomicInteger();
+
+        mockProvider = createMock("StorageProvider", StorageProvider.class);
+        expect(mockProvider.getSpaces())
+            .andAnswer(() -> Arrays.asList(spaceId).iterator())
+            .times(3);
+        expect(mockProvider.getSpaceACLs(spaceId)).andAnswer(() -> {
+            Map<String, AclType> acls = new HashMap<String, AclType>();
+            acls.put(PROPERTIES_SPACE_ACL + "load-" + loads.get(), AclType.READ);
+            loading.decrementAndGet();
+            return acls;
+        }).times(3);
+        replayMocks();
+
+        provider = createProvider(onGetSpaces(() -> {
+            maxLoading.accumulateAndGet(loading.incrementAndGet(), Math::max);
+            if (loads.incrementAndGet() == 2) {
+                reloadStarted.countDown();
+                continueReload.await(10, TimeUnit.SECONDS);
+            }
+        }));
+        provider.getSpaceACLs(spaceId);
+
+        // method under test
+        provider.refreshCache();
+        Assert.assertTrue(reloadStarted.await(10, TimeUnit.SECONDS));
+        provider.refreshCache();
+        provider.refreshCache();
+        continueReload.countDown();
+
+        // the refreshes requested during a reload are made as one more reload
+        Map<String, AclType> lastAcls = new HashMap<String, AclType>();
+        lastAcls.put(PROPERTIES_SPACE_ACL + "load-3", AclType.READ);
+        waitForAcls(spaceId, lastAcls);
+
+        Assert.assertEquals(3, loads.get());
+        Assert.assertEquals(1, maxLoading.get());
+    }
+
+    private ACLStorageProvider createProvider(StorageProvider targetProvider) {
+        return new ACLStorageProvider(targetProvider,
+                                      securityContextUtil,
+                                      notifier,
+                                      requestContextUtil);
+    }
+
+    private interface Hook {
+        void run() throws Exception;
+    }
+
+    /*
+     * Calls to a mock are made one at a time, so the hook blocks loads in
+     * front of the mock rather than in an answer of the mock
+     */
+    private StorageProvider onGetSpaces(Hook hook) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("getSpaces")) {
+                hook.run();
+            }
+            try {
+                return method.invoke(mockProvider, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (StorageProvider) Proxy.newProxyInstance(
+            StorageProvider.class.getClassLoader(),
+            new Class<?>[] {StorageProvider.class},
+            handler);
+    }
+
+    private void waitForAcls(String spaceId, Map<String, AclType> expected)
+        throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            if (expected.equals(provider.getSpaceACLs(spaceId))) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(expected, provider.getSpaceACLs(spaceId));
+    }
+
+    @Test
+    public void testReplaceProvider() {
+        String spaceId = spacePrefix + 3;
+        createMockStorageProvider(1);
+        StorageProvider replacementProvider =
+            createMock("ReplacementProvider", StorageProvider.class);
+        replay(replacementProvider);
+        replayMocks();
+
+        provider = createProvider();
+        Map<String, AclType> acls = provider.getSpaceACLs(spaceId);
+
+        // method under test
+        ACLStorageProvider replacement =
+            new ACLStorageProvider(replacementProvider, provider);
+
+        // ACLs are retrieved from the cache of the replaced provider
+        Assert.assertEquals(acls, replacement.getSpaceACLs(spaceId));
+        verify(replacementProvider);
+    }
+
     @Test
     public void testClearCache() throws InterruptedException {
         String spaceId = "ACLStorageProvider-cache";
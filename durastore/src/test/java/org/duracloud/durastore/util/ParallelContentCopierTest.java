@@ -0,0 +1,397 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import static org.duracloud.common.util.ChecksumUtil.Algorithm.MD5;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.storage.error.ChecksumMismatchException;
+import org.duracloud.storage.error.StorageException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.provider.mock.MockStorageProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the parallel ranged copy between two local storage providers
+ */
+public class ParallelContentCopierTest {
+
+    private static final int PART_SIZE = 1024;
+    private static final int THREADS = 4;
+    private static final int CONTENT_SIZE = 10 * PART_SIZE + 100;
+    private static final int PART_COUNT = 11;
+
+    private File workDir;
+    private byte[] content;
+    private String checksum;
+    private Map<String, String> properties;
+    private LocalSourceProvider source;
+
+    @Before
+    public void setUp() throws Exception {
+        workDir = new File("target", "parallel-copy-" + System.nanoTime());
+        content = new byte[CONTENT_SIZE];
+        new Random(17).nextBytes(content);
+        checksum = new ChecksumUtil(MD5).generateChecksum(
+            new ByteArrayInputStream(content));
+
+        properties = new HashMap<>();
+        properties.put(StorageProvider.PROPERTIES_CONTENT_SIZE,
+                       String.valueOf(CONTENT_SIZE));
+        properties.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM, checksum);
+        properties.put(StorageProvider.PROPERTIES_CONTENT_MIMETYPE, "text/plain");
+
+        source = new LocalSourceProvider(content);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(workDir);
+    }
+
+    private String copy(ParallelContentCopier copier, StorageProvider dest) {
+        return copier.copy(source, "0", "src-space", "src-content",
+                           dest, "1", "dest-space", "dest-content",
+                           properties);
+    }
+
+    private ParallelContentCopier createCopier() {
+        return new ParallelContentCopier(workDir, PART_SIZE, THREADS);
+    }
+
+    @Test
+    public void testCopyMultipart() {
+        LocalMultipartProvider dest = new LocalMultipartProvider();
+
+        String result = copy(createCopier(), dest);
+
+        assertEquals(checksum, result);
+        assertArrayEquals(content, dest.completed);
+        assertEquals(PART_COUNT, source.rangeReads.get());
+        assertEquals(1, dest.uploadsStarted.get());
+        assertTrue(dest.maxConcurrentParts.get() <= THREADS);
+        assertEquals(0, workDir.listFiles().length);
+    }
+
+    @Test
+    public void testCopySpooled() {
+        LocalStoreProvider dest = new LocalStoreProvider();
+
+        String result = copy(createCopier(), dest);
+
+        assertEquals(checksum, result);
+        assertArrayEquals(content, dest.added);
+        assertEquals(PART_COUNT, source.rangeReads.get());
+        assertEquals(0, workDir.listFiles().length);
+    }
+
+    @Test
+    public void testRetryFailedRange() {
+        source.failuresPerRange = ParallelContentCopier.MAX_PART_ATTEMPTS - 1;
+        LocalMultipartProvider dest = new LocalMultipartProvider();
+
+        assertEquals(checksum, copy(createCopier(), dest));
+        assertArrayEquals(content, dest.completed);
+    }
+
+    @Test
+    public void testResumeMultipart() {
+        LocalMultipartProvider dest = new LocalMultipartProvider();
+        dest.failingPart = 6;
+
+        try {
+            copy(createCopier(), dest);
+            fail("Exception expected");
+        } catch (StorageException e) {
+            // Expected
+        }
+        assertTrue(workDir.list().length > 0);
+        int readsBeforeRetry = source.rangeReads.get();
+
+        // Retry picks up the same upload and sends only the missing parts
+        dest.failingPart = -1;
+        source.rangeReads.set(0);
+        String result = copy(createCopier(), dest);
+
+        assertEquals(checksum, result);
+        assertArrayEquals(content, dest.completed);
+        assertEquals(1, dest.uploadsStarted.get());
+        // The failing part was read once per attempt, all others once
+        int partsBeforeRetry =
+            readsBeforeRetry - ParallelContentCopier.MAX_PART_ATTEMPTS;
+        assertEquals(PART_COUNT - partsBeforeRetry, source.rangeReads.get());
+        assertTrue(source.rangeReads.get() < PART_COUNT);
+        assertEquals(0, workDir.listFiles().length);
+    }
+
+    @Test
+    public void testResumeSpooled() {
+        source.failingRangeStart = 3 * PART_SIZE;
+        LocalStoreProvider dest = new LocalStoreProvider();
+
+        try {
+            copy(createCopier(), dest);
+            fail("Exception expected");
+        } catch (StorageException e) {
+            // Expected
+        }
+        assertNull(dest.added);
+        assertTrue(workDir.list().length > 0);
+
+        source.failingRangeStart = -1;
+        source.rangeReads.set(0);
+        String result = copy(createCopier(), dest);
+
+        assertEquals(checksum, result);
+        assertArrayEquals(content, dest.added);
+        assertTrue(source.rangeReads.get() < PART_COUNT);
+        assertEquals(0, workDir.listFiles().length);
+    }
+
+    @Test
+    public void testConcurrentCopies() throws Exception {
+        CountDownLatch partStarted = new CountDownLatch(1);
+        CountDownLatch partsReleased = new CountDownLatch(1);
+        LocalMultipartProvider blockedDest = new LocalMultipartProvider() {
+            @Override
+            public String addContentPart(String spaceId,
+                                         String contentId,
+                                         String uploadId,
+                                         int partNumber,
+                                         long partSize,
+                                         InputStream part) {
+                partStarted.countDown();
+                try {
+                    partsReleased.await();
+                } catch (InterruptedException e) {
+                    throw new StorageException(e);
+                }
+                return super.addContentPart(spaceId, contentId, uploadId,
+                                            partNumber, partSize, part);
+            }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> blockedCopy =
+                executor.submit(() -> copy(createCopier(), blockedDest));
+            assertTrue(partStarted.await(10, TimeUnit.SECONDS));
+
+            // A second copy of the same item does not pick up the checkpoint
+            // (and so the upload) of the copy in progress
+            LocalMultipartProvider dest = new LocalMultipartProvider();
+            assertEquals(checksum, copy(createCopier(), dest));
+            assertArrayEquals(content, dest.completed);
+            assertEquals(1, dest.uploadsStarted.get());
+
+            partsReleased.countDown();
+            assertEquals(checksum, blockedCopy.get(10, TimeUnit.SECONDS));
+            assertArrayEquals(content, blockedDest.completed);
+            assertEquals(1, blockedDest.uploadsStarted.get());
+        } finally {
+            partsReleased.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(0, workDir.listFiles().length);
+    }
+
+    @Test
+    public void testChecksumMismatch() {
+        properties.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM, "bad");
+        LocalMultipartProvider dest = new LocalMultipartProvider();
+
+        try {
+            copy(createCopier(), dest);
+            fail("Exception expected");
+        } catch (ChecksumMismatchException e) {
+            // Expected
+        }
+        assertTrue(dest.aborted);
+        assertEquals(0, workDir.listFiles().length);
+    }
+
+    /**
+     * Source provider which serves byte ranges of an in-memory content item
+     */
+    private static class LocalSourceProvider extends MockStorageProvider {
+        private final byte[] data;
+        private final AtomicInteger rangeReads = new AtomicInteger();
+        private final Map<Long, AtomicInteger> failures = new ConcurrentHashMap<>();
+        private int failuresPerRange = 0;
+        private long failingRangeStart = -1;
+
+        LocalSourceProvider(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public boolean supportsRangeRetrieval() {
+            return true;
+        }
+
+        @Override
+        public InputStream getContent(String spaceId,
+                                      String contentId,
+                                      long startByte,
+                                      long endByte) {
+            rangeReads.incrementAndGet();
+            if (startByte == failingRangeStart) {
+                throw new StorageException("Range unavailable");
+            }
+            AtomicInteger failed =
+                failures.computeIfAbsent(startByte, k -> new AtomicInteger());
+            if (failed.getAndIncrement() < failuresPerRange) {
+                throw new StorageException("Transient failure");
+            }
+            return new ByteArrayInputStream(
+                Arrays.copyOfRange(data, (int) startByte, (int) endByte + 1));
+        }
+    }
+
+    /**
+     * Destination provider which assembles uploaded parts in memory
+     */
+    private static class LocalMultipartProvider extends MockStorageProvider {
+        private final Map<Integer, byte[]> parts = new ConcurrentHashMap<>();
+        private final Set<String> uploads = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger uploadsStarted = new AtomicInteger();
+        private final AtomicInteger activeParts = new AtomicInteger();
+        private final AtomicInteger maxConcurrentParts = new AtomicInteger();
+        private volatile int failingPart = -1;
+        private byte[] completed;
+        private boolean aborted;
+
+        @Override
+        public boolean supportsMultipartUpload() {
+            return true;
+        }
+
+        @Override
+        public String startMultipartUpload(String spaceId,
+                                           String contentId,
+                                           String contentMimeType,
+                                           Map<String, String> userProperties,
+                                           String contentChecksum) {
+            String uploadId = "upload-" + uploadsStarted.incrementAndGet();
+            uploads.add(uploadId);
+            return uploadId;
+        }
+
+        @Override
+        public String addContentPart(String spaceId,
+                                     String contentId,
+                                     String uploadId,
+                                     int partNumber,
+                                     long partSize,
+                                     InputStream part) {
+            assertTrue(uploads.contains(uploadId));
+            int active = activeParts.incrementAndGet();
+            maxConcurrentParts.accumulateAndGet(active, Math::max);
+            try {
+                if (partNumber == failingPart) {
+                    throw new StorageException("Part rejected");
+                }
+                byte[] bytes = IOUtils.toByteArray(part);
+                assertEquals(partSize, bytes.length);
+                parts.put(partNumber, bytes);
+                return new ChecksumUtil(MD5).generateChecksum(
+                    new ByteArrayInputStream(bytes));
+            } catch (IOException e) {
+                throw new StorageException(e);
+            } finally {
+                activeParts.decrementAndGet();
+            }
+        }
+
+        @Override
+        public String completeMultipartUpload(String spaceId,
+                                              String contentId,
+                                              String uploadId,
+                                              List<String> partChecksums) {
+            assertTrue(uploads.remove(uploadId));
+            ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+            for (int partNumber = 1; partNumber <= partChecksums.size(); partNumber++) {
+                byte[] bytes = parts.get(partNumber);
+                assertEquals(partChecksums.get(partNumber - 1),
+                             new ChecksumUtil(MD5).generateChecksum(
+                                 new ByteArrayInputStream(bytes)));
+                assembled.write(bytes, 0, bytes.length);
+            }
+            completed = assembled.toByteArray();
+            return new ChecksumUtil(MD5).generateChecksum(
+                new ByteArrayInputStream(completed));
+        }
+
+        @Override
+        public void abortMultipartUpload(String spaceId,
+                                         String contentId,
+                                         String uploadId) {
+            uploads.remove(uploadId);
+            aborted = true;
+            parts.clear();
+        }
+    }
+
+    /**
+     * Destination provider which only accepts whole content items
+     */
+    private static class LocalStoreProvider extends MockStorageProvider {
+        private byte[] added;
+
+        @Override
+        public String addContent(String spaceId,
+                                 String contentId,
+                                 String contentMimeType,
+                                 Map<String, String> userProperties,
+                                 long contentSize,
+                                 String contentChecksum,
+                                 InputStream content) {
+            try {
+                added = IOUtils.toByteArray(content);
+            } catch (IOException e) {
+                throw new StorageException(e);
+            }
+            assertEquals(contentSize, added.length);
+            String computed = new ChecksumUtil(MD5).generateChecksum(
+                new ByteArrayInputStream(added));
+            if (!computed.equals(contentChecksum)) {
+                throw new ChecksumMismatchException("Checksum mismatch", false);
+            }
+            return computed;
+        }
+    }
+
+}
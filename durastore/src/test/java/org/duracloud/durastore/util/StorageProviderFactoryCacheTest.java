@@ -0,0 +1,135 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.duracloud.common.event.AccountChangeEvent;
+import org.duracloud.common.event.AccountChangeEvent.EventType;
+import org.duracloud.storage.domain.StorageAccountManager;
+import org.duracloud.storage.util.StorageProviderFactory;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the handling of account change events by the storage provider
+ * factory cache
+ */
+public class StorageProviderFactoryCacheTest {
+
+    private static final String ACCOUNT_ID = "account";
+
+    private StorageAccountManagerFactory accountManagerFactory;
+    private StorageProviderFactoryImpl factory;
+    private StorageProviderFactoryImpl replacementFactory;
+    private StorageProviderFactoryCache cache;
+
+    @Before
+    public void setUp() {
+        accountManagerFactory = EasyMock.createMock(StorageAccountManagerFactory.class);
+        factory = EasyMock.createMock("factory", StorageProviderFactoryImpl.class);
+        replacementFactory =
+            EasyMock.createMock("replacementFactory", StorageProviderFactoryImpl.class);
+
+        final Iterator<StorageProviderFactoryImpl> factories =
+            Arrays.asList(factory, replacementFactory).iterator();
+        cache = new StorageProviderFactoryCache(accountManagerFactory, null, null,
+                                                null, null, null) {
+            @Override
+            protected StorageProviderFactory createInstance(String accountId) {
+                return factories.next();
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        EasyMock.verify(accountManagerFactory, factory, replacementFactory);
+    }
+
+    private void replayMocks() {
+        EasyMock.replay(accountManagerFactory, factory, replacementFactory);
+    }
+
+    private AccountChangeEvent event(EventType eventType, String accountId) {
+        return new AccountChangeEvent(eventType, accountId, "another-host");
+    }
+
+    @Test
+    public void testStorageProvidersChanged() {
+        // The metrics of the replaced factory are removed
+        factory.unregisterMetrics();
+        EasyMock.expectLastCall().once();
+        replayMocks();
+
+        assertSame(factory, cache.get(ACCOUNT_ID));
+        cache.onEvent(event(EventType.STORAGE_PROVIDERS_CHANGED, ACCOUNT_ID));
+        assertSame(replacementFactory, cache.get(ACCOUNT_ID));
+    }
+
+    @Test
+    public void testStorageCredentialsChanged() {
+        StorageAccountManager accountManager =
+            EasyMock.createMock(StorageAccountManager.class);
+        EasyMock.expect(accountManagerFactory.createInstance())
+                .andReturn(accountManager);
+        factory.refreshAccountManager(accountManager);
+        EasyMock.expectLastCall().once();
+        replayMocks();
+
+        assertSame(factory, cache.get(ACCOUNT_ID));
+        cache.onEvent(event(EventType.STORAGE_CREDENTIALS_CHANGED, ACCOUNT_ID));
+
+        // The account information is reloaded once, on the next request
+        assertSame(factory, cache.get(ACCOUNT_ID));
+        assertSame(factory, cache.get(ACCOUNT_ID));
+    }
+
+    @Test
+    public void testSpaceACLsChanged() {
+        factory.refreshSpaceACLs();
+        EasyMock.expectLastCall().once();
+        replayMocks();
+
+        assertSame(factory, cache.get(ACCOUNT_ID));
+        cache.onEvent(event(EventType.STORAGE_PROVIDER_CACHE_ON_NODE_CHANGED,
+                            ACCOUNT_ID));
+        assertSame(factory, cache.get(ACCOUNT_ID));
+    }
+
+    @Test
+    public void testUnrelatedChanges() {
+        replayMocks();
+
+        assertSame(factory, cache.get(ACCOUNT_ID));
+        cache.onEvent(event(EventType.USERS_CHANGED, ACCOUNT_ID));
+        cache.onEvent(event(EventType.STREAMING_CHANGED, ACCOUNT_ID));
+        cache.onEvent(event(EventType.STREAMING_CHANGED, null));
+        cache.onEvent(event(EventType.ROOT_USERS_CHANGED, null));
+        cache.onEvent(event(EventType.STORAGE_CREDENTIALS_CHANGED, "other-account"));
+        assertSame(factory, cache.get(ACCOUNT_ID));
+    }
+
+    @Test
+    public void testAllAccountsChanged() {
+        factory.unregisterMetrics();
+        EasyMock.expectLastCall().once();
+        replayMocks();
+
+        assertSame(factory, cache.get(ACCOUNT_ID));
+        cache.onEvent(event(EventType.ALL_ACCOUNTS_CHANGED, null));
+        assertNotSame(factory, cache.get(ACCOUNT_ID));
+    }
+
+}
@@ -8,13 +8,20 @@
 package org.duracloud.durastore.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.duracloud.common.rest.DuraCloudRequestContextUtil;
 import org.duracloud.common.sns.AccountChangeNotifier;
@@ -26,6 +33,7 @@ import org.duracloud.storage.domain.StorageAccountManager;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.domain.impl.StorageAccountImpl;
 import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.BrokeredStorageProvider;
 import org.duracloud.storage.provider.StatelessStorageProvider;
 import org.duracloud.storage.provider.StorageProvider;
@@ -185,6 +193,107 @@ public class StorageProviderFactoryTest {
         replayMocks();
     }
 
+    @Test
+    public void testExpireStorageProviderOnError() {
+        EasyMock.expect(mockSAM.getStorageAccount(acctId1))
+                .andReturn(acct1)
+                .times(2);
+        EasyMock.expect(mockSAM.getAccountName()).andReturn(acct1Name).times(2);
+
+        replayMocks();
+
+        StorageProvider provider = factory.getStorageProvider(acctId1);
+        assertSame(provider, factory.getStorageProvider(acctId1));
+
+        // Errors which a new provider would not resolve
+        factory.expireStorageProvider(acctId1, new NotFoundException("not found"));
+        assertSame(provider, factory.getStorageProvider(acctId1));
+        factory.expireStorageProvider(
+            acctId1, new StorageException("timeout", new IOException("read timed out")));
+        assertSame(provider, factory.getStorageProvider(acctId1));
+
+        // Provider error, the provider is rebuilt
+        factory.expireStorageProvider(acctId1, new StorageException("failure"));
+        StorageProvider newProvider = factory.getStorageProvider(acctId1);
+        assertNotSame(provider, newProvider);
+
+        // Expired recently, so the provider is kept
+        factory.expireStorageProvider(acctId1, new StorageException("failure"));
+        assertSame(newProvider, factory.getStorageProvider(acctId1));
+    }
+
+    @Test
+    public void testOperationMetrics() throws Exception {
+        EasyMock.expect(mockSAM.getStorageAccount(acctId1))
+                .andReturn(acct1)
+                .times(2);
+        EasyMock.expect(mockSAM.getAccountName()).andReturn(acct1Name).times(2);
+        String acctId3 = "3";
+        EasyMock.expect(mockSAM.getStorageAccount(acctId3))
+                .andReturn(new StorageAccountImpl(acctId3, "u", "p",
+                                                  StorageProviderType.AMAZON_S3))
+                .times(1);
+        EasyMock.expect(mockSAM.getAccountName()).andReturn(acct1Name);
+
+        replayMocks();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName metrics1 = getMetricsName(acct1Name + "/" + acctId1);
+        ObjectName metrics2 = getMetricsName(acct1Name + "/" + acctId3);
+
+        // Each storage account has its own metrics
+        factory.getStorageProvider(acctId1);
+        factory.getStorageProvider(acctId3);
+        assertTrue(server.isRegistered(metrics1));
+        assertTrue(server.isRegistered(metrics2));
+
+        // The metrics are kept when a provider is rebuilt
+        factory.expireStorageProvider(acctId1);
+        factory.getStorageProvider(acctId1);
+        assertTrue(server.isRegistered(metrics1));
+
+        ((StorageProviderFactoryImpl) factory).unregisterMetrics();
+        assertFalse(server.isRegistered(metrics1));
+        assertFalse(server.isRegistered(metrics2));
+    }
+
+    private ObjectName getMetricsName(String name) throws Exception {
+        return new ObjectName("org.duracloud:type=OperationMetrics,name=" +
+                              ObjectName.quote(name));
+    }
+
+    @Test
+    public void testRefreshAccountManager() {
+        EasyMock.expect(mockSAM.getStorageAccount(acctId1))
+                .andReturn(acct1)
+                .times(1);
+        EasyMock.expect(mockSAM.getAccountName()).andReturn(acct1Name);
+
+        StorageAccountManager newSAM =
+            EasyMock.createMock(StorageAccountManager.class);
+        EasyMock.expect(newSAM.isInitialized())
+                .andReturn(true)
+                .anyTimes();
+        EasyMock.expect(newSAM.getStorageAccount(acctId1))
+                .andReturn(new StorageAccountImpl(acctId1, "u", "new-p",
+                                                  StorageProviderType.AMAZON_S3))
+                .times(1);
+        EasyMock.expect(newSAM.getAccountName()).andReturn(acct1Name);
+
+        EasyMock.replay(newSAM);
+        replayMocks();
+
+        StorageProvider provider = factory.getStorageProvider(acctId1);
+
+        // The provider is rebuilt from the new account information
+        ((StorageProviderFactoryImpl) factory).refreshAccountManager(newSAM);
+        StorageProvider newProvider = factory.getStorageProvider(acctId1);
+        assertNotSame(provider, newProvider);
+        assertSame(newProvider, factory.getStorageProvider(acctId1));
+
+        EasyMock.verify(newSAM);
+    }
+
     @Test
     public void testInitilize() throws Exception {
         //Test retrieving from accountManager
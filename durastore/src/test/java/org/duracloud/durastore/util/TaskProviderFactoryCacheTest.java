@@ -0,0 +1,119 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
+import org.duracloud.common.event.AccountChangeEvent;
+import org.duracloud.common.event.AccountChangeEvent.EventType;
+import org.duracloud.s3task.streaming.StreamingDistributionWatcher;
+import org.duracloud.storage.domain.StorageAccountManager;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.domain.impl.StorageAccountImpl;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the handling of account change events by the task provider factory
+ * cache
+ */
+public class TaskProviderFactoryCacheTest {
+
+    private static final String ACCOUNT_ID = "account";
+
+    private StorageAccountManagerFactory accountManagerFactory;
+    private StorageAccountManager accountManager;
+    private StreamingDistributionWatcher distributionWatcher;
+    private TaskProviderFactoryCache cache;
+
+    @Before
+    public void setUp() {
+        accountManagerFactory = EasyMock.createMock(StorageAccountManagerFactory.class);
+        accountManager = EasyMock.createMock(StorageAccountManager.class);
+        distributionWatcher = EasyMock.createMock(StreamingDistributionWatcher.class);
+        EasyMock.expect(accountManager.getAccountName())
+                .andReturn(ACCOUNT_ID)
+                .anyTimes();
+        cache = new TaskProviderFactoryCache(null, accountManagerFactory, null, null);
+    }
+
+    @After
+    public void tearDown() {
+        EasyMock.verify(accountManagerFactory, accountManager, distributionWatcher);
+    }
+
+    private void replayMocks() {
+        EasyMock.replay(accountManagerFactory, accountManager, distributionWatcher);
+    }
+
+    private TaskProviderFactoryImpl getFactory(String accountId) {
+        return (TaskProviderFactoryImpl) cache.get(accountId);
+    }
+
+    @Test
+    public void testTaskManagersOutliveFactory() {
+        EasyMock.expect(accountManagerFactory.createInstance())
+                .andReturn(accountManager)
+                .times(4);
+        replayMocks();
+
+        TaskProviderFactoryImpl factory = getFactory(ACCOUNT_ID);
+        cache.onEvent(new AccountChangeEvent(EventType.ACCOUNT_CHANGED,
+                                             ACCOUNT_ID, "another-host"));
+        TaskProviderFactoryImpl replacement = getFactory(ACCOUNT_ID);
+        cache.onEvent(new AccountChangeEvent(EventType.ALL_ACCOUNTS_CHANGED,
+                                             null, "another-host"));
+
+        // The jobs of the replaced factory are seen by its replacements
+        assertNotSame(factory, replacement);
+        assertSame(factory.getTaskManagers(), replacement.getTaskManagers());
+        assertSame(factory.getTaskManagers(), getFactory(ACCOUNT_ID).getTaskManagers());
+        assertSame(factory.getTaskManagers().getGlacierRestoreManager(),
+                   replacement.getTaskManagers().getGlacierRestoreManager());
+
+        // Each account has its own managers
+        assertNotSame(factory.getTaskManagers(),
+                      getFactory("other-account").getTaskManagers());
+    }
+
+    @Test
+    public void testDistributionWatcherOutlivesFactory() {
+        String storeId = "store";
+        EasyMock.expect(accountManagerFactory.createInstance())
+                .andReturn(accountManager)
+                .times(2);
+        EasyMock.expect(accountManager.getStorageAccount(storeId))
+                .andReturn(new StorageAccountImpl(storeId, "u", "p",
+                                                  StorageProviderType.AMAZON_S3));
+
+        // The replacement factory gives the watcher a current client
+        distributionWatcher.setCloudFrontClient(
+            EasyMock.<AmazonCloudFrontClient>anyObject());
+        EasyMock.expectLastCall().once();
+        replayMocks();
+
+        TaskProviderFactoryImpl factory = getFactory(ACCOUNT_ID);
+        assertSame(distributionWatcher,
+                   factory.getTaskManagers().getDistributionWatcher(storeId, id -> distributionWatcher));
+        cache.onEvent(new AccountChangeEvent(EventType.ACCOUNT_CHANGED,
+                                             ACCOUNT_ID, "another-host"));
+
+        // The replacement factory uses the same watcher, rather than creating
+        // a second watcher of the same deletes
+        TaskProviderFactoryImpl replacement = getFactory(ACCOUNT_ID);
+        assertSame(distributionWatcher,
+                   replacement.getTaskManagers().getDistributionWatcher(storeId, id -> {
+                       throw new AssertionError("A second watcher was created");
+                   }));
+    }
+
+}
@@ -15,6 +15,7 @@ import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.StorageClass;
 import org.duracloud.s3storage.S3StorageProvider;
 import org.duracloud.s3storage.StoragePolicy;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.error.StorageStateException;
@@ -90,6 +91,36 @@ public class GlacierStorageProvider extends S3StorageProvider {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RetrievedContent getContentWithProperties(String spaceId,
+                                                     String contentId) {
+        try {
+            return super.getContentWithProperties(spaceId, contentId);
+        } catch (StorageException e) {
+            checkStorageState(e);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        try {
+            return super.getContent(spaceId, contentId, startByte, endByte);
+        } catch (StorageException e) {
+            checkStorageState(e);
+            throw e;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
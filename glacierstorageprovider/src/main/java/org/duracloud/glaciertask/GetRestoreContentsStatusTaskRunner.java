@@ -0,0 +1,50 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glaciertask;
+
+import org.duracloud.StorageTaskConstants;
+import org.duracloud.glacierstorageprovider.dto.GetRestoreContentsStatusTaskParameters;
+import org.duracloud.glacierstorageprovider.dto.GetRestoreContentsStatusTaskResult;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.TaskRunner;
+
+/**
+ * Task which retrieves the progress of a content restore, along with the
+ * restore state of any content items named in the parameters
+ */
+public class GetRestoreContentsStatusTaskRunner implements TaskRunner {
+
+    private static final String TASK_NAME =
+        StorageTaskConstants.GET_RESTORE_CONTENTS_STATUS_TASK_NAME;
+
+    private GlacierRestoreManager restoreManager;
+
+    public GetRestoreContentsStatusTaskRunner(GlacierRestoreManager restoreManager) {
+        this.restoreManager = restoreManager;
+    }
+
+    @Override
+    public String getName() {
+        return TASK_NAME;
+    }
+
+    @Override
+    public String performTask(String taskParameters) {
+        GetRestoreContentsStatusTaskParameters taskParams =
+            GetRestoreContentsStatusTaskParameters.deserialize(taskParameters);
+
+        String jobId = taskParams.getJobId();
+        GetRestoreContentsStatusTaskResult status =
+            restoreManager.getStatus(jobId, taskParams.getContentIds());
+        if (null == status) {
+            throw new NotFoundException("No content restore found with job ID " + jobId);
+        }
+        return status.serialize();
+    }
+
+}
@@ -0,0 +1,488 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glaciertask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.model.StorageClass;
+import org.duracloud.glacierstorageprovider.dto.GetRestoreContentsStatusTaskResult;
+import org.duracloud.storage.util.TaskJobManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Restores the archived content items of a space, either those with IDs that
+ * start with a given prefix or those in a list of content IDs.
+ *
+ * The content items are listed a batch at a time, and the restore requests
+ * for each batch are made in parallel on a shared request executor, at a
+ * limited rate. A content ID in the list which names chunked content (or its
+ * manifest) is expanded into the manifest and all of the chunks. As the
+ * manifest is itself archived, and so can not be read before it is restored,
+ * the chunks are found by listing the IDs which start with the chunk prefix.
+ *
+ * Once every restore has been requested, the state of the items which are not
+ * yet restored is checked (with a HEAD request, which reports the restore
+ * state in the x-amz-restore header) at each poll interval, until every item
+ * is either restored or has failed.
+ */
+public class GlacierRestoreJob implements TaskJobManager.Job {
+
+    private static final Logger log = LoggerFactory.getLogger(GlacierRestoreJob.class);
+
+    public enum State {
+        QUEUED, REQUESTING, WAITING, COMPLETE, FAILED
+    }
+
+    /**
+     * Restore state of a content item, in the order in which a restore
+     * progresses
+     */
+    public enum ItemState {
+        PENDING, REQUESTED, IN_PROGRESS, RESTORED, NOT_ARCHIVED, FAILED;
+
+        public boolean isDone() {
+            return this == RESTORED || this == NOT_ARCHIVED || this == FAILED;
+        }
+    }
+
+    // Naming of chunked content, as in org.duracloud.chunk.manifest.ChunksManifest
+    protected static final String CHUNK_SUFFIX = ".dura-chunk-";
+    protected static final String MANIFEST_SUFFIX = ".dura-manifest";
+    private static final String CHUNKED_PREFIX_SUFFIX = ".dura-";
+
+    protected static final String INVALID_OBJECT_STATE = "InvalidObjectState";
+    protected static final int RESTORE_EXPIRATION_DAYS = 14;
+    protected static final int BATCH_SIZE = 1000;
+    protected static final int MAX_REPORTED_ITEMS = 1000;
+
+    private static final int NOT_FOUND = 404;
+
+    private final String jobId;
+    private final AmazonS3 s3Client;
+    private final String bucketName;
+    private final String spaceId;
+    private final String prefix;
+    private final List<String> contentIds;
+    private final Executor jobExecutor;
+    private final ExecutorService requestExecutor;
+    private final ScheduledExecutorService pollScheduler;
+    private final RequestRateLimiter rateLimiter;
+    private final long pollMillis;
+
+    private final ConcurrentSkipListMap<String, ItemState> items =
+        new ConcurrentSkipListMap<>();
+    private final Map<ItemState, AtomicLong> stateCounts = new EnumMap<>(ItemState.class);
+
+    private volatile State state = State.QUEUED;
+    private volatile String error;
+    private volatile long finishedTime = 0;
+
+    /**
+     * @param prefix     restores the items with IDs that start with this
+     *                   prefix, used when no content IDs are given
+     * @param contentIds restores these items
+     */
+    public GlacierRestoreJob(String jobId,
+                             AmazonS3 s3Client,
+                             String bucketName,
+                             String spaceId,
+                             String prefix,
+                             List<String> contentIds,
+                             Executor jobExecutor,
+                             ExecutorService requestExecutor,
+                             ScheduledExecutorService pollScheduler,
+                             RequestRateLimiter rateLimiter,
+                             long pollMillis) {
+        this.jobId = jobId;
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.spaceId = spaceId;
+        this.prefix = null == prefix ? "" : prefix;
+        this.contentIds = contentIds;
+        this.jobExecutor = jobExecutor;
+        this.requestExecutor = requestExecutor;
+        this.pollScheduler = pollScheduler;
+        this.rateLimiter = rateLimiter;
+        this.pollMillis = pollMillis;
+        for (ItemState itemState : ItemState.values()) {
+            stateCounts.put(itemState, new AtomicLong());
+        }
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    @Override
+    public boolean isDone() {
+        return state == State.COMPLETE || state == State.FAILED;
+    }
+
+    /**
+     * @return time (in millis) at which the job completed or failed, 0 if it
+     * has not
+     */
+    public long getFinishedTime() {
+        return finishedTime;
+    }
+
+    @Override
+    public void run() {
+        state = State.REQUESTING;
+        log.info("Starting restore {} of space {}", jobId, spaceId);
+        try {
+            List<String> batch = new ArrayList<>();
+            if (null != contentIds && !contentIds.isEmpty()) {
+                for (String contentId : contentIds) {
+                    addContent(contentId, batch);
+                    if (batch.size() >= BATCH_SIZE) {
+                        requestRestores(batch);
+                    }
+                }
+            } else {
+                ObjectListing listing = s3Client.listObjects(
+                    new ListObjectsRequest().withBucketName(bucketName)
+                                            .withPrefix(prefix)
+                                            .withMaxKeys(BATCH_SIZE));
+                while (true) {
+                    for (S3ObjectSummary summary : listing.getObjectSummaries()) {
+                        addItem(summary.getKey(), summary.getStorageClass(), batch);
+                    }
+                    requestRestores(batch);
+                    if (!listing.isTruncated()) {
+                        break;
+                    }
+                    listing = s3Client.listNextBatchOfObjects(listing);
+                }
+            }
+            requestRestores(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+            return;
+        } catch (RuntimeException e) {
+            fail(e);
+            return;
+        }
+
+        state = State.WAITING;
+        if (!completeIfDone()) {
+            schedulePoll();
+        }
+    }
+
+    /*
+     * Adds the item with the given ID or, if it is chunked, its manifest and
+     * chunks.
+     */
+    private void addContent(String contentId, List<String> batch) {
+        String baseId = getBaseId(contentId);
+        String manifestId = baseId + MANIFEST_SUFFIX;
+        String chunkPrefix = baseId + CHUNK_SUFFIX;
+
+        boolean chunked = false;
+        ObjectListing listing = s3Client.listObjects(
+            new ListObjectsRequest().withBucketName(bucketName)
+                                    .withPrefix(baseId + CHUNKED_PREFIX_SUFFIX));
+        while (true) {
+            for (S3ObjectSummary summary : listing.getObjectSummaries()) {
+                String key = summary.getKey();
+                if (key.equals(manifestId) || key.startsWith(chunkPrefix)) {
+                    chunked = true;
+                    addItem(key, summary.getStorageClass(), batch);
+                }
+            }
+            if (!listing.isTruncated()) {
+                break;
+            }
+            listing = s3Client.listNextBatchOfObjects(listing);
+        }
+
+        if (!chunked) {
+            // The storage class is not known without listing or a HEAD
+            // request, it is found by the restore request
+            addItem(contentId, null, batch);
+        }
+    }
+
+    private void addItem(String contentId, String storageClass, List<String> batch) {
+        if (items.containsKey(contentId)) {
+            return;
+        }
+        if (null != storageClass && !isArchived(storageClass)) {
+            setState(contentId, ItemState.NOT_ARCHIVED);
+        } else {
+            setState(contentId, ItemState.PENDING);
+            batch.add(contentId);
+        }
+    }
+
+    private boolean isArchived(String storageClass) {
+        return StorageClass.Glacier.toString().equals(storageClass);
+    }
+
+    private String getBaseId(String contentId) {
+        if (contentId.endsWith(MANIFEST_SUFFIX)) {
+            return contentId.substring(0, contentId.length() - MANIFEST_SUFFIX.length());
+        }
+        return contentId;
+    }
+
+    /*
+     * Requests the restore of each item in the batch, in parallel, and clears
+     * the batch once all requests have been made.
+     */
+    private void requestRestores(List<String> batch) throws InterruptedException {
+        List<Future<?>> requests = new ArrayList<>();
+        for (String contentId : batch) {
+            requests.add(requestExecutor.submit(() -> requestRestore(contentId)));
+        }
+        waitFor(requests);
+        batch.clear();
+    }
+
+    private Void requestRestore(String contentId) throws InterruptedException {
+        rateLimiter.acquire();
+        try {
+            s3Client.restoreObject(bucketName, contentId, RESTORE_EXPIRATION_DAYS);
+            setState(contentId, ItemState.REQUESTED);
+        } catch (AmazonS3Exception e) {
+            if (RestoreContentTaskRunner.RESTORE_IN_PROGRESS.equals(e.getErrorCode())) {
+                setState(contentId, ItemState.IN_PROGRESS);
+            } else if (INVALID_OBJECT_STATE.equals(e.getErrorCode())) {
+                // Only archived items can be restored
+                setState(contentId, ItemState.NOT_ARCHIVED);
+            } else {
+                failItem(contentId, e);
+            }
+        } catch (AmazonClientException e) {
+            failItem(contentId, e);
+        }
+        return null;
+    }
+
+    private void schedulePoll() {
+        try {
+            pollScheduler.schedule(() -> jobExecutor.execute(this::poll),
+                                   pollMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            fail(e);
+        }
+    }
+
+    /*
+     * Checks the restore state of every item which is not yet restored.
+     * Errors making the checks are left to be retried at the next poll.
+     */
+    private void poll() {
+        try {
+            List<Future<?>> checks = new ArrayList<>();
+            for (Map.Entry<String, ItemState> item : items.entrySet()) {
+                if (!item.getValue().isDone()) {
+                    String contentId = item.getKey();
+                    checks.add(requestExecutor.submit(() -> checkRestore(contentId)));
+                    if (checks.size() >= BATCH_SIZE) {
+                        waitFor(checks);
+                        checks.clear();
+                    }
+                }
+            }
+            waitFor(checks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Unable to check the state of restore {} due to: {}",
+                     jobId, e.getMessage());
+        }
+
+        if (!completeIfDone()) {
+            schedulePoll();
+        }
+    }
+
+    private Void checkRestore(String contentId) throws InterruptedException {
+        rateLimiter.acquire();
+        try {
+            ObjectMetadata metadata = s3Client.getObjectMetadata(bucketName, contentId);
+            Boolean ongoingRestore = metadata.getOngoingRestore();
+            if (Boolean.TRUE.equals(ongoingRestore)) {
+                setState(contentId, ItemState.IN_PROGRESS);
+            } else if (Boolean.FALSE.equals(ongoingRestore)) {
+                setState(contentId, ItemState.RESTORED);
+            } else if (!isArchived(metadata.getStorageClass())) {
+                setState(contentId, ItemState.NOT_ARCHIVED);
+            } else {
+                // The restore is no longer known, it may have expired
+                log.warn("No restore found for {} in space {}", contentId, spaceId);
+                setState(contentId, ItemState.FAILED);
+            }
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == NOT_FOUND) {
+                failItem(contentId, e);
+            } else {
+                log.warn("Unable to check restore of {} in space {} due to: {}",
+                         contentId, spaceId, e.getMessage());
+            }
+        } catch (AmazonClientException e) {
+            log.warn("Unable to check restore of {} in space {} due to: {}",
+                     contentId, spaceId, e.getMessage());
+        }
+        return null;
+    }
+
+    private void waitFor(List<Future<?>> futures) throws InterruptedException {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause
+                                                    : new RuntimeException(cause);
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private void setState(String contentId, ItemState itemState) {
+        ItemState previous = items.put(contentId, itemState);
+        if (null != previous) {
+            stateCounts.get(previous).decrementAndGet();
+        }
+        stateCounts.get(itemState).incrementAndGet();
+    }
+
+    private void failItem(String contentId, Exception e) {
+        log.warn("Unable to restore {} in space {} due to: {}",
+                 contentId, spaceId, e.getMessage());
+        setState(contentId, ItemState.FAILED);
+    }
+
+    private boolean completeIfDone() {
+        if (getCount(ItemState.PENDING) + getCount(ItemState.REQUESTED) +
+            getCount(ItemState.IN_PROGRESS) > 0) {
+            return false;
+        }
+        state = State.COMPLETE;
+        finishedTime = System.currentTimeMillis();
+        log.info("Completed restore {} of space {}, {} items restored, {} failed",
+                 jobId, spaceId, getCount(ItemState.RESTORED),
+                 getCount(ItemState.FAILED));
+        return true;
+    }
+
+    private void fail(Exception e) {
+        log.error("Restore " + jobId + " of space " + spaceId +
+                  " failed due to: " + e.getMessage(), e);
+        error = e.getMessage();
+        state = State.FAILED;
+        finishedTime = System.currentTimeMillis();
+    }
+
+    private long getCount(ItemState itemState) {
+        return stateCounts.get(itemState).get();
+    }
+
+    /**
+     * @param queryIds IDs of the content items for which the restore state is
+     *                 reported. When none are given, the state of (up to a
+     *                 limit of) the items which are not available is reported.
+     */
+    public GetRestoreContentsStatusTaskResult getStatus(List<String> queryIds) {
+        GetRestoreContentsStatusTaskResult status = new GetRestoreContentsStatusTaskResult();
+        status.setJobId(jobId);
+        status.setSpaceId(spaceId);
+        status.setStatus(state.name());
+        status.setItemCount(items.size());
+        status.setItemsInProgress(getCount(ItemState.PENDING) +
+                                  getCount(ItemState.REQUESTED) +
+                                  getCount(ItemState.IN_PROGRESS));
+        status.setItemsRestored(getCount(ItemState.RESTORED));
+        status.setItemsNotArchived(getCount(ItemState.NOT_ARCHIVED));
+        status.setItemsFailed(getCount(ItemState.FAILED));
+        status.setError(error);
+
+        Map<String, String> itemStates = new LinkedHashMap<>();
+        if (null != queryIds && !queryIds.isEmpty()) {
+            for (String contentId : queryIds) {
+                ItemState itemState = getContentState(contentId);
+                if (null != itemState) {
+                    itemStates.put(contentId, itemState.name());
+                }
+            }
+        } else {
+            for (Map.Entry<String, ItemState> item : items.entrySet()) {
+                if (itemStates.size() >= MAX_REPORTED_ITEMS) {
+                    break;
+                }
+                ItemState itemState = item.getValue();
+                if (itemState != ItemState.RESTORED &&
+                    itemState != ItemState.NOT_ARCHIVED) {
+                    itemStates.put(item.getKey(), itemState.name());
+                }
+            }
+        }
+        status.setItemStates(itemStates);
+        return status;
+    }
+
+    /*
+     * The state of chunked content is the state of the least restored of its
+     * manifest and chunks, or failed if any of them failed. Returns null for
+     * content which is not part of this restore.
+     */
+    private ItemState getContentState(String contentId) {
+        String chunkedPrefix = getBaseId(contentId) + CHUNKED_PREFIX_SUFFIX;
+        Collection<ItemState> parts =
+            items.subMap(chunkedPrefix, chunkedPrefix + Character.MAX_VALUE).values();
+        if (parts.isEmpty()) {
+            return items.get(contentId);
+        }
+
+        ItemState contentState = null;
+        for (ItemState part : parts) {
+            if (null == contentState || part == ItemState.FAILED) {
+                contentState = part;
+            } else if (contentState == ItemState.FAILED) {
+                break;
+            } else if (!part.isDone() || !contentState.isDone()) {
+                contentState = part.compareTo(contentState) < 0 ? part : contentState;
+            } else if (part == ItemState.RESTORED) {
+                contentState = part;
+            }
+        }
+        return contentState;
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glaciertask;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.amazonaws.services.s3.AmazonS3;
+import org.duracloud.glacierstorageprovider.dto.GetRestoreContentsStatusTaskResult;
+import org.duracloud.storage.util.TaskJobManager;
+
+/**
+ * Starts and tracks the content restore jobs of an account.
+ *
+ * The restore and status requests of all jobs are made on a single bounded
+ * pool of request threads, and are limited to a maximum rate, as S3 throttles
+ * requests made too quickly. A job which has finished is kept for a retention
+ * period so that its final status can be retrieved. Each account has a single
+ * manager, held by AccountTaskManagers in DuraStore.
+ */
+public class GlacierRestoreManager extends TaskJobManager<GlacierRestoreJob> {
+
+    public static final int DEFAULT_REQUEST_THREADS = 10;
+    public static final int DEFAULT_REQUESTS_PER_SECOND = 20;
+    public static final long DEFAULT_POLL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    protected static final long JOB_RETENTION_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private final long pollMillis;
+    private final RequestRateLimiter rateLimiter;
+    private final ExecutorService requestExecutor;
+    private final ScheduledThreadPoolExecutor pollScheduler;
+
+    public GlacierRestoreManager() {
+        this(DEFAULT_REQUEST_THREADS, DEFAULT_REQUESTS_PER_SECOND, DEFAULT_POLL_MILLIS);
+    }
+
+    /**
+     * @param requestThreads    number of requests made at the same time,
+     *                          across all jobs
+     * @param requestsPerSecond maximum rate of requests, across all jobs
+     * @param pollMillis        time between checks of the restore state of
+     *                          the items of a job
+     */
+    public GlacierRestoreManager(int requestThreads,
+                                 int requestsPerSecond,
+                                 long pollMillis) {
+        super("glacier-restore-job");
+        if (requestThreads <= 0) {
+            throw new IllegalArgumentException(
+                "Thread count must be greater than 0");
+        }
+        this.pollMillis = pollMillis;
+        this.rateLimiter = new RequestRateLimiter(requestsPerSecond);
+        this.requestExecutor = createExecutor(requestThreads, "glacier-restore");
+        this.pollScheduler =
+            new ScheduledThreadPoolExecutor(1, createThreadFactory("glacier-restore-poll"));
+        this.pollScheduler.setKeepAliveTime(IDLE_THREAD_SECONDS, TimeUnit.SECONDS);
+        this.pollScheduler.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts restoring content items in a space. If the same restore is
+     * already running, that restore is left to continue.
+     *
+     * @param prefix     restores the items with IDs that start with this
+     *                   prefix, used when no content IDs are given
+     * @param contentIds restores these items, including all chunks of
+     *                   chunked content
+     * @return ID of the restore job
+     */
+    public String startRestore(AmazonS3 s3Client,
+                               String bucketName,
+                               String spaceId,
+                               String prefix,
+                               List<String> contentIds) {
+        removeExpiredJobs();
+
+        String jobId = getJobId(bucketName, prefix, contentIds);
+        return startJob(jobId, id -> new GlacierRestoreJob(id,
+                                                           s3Client,
+                                                           bucketName,
+                                                           spaceId,
+                                                           prefix,
+                                                           contentIds,
+                                                           getJobExecutor(),
+                                                           requestExecutor,
+                                                           pollScheduler,
+                                                           rateLimiter,
+                                                           pollMillis));
+    }
+
+    /**
+     * @param contentIds IDs of the content items for which the restore state
+     *                   is included, may be null
+     * @return status of the restore job, or null if the job is not known
+     */
+    public GetRestoreContentsStatusTaskResult getStatus(String jobId,
+                                                        List<String> contentIds) {
+        removeExpiredJobs();
+        GlacierRestoreJob job = getJob(jobId);
+        return null == job ? null : job.getStatus(contentIds);
+    }
+
+    private void removeExpiredJobs() {
+        long expired = System.currentTimeMillis() - JOB_RETENTION_MILLIS;
+        removeJobs(job -> job.isDone() && job.getFinishedTime() < expired);
+    }
+
+    private String getJobId(String bucketName, String prefix, List<String> contentIds) {
+        String items = null != contentIds && !contentIds.isEmpty()
+                       ? "items:" + String.join("\n", contentIds)
+                       : "prefix:" + (null == prefix ? "" : prefix);
+        return generateJobId(bucketName + "/" + items);
+    }
+
+}
@@ -22,6 +22,7 @@ public class GlacierTaskProvider extends TaskProviderBase {
     public GlacierTaskProvider(StorageProvider glacierProvider,
                                GlacierStorageProvider unwrappedGlacierProvider,
                                AmazonS3Client s3Client,
+                               GlacierRestoreManager restoreManager,
                                String storeId) {
         super(storeId);
         log = LoggerFactory.getLogger(GlacierTaskProvider.class);
@@ -29,6 +30,10 @@ public class GlacierTaskProvider extends TaskProviderBase {
         taskList.add(new RestoreContentTaskRunner(glacierProvider,
                                                   unwrappedGlacierProvider,
                                                   s3Client));
+        taskList.add(new RestoreContentsTaskRunner(unwrappedGlacierProvider,
+                                                   s3Client,
+                                                   restoreManager));
+        taskList.add(new GetRestoreContentsStatusTaskRunner(restoreManager));
     }
 
 }
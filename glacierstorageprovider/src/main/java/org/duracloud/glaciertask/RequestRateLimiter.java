@@ -0,0 +1,44 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glaciertask;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out requests made from any number of threads so that no more than a
+ * given number of requests per second are started.
+ */
+public class RequestRateLimiter {
+
+    private final long intervalNanos;
+    private long nextRequest = System.nanoTime();
+
+    public RequestRateLimiter(int requestsPerSecond) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException(
+                "Requests per second must be greater than 0");
+        }
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+    }
+
+    /**
+     * Waits until the next request may be made.
+     */
+    public void acquire() throws InterruptedException {
+        long requestTime;
+        synchronized (this) {
+            requestTime = Math.max(nextRequest, System.nanoTime());
+            nextRequest = requestTime + intervalNanos;
+        }
+        long waitNanos = requestTime - System.nanoTime();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glaciertask;
+
+import com.amazonaws.services.s3.AmazonS3Client;
+import org.duracloud.StorageTaskConstants;
+import org.duracloud.glacierstorage.GlacierStorageProvider;
+import org.duracloud.glacierstorageprovider.dto.RestoreContentsTaskParameters;
+import org.duracloud.glacierstorageprovider.dto.RestoreContentsTaskResult;
+import org.duracloud.storage.provider.TaskRunner;
+
+/**
+ * Task which starts an asynchronous restore of the archived content items in
+ * a space, either those with IDs that start with a given prefix or those in a
+ * list of content IDs. The result includes the ID of the restore job, which is
+ * used to check on the progress of the restore.
+ */
+public class RestoreContentsTaskRunner implements TaskRunner {
+
+    private static final String TASK_NAME =
+        StorageTaskConstants.RESTORE_CONTENTS_TASK_NAME;
+
+    private GlacierStorageProvider unwrappedGlacierProvider;
+    private AmazonS3Client s3Client;
+    private GlacierRestoreManager restoreManager;
+
+    public RestoreContentsTaskRunner(GlacierStorageProvider unwrappedGlacierProvider,
+                                     AmazonS3Client s3Client,
+                                     GlacierRestoreManager restoreManager) {
+        this.unwrappedGlacierProvider = unwrappedGlacierProvider;
+        this.s3Client = s3Client;
+        this.restoreManager = restoreManager;
+    }
+
+    @Override
+    public String getName() {
+        return TASK_NAME;
+    }
+
+    @Override
+    public String performTask(String taskParameters) {
+        RestoreContentsTaskParameters taskParams =
+            RestoreContentsTaskParameters.deserialize(taskParameters);
+
+        // Will throw if the space does not exist
+        String spaceId = taskParams.getSpaceId();
+        String bucketName = unwrappedGlacierProvider.getBucketName(spaceId);
+
+        String jobId = restoreManager.startRestore(s3Client,
+                                                   bucketName,
+                                                   spaceId,
+                                                   taskParams.getPrefix(),
+                                                   taskParams.getContentIds());
+        String result = "Restore of content in space " + spaceId + " has started";
+        return new RestoreContentsTaskResult(jobId, result).serialize();
+    }
+
+}
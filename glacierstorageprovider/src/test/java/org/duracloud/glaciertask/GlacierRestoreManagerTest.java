@@ -0,0 +1,219 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glaciertask;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.model.StorageClass;
+import org.duracloud.glacierstorageprovider.dto.GetRestoreContentsStatusTaskResult;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests bulk restores against a mocked S3 client
+ */
+public class GlacierRestoreManagerTest {
+
+    private static final String BUCKET = "bucket";
+    private static final String SPACE = "space";
+    private static final int THREADS = 4;
+    private static final int REQUESTS_PER_SECOND = 1000;
+    private static final long POLL_MILLIS = 10;
+    private static final long WAIT_MILLIS = 10000;
+
+    private AmazonS3 s3Client;
+    private GlacierRestoreManager manager;
+
+    // Listings by prefix, and the number of HEAD requests before the
+    // restore of an item is reported as complete
+    private Map<String, ObjectListing> listings = new HashMap<>();
+    private Map<String, AtomicInteger> restoreChecks = new ConcurrentHashMap<>();
+
+    @Before
+    public void setup() {
+        s3Client = EasyMock.createMock("AmazonS3", AmazonS3.class);
+        manager = new GlacierRestoreManager(THREADS, REQUESTS_PER_SECOND, POLL_MILLIS);
+
+        EasyMock.expect(s3Client.listObjects(EasyMock.isA(ListObjectsRequest.class)))
+                .andAnswer(() -> {
+                    ListObjectsRequest request =
+                        (ListObjectsRequest) EasyMock.getCurrentArguments()[0];
+                    assertEquals(BUCKET, request.getBucketName());
+                    ObjectListing listing = listings.get(request.getPrefix());
+                    return null == listing ? new ObjectListing() : listing;
+                }).anyTimes();
+        EasyMock.expect(s3Client.getObjectMetadata(EasyMock.eq(BUCKET),
+                                                   EasyMock.isA(String.class)))
+                .andAnswer(() -> {
+                    String contentId = (String) EasyMock.getCurrentArguments()[1];
+                    ObjectMetadata metadata = new ObjectMetadata();
+                    metadata.setHeader(Headers.STORAGE_CLASS,
+                                       StorageClass.Glacier.toString());
+                    AtomicInteger checks = restoreChecks.get(contentId);
+                    metadata.setOngoingRestore(checks.decrementAndGet() > 0);
+                    return metadata;
+                }).anyTimes();
+    }
+
+    @After
+    public void tearDown() {
+        EasyMock.verify(s3Client);
+    }
+
+    private void addListing(String prefix, String... contentIds) {
+        ObjectListing listing = new ObjectListing();
+        for (String contentId : contentIds) {
+            S3ObjectSummary summary = new S3ObjectSummary();
+            summary.setKey(contentId);
+            summary.setStorageClass(contentId.endsWith("standard")
+                                    ? StorageClass.Standard.toString()
+                                    : StorageClass.Glacier.toString());
+            listing.getObjectSummaries().add(summary);
+        }
+        listings.put(prefix, listing);
+    }
+
+    private void expectRestore(String contentId, int checks) {
+        s3Client.restoreObject(BUCKET, contentId, GlacierRestoreJob.RESTORE_EXPIRATION_DAYS);
+        EasyMock.expectLastCall().once();
+        restoreChecks.put(contentId, new AtomicInteger(checks));
+    }
+
+    private void expectRestoreError(String contentId, int statusCode, String errorCode) {
+        AmazonS3Exception error = new AmazonS3Exception(errorCode);
+        error.setStatusCode(statusCode);
+        error.setErrorCode(errorCode);
+        s3Client.restoreObject(BUCKET, contentId, GlacierRestoreJob.RESTORE_EXPIRATION_DAYS);
+        EasyMock.expectLastCall().andThrow(error).once();
+    }
+
+    private GetRestoreContentsStatusTaskResult waitForCompletion(String jobId)
+        throws InterruptedException {
+        long end = System.currentTimeMillis() + WAIT_MILLIS;
+        while (System.currentTimeMillis() < end) {
+            GetRestoreContentsStatusTaskResult status = manager.getStatus(jobId, null);
+            if (GlacierRestoreJob.State.COMPLETE.name().equals(status.getStatus()) ||
+                GlacierRestoreJob.State.FAILED.name().equals(status.getStatus())) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("Restore did not complete within " + WAIT_MILLIS + "ms");
+        return null;
+    }
+
+    @Test
+    public void testRestorePrefix() throws Exception {
+        addListing("dir/", "dir/a", "dir/b", "dir/standard");
+        expectRestore("dir/a", 3);
+        expectRestoreError("dir/b", 409, RestoreContentTaskRunner.RESTORE_IN_PROGRESS);
+        restoreChecks.put("dir/b", new AtomicInteger(1));
+        EasyMock.replay(s3Client);
+
+        String jobId = manager.startRestore(s3Client, BUCKET, SPACE, "dir/", null);
+
+        GetRestoreContentsStatusTaskResult status = waitForCompletion(jobId);
+        assertEquals(GlacierRestoreJob.State.COMPLETE.name(), status.getStatus());
+        assertEquals(SPACE, status.getSpaceId());
+        assertEquals(3, status.getItemCount());
+        assertEquals(0, status.getItemsInProgress());
+        assertEquals(2, status.getItemsRestored());
+        assertEquals(1, status.getItemsNotArchived());
+        assertEquals(0, status.getItemsFailed());
+        assertEquals(0, status.getItemStates().size());
+
+        // Items are checked until their restore is complete
+        assertEquals(0, restoreChecks.get("dir/a").get());
+        assertEquals(0, restoreChecks.get("dir/b").get());
+    }
+
+    @Test
+    public void testRestoreContentIds() throws Exception {
+        addListing("video.mp4.dura-",
+                   "video.mp4.dura-chunk-0000", "video.mp4.dura-chunk-0001",
+                   "video.mp4.dura-manifest");
+        expectRestore("video.mp4.dura-chunk-0000", 1);
+        expectRestore("video.mp4.dura-chunk-0001", 2);
+        expectRestore("video.mp4.dura-manifest", 1);
+        expectRestore("image.jpg", 1);
+        expectRestoreError("doc.txt", 403, GlacierRestoreJob.INVALID_OBJECT_STATE);
+        expectRestoreError("missing.txt", 404, "NoSuchKey");
+        EasyMock.replay(s3Client);
+
+        String jobId = manager.startRestore(s3Client, BUCKET, SPACE, null,
+                                            Arrays.asList("video.mp4", "image.jpg",
+                                                          "doc.txt", "missing.txt"));
+
+        GetRestoreContentsStatusTaskResult status = waitForCompletion(jobId);
+        assertEquals(GlacierRestoreJob.State.COMPLETE.name(), status.getStatus());
+        assertEquals(6, status.getItemCount());
+        assertEquals(4, status.getItemsRestored());
+        assertEquals(1, status.getItemsNotArchived());
+        assertEquals(1, status.getItemsFailed());
+        assertEquals(1, status.getItemStates().size());
+        assertEquals("FAILED", status.getItemStates().get("missing.txt"));
+
+        // Chunked content is reported by its own ID or its manifest ID
+        status = manager.getStatus(jobId, Arrays.asList("video.mp4",
+                                                        "video.mp4.dura-manifest",
+                                                        "doc.txt",
+                                                        "unknown.txt"));
+        assertEquals(3, status.getItemStates().size());
+        assertEquals("RESTORED", status.getItemStates().get("video.mp4"));
+        assertEquals("RESTORED", status.getItemStates().get("video.mp4.dura-manifest"));
+        assertEquals("NOT_ARCHIVED", status.getItemStates().get("doc.txt"));
+        assertFalse(status.getItemStates().containsKey("unknown.txt"));
+    }
+
+    @Test
+    public void testRestoreInProgress() throws Exception {
+        // The restore of the second chunk takes longer than the test
+        addListing("video.mp4.dura-",
+                   "video.mp4.dura-chunk-0000", "video.mp4.dura-chunk-0001");
+        expectRestore("video.mp4.dura-chunk-0000", 1);
+        expectRestore("video.mp4.dura-chunk-0001", Integer.MAX_VALUE);
+        EasyMock.replay(s3Client);
+
+        String jobId = manager.startRestore(s3Client, BUCKET, SPACE, null,
+                                            Arrays.asList("video.mp4"));
+        long end = System.currentTimeMillis() + WAIT_MILLIS;
+        GetRestoreContentsStatusTaskResult status;
+        do {
+            Thread.sleep(10);
+            status = manager.getStatus(jobId, Arrays.asList("video.mp4"));
+        } while (status.getItemsRestored() < 1 && System.currentTimeMillis() < end);
+
+        assertEquals(GlacierRestoreJob.State.WAITING.name(), status.getStatus());
+        assertEquals(1, status.getItemsRestored());
+        assertEquals(1, status.getItemsInProgress());
+        assertEquals("IN_PROGRESS", status.getItemStates().get("video.mp4"));
+
+        // Starting the same restore again returns the running job
+        assertEquals(jobId, manager.startRestore(s3Client, BUCKET, SPACE, null,
+                                                 new ArrayList<>(Arrays.asList("video.mp4"))));
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glaciertask;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RequestRateLimiterTest {
+
+    @Test
+    public void testAcquire() throws Exception {
+        RequestRateLimiter rateLimiter = new RequestRateLimiter(100);
+
+        // 40 requests from 4 threads at 100 per second take at least 390ms
+        long start = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 10; j++) {
+                        rateLimiter.acquire();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        assertTrue("Elapsed: " + elapsedMillis + "ms", elapsedMillis >= 390);
+    }
+
+}
@@ -41,6 +41,7 @@ import edu.umiacs.irods.operation.QueryBuilder;
 import edu.umiacs.irods.operation.QueryResult;
 import edu.umiacs.irods.operation.UnknownSizeOutputStream;
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
@@ -384,6 +385,35 @@ public class IrodsStorageProvider implements StorageProvider {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The properties are read over the same connection as the content, using
+     * the status of the data object retrieved before opening the stream.
+     */
+    @Override
+    public RetrievedContent getContentWithProperties(String spaceId,
+                                                     String contentId) {
+        String path = baseDirectory + "/" + spaceId + "/" + contentId;
+        ConnectOperation co =
+            new ConnectOperation(host, port, username, password, zone);
+        try {
+            RodsObjStat_PI stat = new IrodsOperations(co).stat(path);
+            Map<String, String> properties = getProperties(path, co);
+            addStatProperties(properties, stat);
+            log.trace("Opening inputstream to irods path: " +
+                      path + " type " + stat.getObjType());
+            InputStream content = new BufferedInputStream(
+                new IrodsProxyInputStream(path, co.getConnection()),
+                BLOCK_SIZE);
+            return new RetrievedContent(content, properties);
+
+        } catch (IOException e) {
+            log.error("Could not connect to iRODS", e);
+            throw new StorageException(e);
+        }
+    }
+
     @Override
     public void deleteContent(String spaceId, String contentId) {
         String path = baseDirectory + "/" + spaceId + "/" + contentId;
@@ -434,17 +464,7 @@ public class IrodsStorageProvider implements StorageProvider {
         try {
             Map<String, String> results = getProperties(path, co);
             IrodsOperations ops = new IrodsOperations(co);
-            RodsObjStat_PI stat = ops.stat(path);
-            if (stat != null) {
-                results.put(PROPERTIES_CONTENT_MODIFIED,
-                            formattedDate(stat.getModifyTime()));
-                results.put(PROPERTIES_CONTENT_SIZE,
-                            Long.toString(stat.getObjSize()));
-                results.put(PROPERTIES_CONTENT_CHECKSUM,
-                            stat.getChksum());
-                results.put(PROPERTIES_CONTENT_MD5,
-                            stat.getChksum());
-            }
+            addStatProperties(results, ops.stat(path));
             return results;
         } catch (IOException e) {
             log.error("Could not connect to iRODS", e);
@@ -452,6 +472,20 @@ public class IrodsStorageProvider implements StorageProvider {
         }
     }
 
+    private void addStatProperties(Map<String, String> properties,
+                                   RodsObjStat_PI stat) {
+        if (stat != null) {
+            properties.put(PROPERTIES_CONTENT_MODIFIED,
+                           formattedDate(stat.getModifyTime()));
+            properties.put(PROPERTIES_CONTENT_SIZE,
+                           Long.toString(stat.getObjSize()));
+            properties.put(PROPERTIES_CONTENT_CHECKSUM,
+                           stat.getChksum());
+            properties.put(PROPERTIES_CONTENT_MD5,
+                           stat.getChksum());
+        }
+    }
+
     private Iterator<String> listDirectories(String path,
                                              IRodsConnection connection) {
 
@@ -7,11 +7,13 @@
  */
 package org.duracloud.openstackstorage;
 
+import static org.duracloud.common.util.ChecksumUtil.Algorithm.MD5;
 import static org.duracloud.storage.error.StorageException.NO_RETRY;
 import static org.duracloud.storage.error.StorageException.RETRY;
 import static org.duracloud.storage.util.StorageProviderUtil.compareChecksum;
 
 import java.io.InputStream;
+import java.security.DigestInputStream;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -33,18 +35,22 @@ import org.apache.commons.codec.net.URLCodec;
 import org.duracloud.common.stream.ChecksumInputStream;
 import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.common.util.DateUtil;
-import org.duracloud.storage.domain.ContentIterator;
+import org.duracloud.openstackstorage.SwiftLargeObjectClient.Segment;
+import org.duracloud.storage.domain.PrefetchingContentIterator;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.error.ChecksumMismatchException;
 import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.provider.StorageProviderBase;
+import org.duracloud.storage.util.ParallelRangeInputStream;
 import org.duracloud.storage.util.StorageProviderUtil;
 import org.jclouds.Constants;
 import org.jclouds.ContextBuilder;
 import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.enterprise.config.EnterpriseConfigurationModule;
+import org.jclouds.http.options.GetOptions;
 import org.jclouds.openstack.swift.CopyObjectException;
 import org.jclouds.openstack.swift.SwiftApiMetadata;
 import org.jclouds.openstack.swift.SwiftClient;
@@ -60,6 +66,13 @@ import org.slf4j.LoggerFactory;
 /**
  * Provides content storage access to OpenStack storage providers.
  *
+ * Content items larger than the segment size of the SwiftLargeObjectClient
+ * are stored as Static Large Objects. The ETag of a large object is not the
+ * MD5 of its content, so the MD5 is kept as a property of the object, along
+ * with the ID of the upload which identifies its segments. Server side copies
+ * of large objects are performed by Swift, which limits them to the maximum
+ * size of a single object.
+ *
  * @author Bill Branan
  */
 public abstract class OpenStackStorageProvider extends StorageProviderBase {
@@ -67,7 +80,17 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
     private static final Logger log =
         LoggerFactory.getLogger(OpenStackStorageProvider.class);
 
+    /*
+     * Property of a large object which holds the ID of the upload which
+     * created its segments
+     */
+    protected static final String PROPERTIES_LARGE_OBJECT_UPLOAD =
+        "large-object-upload";
+
     private SwiftClient swiftClient = null;
+    private SwiftLargeObjectClient largeObjectClient = null;
+    private int parallelReadThreads = 1;
+    private int parallelReadPartSize = 0;
 
     public OpenStackStorageProvider(String username,
                                     String apiAccessKey,
@@ -94,6 +117,8 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
                                         .modules(modules)
                                         .overrides(properties)
                                         .buildApi(SwiftClient.class);
+            largeObjectClient =
+                new SwiftLargeObjectClient(authUrl, username, apiAccessKey);
         } catch (Exception e) {
             String err = "Could not connect to " + getProviderName() +
                          " due to error: " + e.getMessage();
@@ -118,6 +143,27 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
         this.swiftClient = swiftClient;
     }
 
+    /**
+     * Sets the client used to store large content items, or null to store
+     * all content items as single objects.
+     */
+    public void setLargeObjectClient(SwiftLargeObjectClient largeObjectClient) {
+        this.largeObjectClient = largeObjectClient;
+    }
+
+    /**
+     * Enables reading content items larger than the part size as byte ranges
+     * which are retrieved in parallel. Each thread holds up to one part in
+     * memory. Parallel reads are disabled when threads is 1 or less.
+     *
+     * @param threads  number of byte ranges retrieved at the same time
+     * @param partSize size of each byte range
+     */
+    public void setParallelReads(int threads, int partSize) {
+        this.parallelReadThreads = threads;
+        this.parallelReadPartSize = partSize;
+    }
+
     public abstract String getAuthUrl();
 
     public abstract String getProviderName();
@@ -133,7 +179,10 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
         List<String> spaces = new ArrayList<String>();
         for (ContainerMetadata container : containers) {
             String containerName = container.getName();
-            spaces.add(containerName);
+            if (!containerName.endsWith(
+                SwiftLargeObjectClient.SEGMENT_CONTAINER_SUFFIX)) {
+                spaces.add(containerName);
+            }
         }
         return spaces.iterator();
     }
@@ -146,7 +195,7 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
         log.debug("getSpaceContents(" + spaceId + ", " + prefix);
 
         throwIfSpaceNotExist(spaceId);
-        return new ContentIterator(this, spaceId, prefix);
+        return new PrefetchingContentIterator(this, spaceId, prefix);
     }
 
     /**
@@ -248,6 +297,7 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
 
         String containerName = getContainerName(spaceId);
         swiftClient.createContainer(containerName, createContainerOptions);
+        clearSpaceExists(spaceId);
     }
 
     protected void doSetSpaceProperties(String spaceId,
@@ -272,6 +322,10 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
     public void removeSpace(String spaceId) {
         String containerName = getContainerName(spaceId);
         boolean successful = swiftClient.deleteContainerIfEmpty(containerName);
+        clearSpaceExists(spaceId);
+        if (successful && null != largeObjectClient) {
+            largeObjectClient.deleteSegmentContainer(containerName);
+        }
         if (!successful) {
             StringBuilder err = new StringBuilder(
                 "Could not delete " + getProviderName() + " container with name " +
@@ -365,6 +419,52 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
             }
         }
 
+        String containerName = getContainerName(spaceId);
+        String previousUploadId = null;
+        if (null != largeObjectClient &&
+            largeObjectClient.hasSegmentContainer(containerName)) {
+            // Segments of an earlier large object are removed once replaced.
+            // Without a segments container there is no earlier large object,
+            // so the lookup is only made for spaces holding large objects.
+            MutableObjectInfoWithMetadata previous =
+                swiftClient.getObjectInfo(containerName, sanitizeForURI(contentId));
+            if (null != previous) {
+                previousUploadId = getLargeObjectUploadId(previous);
+            }
+        }
+
+        String providerChecksum;
+        if (null != largeObjectClient &&
+            contentSize > largeObjectClient.getSegmentSize()) {
+            providerChecksum = addLargeContent(spaceId,
+                                               contentId,
+                                               contentMimeType,
+                                               properties,
+                                               contentSize,
+                                               contentChecksum,
+                                               content);
+        } else {
+            providerChecksum = putContent(spaceId,
+                                          contentId,
+                                          contentMimeType,
+                                          properties,
+                                          contentChecksum,
+                                          content);
+        }
+
+        if (null != previousUploadId) {
+            largeObjectClient.deleteSegments(containerName, contentId,
+                                             previousUploadId);
+        }
+        return providerChecksum;
+    }
+
+    private String putContent(String spaceId,
+                              String contentId,
+                              String contentMimeType,
+                              Map<String, String> properties,
+                              String contentChecksum,
+                              InputStream content) {
         // Wrap the content in order to be able to retrieve a checksum
         ChecksumInputStream wrappedContent =
             new ChecksumInputStream(content, contentChecksum);
@@ -402,6 +502,47 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
         return providerChecksum;
     }
 
+    /*
+     * Stores the content as a Static Large Object. The MD5 of the content is
+     * computed as the segments are read, and compared to the provided
+     * checksum before the manifest makes the content item available.
+     */
+    private String addLargeContent(String spaceId,
+                                   String contentId,
+                                   String contentMimeType,
+                                   Map<String, String> properties,
+                                   long contentSize,
+                                   String contentChecksum,
+                                   InputStream content) {
+        String containerName = getContainerName(spaceId);
+        DigestInputStream digestContent = ChecksumUtil.wrapStream(content, MD5);
+        String uploadId = largeObjectClient.createUploadId();
+        List<Segment> segments =
+            largeObjectClient.uploadSegments(containerName,
+                                             contentId,
+                                             uploadId,
+                                             contentSize,
+                                             digestContent);
+        String checksum = ChecksumUtil.getChecksum(digestContent);
+
+        try {
+            if (null != contentChecksum) {
+                compareChecksum(checksum, spaceId, contentId, contentChecksum);
+            }
+            properties.put(PROPERTIES_CONTENT_CHECKSUM, checksum);
+            properties.put(PROPERTIES_LARGE_OBJECT_UPLOAD, uploadId);
+            largeObjectClient.putManifest(containerName,
+                                          contentId,
+                                          segments,
+                                          contentMimeType,
+                                          properties);
+        } catch (StorageException e) {
+            largeObjectClient.deleteSegments(segments);
+            throw e;
+        }
+        return checksum;
+    }
+
     @Override
     public String copyContent(String sourceSpaceId,
                               String sourceContentId,
@@ -422,6 +563,13 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
                           destContentId)) {
             MutableObjectInfoWithMetadata objectInfoWithMetadata =
                 getObjectProperties(destSpaceId, destContentId);
+            if (null != getLargeObjectUploadId(objectInfoWithMetadata)) {
+                // Swift copies a large object into a single object, which
+                // must not refer to the segments of the source
+                clearLargeObjectProperties(destSpaceId,
+                                           destContentId,
+                                           objectInfoWithMetadata);
+            }
             byte[] hash = objectInfoWithMetadata.getHash();
             String md5 = null;
             if (hash != null) {
@@ -475,6 +623,18 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
         log.debug("getContent(" + spaceId + ", " + contentId + ")");
 
         throwIfSpaceNotExist(spaceId);
+        if (parallelReadThreads > 1 && parallelReadPartSize > 0) {
+            Long contentSize = getObjectProperties(spaceId, contentId).getBytes();
+            if (null != contentSize && contentSize > parallelReadPartSize) {
+                return new ParallelRangeInputStream(this,
+                                                    spaceId,
+                                                    contentId,
+                                                    contentSize,
+                                                    parallelReadPartSize,
+                                                    parallelReadThreads);
+            }
+        }
+
         String containerName = getContainerName(spaceId);
         String encContentId = sanitizeForURI(contentId);
         SwiftObject swiftObject = swiftClient.getObject(containerName, encContentId);
@@ -487,6 +647,68 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
 
     }
 
+    @Override
+    public boolean supportsRangeRetrieval() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        log.debug("getContent({}, {}, {}, {})",
+                  spaceId, contentId, startByte, endByte);
+
+        throwIfSpaceNotExist(spaceId);
+        String containerName = getContainerName(spaceId);
+        String encContentId = sanitizeForURI(contentId);
+        SwiftObject swiftObject;
+        try {
+            swiftObject = swiftClient.getObject(containerName,
+                                                encContentId,
+                                                GetOptions.Builder.range(startByte,
+                                                                         endByte));
+        } catch (RuntimeException e) {
+            String err = "Could not retrieve bytes " + startByte + "-" + endByte +
+                         " of content " + contentId + " in " + getProviderName() +
+                         " container " + containerName + " due to error: " +
+                         e.getMessage();
+            throw new StorageException(err, e, RETRY);
+        }
+        if (swiftObject == null) {
+            String errMsg = createNotFoundMsg(spaceId, contentId);
+            throw new NotFoundException(errMsg);
+        }
+        return swiftObject.getPayload().getInput();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The properties are taken from the object info which is included in the
+     * response to the GET, so no separate HEAD request is needed.
+     */
+    @Override
+    public RetrievedContent getContentWithProperties(String spaceId,
+                                                     String contentId) {
+        log.debug("getContentWithProperties({}, {})", spaceId, contentId);
+
+        throwIfSpaceNotExist(spaceId);
+        String containerName = getContainerName(spaceId);
+        String encContentId = sanitizeForURI(contentId);
+        SwiftObject swiftObject = swiftClient.getObject(containerName, encContentId);
+        if (swiftObject == null) {
+            String errMsg = createNotFoundMsg(spaceId, contentId);
+            throw new NotFoundException(errMsg);
+        }
+        return new RetrievedContent(swiftObject.getPayload().getInput(),
+                                    getContentProperties(swiftObject.getInfo()));
+    }
+
     private String createNotFoundMsg(String spaceId,
                                      String contentId) {
         StringBuilder msg = new StringBuilder(getProviderName());
@@ -503,14 +725,33 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
     public void deleteContent(String spaceId, String contentId) {
         log.debug("deleteContent({}, {})", spaceId, contentId);
 
-        throwIfContentNotExist(spaceId, contentId);
+        String containerName = getContainerName(spaceId);
+        if (null != largeObjectClient &&
+            !largeObjectClient.hasSegmentContainer(containerName)) {
+            // No large objects to clean up after, so the response to the
+            // delete tells whether the content item existed
+            if (!largeObjectClient.deleteObject(containerName, contentId)) {
+                throw new NotFoundException(createNotFoundMsg(spaceId, contentId));
+            }
+            return;
+        }
+
+        String uploadId = null;
+        if (null != largeObjectClient) {
+            uploadId = getLargeObjectUploadId(getObjectProperties(spaceId, contentId));
+        } else {
+            throwIfContentNotExist(spaceId, contentId);
+        }
 
         log.debug("after check exist: {}, {}", spaceId, contentId);
 
-        String containerName = getContainerName(spaceId);
         log.debug("before swiftClient.removeObject({}, {})", spaceId, contentId);
         String encContentId = sanitizeForURI(contentId);
         swiftClient.removeObject(containerName, encContentId);
+
+        if (null != uploadId) {
+            largeObjectClient.deleteSegments(containerName, contentId, uploadId);
+        }
     }
 
     /**
@@ -522,16 +763,19 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
         log.debug("setContentProperties(" + spaceId + ", " + contentId + ")");
 
         throwIfSpaceNotExist(spaceId);
-        throwIfContentNotExist(spaceId, contentId);
+        MutableObjectInfoWithMetadata existing =
+            getObjectProperties(spaceId, contentId);
+        String uploadId = getLargeObjectUploadId(existing);
 
         // Remove calculated properties
         contentProperties = removeCalculatedProperties(contentProperties);
+        contentProperties.remove(PROPERTIES_LARGE_OBJECT_UPLOAD);
 
         // Set mimetype
         String contentMimeType =
             contentProperties.remove(PROPERTIES_CONTENT_MIMETYPE);
         if (contentMimeType == null || contentMimeType.equals("")) {
-            contentMimeType = getContentProperties(spaceId, contentId)
+            contentMimeType = getContentProperties(existing)
                 .get(PROPERTIES_CONTENT_MIMETYPE);
         }
 
@@ -549,6 +793,14 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
             newContentProperties.put(PROPERTIES_CONTENT_MIMETYPE, contentMimeType);
         }
 
+        // Keep the properties which identify a large object
+        if (null != uploadId) {
+            newContentProperties.put(PROPERTIES_LARGE_OBJECT_UPLOAD, uploadId);
+            newContentProperties.put(PROPERTIES_CONTENT_CHECKSUM,
+                                     getMetadataValue(existing.getMetadata(),
+                                                      PROPERTIES_CONTENT_CHECKSUM));
+        }
+
         String containerName = getContainerName(spaceId);
         log.debug("Calling swiftClient.setObjectInfo for spaceId: {} and contentId: {}",
                   spaceId, contentId);
@@ -578,6 +830,14 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
             throw new StorageException(err, RETRY);
         }
 
+        return getContentProperties(objectInfoWithMetadata);
+    }
+
+    /*
+     * Converts the info of a stored object into content properties
+     */
+    private Map<String, String> getContentProperties(
+        MutableObjectInfoWithMetadata objectInfoWithMetadata) {
         Map<String, String> propertiesMap = objectInfoWithMetadata.getMetadata();
 
         // Set expected property values
@@ -590,8 +850,16 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
             propertiesMap.put(PROPERTIES_CONTENT_SIZE, contentLength.toString());
         }
         // CHECKSUM
+        String largeObjectChecksum = null;
+        if (null != getLargeObjectUploadId(objectInfoWithMetadata)) {
+            // The hash of a large object is not the MD5 of its content
+            largeObjectChecksum =
+                getMetadataValue(propertiesMap, PROPERTIES_CONTENT_CHECKSUM);
+        }
         byte[] hash = objectInfoWithMetadata.getHash();
-        if (hash != null) {
+        if (largeObjectChecksum != null) {
+            propertiesMap.put(PROPERTIES_CONTENT_CHECKSUM, largeObjectChecksum);
+        } else if (hash != null) {
             String checksum = ChecksumUtil.checksumBytesToString(hash);
             propertiesMap.put(PROPERTIES_CONTENT_CHECKSUM, checksum);
         }
@@ -610,10 +878,51 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
             String val = propertiesMap.get(key);
             resultMap.put(getWithSpace(key.toLowerCase()), val);
         }
+        resultMap.remove(PROPERTIES_LARGE_OBJECT_UPLOAD);
 
         return resultMap;
     }
 
+    /*
+     * Returns the ID of the upload which created the segments of a large
+     * object, or null if the object is not a large object
+     */
+    private String getLargeObjectUploadId(
+        MutableObjectInfoWithMetadata objectInfoWithMetadata) {
+        return getMetadataValue(objectInfoWithMetadata.getMetadata(),
+                                PROPERTIES_LARGE_OBJECT_UPLOAD);
+    }
+
+    private void clearLargeObjectProperties(
+        String spaceId,
+        String contentId,
+        MutableObjectInfoWithMetadata objectInfoWithMetadata) {
+        Map<String, String> properties = new HashMap<>();
+        for (Map.Entry<String, String> entry :
+            objectInfoWithMetadata.getMetadata().entrySet()) {
+            String key = entry.getKey();
+            if (!key.equalsIgnoreCase(PROPERTIES_LARGE_OBJECT_UPLOAD) &&
+                !key.equalsIgnoreCase(PROPERTIES_CONTENT_CHECKSUM)) {
+                properties.put(key, entry.getValue());
+            }
+        }
+        swiftClient.setObjectInfo(getContainerName(spaceId),
+                                  sanitizeForURI(contentId),
+                                  properties);
+    }
+
+    /*
+     * Metadata names are not case sensitive
+     */
+    private String getMetadataValue(Map<String, String> metadata, String name) {
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
     private MutableObjectInfoWithMetadata getObjectProperties(String spaceId,
                                                               String contentId) {
         String containerName = getContainerName(spaceId);
@@ -0,0 +1,691 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.openstackstorage;
+
+import static org.duracloud.storage.error.StorageException.RETRY;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.storage.error.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores content items which are too large for a single object (or which
+ * benefit from parallel transfer) as Swift Static Large Objects: the content
+ * is split into segments, the segments are uploaded in parallel to a
+ * segments container which sits alongside the container of the content item,
+ * and a manifest listing the segments is then stored under the name of the
+ * content item.
+ *
+ * The Swift API used by the rest of OpenStackStorageProvider has no support
+ * for large object manifests, so this class talks to the Swift endpoint
+ * directly, authenticating with the same (v1.0) credentials.
+ */
+public class SwiftLargeObjectClient {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(SwiftLargeObjectClient.class);
+
+    public static final long DEFAULT_SEGMENT_SIZE = 256L * 1024 * 1024;
+    public static final int DEFAULT_THREADS = 4;
+
+    /*
+     * Underscores are not allowed in space IDs, so segment containers can
+     * never be mistaken for spaces
+     */
+    public static final String SEGMENT_CONTAINER_SUFFIX = "_segments";
+
+    // Default limit on the number of segments in a Swift SLO manifest
+    protected static final int MAX_SEGMENTS = 1000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int CONNECT_TIMEOUT_MILLIS = 30000;
+
+    // How long the absence of a segments container is remembered
+    protected static final long NO_SEGMENTS_TTL_MILLIS = 10000;
+    private static final int READ_TIMEOUT_MILLIS = 300000;
+
+    private final String authUrl;
+    private final String username;
+    private final String apiAccessKey;
+    private final long segmentSize;
+    private final int threads;
+    private final File workDir;
+
+    private volatile Session session;
+
+    /*
+     * Containers known to have a segments container (Long.MAX_VALUE), or to
+     * have none (time at which that should be checked again)
+     */
+    private final Map<String, Long> segmentContainers = new ConcurrentHashMap<>();
+
+    public SwiftLargeObjectClient(String authUrl,
+                                  String username,
+                                  String apiAccessKey) {
+        this(authUrl, username, apiAccessKey, DEFAULT_SEGMENT_SIZE,
+             DEFAULT_THREADS, new File(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * @param authUrl      Swift v1.0 authentication URL
+     * @param username     Swift user
+     * @param apiAccessKey Swift API key
+     * @param segmentSize  size of each segment, and the size above which
+     *                     content should be stored as a large object
+     * @param threads      number of segments uploaded at the same time
+     * @param workDir      directory in which segments are staged while they
+     *                     are uploaded
+     */
+    public SwiftLargeObjectClient(String authUrl,
+                                  String username,
+                                  String apiAccessKey,
+                                  long segmentSize,
+                                  int threads,
+                                  File workDir) {
+        if (segmentSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException(
+                "Segment size and thread count must be greater than 0");
+        }
+        this.authUrl = authUrl;
+        this.username = username;
+        this.apiAccessKey = apiAccessKey;
+        this.segmentSize = segmentSize;
+        this.threads = threads;
+        this.workDir = workDir;
+    }
+
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+
+    public static String getSegmentContainer(String container) {
+        return container + SEGMENT_CONTAINER_SUFFIX;
+    }
+
+    /**
+     * @return a new ID for an upload, which distinguishes its segments from
+     * those of other uploads of the same object
+     */
+    public String createUploadId() {
+        return Long.toString(System.currentTimeMillis(), 36) + "-" +
+               UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Reads the content to its end, uploading each segment as soon as it has
+     * been read, with up to the configured number of segments in flight. The
+     * MD5 of each segment is sent along with it, to be verified by Swift.
+     * If any segment fails, the segments already uploaded are removed.
+     *
+     * @param container   container of the content item
+     * @param objectName  name of the content item
+     * @param uploadId    ID of this upload, from createUploadId()
+     * @param contentSize expected size of the content, used to keep the
+     *                    number of segments within the manifest limit
+     * @param content     the content
+     * @return the uploaded segments, in order
+     */
+    public List<Segment> uploadSegments(String container,
+                                        String objectName,
+                                        String uploadId,
+                                        long contentSize,
+                                        InputStream content) {
+        String segmentContainer = getSegmentContainer(container);
+        request("PUT", containerPath(segmentContainer), null, null);
+        segmentContainers.put(container, Long.MAX_VALUE);
+
+        long partSize = Math.max(segmentSize,
+                                 (contentSize + MAX_SEGMENTS - 1) / MAX_SEGMENTS);
+        workDir.mkdirs();
+
+        List<Segment> segments = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> uploads = new ArrayList<>();
+        Semaphore inFlight = new Semaphore(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int index = 0;
+            boolean more = true;
+            while (more) {
+                inFlight.acquire();
+                File segmentFile = File.createTempFile("segment-", ".tmp", workDir);
+                long size = 0;
+                OutputStream out = null;
+                String md5;
+                try {
+                    DigestOutputStream digestOut = new DigestOutputStream(
+                        new FileOutputStream(segmentFile),
+                        DigestUtils.getMd5Digest());
+                    out = digestOut;
+                    while (size < partSize) {
+                        int read = content.read(buffer, 0,
+                                                (int) Math.min(buffer.length,
+                                                               partSize - size));
+                        if (read < 0) {
+                            more = false;
+                            break;
+                        }
+                        digestOut.write(buffer, 0, read);
+                        size += read;
+                    }
+                    out.close();
+                    md5 = ChecksumUtil.checksumBytesToString(
+                        digestOut.getMessageDigest().digest());
+                } catch (IOException | RuntimeException e) {
+                    IOUtils.closeQuietly(out);
+                    segmentFile.delete();
+                    inFlight.release();
+                    throw e;
+                }
+
+                if (size == 0 && index > 0) {
+                    // The previous segment ended exactly at the end of content
+                    segmentFile.delete();
+                    inFlight.release();
+                    break;
+                }
+
+                Segment segment =
+                    new Segment(segmentContainer,
+                                objectName + "/" + uploadId + "/" +
+                                String.format("%08d", index++),
+                                md5,
+                                size);
+                uploads.add(executor.submit(() -> {
+                    try {
+                        uploadSegment(segment, segmentFile);
+                        segments.add(segment);
+                    } finally {
+                        segmentFile.delete();
+                        inFlight.release();
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> upload : uploads) {
+                upload.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(executor, uploads, segments);
+            throw new StorageException("Interrupted while uploading segments of " +
+                                       objectName, e, RETRY);
+        } catch (ExecutionException e) {
+            cancel(executor, uploads, segments);
+            Throwable cause = e.getCause();
+            if (cause instanceof StorageException) {
+                throw (StorageException) cause;
+            }
+            throw new StorageException("Unable to upload segment of " + objectName +
+                                       " due to: " + cause.getMessage(), cause, RETRY);
+        } catch (IOException | RuntimeException e) {
+            cancel(executor, uploads, segments);
+            throw new StorageException("Unable to upload segments of " + objectName +
+                                       " due to: " + e.getMessage(), e, RETRY);
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Segment> ordered = new ArrayList<>(segments);
+        ordered.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return ordered;
+    }
+
+    /*
+     * Stops uploads which have not started, waits for those under way to
+     * finish, then removes every segment which made it to Swift
+     */
+    private void cancel(ExecutorService executor,
+                        List<Future<?>> uploads,
+                        List<Segment> segments) {
+        for (Future<?> upload : uploads) {
+            upload.cancel(false);
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        deleteSegments(new ArrayList<>(segments));
+    }
+
+    private void uploadSegment(Segment segment, File segmentFile) {
+        String path = objectPath(segment.getContainer(), segment.getName());
+        String etag = request("PUT", path,
+                              Collections.singletonMap("ETag", segment.getMd5()),
+                              segmentFile);
+        if (null != etag && !segment.getMd5().equals(etag)) {
+            throw new StorageException("Checksum of segment " + segment.getName() +
+                                       " (" + etag + ") does not match the " +
+                                       "checksum sent (" + segment.getMd5() + ")",
+                                       RETRY);
+        }
+    }
+
+    /**
+     * Stores the manifest which assembles the segments into the content item.
+     *
+     * @param container   container of the content item
+     * @param objectName  name of the content item
+     * @param segments    the segments, in order
+     * @param contentType MIME type of the content item
+     * @param metadata    object metadata, without the X-Object-Meta- prefix
+     */
+    public void putManifest(String container,
+                            String objectName,
+                            List<Segment> segments,
+                            String contentType,
+                            Map<String, String> metadata) {
+        StringBuilder manifest = new StringBuilder("[");
+        for (Segment segment : segments) {
+            if (manifest.length() > 1) {
+                manifest.append(",");
+            }
+            manifest.append("{\"path\":\"")
+                    .append(escapeJson("/" + segment.getContainer() + "/" +
+                                       segment.getName()))
+                    .append("\",\"etag\":\"").append(segment.getMd5())
+                    .append("\",\"size_bytes\":").append(segment.getSize())
+                    .append("}");
+        }
+        manifest.append("]");
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", contentType);
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            headers.put("X-Object-Meta-" + entry.getKey(), entry.getValue());
+        }
+        request("PUT", objectPath(container, objectName) + "?multipart-manifest=put",
+                headers, manifest.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Removes the segments of one upload of a content item. Failures are
+     * logged, as this is a clean up step.
+     *
+     * @param container  container of the content item
+     * @param objectName name of the content item
+     * @param uploadId   ID of the upload
+     */
+    public void deleteSegments(String container,
+                               String objectName,
+                               String uploadId) {
+        String segmentContainer = getSegmentContainer(container);
+        try {
+            List<Segment> segments = new ArrayList<>();
+            for (String name : listObjects(segmentContainer,
+                                           objectName + "/" + uploadId + "/")) {
+                segments.add(new Segment(segmentContainer, name, null, 0));
+            }
+            deleteSegments(segments);
+        } catch (StorageException e) {
+            log.warn("Unable to remove segments of upload {} of {}/{}: {}",
+                     uploadId, container, objectName, e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the given segments. Failures are logged, as this is a clean up
+     * step.
+     */
+    public void deleteSegments(List<Segment> segments) {
+        for (Segment segment : segments) {
+            try {
+                request("DELETE",
+                        objectPath(segment.getContainer(), segment.getName()),
+                        null, null);
+            } catch (StorageException e) {
+                log.warn("Unable to remove segment {}/{}: {}",
+                         segment.getContainer(), segment.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Removes the segments container of a container, if it exists and is
+     * empty. Failures are logged, as this is a clean up step.
+     */
+    public void deleteSegmentContainer(String container) {
+        try {
+            request("DELETE", containerPath(getSegmentContainer(container)),
+                    null, null);
+            segmentContainers.remove(container);
+        } catch (StorageException e) {
+            log.debug("Segment container of {} not removed: {}",
+                      container, e.getMessage());
+        }
+    }
+
+    /**
+     * Indicates whether a container has a segments container, and so may hold
+     * large objects. The absence of a segments container is remembered for a
+     * short time, as checking costs a request.
+     *
+     * @param container container of the content items
+     * @return true if the segments container exists, or if that is not known
+     */
+    public boolean hasSegmentContainer(String container) {
+        Long expires = segmentContainers.get(container);
+        if (null != expires && System.currentTimeMillis() < expires) {
+            return expires == Long.MAX_VALUE;
+        }
+        boolean exists;
+        try {
+            exists = execute("HEAD", containerPath(getSegmentContainer(container)),
+                             null, null, false).found;
+        } catch (StorageException e) {
+            log.warn("Unable to determine whether {} has a segments container: {}",
+                     container, e.getMessage());
+            return true;
+        }
+        segmentContainers.put(container, exists ? Long.MAX_VALUE :
+                                         System.currentTimeMillis() +
+                                         NO_SEGMENTS_TTL_MILLIS);
+        return exists;
+    }
+
+    /**
+     * Removes a single object. Segments of a large object are not removed.
+     *
+     * @param container  container of the object
+     * @param objectName name of the object
+     * @return false if the object did not exist
+     */
+    public boolean deleteObject(String container, String objectName) {
+        return execute("DELETE", objectPath(container, objectName),
+                       null, null, false).found;
+    }
+
+    private List<String> listObjects(String container, String prefix) {
+        List<String> names = new ArrayList<>();
+        String marker = null;
+        while (true) {
+            String path = containerPath(container) + "?format=plain&prefix=" +
+                          OpenStackStorageProvider.sanitizeForURI(prefix);
+            if (null != marker) {
+                path += "&marker=" + OpenStackStorageProvider.sanitizeForURI(marker);
+            }
+            byte[] listing = requestContent(path);
+            List<String> page = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(listing),
+                                      StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isEmpty()) {
+                        page.add(line);
+                    }
+                }
+            } catch (IOException e) {
+                throw new StorageException(e);
+            }
+            if (page.isEmpty()) {
+                return names;
+            }
+            names.addAll(page);
+            marker = page.get(page.size() - 1);
+        }
+    }
+
+    private String containerPath(String container) {
+        return "/" + container;
+    }
+
+    private String objectPath(String container, String objectName) {
+        return "/" + container + "/" + OpenStackStorageProvider.sanitizeForURI(objectName);
+    }
+
+    /*
+     * Performs a request, authenticating first if needed and again if the
+     * token has expired. Returns the ETag of the response, if any. A 404 on a
+     * DELETE or HEAD is not an error.
+     */
+    private String request(String method,
+                           String path,
+                           Map<String, String> headers,
+                           Object body) {
+        return execute(method, path, headers, body, false).etag;
+    }
+
+    private byte[] requestContent(String path) {
+        return execute("GET", path, null, null, true).content;
+    }
+
+    private Response execute(String method,
+                             String path,
+                             Map<String, String> headers,
+                             Object body,
+                             boolean readContent) {
+        for (int attempt = 0; ; attempt++) {
+            Session current = getSession(attempt > 0);
+            HttpURLConnection connection = null;
+            try {
+                connection = (HttpURLConnection)
+                    new URL(current.storageUrl + path).openConnection();
+                connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+                connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+                connection.setRequestMethod(method);
+                connection.setRequestProperty("X-Auth-Token", current.token);
+                if (null != headers) {
+                    for (Map.Entry<String, String> header : headers.entrySet()) {
+                        connection.setRequestProperty(header.getKey(), header.getValue());
+                    }
+                }
+                writeBody(connection, method, body);
+
+                int status = connection.getResponseCode();
+                if (status == HttpURLConnection.HTTP_UNAUTHORIZED && attempt == 0) {
+                    continue;
+                }
+                if (("DELETE".equals(method) || "HEAD".equals(method)) &&
+                    status == HttpURLConnection.HTTP_NOT_FOUND) {
+                    return new Response(false, null);
+                }
+                if (status < 200 || status >= 300) {
+                    throw new StorageException(method + " " + path + " failed with " +
+                                               "status " + status + ": " +
+                                               readError(connection), RETRY);
+                }
+
+                Response response = new Response(true, stripQuotes(
+                    connection.getHeaderField("ETag")));
+                if (readContent) {
+                    try (InputStream in = connection.getInputStream()) {
+                        response.content = IOUtils.toByteArray(in);
+                    }
+                }
+                return response;
+            } catch (IOException e) {
+                throw new StorageException(method + " " + path + " failed due to: " +
+                                           e.getMessage(), e, RETRY);
+            } finally {
+                if (null != connection) {
+                    connection.disconnect();
+                }
+            }
+        }
+    }
+
+    private void writeBody(HttpURLConnection connection,
+                           String method,
+                           Object body) throws IOException {
+        if (body instanceof File) {
+            File file = (File) body;
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(file.length());
+            try (InputStream in = new FileInputStream(file);
+                 OutputStream out = connection.getOutputStream()) {
+                IOUtils.copyLarge(in, out, new byte[BUFFER_SIZE]);
+            }
+        } else if (body instanceof byte[]) {
+            byte[] bytes = (byte[]) body;
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(bytes.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(bytes);
+            }
+        } else if ("PUT".equals(method)) {
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(0);
+            connection.getOutputStream().close();
+        }
+    }
+
+    private String readError(HttpURLConnection connection) {
+        try (InputStream error = connection.getErrorStream()) {
+            if (null == error) {
+                return "";
+            }
+            return IOUtils.toString(error, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return e.getMessage();
+        }
+    }
+
+    private String stripQuotes(String etag) {
+        if (null != etag && etag.length() > 1 &&
+            etag.startsWith("\"") && etag.endsWith("\"")) {
+            return etag.substring(1, etag.length() - 1);
+        }
+        return etag;
+    }
+
+    private synchronized Session getSession(boolean renew) {
+        if (null == session || renew) {
+            session = authenticate();
+        }
+        return session;
+    }
+
+    private Session authenticate() {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(authUrl).openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setRequestProperty("X-Auth-User", username);
+            connection.setRequestProperty("X-Auth-Key", apiAccessKey);
+            int status = connection.getResponseCode();
+            String storageUrl = connection.getHeaderField("X-Storage-Url");
+            String token = connection.getHeaderField("X-Auth-Token");
+            if (status < 200 || status >= 300 || null == storageUrl || null == token) {
+                throw new StorageException("Unable to authenticate with " + authUrl +
+                                           ", status " + status, RETRY);
+            }
+            return new Session(storageUrl, token);
+        } catch (IOException e) {
+            throw new StorageException("Unable to authenticate with " + authUrl +
+                                       " due to: " + e.getMessage(), e, RETRY);
+        } finally {
+            if (null != connection) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private static String escapeJson(String value) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static class Session {
+        private final String storageUrl;
+        private final String token;
+
+        Session(String storageUrl, String token) {
+            this.storageUrl = storageUrl;
+            this.token = token;
+        }
+    }
+
+    private static class Response {
+        private final boolean found;
+        private final String etag;
+        private byte[] content;
+
+        Response(boolean found, String etag) {
+            this.found = found;
+            this.etag = etag;
+        }
+    }
+
+    /**
+     * A segment of a large object
+     */
+    public static class Segment {
+        private final String container;
+        private final String name;
+        private final String md5;
+        private final long size;
+
+        public Segment(String container, String name, String md5, long size) {
+            this.container = container;
+            this.name = name;
+            this.md5 = md5;
+            this.size = size;
+        }
+
+        public String getContainer() {
+            return container;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getMd5() {
+            return md5;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+
+}
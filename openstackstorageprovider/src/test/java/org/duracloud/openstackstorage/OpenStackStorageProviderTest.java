@@ -7,12 +7,17 @@
  */
 package org.duracloud.openstackstorage;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
@@ -20,7 +25,9 @@ import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.internal.PageSetImpl;
 import org.jclouds.openstack.swift.SwiftClient;
 import org.jclouds.openstack.swift.domain.ContainerMetadata;
+import org.jclouds.openstack.swift.domain.MutableObjectInfoWithMetadata;
 import org.jclouds.openstack.swift.domain.ObjectInfo;
+import org.jclouds.openstack.swift.domain.SwiftObject;
 import org.jclouds.openstack.swift.domain.internal.ObjectInfoImpl;
 import org.jclouds.openstack.swift.options.ListContainerOptions;
 import org.junit.After;
@@ -148,6 +155,99 @@ public class OpenStackStorageProviderTest {
     /*
      * Implementation of OpenStackStorageProvider to permit testing
      */
+    @Test
+    public void testDeleteContent() {
+        SwiftLargeObjectClient largeObjectClient =
+            EasyMock.createMock("SwiftLargeObjectClient", SwiftLargeObjectClient.class);
+        provider.setLargeObjectClient(largeObjectClient);
+
+        // Without large objects in the space the delete is a single request
+        EasyMock.expect(largeObjectClient.hasSegmentContainer(spaceId))
+                .andReturn(false).times(2);
+        EasyMock.expect(largeObjectClient.deleteObject(spaceId, "content-id"))
+                .andReturn(true);
+        EasyMock.expect(largeObjectClient.deleteObject(spaceId, "missing-id"))
+                .andReturn(false);
+
+        replayMocks();
+        EasyMock.replay(largeObjectClient);
+
+        provider.deleteContent(spaceId, "content-id");
+        try {
+            provider.deleteContent(spaceId, "missing-id");
+            Assert.fail("Exception expected");
+        } catch (NotFoundException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+
+        EasyMock.verify(largeObjectClient);
+    }
+
+    @Test
+    public void testAddContent() throws Exception {
+        SwiftLargeObjectClient largeObjectClient =
+            EasyMock.createMock("SwiftLargeObjectClient", SwiftLargeObjectClient.class);
+        provider.setLargeObjectClient(largeObjectClient);
+        String contentId = "content-id";
+        String content = "content";
+
+        EasyMock.expect(swiftClient.containerExists(spaceId))
+                .andReturn(true).times(2);
+        EasyMock.expect(largeObjectClient.getSegmentSize())
+                .andReturn(1000L).times(2);
+
+        // Without large objects in the space, no earlier large object is
+        // looked up before the upload
+        EasyMock.expect(largeObjectClient.hasSegmentContainer(spaceId))
+                .andReturn(false);
+        expectPutObject();
+
+        // With large objects in the space, the object being replaced is
+        // looked up for segments to remove
+        EasyMock.expect(largeObjectClient.hasSegmentContainer(spaceId))
+                .andReturn(true);
+        EasyMock.expect(swiftClient.getObjectInfo(spaceId, contentId))
+                .andReturn(null);
+        expectPutObject();
+
+        replayMocks();
+        EasyMock.replay(largeObjectClient);
+
+        String checksum = new ChecksumUtil(ChecksumUtil.Algorithm.MD5)
+            .generateChecksum(content);
+        for (int i = 0; i < 2; i++) {
+            InputStream stream =
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(checksum,
+                                provider.addContent(spaceId, contentId, "text/plain",
+                                                    null, content.length(), null,
+                                                    stream));
+        }
+
+        EasyMock.verify(largeObjectClient);
+    }
+
+    private void expectPutObject() {
+        MutableObjectInfoWithMetadata objectInfo =
+            EasyMock.createNiceMock(MutableObjectInfoWithMetadata.class);
+        EasyMock.expect(objectInfo.getMetadata())
+                .andReturn(new HashMap<String, String>()).anyTimes();
+        EasyMock.replay(objectInfo);
+
+        SwiftObject swiftObject = EasyMock.createMock(SwiftObject.class);
+        EasyMock.expect(swiftObject.getInfo()).andReturn(objectInfo);
+        Capture<InputStream> payload = new Capture<>();
+        swiftObject.setPayload(EasyMock.capture(payload));
+        EasyMock.expectLastCall();
+        EasyMock.replay(swiftObject);
+
+        EasyMock.expect(swiftClient.newSwiftObject()).andReturn(swiftObject);
+        EasyMock.expect(swiftClient.putObject(EasyMock.eq(spaceId),
+                                              EasyMock.same(swiftObject)))
+                .andAnswer(() -> new ChecksumUtil(ChecksumUtil.Algorithm.MD5)
+                    .generateChecksum(payload.getValue()));
+    }
+
     public class OpenStackTestProvider extends OpenStackStorageProvider {
         public OpenStackTestProvider(SwiftClient swiftClient) {
             super(swiftClient);
@@ -0,0 +1,329 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.openstackstorage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.duracloud.openstackstorage.SwiftLargeObjectClient.Segment;
+import org.duracloud.storage.error.StorageException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the large object client against an in-process Swift stand-in
+ */
+public class SwiftLargeObjectClientTest {
+
+    private static final String TOKEN = "token";
+    private static final int SEGMENT_SIZE = 10;
+
+    private HttpServer server;
+    private File workDir;
+    private SwiftLargeObjectClient client;
+
+    private final Map<String, byte[]> objects =
+        Collections.synchronizedMap(new TreeMap<>());
+    private final Set<String> containers = new ConcurrentSkipListSet<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile String failingObject;
+    private volatile String manifest;
+    private volatile String manifestMetadata;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        workDir = new File("target", "swift-segments-" + System.nanoTime());
+        client = new SwiftLargeObjectClient(baseUrl + "/auth/v1.0", "user", "key",
+                                            SEGMENT_SIZE, 3, workDir);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.stop(0);
+        FileUtils.deleteDirectory(workDir);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getQuery();
+            String method = exchange.getRequestMethod();
+            byte[] body = IOUtils.toByteArray(exchange.getRequestBody());
+
+            if (path.startsWith("/auth")) {
+                exchange.getResponseHeaders().add(
+                    "X-Storage-Url", "http://127.0.0.1:" +
+                                     server.getAddress().getPort() + "/v1");
+                exchange.getResponseHeaders().add("X-Auth-Token", TOKEN);
+                respond(exchange, 200, null);
+                return;
+            }
+            requests.incrementAndGet();
+            if (!TOKEN.equals(exchange.getRequestHeaders().getFirst("X-Auth-Token"))) {
+                respond(exchange, 401, null);
+                return;
+            }
+
+            String name = path.substring("/v1/".length());
+            int slash = name.indexOf('/');
+            if (slash < 0) {
+                handleContainer(exchange, method, name, query);
+                return;
+            }
+            if (!containers.contains(name.substring(0, slash))) {
+                respond(exchange, 404, null);
+            } else if ("PUT".equals(method)) {
+                if (name.equals(failingObject)) {
+                    respond(exchange, 503, null);
+                } else if (null != query && query.contains("multipart-manifest=put")) {
+                    manifest = new String(body, StandardCharsets.UTF_8);
+                    manifestMetadata =
+                        exchange.getRequestHeaders().getFirst("X-Object-Meta-Color");
+                    objects.put(name, body);
+                    respond(exchange, 201, null);
+                } else {
+                    String md5 = DigestUtils.md5Hex(body);
+                    String expected = exchange.getRequestHeaders().getFirst("ETag");
+                    if (null != expected && !expected.equals(md5)) {
+                        respond(exchange, 422, null);
+                        return;
+                    }
+                    objects.put(name, body);
+                    exchange.getResponseHeaders().add("ETag", md5);
+                    respond(exchange, 201, null);
+                }
+            } else if ("DELETE".equals(method)) {
+                respond(exchange, null == objects.remove(name) ? 404 : 204, null);
+            } else {
+                respond(exchange, 405, null);
+            }
+        } catch (RuntimeException e) {
+            respond(exchange, 500, null);
+        }
+    }
+
+    private void handleContainer(HttpExchange exchange,
+                                 String method,
+                                 String container,
+                                 String query) throws IOException {
+        if ("PUT".equals(method)) {
+            containers.add(container);
+            respond(exchange, 201, null);
+        } else if ("DELETE".equals(method)) {
+            respond(exchange, containers.remove(container) ? 204 : 404, null);
+        } else if ("HEAD".equals(method)) {
+            respond(exchange, containers.contains(container) ? 204 : 404, null);
+        } else if ("GET".equals(method)) {
+            String prefix = "";
+            String marker = "";
+            for (String param : query.split("&")) {
+                if (param.startsWith("prefix=")) {
+                    prefix = param.substring("prefix=".length());
+                } else if (param.startsWith("marker=")) {
+                    marker = param.substring("marker=".length());
+                }
+            }
+            // Listings are paged two names at a time
+            StringBuilder listing = new StringBuilder();
+            int count = 0;
+            synchronized (objects) {
+                for (String key : objects.keySet()) {
+                    String objectName = key.substring(key.indexOf('/') + 1);
+                    if (key.startsWith(container + "/") &&
+                        objectName.startsWith(prefix) &&
+                        objectName.compareTo(marker) > 0 && count < 2) {
+                        listing.append(objectName).append("\n");
+                        count++;
+                    }
+                }
+            }
+            respond(exchange, 200, listing.toString());
+        } else {
+            respond(exchange, 405, null);
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body)
+        throws IOException {
+        byte[] bytes = null == body ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+
+    private byte[] content(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        return content;
+    }
+
+    @Test
+    public void testUploadSegments() throws Exception {
+        containers.add("space");
+        byte[] content = content(35);
+        String uploadId = client.createUploadId();
+
+        List<Segment> segments =
+            client.uploadSegments("space", "item", uploadId, content.length,
+                                  new ByteArrayInputStream(content));
+
+        assertEquals(4, segments.size());
+        long total = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            assertEquals("space_segments", segment.getContainer());
+            assertEquals(String.format("item/%s/%08d", uploadId, i), segment.getName());
+            byte[] stored = objects.get("space_segments/" + segment.getName());
+            assertEquals(DigestUtils.md5Hex(stored), segment.getMd5());
+            assertEquals(stored.length, segment.getSize());
+            total += segment.getSize();
+        }
+        assertEquals(content.length, total);
+        assertEquals(5, segments.get(3).getSize());
+
+        client.putManifest("space", "item", segments, "text/plain",
+                           Collections.singletonMap("Color", "blue"));
+        assertTrue(manifest.startsWith("[{\"path\":\"/space_segments/item/" + uploadId +
+                                       "/00000000\",\"etag\":\"" +
+                                       segments.get(0).getMd5() + "\""));
+        assertTrue(manifest.endsWith("\"size_bytes\":5}]"));
+        assertEquals("blue", manifestMetadata);
+
+        // Staged segment files are removed
+        assertEquals(0, workDir.list().length);
+    }
+
+    @Test
+    public void testSegmentCount() throws Exception {
+        containers.add("space");
+        byte[] content = content(SEGMENT_SIZE * 2);
+
+        List<Segment> segments =
+            client.uploadSegments("space", "item", client.createUploadId(),
+                                  content.length, new ByteArrayInputStream(content));
+
+        // No empty trailing segment when content ends on a segment boundary
+        assertEquals(2, segments.size());
+    }
+
+    @Test
+    public void testFailedSegment() throws Exception {
+        containers.add("space");
+        String uploadId = client.createUploadId();
+        failingObject = String.format("space_segments/item/%s/%08d", uploadId, 2);
+
+        try {
+            client.uploadSegments("space", "item", uploadId, 50,
+                                  new ByteArrayInputStream(content(50)));
+            fail("Exception expected");
+        } catch (StorageException e) {
+            assertTrue(e.getMessage().contains("503"));
+        }
+
+        // Segments which were uploaded have been removed
+        assertTrue(objects.isEmpty());
+        assertEquals(0, workDir.list().length);
+    }
+
+    @Test
+    public void testDeleteSegments() throws Exception {
+        containers.add("space");
+        String uploadId = client.createUploadId();
+        String otherUploadId = client.createUploadId();
+        client.uploadSegments("space", "item", uploadId, 45,
+                              new ByteArrayInputStream(content(45)));
+        client.uploadSegments("space", "item", otherUploadId, 15,
+                              new ByteArrayInputStream(content(15)));
+        assertEquals(7, objects.size());
+
+        client.deleteSegments("space", "item", uploadId);
+
+        assertEquals(2, objects.size());
+        for (String name : objects.keySet()) {
+            assertTrue(name.contains(otherUploadId));
+        }
+
+        client.deleteSegments("space", "item", otherUploadId);
+        assertTrue(objects.isEmpty());
+
+        client.deleteSegmentContainer("space");
+        assertFalse(containers.contains("space_segments"));
+        assertTrue(containers.contains("space"));
+    }
+
+    @Test
+    public void testDeleteObject() throws Exception {
+        containers.add("space");
+        objects.put("space/item", content(5));
+
+        assertTrue(client.deleteObject("space", "item"));
+        assertTrue(objects.isEmpty());
+        assertFalse(client.deleteObject("space", "item"));
+        assertFalse(client.deleteObject("missing", "item"));
+
+        // A single request for each delete, whether or not the object exists
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void testHasSegmentContainer() throws Exception {
+        containers.add("space");
+        assertFalse(client.hasSegmentContainer("space"));
+        assertFalse(client.hasSegmentContainer("space"));
+        assertEquals(1, requests.get());
+
+        // Uploading a large object creates the segments container
+        client.uploadSegments("space", "item", client.createUploadId(), 15,
+                              new ByteArrayInputStream(content(15)));
+        requests.set(0);
+        assertTrue(client.hasSegmentContainer("space"));
+        assertEquals(0, requests.get());
+
+        // Another client finds the existing segments container
+        SwiftLargeObjectClient other =
+            new SwiftLargeObjectClient("http://127.0.0.1:" +
+                                       server.getAddress().getPort() + "/auth/v1.0",
+                                       "user", "key", SEGMENT_SIZE, 1, workDir);
+        assertTrue(other.hasSegmentContainer("space"));
+        assertEquals(1, requests.get());
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.s3storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copies an S3 object by way of a multipart upload, with each part copied
+ * server-side from a byte range of the source object (UploadPartCopy). Parts
+ * are copied in parallel. This allows objects larger than the 5 GB limit of a
+ * single copy request to be copied, and speeds up the copy of large objects.
+ *
+ * Note that the ETag of an object created this way is not the MD5 of the
+ * object's content.
+ */
+public class S3MultipartCopier {
+
+    private final Logger log = LoggerFactory.getLogger(S3MultipartCopier.class);
+
+    public static final long MAX_SINGLE_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+    public static final long DEFAULT_PART_SIZE = 256L * 1024 * 1024;
+    protected static final int MAX_PARTS = 10000;
+    protected static final int COPY_THREADS = 10;
+
+    // Shared by all providers, as providers are re-created as accounts change
+    private static ExecutorService copyExecutor;
+
+    private final AmazonS3 s3Client;
+    private final long partSize;
+
+    public S3MultipartCopier(AmazonS3 s3Client) {
+        this(s3Client, DEFAULT_PART_SIZE);
+    }
+
+    public S3MultipartCopier(AmazonS3 s3Client, long partSize) {
+        this.s3Client = s3Client;
+        this.partSize = partSize;
+    }
+
+    /**
+     * Copies an object. The destination, and the metadata, storage class
+     * and ACL of the new object, are defined by the upload request.
+     *
+     * @param sourceBucketName bucket of the object to copy
+     * @param sourceKey        key of the object to copy
+     * @param sourceMetadata   metadata of the object to copy, used to determine
+     *                         its size and to make sure that it does not
+     *                         change while the copy is in progress
+     * @param uploadRequest    describes the object to create
+     * @return ETag of the new object
+     * @throws AmazonClientException if the copy fails
+     */
+    public String copy(String sourceBucketName,
+                       String sourceKey,
+                       ObjectMetadata sourceMetadata,
+                       InitiateMultipartUploadRequest uploadRequest) {
+        String destBucketName = uploadRequest.getBucketName();
+        String destKey = uploadRequest.getKey();
+        long objectSize = sourceMetadata.getContentLength();
+        long copyPartSize = Math.max(partSize,
+                                     (objectSize + MAX_PARTS - 1) / MAX_PARTS);
+        int partCount = (int) ((objectSize + copyPartSize - 1) / copyPartSize);
+
+        log.debug("Copying {}/{} to {}/{} in {} parts",
+                  sourceBucketName, sourceKey, destBucketName, destKey, partCount);
+
+        String uploadId = s3Client.initiateMultipartUpload(uploadRequest)
+                                  .getUploadId();
+        List<Future<PartETag>> parts = new ArrayList<>();
+        try {
+            for (int part = 0; part < partCount; part++) {
+                long firstByte = part * copyPartSize;
+                long lastByte = Math.min(firstByte + copyPartSize, objectSize) - 1;
+                CopyPartRequest partRequest = new CopyPartRequest()
+                    .withSourceBucketName(sourceBucketName)
+                    .withSourceKey(sourceKey)
+                    .withDestinationBucketName(destBucketName)
+                    .withDestinationKey(destKey)
+                    .withUploadId(uploadId)
+                    .withPartNumber(part + 1)
+                    .withFirstByte(firstByte)
+                    .withLastByte(lastByte);
+                if (null != sourceMetadata.getETag()) {
+                    partRequest.withMatchingETagConstraint(sourceMetadata.getETag());
+                }
+                parts.add(getCopyExecutor().submit(() -> copyPart(partRequest)));
+            }
+
+            List<PartETag> partETags = new ArrayList<>();
+            for (Future<PartETag> part : parts) {
+                partETags.add(part.get());
+            }
+            return s3Client.completeMultipartUpload(
+                new CompleteMultipartUploadRequest(destBucketName,
+                                                   destKey,
+                                                   uploadId,
+                                                   partETags)).getETag();
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            for (Future<PartETag> part : parts) {
+                part.cancel(false);
+            }
+            abort(destBucketName, destKey, uploadId);
+
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            if (cause instanceof AmazonClientException) {
+                throw (AmazonClientException) cause;
+            }
+            throw new AmazonClientException("Multipart copy of " + sourceKey +
+                                            " failed: " + cause.getMessage(),
+                                            cause);
+        }
+    }
+
+    private PartETag copyPart(CopyPartRequest partRequest) {
+        CopyPartResult result = s3Client.copyPart(partRequest);
+        if (null == result) {
+            // The ETag constraint was not met
+            throw new AmazonClientException(
+                "Object " + partRequest.getSourceKey() +
+                " was changed while it was being copied");
+        }
+        return result.getPartETag();
+    }
+
+    private void abort(String bucketName, String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(
+                new AbortMultipartUploadRequest(bucketName, key, uploadId));
+        } catch (AmazonClientException e) {
+            log.warn("Unable to abort multipart upload {} of {}/{}: {}",
+                     uploadId, bucketName, key, e.getMessage());
+        }
+    }
+
+    private static synchronized ExecutorService getCopyExecutor() {
+        if (null == copyExecutor) {
+            copyExecutor = Executors.newFixedThreadPool(COPY_THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "s3-multipart-copy");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return copyExecutor;
+    }
+
+}
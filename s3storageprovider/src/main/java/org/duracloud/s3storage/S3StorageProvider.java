@@ -10,6 +10,8 @@ package org.duracloud.s3storage;
 import static org.duracloud.storage.error.StorageException.NO_RETRY;
 import static org.duracloud.storage.error.StorageException.RETRY;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
@@ -27,32 +29,42 @@ import java.util.Map;
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AccessControlList;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.Bucket;
 import com.amazonaws.services.s3.model.BucketLifecycleConfiguration;
 import com.amazonaws.services.s3.model.BucketTaggingConfiguration;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.CopyObjectResult;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.PutObjectResult;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.model.StorageClass;
 import com.amazonaws.services.s3.model.TagSet;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.HttpStatus;
 import org.duracloud.common.model.AclType;
 import org.duracloud.common.stream.ChecksumInputStream;
 import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.common.util.DateUtil;
-import org.duracloud.storage.domain.ContentIterator;
+import org.duracloud.storage.domain.PrefetchingContentIterator;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.ChecksumMismatchException;
+import org.duracloud.storage.error.DeleteContentsException;
 import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
@@ -79,8 +91,16 @@ public class S3StorageProvider extends StorageProviderBase {
     protected static final String HEADER_VALUE_PREFIX = UTF_8 + "''";
     protected static final String HEADER_KEY_SUFFIX = "*";
 
+    // Objects larger than this are copied with a parallel multipart copy
+    protected static final long MULTIPART_COPY_THRESHOLD = 1024L * 1024 * 1024;
+
+    // Limit on the number of keys in an S3 multi-object delete request
+    protected static final int MAX_DELETE_BATCH = 1000;
+
     private String accessKeyId = null;
     protected AmazonS3Client s3Client = null;
+    protected S3MultipartCopier multipartCopier = null;
+    protected SpaceItemCounter spaceItemCounter = null;
 
     public S3StorageProvider(String accessKey, String secretKey) {
         this(S3ProviderUtil.getAmazonS3Client(accessKey, secretKey, null),
@@ -101,6 +121,18 @@ public class S3StorageProvider extends StorageProviderBase {
                              Map<String, String> options) {
         this.accessKeyId = accessKey;
         this.s3Client = s3Client;
+        this.multipartCopier = new S3MultipartCopier(s3Client);
+        setSpaceItemCounter(new SpaceItemCounter());
+    }
+
+    /**
+     * Sets the counter which keeps the number of items in each space. The
+     * counter is shared with the providers which replace this one, and makes
+     * its full counts through the provider it was most recently set on.
+     */
+    public void setSpaceItemCounter(SpaceItemCounter spaceItemCounter) {
+        spaceItemCounter.setItemCounter(spaceId -> countSpaceItems(spaceId, Long.MAX_VALUE));
+        this.spaceItemCounter = spaceItemCounter;
     }
 
     /**
@@ -150,7 +182,7 @@ public class S3StorageProvider extends StorageProviderBase {
         log.debug("getSpaceContents(" + spaceId + ", " + prefix);
 
         throwIfSpaceNotExist(spaceId);
-        return new ContentIterator(this, spaceId, prefix);
+        return new PrefetchingContentIterator(this, spaceId, prefix);
     }
 
     /**
@@ -221,6 +253,8 @@ public class S3StorageProvider extends StorageProviderBase {
         throwIfSpaceExists(spaceId);
 
         Bucket bucket = createBucket(spaceId);
+        clearSpaceExists(spaceId);
+        spaceItemCounter.setCount(spaceId, 0);
 
         Date created = bucket.getCreationDate();
         if (created == null) {
@@ -317,6 +351,8 @@ public class S3StorageProvider extends StorageProviderBase {
 
         try {
             s3Client.deleteBucket(bucketName);
+            clearSpaceExists(spaceId);
+            spaceItemCounter.clear(spaceId);
         } catch (AmazonClientException e) {
             String err = "Could not delete S3 bucket with name " + bucketName
                          + " due to error: " + e.getMessage();
@@ -347,12 +383,33 @@ public class S3StorageProvider extends StorageProviderBase {
         spaceProperties = replaceInMapValues(spaceProperties, "+", "@");
 
         // Add space count
-        spaceProperties.put(PROPERTIES_SPACE_COUNT,
-                            getSpaceCount(spaceId, MAX_ITEM_COUNT));
+        spaceProperties.put(PROPERTIES_SPACE_COUNT, getSpaceCount(spaceId));
 
         return spaceProperties;
     }
 
+    /*
+     * Provides the number of items in a space from the maintained count,
+     * which is kept by this node only and so is approximate between
+     * reconciles (see SpaceItemCounter). When no count is maintained yet,
+     * spaces with fewer than MAX_ITEM_COUNT items are counted with a single
+     * listing, and a full count of larger spaces is started in the background.
+     */
+    private String getSpaceCount(String spaceId) {
+        Long count = spaceItemCounter.getCount(spaceId);
+        if (null != count) {
+            return String.valueOf(count);
+        }
+
+        long boundedCount = countSpaceItems(spaceId, MAX_ITEM_COUNT);
+        if (boundedCount < MAX_ITEM_COUNT) {
+            spaceItemCounter.setCount(spaceId, boundedCount);
+            return String.valueOf(boundedCount);
+        }
+        spaceItemCounter.reconcile(spaceId);
+        return String.valueOf(boundedCount) + "+";
+    }
+
     /*
      * Counts the number of items in a space up to the maxCount. If maxCount
      * is reached or exceeded, the returned string will indicate this with a
@@ -363,6 +420,16 @@ public class S3StorageProvider extends StorageProviderBase {
      * the Iteration: StorageProviderUtil.count(getSpaceContents(spaceId, null))
      */
     protected String getSpaceCount(String spaceId, int maxCount) {
+        long count = countSpaceItems(spaceId, maxCount);
+
+        String suffix = "";
+        if (count >= maxCount) {
+            suffix = "+";
+        }
+        return String.valueOf(count) + suffix;
+    }
+
+    private long countSpaceItems(String spaceId, long maxCount) {
         List<String> spaceContentChunk = null;
         long count = 0;
 
@@ -377,12 +444,7 @@ public class S3StorageProvider extends StorageProviderBase {
                                                         marker);
             count += spaceContentChunk.size();
         } while (spaceContentChunk.size() > 0 && count < maxCount);
-
-        String suffix = "";
-        if (count >= maxCount) {
-            suffix = "+";
-        }
-        return String.valueOf(count) + suffix;
+        return count;
     }
 
     private String getBucketCreationDate(String bucketName) {
@@ -483,14 +545,8 @@ public class S3StorageProvider extends StorageProviderBase {
         ChecksumInputStream wrappedContent =
             new ChecksumInputStream(content, contentChecksum);
 
-        userProperties = removeCalculatedProperties(userProperties);
-
-        if (contentMimeType == null || contentMimeType.equals("")) {
-            contentMimeType = DEFAULT_MIMETYPE;
-        }
-
-        ObjectMetadata objMetadata = new ObjectMetadata();
-        objMetadata.setContentType(contentMimeType);
+        ObjectMetadata objMetadata =
+            createContentMetadata(contentMimeType, userProperties);
         if (contentSize > 0) {
             objMetadata.setContentLength(contentSize);
         }
@@ -500,18 +556,6 @@ public class S3StorageProvider extends StorageProviderBase {
             objMetadata.setContentMD5(encodedChecksum);
         }
 
-        if (userProperties != null) {
-            for (String key : userProperties.keySet()) {
-                String value = userProperties.get(key);
-
-                if (log.isDebugEnabled()) {
-                    log.debug("[" + key + "|" + value + "]");
-                }
-
-                objMetadata.addUserMetadata(getSpaceFree(encodeHeaderKey(key)), encodeHeaderValue(value));
-            }
-        }
-
         PutObjectRequest putRequest = new PutObjectRequest(bucketName,
                                                            contentId,
                                                            wrappedContent,
@@ -519,6 +563,8 @@ public class S3StorageProvider extends StorageProviderBase {
         putRequest.setStorageClass(DEFAULT_STORAGE_CLASS);
         putRequest.setCannedAcl(CannedAccessControlList.Private);
 
+        boolean newItem = isNewItem(spaceId, bucketName, contentId);
+
         // Add the object
         String etag;
         try {
@@ -578,6 +624,9 @@ public class S3StorageProvider extends StorageProviderBase {
                 throw new StorageException(err, e, NO_RETRY);
             }
         }
+        if (newItem) {
+            spaceItemCounter.adjust(spaceId, 1);
+        }
 
         // Compare checksum
         String providerChecksum = getETagValue(etag);
@@ -589,6 +638,35 @@ public class S3StorageProvider extends StorageProviderBase {
         return providerChecksum;
     }
 
+    /*
+     * Creates the metadata of a new object, made up of the mimetype and the
+     * user properties of the content.
+     */
+    private ObjectMetadata createContentMetadata(String contentMimeType,
+                                                 Map<String, String> userProperties) {
+        userProperties = removeCalculatedProperties(userProperties);
+
+        if (contentMimeType == null || contentMimeType.equals("")) {
+            contentMimeType = DEFAULT_MIMETYPE;
+        }
+
+        ObjectMetadata objMetadata = new ObjectMetadata();
+        objMetadata.setContentType(contentMimeType);
+
+        if (userProperties != null) {
+            for (String key : userProperties.keySet()) {
+                String value = userProperties.get(key);
+
+                if (log.isDebugEnabled()) {
+                    log.debug("[" + key + "|" + value + "]");
+                }
+
+                objMetadata.addUserMetadata(getSpaceFree(encodeHeaderKey(key)), encodeHeaderValue(value));
+            }
+        }
+        return objMetadata;
+    }
+
     /*
      * Determines if a content item exists and if so if the MD5 matches what was
      * expected. If so, returns its MD5. If not, returns null. This method is
@@ -673,7 +751,31 @@ public class S3StorageProvider extends StorageProviderBase {
         // Will throw if destination bucket does not exist
         String destBucketName = getBucketName(destSpaceId);
 
-        throwIfContentNotExist(sourceBucketName, sourceContentId);
+        ObjectMetadata sourceMetadata =
+            getSourceMetadata(sourceBucketName, sourceContentId);
+        boolean newItem = isNewItem(destSpaceId, destBucketName, destContentId);
+
+        if (null != sourceMetadata &&
+            sourceMetadata.getContentLength() > MULTIPART_COPY_THRESHOLD) {
+            String checksum = getContentChecksum(sourceMetadata);
+            ObjectMetadata destMetadata = copyObjectMetadata(sourceMetadata);
+            addChecksumProperty(destMetadata, checksum);
+            InitiateMultipartUploadRequest uploadRequest =
+                new InitiateMultipartUploadRequest(destBucketName,
+                                                   destContentId,
+                                                   destMetadata)
+                    .withStorageClass(DEFAULT_STORAGE_CLASS)
+                    .withCannedACL(CannedAccessControlList.Private);
+            doMultipartCopy(sourceBucketName, sourceContentId,
+                            sourceMetadata, uploadRequest);
+            if (newItem) {
+                spaceItemCounter.adjust(destSpaceId, 1);
+            }
+            return StorageProviderUtil.compareChecksum(this,
+                                                       destSpaceId,
+                                                       destContentId,
+                                                       checksum);
+        }
 
         CopyObjectRequest request = new CopyObjectRequest(sourceBucketName,
                                                           sourceContentId,
@@ -683,12 +785,96 @@ public class S3StorageProvider extends StorageProviderBase {
         request.setCannedAccessControlList(CannedAccessControlList.Private);
 
         CopyObjectResult result = doCopyObject(request);
+        if (newItem) {
+            spaceItemCounter.adjust(destSpaceId, 1);
+        }
         return StorageProviderUtil.compareChecksum(this,
                                                    sourceSpaceId,
                                                    sourceContentId,
                                                    result.getETag());
     }
 
+    private String doMultipartCopy(String sourceBucketName,
+                                   String sourceContentId,
+                                   ObjectMetadata sourceMetadata,
+                                   InitiateMultipartUploadRequest uploadRequest) {
+        try {
+            return multipartCopier.copy(sourceBucketName,
+                                        sourceContentId,
+                                        sourceMetadata,
+                                        uploadRequest);
+        } catch (AmazonClientException e) {
+            String err = "Error copying from: " + sourceBucketName + " / " +
+                         sourceContentId + ", to: " + uploadRequest.getBucketName() +
+                         " / " + uploadRequest.getKey();
+            log.error(err + "msg: {}", e.getMessage());
+            throw new StorageException(err, e, RETRY);
+        }
+    }
+
+    /*
+     * Retrieves the metadata of an item which is to be copied, throwing
+     * NotFoundException if the item does not exist.
+     */
+    private ObjectMetadata getSourceMetadata(String bucketName, String contentId) {
+        try {
+            return s3Client.getObjectMetadata(bucketName, contentId);
+        } catch (AmazonClientException e) {
+            String err = "Could not find content item with ID " + contentId +
+                         " in S3 bucket " + bucketName + ". S3 error: " + e.getMessage();
+            throw new NotFoundException(err);
+        }
+    }
+
+    /*
+     * Creates metadata for a new object which carries over the content
+     * headers and user metadata of an existing object.
+     */
+    private ObjectMetadata copyObjectMetadata(ObjectMetadata sourceMetadata) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(sourceMetadata.getContentType());
+        if (null != sourceMetadata.getContentEncoding()) {
+            metadata.setContentEncoding(sourceMetadata.getContentEncoding());
+        }
+        if (null != sourceMetadata.getContentDisposition()) {
+            metadata.setContentDisposition(sourceMetadata.getContentDisposition());
+        }
+        if (null != sourceMetadata.getCacheControl()) {
+            metadata.setCacheControl(sourceMetadata.getCacheControl());
+        }
+        metadata.setUserMetadata(new HashMap<>(sourceMetadata.getUserMetadata()));
+        return metadata;
+    }
+
+    /*
+     * Objects created by a multipart copy do not have an MD5 ETag, so the
+     * checksum of the content is kept in the object's user metadata.
+     */
+    private void addChecksumProperty(ObjectMetadata metadata, String checksum) {
+        if (null != checksum) {
+            metadata.addUserMetadata(encodeHeaderKey(PROPERTIES_CONTENT_CHECKSUM),
+                                     encodeHeaderValue(checksum));
+        }
+    }
+
+    /*
+     * Determines the MD5 checksum of an object's content. This is the ETag,
+     * unless the object was assembled from parts, in which case the checksum
+     * stored in the user metadata is used.
+     */
+    protected String getContentChecksum(ObjectMetadata metadata) {
+        String eTagValue = getETagValue(metadata.getETag());
+        if (null != eTagValue && eTagValue.contains("-")) {
+            Map<String, String> userMetadata = metadata.getUserMetadata();
+            for (String metaName : userMetadata.keySet()) {
+                if (PROPERTIES_CONTENT_CHECKSUM.equals(decodeHeaderKey(metaName))) {
+                    return decodeHeaderValue(userMetadata.get(metaName));
+                }
+            }
+        }
+        return eTagValue;
+    }
+
     private CopyObjectResult doCopyObject(CopyObjectRequest request) {
         try {
             return s3Client.copyObject(request);
@@ -727,6 +913,243 @@ public class S3StorageProvider extends StorageProviderBase {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The properties are taken from the object metadata which S3 includes in
+     * the response to the GET, so no separate metadata request is needed.
+     */
+    @Override
+    public RetrievedContent getContentWithProperties(String spaceId,
+                                                     String contentId) {
+        log.debug("getContentWithProperties({}, {})", spaceId, contentId);
+
+        // Will throw if bucket does not exist
+        String bucketName = getBucketName(spaceId);
+
+        try {
+            S3Object contentItem = s3Client.getObject(bucketName, contentId);
+            return new RetrievedContent(contentItem.getObjectContent(),
+                                        getContentProperties(contentItem.getObjectMetadata()));
+        } catch (AmazonClientException e) {
+            throwIfContentNotExist(bucketName, contentId);
+            String err = "Could not retrieve content " + contentId + " in S3 bucket " +
+                         bucketName + " due to error: " + e.getMessage();
+            throw new StorageException(err, e, RETRY);
+        }
+    }
+
+    @Override
+    public boolean supportsRangeRetrieval() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        log.debug("getContent({}, {}, {}, {})",
+                  spaceId, contentId, startByte, endByte);
+
+        // Will throw if bucket does not exist
+        String bucketName = getBucketName(spaceId);
+
+        try {
+            GetObjectRequest request =
+                new GetObjectRequest(bucketName, contentId)
+                    .withRange(startByte, endByte);
+            S3Object contentItem = s3Client.getObject(request);
+            return contentItem.getObjectContent();
+        } catch (AmazonClientException e) {
+            throwIfContentNotExist(bucketName, contentId);
+            String err = "Could not retrieve bytes " + startByte + "-" + endByte +
+                         " of content " + contentId + " in S3 bucket " +
+                         bucketName + " due to error: " + e.getMessage();
+            throw new StorageException(err, e, RETRY);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean supportsMultipartUpload() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The ETag of an object assembled from parts is not the MD5 of its
+     * content, so the given checksum is kept in the object's user metadata.
+     */
+    @Override
+    public String startMultipartUpload(String spaceId,
+                                       String contentId,
+                                       String contentMimeType,
+                                       Map<String, String> userProperties,
+                                       String contentChecksum) {
+        log.debug("startMultipartUpload({}, {}, {}, {})",
+                  spaceId, contentId, contentMimeType, contentChecksum);
+
+        // Will throw if bucket does not exist
+        String bucketName = getBucketName(spaceId);
+
+        ObjectMetadata objMetadata =
+            createContentMetadata(contentMimeType, userProperties);
+        addChecksumProperty(objMetadata, contentChecksum);
+        InitiateMultipartUploadRequest request =
+            new InitiateMultipartUploadRequest(bucketName, contentId, objMetadata)
+                .withStorageClass(DEFAULT_STORAGE_CLASS)
+                .withCannedACL(CannedAccessControlList.Private);
+        try {
+            return s3Client.initiateMultipartUpload(request).getUploadId();
+        } catch (AmazonClientException e) {
+            String err = "Could not start upload of content " + contentId +
+                         " to S3 bucket " + bucketName + " due to error: " +
+                         e.getMessage();
+            throw new StorageException(err, e, RETRY);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String addContentPart(String spaceId,
+                                 String contentId,
+                                 String uploadId,
+                                 int partNumber,
+                                 long partSize,
+                                 InputStream part) {
+        log.debug("addContentPart({}, {}, {}, {}, {})",
+                  spaceId, contentId, uploadId, partNumber, partSize);
+
+        // Will throw if bucket does not exist
+        String bucketName = getBucketName(spaceId);
+
+        // Wrap the part in order to be able to retrieve a checksum
+        ChecksumInputStream wrappedPart = new ChecksumInputStream(part, null);
+        UploadPartRequest request = new UploadPartRequest()
+            .withBucketName(bucketName)
+            .withKey(contentId)
+            .withUploadId(uploadId)
+            .withPartNumber(partNumber)
+            .withPartSize(partSize)
+            .withInputStream(wrappedPart);
+        String etag;
+        try {
+            etag = s3Client.uploadPart(request).getETag();
+        } catch (AmazonClientException e) {
+            String err = "Could not add part " + partNumber + " of content " +
+                         contentId + " to S3 bucket " + bucketName +
+                         " due to error: " + e.getMessage();
+            throw new StorageException(err, e, RETRY);
+        }
+
+        // The ETag of a part is its MD5
+        return StorageProviderUtil.compareChecksum(getETagValue(etag),
+                                                   spaceId,
+                                                   contentId,
+                                                   wrappedPart.getMD5());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The ETag of the assembled object is compared with the ETag expected
+     * from the given parts, which makes sure that the object is made up of
+     * exactly those parts. The checksum recorded when the upload was started
+     * is returned.
+     */
+    @Override
+    public String completeMultipartUpload(String spaceId,
+                                          String contentId,
+                                          String uploadId,
+                                          List<String> partChecksums) {
+        log.debug("completeMultipartUpload({}, {}, {}, {} parts)",
+                  spaceId, contentId, uploadId, partChecksums.size());
+
+        // Will throw if bucket does not exist
+        String bucketName = getBucketName(spaceId);
+
+        List<PartETag> partETags = new ArrayList<>();
+        for (int i = 0; i < partChecksums.size(); i++) {
+            partETags.add(new PartETag(i + 1, partChecksums.get(i)));
+        }
+        boolean newItem = isNewItem(spaceId, bucketName, contentId);
+        ObjectMetadata objMetadata;
+        String etag;
+        try {
+            etag = s3Client.completeMultipartUpload(
+                new CompleteMultipartUploadRequest(bucketName,
+                                                   contentId,
+                                                   uploadId,
+                                                   partETags)).getETag();
+            objMetadata = s3Client.getObjectMetadata(bucketName, contentId);
+        } catch (AmazonClientException e) {
+            String err = "Could not complete upload of content " + contentId +
+                         " to S3 bucket " + bucketName + " due to error: " +
+                         e.getMessage();
+            throw new StorageException(err, e, RETRY);
+        }
+        if (newItem) {
+            spaceItemCounter.adjust(spaceId, 1);
+        }
+
+        String expectedETag = getMultipartETag(partChecksums);
+        if (!expectedETag.equals(getETagValue(etag))) {
+            String err = "Content " + contentId + " in S3 bucket " + bucketName +
+                         " was not assembled from the expected parts. S3 ETag: " +
+                         etag + ", expected ETag: " + expectedETag;
+            throw new ChecksumMismatchException(err, NO_RETRY);
+        }
+        return getContentChecksum(objMetadata);
+    }
+
+    /*
+     * Determines the ETag which S3 gives to an object assembled from parts
+     * with the given MD5 checksums: the MD5 of the concatenated binary part
+     * checksums, followed by the number of parts.
+     */
+    protected static String getMultipartETag(List<String> partChecksums) {
+        ByteArrayOutputStream checksumBytes = new ByteArrayOutputStream();
+        for (String partChecksum : partChecksums) {
+            byte[] bytes = ChecksumUtil.hexStringToByteArray(partChecksum);
+            checksumBytes.write(bytes, 0, bytes.length);
+        }
+        String checksum = new ChecksumUtil(ChecksumUtil.Algorithm.MD5)
+            .generateChecksum(new ByteArrayInputStream(checksumBytes.toByteArray()));
+        return checksum + "-" + partChecksums.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void abortMultipartUpload(String spaceId,
+                                     String contentId,
+                                     String uploadId) {
+        log.debug("abortMultipartUpload({}, {}, {})", spaceId, contentId, uploadId);
+
+        // Will throw if bucket does not exist
+        String bucketName = getBucketName(spaceId);
+
+        try {
+            s3Client.abortMultipartUpload(
+                new AbortMultipartUploadRequest(bucketName, contentId, uploadId));
+        } catch (AmazonClientException e) {
+            String err = "Could not abort upload of content " + contentId +
+                         " to S3 bucket " + bucketName + " due to error: " +
+                         e.getMessage();
+            throw new StorageException(err, e, RETRY);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -742,6 +1165,7 @@ public class S3StorageProvider extends StorageProviderBase {
 
         try {
             s3Client.deleteObject(bucketName, contentId);
+            spaceItemCounter.adjust(spaceId, -1);
         } catch (AmazonClientException e) {
             String err = "Could not delete content " + contentId + " from S3 bucket " +
                          bucketName + " due to error: " + e.getMessage();
@@ -749,6 +1173,55 @@ public class S3StorageProvider extends StorageProviderBase {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Items are removed with multi-object delete requests, each covering up
+     * to MAX_DELETE_BATCH items. No existence checks are made, S3 does not
+     * distinguish between removing an item and removing a missing item, so
+     * the item count of the space is discarded and counted again.
+     */
+    @Override
+    public void deleteContents(String spaceId, List<String> contentIds) {
+        log.debug("deleteContents({}, {} items)", spaceId, contentIds.size());
+
+        // Will throw if bucket does not exist
+        String bucketName = getBucketName(spaceId);
+
+        for (int start = 0; start < contentIds.size(); start += MAX_DELETE_BATCH) {
+            List<String> batch =
+                contentIds.subList(start, Math.min(start + MAX_DELETE_BATCH,
+                                                   contentIds.size()));
+            DeleteObjectsRequest request = new DeleteObjectsRequest(bucketName)
+                .withKeys(batch.toArray(new String[batch.size()]))
+                .withQuiet(true);
+            try {
+                s3Client.deleteObjects(request);
+            } catch (MultiObjectDeleteException e) {
+                // The rest of the batch was removed
+                List<String> failed = new ArrayList<>();
+                List<String> undeleted = new ArrayList<>();
+                for (MultiObjectDeleteException.DeleteError error : e.getErrors()) {
+                    failed.add(error.getKey() + " (" + error.getCode() + ")");
+                    undeleted.add(error.getKey());
+                }
+                undeleted.addAll(contentIds.subList(start + batch.size(),
+                                                    contentIds.size()));
+                String err = "Could not delete content " + failed + " from S3 bucket " +
+                             bucketName + " due to error: " + e.getMessage();
+                throw new DeleteContentsException(err, e, RETRY, undeleted);
+            } catch (AmazonClientException e) {
+                String err = "Could not delete " + batch.size() + " content items " +
+                             "from S3 bucket " + bucketName + " due to error: " +
+                             e.getMessage();
+                throw new DeleteContentsException(
+                    err, e, RETRY, contentIds.subList(start, contentIds.size()));
+            } finally {
+                spaceItemCounter.clear(spaceId);
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -762,13 +1235,13 @@ public class S3StorageProvider extends StorageProviderBase {
 
         contentProperties = removeCalculatedProperties(contentProperties);
 
+        ObjectMetadata existingMetadata =
+            getObjectDetails(bucketName, contentId, NO_RETRY);
+
         // Determine mimetype, from properties list or existing value
         String mimeType = contentProperties.remove(PROPERTIES_CONTENT_MIMETYPE);
         if (mimeType == null || mimeType.equals("")) {
-            Map<String, String> existingMeta =
-                getContentProperties(spaceId, contentId);
-            String existingMime =
-                existingMeta.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE);
+            String existingMime = existingMetadata.getContentType();
             if (existingMime != null) {
                 mimeType = existingMime;
             }
@@ -788,7 +1261,7 @@ public class S3StorageProvider extends StorageProviderBase {
             objMetadata.setContentType(mimeType);
         }
 
-        updateObjectProperties(bucketName, contentId, objMetadata);
+        updateObjectProperties(bucketName, contentId, existingMetadata, objMetadata);
     }
 
     @Override
@@ -810,6 +1283,26 @@ public class S3StorageProvider extends StorageProviderBase {
         return contentProperties;
     }
 
+    /*
+     * Determines whether an item being added to a space is new, rather than
+     * replacing an existing item, so that only new items are added to the
+     * maintained count of the space. The check is only made while the space
+     * has a maintained count.
+     */
+    private boolean isNewItem(String spaceId, String bucketName, String contentId) {
+        if (!spaceItemCounter.hasCount(spaceId)) {
+            return false;
+        }
+        try {
+            s3Client.getObjectMetadata(bucketName, contentId);
+            return false;
+        } catch (AmazonS3Exception e) {
+            return e.getStatusCode() == HttpStatus.SC_NOT_FOUND;
+        } catch (AmazonClientException e) {
+            return false;
+        }
+    }
+
     private void throwIfContentNotExist(String bucketName, String contentId) {
         try {
             s3Client.getObjectMetadata(bucketName, contentId);
@@ -835,10 +1328,32 @@ public class S3StorageProvider extends StorageProviderBase {
 
     private void updateObjectProperties(String bucketName,
                                         String contentId,
+                                        ObjectMetadata existingMetadata,
                                         ObjectMetadata objMetadata) {
         try {
             AccessControlList originalACL =
                 s3Client.getObjectAcl(bucketName, contentId);
+
+            if (existingMetadata.getContentLength() > MULTIPART_COPY_THRESHOLD) {
+                addChecksumProperty(objMetadata, getContentChecksum(existingMetadata));
+                InitiateMultipartUploadRequest uploadRequest =
+                    new InitiateMultipartUploadRequest(bucketName,
+                                                       contentId,
+                                                       objMetadata)
+                        .withStorageClass(DEFAULT_STORAGE_CLASS)
+                        .withAccessControlList(originalACL);
+                multipartCopier.copy(bucketName, contentId,
+                                     existingMetadata, uploadRequest);
+                return;
+            }
+
+            // An object with a stored checksum must keep it
+            String storedChecksum = getContentChecksum(existingMetadata);
+            if (null != storedChecksum &&
+                !storedChecksum.equals(getETagValue(existingMetadata.getETag()))) {
+                addChecksumProperty(objMetadata, storedChecksum);
+            }
+
             CopyObjectRequest copyRequest = new CopyObjectRequest(bucketName,
                                                                   contentId,
                                                                   bucketName,
@@ -875,6 +1390,13 @@ public class S3StorageProvider extends StorageProviderBase {
             throw new StorageException(err, NO_RETRY);
         }
 
+        return getContentProperties(objMetadata);
+    }
+
+    /*
+     * Converts the metadata of an S3 object into content properties
+     */
+    private Map<String, String> getContentProperties(ObjectMetadata objMetadata) {
         Map<String, String> contentProperties = new HashMap<>();
 
         // Set the user properties
@@ -903,8 +1425,9 @@ public class S3StorageProvider extends StorageProviderBase {
         String checksum = objMetadata.getETag();
         if (checksum != null) {
             String eTagValue = getETagValue(checksum);
-            contentProperties.put(PROPERTIES_CONTENT_CHECKSUM, eTagValue);
-            contentProperties.put(PROPERTIES_CONTENT_MD5, eTagValue);
+            String contentChecksum = getContentChecksum(objMetadata);
+            contentProperties.put(PROPERTIES_CONTENT_CHECKSUM, contentChecksum);
+            contentProperties.put(PROPERTIES_CONTENT_MD5, contentChecksum);
             contentProperties.put(Headers.ETAG, eTagValue);
         }
 
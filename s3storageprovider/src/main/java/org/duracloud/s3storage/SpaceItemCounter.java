@@ -0,0 +1,194 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.s3storage;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.duracloud.storage.error.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the number of items in each space, so that space properties can be
+ * provided without listing the space contents.
+ *
+ * Counts are adjusted as items are added and removed. Each count is
+ * reconciled against a full listing of the space by a background task once
+ * it is older than the reconcile interval, which corrects drift from changes
+ * which are not seen by this counter (updates made through other DuraStore
+ * instances or directly to the bucket).
+ *
+ * Counts are held in memory by each DuraStore node, so nodes may report
+ * different counts for a space until their counts are next reconciled. A
+ * counter is kept for each storage account by the storage provider factory,
+ * so that counts are not lost when a provider is replaced; the full count of
+ * a space is made through the most recent provider of the account.
+ */
+public class SpaceItemCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(SpaceItemCounter.class);
+
+    public static final long DEFAULT_RECONCILE_MILLIS = 24L * 60 * 60 * 1000;
+
+    // Shared by all providers, as providers are re-created as accounts change
+    private static ExecutorService reconcileExecutor;
+
+    /**
+     * Performs a full count of the items in a space
+     */
+    public interface ItemCounter {
+        long count(String spaceId);
+    }
+
+    private static class SpaceCount {
+        private final AtomicLong count;
+        private final long reconciled;
+
+        SpaceCount(long count, long reconciled) {
+            this.count = new AtomicLong(count);
+            this.reconciled = reconciled;
+        }
+    }
+
+    private volatile ItemCounter itemCounter;
+    private final long reconcileMillis;
+    private final Executor executor;
+
+    private final Map<String, SpaceCount> counts = new ConcurrentHashMap<>();
+    private final Set<String> reconciling = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a counter which does not reconcile counts until an item counter
+     * is set.
+     */
+    public SpaceItemCounter() {
+        this(null);
+    }
+
+    public SpaceItemCounter(ItemCounter itemCounter) {
+        this(itemCounter, DEFAULT_RECONCILE_MILLIS, getReconcileExecutor());
+    }
+
+    public SpaceItemCounter(ItemCounter itemCounter,
+                            long reconcileMillis,
+                            Executor executor) {
+        this.itemCounter = itemCounter;
+        this.reconcileMillis = reconcileMillis;
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the item counter used to reconcile counts, replacing the current
+     * item counter.
+     */
+    public void setItemCounter(ItemCounter itemCounter) {
+        this.itemCounter = itemCounter;
+    }
+
+    /**
+     * @return true if the number of items in a space is known
+     */
+    public boolean hasCount(String spaceId) {
+        return counts.containsKey(spaceId);
+    }
+
+    /**
+     * Provides the number of items in a space. If the count is due to be
+     * reconciled, a background count of the space is started.
+     *
+     * @param spaceId space to count
+     * @return number of items in the space, or null if it is not known
+     */
+    public Long getCount(String spaceId) {
+        SpaceCount spaceCount = counts.get(spaceId);
+        if (null == spaceCount) {
+            return null;
+        }
+        if (System.currentTimeMillis() - spaceCount.reconciled >= reconcileMillis) {
+            reconcile(spaceId);
+        }
+        return spaceCount.count.get();
+    }
+
+    /**
+     * Sets the count of a space from a complete count of its items.
+     */
+    public void setCount(String spaceId, long count) {
+        counts.put(spaceId, new SpaceCount(count, System.currentTimeMillis()));
+    }
+
+    /**
+     * Adjusts the count of a space, if it is known.
+     */
+    public void adjust(String spaceId, long delta) {
+        SpaceCount spaceCount = counts.get(spaceId);
+        if (null != spaceCount) {
+            spaceCount.count.addAndGet(delta);
+        }
+    }
+
+    /**
+     * Discards the count of a space, it will be counted again when next needed.
+     */
+    public void clear(String spaceId) {
+        counts.remove(spaceId);
+    }
+
+    /**
+     * Starts a background count of a space, unless one is already in progress.
+     */
+    public void reconcile(String spaceId) {
+        if (null == itemCounter || !reconciling.add(spaceId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> doReconcile(spaceId));
+        } catch (RejectedExecutionException e) {
+            reconciling.remove(spaceId);
+            log.warn("Unable to schedule item count of space {}: {}",
+                     spaceId, e.getMessage());
+        }
+    }
+
+    private void doReconcile(String spaceId) {
+        try {
+            long count = itemCounter.count(spaceId);
+            SpaceCount previous = counts.get(spaceId);
+            if (null != previous && previous.count.get() != count) {
+                log.info("Item count of space {} corrected from {} to {}",
+                         spaceId, previous.count.get(), count);
+            }
+            setCount(spaceId, count);
+        } catch (NotFoundException e) {
+            counts.remove(spaceId);
+        } catch (RuntimeException e) {
+            log.warn("Unable to count items in space {}: {}", spaceId, e.getMessage());
+        } finally {
+            reconciling.remove(spaceId);
+        }
+    }
+
+    private static synchronized ExecutorService getReconcileExecutor() {
+        if (null == reconcileExecutor) {
+            reconcileExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "s3-space-item-count");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return reconcileExecutor;
+    }
+
+}
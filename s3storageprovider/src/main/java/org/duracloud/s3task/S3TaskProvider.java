@@ -16,6 +16,8 @@ import org.duracloud.s3task.streaming.DisableStreamingTaskRunner;
 import org.duracloud.s3task.streaming.EnableStreamingTaskRunner;
 import org.duracloud.s3task.streaming.GetSignedUrlTaskRunner;
 import org.duracloud.s3task.streaming.GetUrlTaskRunner;
+import org.duracloud.s3task.streaming.StreamingDistributionCache;
+import org.duracloud.s3task.streaming.StreamingDistributionWatcher;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.provider.TaskProviderBase;
 import org.slf4j.LoggerFactory;
@@ -35,6 +37,8 @@ public class S3TaskProvider extends TaskProviderBase {
                           String cfAccountId,
                           String cfKeyId,
                           String cfKeyPath,
+                          StreamingDistributionCache distributionCache,
+                          StreamingDistributionWatcher distributionWatcher,
                           String storeId) {
         super(storeId);
         log = LoggerFactory.getLogger(S3TaskProvider.class);
@@ -44,23 +48,29 @@ public class S3TaskProvider extends TaskProviderBase {
                                                    unwrappedS3Provider,
                                                    s3Client,
                                                    cfClient,
-                                                   cfAccountId));
+                                                   cfAccountId,
+                                                   distributionCache));
         taskList.add(new GetUrlTaskRunner(s3Provider,
                                           unwrappedS3Provider,
-                                          cfClient));
+                                          cfClient,
+                                          distributionCache));
         taskList.add(new GetSignedUrlTaskRunner(s3Provider,
                                                 unwrappedS3Provider,
                                                 cfClient,
                                                 cfKeyId,
-                                                cfKeyPath));
+                                                cfKeyPath,
+                                                distributionCache));
         taskList.add(new DisableStreamingTaskRunner(s3Provider,
                                                     unwrappedS3Provider,
                                                     s3Client,
-                                                    cfClient));
+                                                    cfClient,
+                                                    distributionCache));
         taskList.add(new DeleteStreamingTaskRunner(s3Provider,
                                                    unwrappedS3Provider,
                                                    s3Client,
-                                                   cfClient));
+                                                   cfClient,
+                                                   distributionCache,
+                                                   distributionWatcher));
         taskList.add(new SetStoragePolicyTaskRunner(unwrappedS3Provider));
     }
 
@@ -7,7 +7,6 @@
  */
 package org.duracloud.s3task.streaming;
 
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -15,9 +14,7 @@ import java.util.Map;
 import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
 import com.amazonaws.services.cloudfront.model.GetStreamingDistributionConfigRequest;
 import com.amazonaws.services.cloudfront.model.GetStreamingDistributionConfigResult;
-import com.amazonaws.services.cloudfront.model.ListStreamingDistributionsRequest;
 import com.amazonaws.services.cloudfront.model.StreamingDistributionConfig;
-import com.amazonaws.services.cloudfront.model.StreamingDistributionList;
 import com.amazonaws.services.cloudfront.model.StreamingDistributionSummary;
 import com.amazonaws.services.cloudfront.model.UpdateStreamingDistributionRequest;
 import com.amazonaws.services.s3.AmazonS3Client;
@@ -58,6 +55,7 @@ public abstract class BaseStreamingTaskRunner implements TaskRunner {
     protected String cfAccountId;
     protected String cfKeyId;
     protected String cfKeyPath;
+    protected StreamingDistributionCache distributionCache;
 
     public abstract String getName();
 
@@ -77,38 +75,11 @@ public abstract class BaseStreamingTaskRunner implements TaskRunner {
         }
     }
 
-    private boolean isDistFromBucket(String bucketName,
-                                     StreamingDistributionSummary distSummary) {
-        String bucketOrigin = bucketName + S3_ORIGIN_SUFFIX;
-        return bucketOrigin.equals(distSummary.getS3Origin().getDomainName());
-    }
-
     /*
      * Determines if a streaming distribution already exists for a given bucket
      */
     protected List<StreamingDistributionSummary> getAllExistingDistributions(String bucketName) {
-
-        List<StreamingDistributionSummary> distListForBucket = new ArrayList<>();
-
-        StreamingDistributionList distList =
-            cfClient.listStreamingDistributions(new ListStreamingDistributionsRequest())
-                    .getStreamingDistributionList();
-
-        List<StreamingDistributionSummary> streamingDistList = distList.getItems();
-        while (distList.isTruncated()) {
-            distList = cfClient.listStreamingDistributions(
-                new ListStreamingDistributionsRequest().withMarker(distList.getNextMarker()))
-                               .getStreamingDistributionList();
-            streamingDistList.addAll(distList.getItems());
-        }
-
-        for (StreamingDistributionSummary distSummary : streamingDistList) {
-            if (isDistFromBucket(bucketName, distSummary)) {
-                distListForBucket.add(distSummary);
-            }
-        }
-
-        return distListForBucket;
+        return distributionCache.getDistributions(cfClient, bucketName);
     }
 
     /**
@@ -131,6 +102,7 @@ public abstract class BaseStreamingTaskRunner implements TaskRunner {
                 .withStreamingDistributionConfig(distConfig)
                 .withIfMatch(result.getETag())
                 .withId(distId));
+        distributionCache.invalidate();
     }
 
     /*
@@ -10,11 +10,6 @@ package org.duracloud.s3task.streaming;
 import java.util.List;
 
 import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
-import com.amazonaws.services.cloudfront.model.DeleteStreamingDistributionRequest;
-import com.amazonaws.services.cloudfront.model.GetStreamingDistributionConfigRequest;
-import com.amazonaws.services.cloudfront.model.GetStreamingDistributionConfigResult;
-import com.amazonaws.services.cloudfront.model.GetStreamingDistributionRequest;
-import com.amazonaws.services.cloudfront.model.StreamingDistribution;
 import com.amazonaws.services.cloudfront.model.StreamingDistributionSummary;
 import com.amazonaws.services.s3.AmazonS3Client;
 import org.duracloud.StorageTaskConstants;
@@ -35,16 +30,46 @@ public class DeleteStreamingTaskRunner extends BaseStreamingTaskRunner {
 
     private static final String TASK_NAME =
         StorageTaskConstants.DELETE_STREAMING_TASK_NAME;
-    private static final String DEPLOYED = "Deployed";
+
+    private StreamingDistributionWatcher distributionWatcher;
 
     public DeleteStreamingTaskRunner(StorageProvider s3Provider,
                                      S3StorageProvider unwrappedS3Provider,
                                      AmazonS3Client s3Client,
                                      AmazonCloudFrontClient cfClient) {
+        this(s3Provider,
+             unwrappedS3Provider,
+             s3Client,
+             cfClient,
+             new StreamingDistributionCache());
+    }
+
+    public DeleteStreamingTaskRunner(StorageProvider s3Provider,
+                                     S3StorageProvider unwrappedS3Provider,
+                                     AmazonS3Client s3Client,
+                                     AmazonCloudFrontClient cfClient,
+                                     StreamingDistributionCache distributionCache) {
+        this(s3Provider,
+             unwrappedS3Provider,
+             s3Client,
+             cfClient,
+             distributionCache,
+             new StreamingDistributionWatcher(
+                 cfClient, null, (distId, error) -> distributionCache.invalidate()));
+    }
+
+    public DeleteStreamingTaskRunner(StorageProvider s3Provider,
+                                     S3StorageProvider unwrappedS3Provider,
+                                     AmazonS3Client s3Client,
+                                     AmazonCloudFrontClient cfClient,
+                                     StreamingDistributionCache distributionCache,
+                                     StreamingDistributionWatcher distributionWatcher) {
         this.s3Provider = s3Provider;
         this.unwrappedS3Provider = unwrappedS3Provider;
         this.s3Client = s3Client;
         this.cfClient = cfClient;
+        this.distributionCache = distributionCache;
+        this.distributionWatcher = distributionWatcher;
     }
 
     public String getName() {
@@ -76,9 +101,8 @@ public class DeleteStreamingTaskRunner extends BaseStreamingTaskRunner {
                     setDistributionState(distId, false);
                 }
 
-                // Kick off a thread to wait and complete the delete action
-                Runnable deleteWorker = () -> waitAndDelete(distId);
-                new Thread(deleteWorker).start();
+                // The delete is completed once the distribution is disabled
+                distributionWatcher.watchDelete(distId);
             }
         } else {
             throw new RuntimeException("No streaming distribution " +
@@ -91,54 +115,4 @@ public class DeleteStreamingTaskRunner extends BaseStreamingTaskRunner {
         log.info("Result of " + TASK_NAME + " task: " + toReturn);
         return toReturn;
     }
-
-    private void waitAndDelete(String distId) {
-        // Wait for the distribution to be disabled
-        waitForDisabled(distId);
-
-        // Delete the distribution
-        GetStreamingDistributionConfigResult result =
-            cfClient.getStreamingDistributionConfig(
-                new GetStreamingDistributionConfigRequest(distId));
-        cfClient.deleteStreamingDistribution(
-            new DeleteStreamingDistributionRequest().withId(distId)
-                                                    .withIfMatch(result.getETag()));
-    }
-
-    /*
-     * Wait for the distribution to be disabled
-     * Note that this can take up to 15 min
-     */
-    private void waitForDisabled(String distId) {
-        long maxTime = 1800000; // 30 min
-        long start = System.currentTimeMillis();
-
-        boolean deployed = isDeployed(distId);
-        while (!deployed) {
-            if (System.currentTimeMillis() < start + maxTime) {
-                sleep(10000);
-                deployed = isDeployed(distId);
-            } else {
-                String error = "Timeout Reached waiting for distribution to " +
-                               "be disabled. Please wait a few minutes and try again.";
-                throw new RuntimeException(error);
-            }
-        }
-    }
-
-    private boolean isDeployed(String distId) {
-        StreamingDistribution dist =
-            cfClient.getStreamingDistribution(
-                new GetStreamingDistributionRequest(distId))
-                    .getStreamingDistribution();
-        return DEPLOYED.equals(dist.getStatus());
-    }
-
-    private void sleep(long time) {
-        try {
-            Thread.sleep(time);
-        } catch (InterruptedException e) {
-            log.warn("sleep interrupted");
-        }
-    }
 }
@@ -34,10 +34,23 @@ public class DisableStreamingTaskRunner extends BaseStreamingTaskRunner {
                                       S3StorageProvider unwrappedS3Provider,
                                       AmazonS3Client s3Client,
                                       AmazonCloudFrontClient cfClient) {
+        this(s3Provider,
+             unwrappedS3Provider,
+             s3Client,
+             cfClient,
+             new StreamingDistributionCache());
+    }
+
+    public DisableStreamingTaskRunner(StorageProvider s3Provider,
+                                      S3StorageProvider unwrappedS3Provider,
+                                      AmazonS3Client s3Client,
+                                      AmazonCloudFrontClient cfClient,
+                                      StreamingDistributionCache distributionCache) {
         this.s3Provider = s3Provider;
         this.unwrappedS3Provider = unwrappedS3Provider;
         this.s3Client = s3Client;
         this.cfClient = cfClient;
+        this.distributionCache = distributionCache;
     }
 
     public String getName() {
@@ -63,6 +76,8 @@ public class DisableStreamingTaskRunner extends BaseStreamingTaskRunner {
 
         if (existingDist != null) {
             s3Client.deleteBucketPolicy(bucketName);
+            // Distributions are listed again on the next lookup
+            distributionCache.invalidate();
         } else {
             throw new RuntimeException("No streaming distribution " +
                                        "exists for space " + spaceId);
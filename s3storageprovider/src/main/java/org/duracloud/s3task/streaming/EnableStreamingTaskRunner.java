@@ -51,10 +51,25 @@ public class EnableStreamingTaskRunner extends BaseStreamingTaskRunner {
                                      AmazonS3Client s3Client,
                                      AmazonCloudFrontClient cfClient,
                                      String cfAccountId) {
+        this(s3Provider,
+             unwrappedS3Provider,
+             s3Client,
+             cfClient,
+             cfAccountId,
+             new StreamingDistributionCache());
+    }
+
+    public EnableStreamingTaskRunner(StorageProvider s3Provider,
+                                     S3StorageProvider unwrappedS3Provider,
+                                     AmazonS3Client s3Client,
+                                     AmazonCloudFrontClient cfClient,
+                                     String cfAccountId,
+                                     StreamingDistributionCache distributionCache) {
         this.s3Provider = s3Provider;
         this.unwrappedS3Provider = unwrappedS3Provider;
         this.s3Client = s3Client;
         this.cfClient = cfClient;
+        this.distributionCache = distributionCache;
         this.cfAccountId = cfAccountId;
     }
 
@@ -129,6 +144,7 @@ public class EnableStreamingTaskRunner extends BaseStreamingTaskRunner {
                             .withComment("Streaming space: " + spaceId)
                             .withTrustedSigners(signers)))
                         .getStreamingDistribution();
+            distributionCache.invalidate();
             domainName = dist.getDomainName();
         }
 
@@ -50,9 +50,24 @@ public class GetSignedUrlTaskRunner extends BaseStreamingTaskRunner {
                                   AmazonCloudFrontClient cfClient,
                                   String cfKeyId,
                                   String cfKeyPath) {
+        this(s3Provider,
+             unwrappedS3Provider,
+             cfClient,
+             cfKeyId,
+             cfKeyPath,
+             new StreamingDistributionCache());
+    }
+
+    public GetSignedUrlTaskRunner(StorageProvider s3Provider,
+                                  S3StorageProvider unwrappedS3Provider,
+                                  AmazonCloudFrontClient cfClient,
+                                  String cfKeyId,
+                                  String cfKeyPath,
+                                  StreamingDistributionCache distributionCache) {
         this.s3Provider = s3Provider;
         this.unwrappedS3Provider = unwrappedS3Provider;
         this.cfClient = cfClient;
+        this.distributionCache = distributionCache;
         // Certificate identifier, an active trusted signer for the distribution
         this.cfKeyId = cfKeyId;
         // Local file path to signing key in DER format
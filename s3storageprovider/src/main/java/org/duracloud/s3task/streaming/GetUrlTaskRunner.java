@@ -35,9 +35,20 @@ public class GetUrlTaskRunner extends BaseStreamingTaskRunner {
     public GetUrlTaskRunner(StorageProvider s3Provider,
                             S3StorageProvider unwrappedS3Provider,
                             AmazonCloudFrontClient cfClient) {
+        this(s3Provider,
+             unwrappedS3Provider,
+             cfClient,
+             new StreamingDistributionCache());
+    }
+
+    public GetUrlTaskRunner(StorageProvider s3Provider,
+                            S3StorageProvider unwrappedS3Provider,
+                            AmazonCloudFrontClient cfClient,
+                            StreamingDistributionCache distributionCache) {
         this.s3Provider = s3Provider;
         this.unwrappedS3Provider = unwrappedS3Provider;
         this.cfClient = cfClient;
+        this.distributionCache = distributionCache;
     }
 
     public String getName() {
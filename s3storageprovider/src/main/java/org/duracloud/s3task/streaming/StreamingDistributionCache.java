@@ -0,0 +1,108 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.s3task.streaming;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
+import com.amazonaws.services.cloudfront.model.ListStreamingDistributionsRequest;
+import com.amazonaws.services.cloudfront.model.StreamingDistributionList;
+import com.amazonaws.services.cloudfront.model.StreamingDistributionSummary;
+
+/**
+ * Holds the streaming distributions of a CloudFront account, by the S3
+ * origin of each distribution, so that finding the distributions of a bucket
+ * does not require listing every distribution in the account.
+ *
+ * The distributions are listed again once the time to live has passed, or
+ * after the cache is invalidated, which the streaming tasks do whenever they
+ * create or change a distribution. A single listing is shared by callers
+ * which need the distributions at the same time.
+ */
+public class StreamingDistributionCache {
+
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    // Guarded by this
+    private Map<String, List<StreamingDistributionSummary>> distributions = null;
+    private long listedTime;
+
+    public StreamingDistributionCache() {
+        this(DEFAULT_TTL_MILLIS, System::currentTimeMillis);
+    }
+
+    /**
+     * @param ttlMillis time for which a listing of distributions is used
+     * @param clock     provides the current time in millis
+     */
+    public StreamingDistributionCache(long ttlMillis, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @param cfClient   used to list the distributions when they are not cached
+     * @param bucketName bucket which is the origin of the distributions
+     * @return the streaming distributions of the bucket, the list may be empty
+     */
+    public synchronized List<StreamingDistributionSummary> getDistributions(
+        AmazonCloudFrontClient cfClient,
+        String bucketName) {
+        long now = clock.getAsLong();
+        if (null == distributions || now - listedTime >= ttlMillis) {
+            distributions = listDistributions(cfClient);
+            listedTime = now;
+        }
+
+        List<StreamingDistributionSummary> bucketDists =
+            distributions.get(bucketName + BaseStreamingTaskRunner.S3_ORIGIN_SUFFIX);
+        return null == bucketDists ? new ArrayList<>() : new ArrayList<>(bucketDists);
+    }
+
+    /**
+     * Drops the cached distributions, they are listed again on the next call
+     * to getDistributions().
+     */
+    public synchronized void invalidate() {
+        distributions = null;
+    }
+
+    private Map<String, List<StreamingDistributionSummary>> listDistributions(
+        AmazonCloudFrontClient cfClient) {
+        Map<String, List<StreamingDistributionSummary>> dists = new HashMap<>();
+
+        StreamingDistributionList distList =
+            cfClient.listStreamingDistributions(new ListStreamingDistributionsRequest())
+                    .getStreamingDistributionList();
+        addDistributions(dists, distList);
+        while (distList.isTruncated()) {
+            distList = cfClient.listStreamingDistributions(
+                new ListStreamingDistributionsRequest().withMarker(distList.getNextMarker()))
+                               .getStreamingDistributionList();
+            addDistributions(dists, distList);
+        }
+        return dists;
+    }
+
+    private void addDistributions(Map<String, List<StreamingDistributionSummary>> dists,
+                                  StreamingDistributionList distList) {
+        for (StreamingDistributionSummary distSummary : distList.getItems()) {
+            String origin = distSummary.getS3Origin().getDomainName();
+            dists.computeIfAbsent(origin, key -> new ArrayList<>()).add(distSummary);
+        }
+    }
+
+}
@@ -0,0 +1,417 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.s3task.streaming;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
+import com.amazonaws.services.cloudfront.model.DeleteStreamingDistributionRequest;
+import com.amazonaws.services.cloudfront.model.GetStreamingDistributionConfigRequest;
+import com.amazonaws.services.cloudfront.model.GetStreamingDistributionConfigResult;
+import com.amazonaws.services.cloudfront.model.ListStreamingDistributionsRequest;
+import com.amazonaws.services.cloudfront.model.StreamingDistributionList;
+import com.amazonaws.services.cloudfront.model.StreamingDistributionSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deletes streaming distributions once they have been disabled, which can
+ * take up to 15 minutes.
+ *
+ * The distributions waiting to be deleted are checked together, on a single
+ * scheduler thread shared by all watchers, using one listing of the account's
+ * distributions per check. Deletes run on a bounded pool of threads. The
+ * distributions waiting to be deleted are kept in a state file, so that
+ * waiting deletes are resumed when the watcher is created again after a
+ * restart. Checks are only scheduled while distributions are waiting.
+ *
+ * Only one watcher may be created for each storage account, as watchers of
+ * the same account would share its state file and delete the same
+ * distributions.
+ */
+public class StreamingDistributionWatcher {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(StreamingDistributionWatcher.class);
+
+    public static final long DEFAULT_POLL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    public static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    public static final int DEFAULT_DELETE_THREADS = 4;
+
+    private static final String DEPLOYED = "Deployed";
+    private static final long IDLE_THREAD_SECONDS = 60;
+
+    // Shared by all watchers, each check lists distributions once
+    private static ScheduledExecutorService scheduler;
+
+    /**
+     * Notified when a distribution is deleted, or is no longer waited on.
+     */
+    public interface Callback {
+        /**
+         * @param distId ID of the distribution
+         * @param error  reason the distribution could not be deleted, null
+         *               if the distribution was deleted
+         */
+        void completed(String distId, Exception error);
+    }
+
+    private volatile AmazonCloudFrontClient cfClient;
+    private final File stateFile;
+    private final Callback callback;
+    private final long pollMillis;
+    private final long timeoutMillis;
+    private final Executor deleteExecutor;
+    private final LongSupplier clock;
+
+    // Guarded by this
+    private final Map<String, PendingDelete> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> checks = null;
+
+    /**
+     * @param cfClient  used to check and delete distributions
+     * @param stateFile file in which waiting deletes are kept, may be null
+     * @param callback  notified of every completed delete, including those
+     *                  resumed from the state file, may be null
+     */
+    public StreamingDistributionWatcher(AmazonCloudFrontClient cfClient,
+                                        File stateFile,
+                                        Callback callback) {
+        this(cfClient, stateFile, callback, DEFAULT_POLL_MILLIS,
+             DEFAULT_TIMEOUT_MILLIS, createExecutor(DEFAULT_DELETE_THREADS),
+             System::currentTimeMillis);
+    }
+
+    /**
+     * @param cfClient       used to check and delete distributions
+     * @param stateFile      file in which waiting deletes are kept, may be null
+     * @param callback       notified of every completed delete, may be null
+     * @param pollMillis     time between checks, when 0 checks are not
+     *                       scheduled and must be made by calling checkPending()
+     * @param timeoutMillis  time to wait for a distribution to be disabled
+     * @param deleteExecutor runs the deletes of disabled distributions
+     * @param clock          provides the current time in millis
+     */
+    public StreamingDistributionWatcher(AmazonCloudFrontClient cfClient,
+                                        File stateFile,
+                                        Callback callback,
+                                        long pollMillis,
+                                        long timeoutMillis,
+                                        Executor deleteExecutor,
+                                        LongSupplier clock) {
+        this.cfClient = cfClient;
+        this.stateFile = stateFile;
+        this.callback = callback;
+        this.pollMillis = pollMillis;
+        this.timeoutMillis = timeoutMillis;
+        this.deleteExecutor = deleteExecutor;
+        this.clock = clock;
+
+        synchronized (this) {
+            loadState();
+            scheduleChecks();
+        }
+    }
+
+    /**
+     * Deletes the distribution once it is disabled. The distribution should
+     * already have been set to disabled.
+     */
+    public void watchDelete(String distId) {
+        watchDelete(distId, null);
+    }
+
+    /**
+     * Deletes the distribution once it is disabled. The distribution should
+     * already have been set to disabled.
+     *
+     * @param callback notified when this delete completes, may be null
+     */
+    public synchronized void watchDelete(String distId, Callback callback) {
+        PendingDelete pendingDelete = pending.get(distId);
+        if (null == pendingDelete) {
+            pendingDelete = new PendingDelete(clock.getAsLong());
+            pending.put(distId, pendingDelete);
+            saveState();
+        }
+        if (null != callback) {
+            pendingDelete.callbacks.add(callback);
+        }
+        scheduleChecks();
+    }
+
+    /**
+     * Replaces the client used to check and delete distributions, for use
+     * when the account's credentials have changed. Checks and deletes already
+     * in progress complete using the previous client.
+     */
+    public void setCloudFrontClient(AmazonCloudFrontClient cfClient) {
+        this.cfClient = cfClient;
+    }
+
+    /**
+     * @return IDs of the distributions waiting to be deleted
+     */
+    public synchronized List<String> getPendingIds() {
+        return new ArrayList<>(pending.keySet());
+    }
+
+    /**
+     * Checks the state of all distributions waiting to be deleted, starting
+     * the delete of those which are disabled.
+     */
+    public void checkPending() {
+        Map<String, Long> waiting = new HashMap<>();
+        synchronized (this) {
+            for (Map.Entry<String, PendingDelete> entry : pending.entrySet()) {
+                if (!entry.getValue().deleting) {
+                    waiting.put(entry.getKey(), entry.getValue().addedTime);
+                }
+            }
+        }
+        if (waiting.isEmpty()) {
+            return;
+        }
+
+        Map<String, StreamingDistributionSummary> dists =
+            listDistributions(waiting.keySet());
+        long now = clock.getAsLong();
+        for (Map.Entry<String, Long> entry : waiting.entrySet()) {
+            String distId = entry.getKey();
+            StreamingDistributionSummary dist = dists.get(distId);
+            if (null == dist) {
+                // Already deleted
+                complete(distId, null);
+            } else if (DEPLOYED.equals(dist.getStatus()) && !dist.isEnabled()) {
+                startDelete(distId);
+            } else if (now - entry.getValue() >= timeoutMillis) {
+                complete(distId, new RuntimeException(
+                    "Timeout reached waiting for distribution " + distId +
+                    " to be disabled. Please wait a few minutes and try again."));
+            }
+        }
+    }
+
+    /*
+     * Lists distributions until all of the given distributions are found, or
+     * all distributions are listed.
+     */
+    private Map<String, StreamingDistributionSummary> listDistributions(
+        Set<String> distIds) {
+        AmazonCloudFrontClient client = cfClient;
+        Set<String> remaining = new HashSet<>(distIds);
+        Map<String, StreamingDistributionSummary> dists = new HashMap<>();
+
+        ListStreamingDistributionsRequest request = new ListStreamingDistributionsRequest();
+        StreamingDistributionList distList;
+        do {
+            distList = client.listStreamingDistributions(request)
+                               .getStreamingDistributionList();
+            for (StreamingDistributionSummary dist : distList.getItems()) {
+                if (remaining.remove(dist.getId())) {
+                    dists.put(dist.getId(), dist);
+                }
+            }
+            request = new ListStreamingDistributionsRequest()
+                .withMarker(distList.getNextMarker());
+        } while (distList.isTruncated() && !remaining.isEmpty());
+        return dists;
+    }
+
+    private synchronized void startDelete(String distId) {
+        PendingDelete pendingDelete = pending.get(distId);
+        if (null != pendingDelete && !pendingDelete.deleting) {
+            pendingDelete.deleting = true;
+            deleteExecutor.execute(() -> delete(distId));
+        }
+    }
+
+    private void delete(String distId) {
+        AmazonCloudFrontClient client = cfClient;
+        Exception error = null;
+        try {
+            GetStreamingDistributionConfigResult result =
+                client.getStreamingDistributionConfig(
+                    new GetStreamingDistributionConfigRequest(distId));
+            client.deleteStreamingDistribution(
+                new DeleteStreamingDistributionRequest().withId(distId)
+                                                        .withIfMatch(result.getETag()));
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        complete(distId, error);
+    }
+
+    private void complete(String distId, Exception error) {
+        PendingDelete pendingDelete;
+        synchronized (this) {
+            pendingDelete = pending.remove(distId);
+            if (null == pendingDelete) {
+                return;
+            }
+            saveState();
+            if (pending.isEmpty() && null != checks) {
+                checks.cancel(false);
+                checks = null;
+            }
+        }
+
+        if (null == error) {
+            log.info("Deleted streaming distribution {}", distId);
+        } else {
+            log.error("Unable to delete streaming distribution {}: {}",
+                      distId, error.getMessage());
+        }
+        List<Callback> callbacks = new ArrayList<>(pendingDelete.callbacks);
+        if (null != callback) {
+            callbacks.add(0, callback);
+        }
+        for (Callback completedCallback : callbacks) {
+            try {
+                completedCallback.completed(distId, error);
+            } catch (RuntimeException e) {
+                log.warn("Error notifying completed delete of streaming " +
+                         "distribution {}: {}", distId, e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Must be called while holding the lock
+     */
+    private void scheduleChecks() {
+        if (null == checks && pollMillis > 0 && !pending.isEmpty()) {
+            checks = getScheduler().scheduleWithFixedDelay(this::runChecks,
+                                                           pollMillis,
+                                                           pollMillis,
+                                                           TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void runChecks() {
+        // An exception would stop further checks from being scheduled
+        try {
+            checkPending();
+        } catch (RuntimeException e) {
+            log.warn("Unable to check streaming distributions waiting to be " +
+                     "deleted: {}", e.getMessage());
+        }
+    }
+
+    /*
+     * Must be called while holding the lock
+     */
+    private void loadState() {
+        if (null == stateFile || !stateFile.exists()) {
+            return;
+        }
+        Properties state = new Properties();
+        try (InputStream input = new FileInputStream(stateFile)) {
+            state.load(input);
+        } catch (IOException e) {
+            log.warn("Unable to read streaming distribution deletes {}: {}",
+                     stateFile.getAbsolutePath(), e.getMessage());
+            return;
+        }
+        for (String distId : state.stringPropertyNames()) {
+            long addedTime = Long.parseLong(state.getProperty(distId));
+            pending.put(distId, new PendingDelete(addedTime));
+        }
+    }
+
+    /*
+     * Must be called while holding the lock
+     */
+    private void saveState() {
+        if (null == stateFile) {
+            return;
+        }
+        Properties state = new Properties();
+        for (Map.Entry<String, PendingDelete> entry : pending.entrySet()) {
+            state.setProperty(entry.getKey(),
+                              String.valueOf(entry.getValue().addedTime));
+        }
+
+        File tempFile = new File(stateFile.getAbsolutePath() + ".tmp");
+        try {
+            stateFile.getAbsoluteFile().getParentFile().mkdirs();
+            try (OutputStream output = new FileOutputStream(tempFile)) {
+                state.store(output, null);
+            }
+            Files.move(tempFile.toPath(), stateFile.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // Deletes continue, but are not resumed after a restart
+            log.warn("Unable to write streaming distribution deletes {}: {}",
+                     stateFile.getAbsolutePath(), e.getMessage());
+        }
+    }
+
+    private static Executor createExecutor(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(threads, threads,
+                                   IDLE_THREAD_SECONDS, TimeUnit.SECONDS,
+                                   new LinkedBlockingQueue<>(),
+                                   runnable -> {
+                                       Thread thread = new Thread(
+                                           runnable,
+                                           "streaming-delete-" + threadCount.incrementAndGet());
+                                       thread.setDaemon(true);
+                                       return thread;
+                                   });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static synchronized ScheduledExecutorService getScheduler() {
+        if (null == scheduler) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "streaming-distribution-watcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    private static class PendingDelete {
+        private final long addedTime;
+        private final List<Callback> callbacks = new ArrayList<>();
+        private boolean deleting = false;
+
+        public PendingDelete(long addedTime) {
+            this.addedTime = addedTime;
+        }
+    }
+
+}
@@ -8,7 +8,10 @@
 package org.duracloud.s3storage;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
@@ -16,34 +19,59 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.AccessControlList;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.Bucket;
 import com.amazonaws.services.s3.model.BucketLifecycleConfiguration;
 import com.amazonaws.services.s3.model.BucketTaggingConfiguration;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.CopyObjectResult;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.model.StorageClass;
 import com.amazonaws.services.s3.model.TagSet;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import org.apache.http.HttpStatus;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.common.util.IOUtil;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.ChecksumMismatchException;
+import org.duracloud.storage.error.DeleteContentsException;
 import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.easymock.Capture;
+import org.easymock.CaptureType;
 import org.easymock.EasyMock;
 import org.easymock.IExpectationSetters;
 import org.junit.After;
@@ -391,6 +419,390 @@ public class S3StorageProviderTest {
         return capturedRequest;
     }
 
+    private static final long LARGE_CONTENT_SIZE = 6L * 1024 * 1024 * 1024;
+    private static final String uploadId = "upload-id";
+    private static final String multipartETag = "4f2d1e38b0c5a9f7d6e3c2b1a0f9e8d7-24";
+
+    @Test
+    public void testCopyLargeContent() {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+        expectSingleCopyLimit();
+
+        EasyMock.expect(s3Client.getObjectMetadata(EasyMock.isA(String.class),
+                                                   EasyMock.eq("contentId")))
+                .andReturn(createLargeMetadata(hexChecksum));
+        Capture<InitiateMultipartUploadRequest> initRequest = new Capture<>();
+        Queue<CopyPartRequest> partRequests = expectMultipartCopy(initRequest);
+        EasyMock.expect(s3Client.getObjectMetadata(EasyMock.isA(String.class),
+                                                   EasyMock.eq("destContentId")))
+                .andReturn(createMultipartMetadata(hexChecksum));
+        EasyMock.replay(s3Client);
+
+        S3StorageProvider provider = getProvider();
+        String md5 = provider.copyContent(spaceId, "contentId",
+                                          "dest-space-id", "destContentId");
+        assertEquals(hexChecksum, md5);
+
+        InitiateMultipartUploadRequest request = initRequest.getValue();
+        assertEquals((accessKey + ".dest-space-id").toLowerCase(),
+                     request.getBucketName());
+        assertEquals("destContentId", request.getKey());
+        assertEquals(StorageClass.Standard.toString(),
+                     String.valueOf(request.getStorageClass()));
+        ObjectMetadata destMetadata = request.getObjectMetadata();
+        assertEquals("text/plain", destMetadata.getContentType());
+        assertEquals("value", destMetadata.getUserMetadata().get("name*"));
+        assertEquals(S3StorageProvider.encodeHeaderValue(hexChecksum),
+                     destMetadata.getUserMetadata().get(
+                         S3StorageProvider.encodeHeaderKey(
+                             StorageProvider.PROPERTIES_CONTENT_CHECKSUM)));
+
+        verifyPartRanges(partRequests, "contentId");
+    }
+
+    @Test
+    public void testCopyLargeContentPartFailure() {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+
+        EasyMock.expect(s3Client.getObjectMetadata(EasyMock.isA(String.class),
+                                                   EasyMock.eq("contentId")))
+                .andReturn(createLargeMetadata(hexChecksum));
+        EasyMock.expect(s3Client.initiateMultipartUpload(
+            EasyMock.isA(InitiateMultipartUploadRequest.class)))
+                .andReturn(createInitiateResult());
+        EasyMock.expect(s3Client.copyPart(EasyMock.isA(CopyPartRequest.class)))
+                .andThrow(new AmazonS3Exception("part failed"))
+                .atLeastOnce();
+        Capture<AbortMultipartUploadRequest> abortRequest = new Capture<>();
+        s3Client.abortMultipartUpload(EasyMock.capture(abortRequest));
+        EasyMock.expectLastCall().once();
+        EasyMock.replay(s3Client);
+
+        S3StorageProvider provider = getProvider();
+        try {
+            provider.copyContent(spaceId, "contentId",
+                                 "dest-space-id", "destContentId");
+            fail("Exception expected");
+        } catch (StorageException e) {
+            assertNotNull(e.getMessage());
+        }
+        assertEquals(uploadId, abortRequest.getValue().getUploadId());
+    }
+
+    @Test
+    public void testSetLargeContentProperties() {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+        expectSingleCopyLimit();
+
+        ObjectMetadata existing = createLargeMetadata(null);
+        existing.setHeader(Headers.ETAG, "\"" + hexChecksum + "\"");
+        EasyMock.expect(s3Client.getObjectMetadata(EasyMock.isA(String.class),
+                                                   EasyMock.eq("contentId")))
+                .andReturn(existing);
+        AccessControlList acl = new AccessControlList();
+        EasyMock.expect(s3Client.getObjectAcl(EasyMock.isA(String.class),
+                                              EasyMock.eq("contentId")))
+                .andReturn(acl);
+        Capture<InitiateMultipartUploadRequest> initRequest = new Capture<>();
+        Queue<CopyPartRequest> partRequests = expectMultipartCopy(initRequest);
+        EasyMock.replay(s3Client);
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("new-name", "new-value");
+        S3StorageProvider provider = getProvider();
+        provider.setContentProperties(spaceId, "contentId", properties);
+
+        InitiateMultipartUploadRequest request = initRequest.getValue();
+        assertEquals("contentId", request.getKey());
+        assertSame(acl, request.getAccessControlList());
+        ObjectMetadata newMetadata = request.getObjectMetadata();
+        assertEquals("text/plain", newMetadata.getContentType());
+        assertEquals("new-value", newMetadata.getUserMetadata().get("new-name"));
+        assertEquals(S3StorageProvider.encodeHeaderValue(hexChecksum),
+                     newMetadata.getUserMetadata().get(
+                         S3StorageProvider.encodeHeaderKey(
+                             StorageProvider.PROPERTIES_CONTENT_CHECKSUM)));
+
+        verifyPartRanges(partRequests, "contentId");
+    }
+
+    @Test
+    public void testGetMultipartContentProperties() {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+        EasyMock.expect(s3Client.getObjectMetadata(EasyMock.isA(String.class),
+                                                   EasyMock.eq("contentId")))
+                .andReturn(createMultipartMetadata(hexChecksum));
+        EasyMock.replay(s3Client);
+
+        Map<String, String> properties =
+            getProvider().getContentProperties(spaceId, "contentId");
+        assertEquals(hexChecksum,
+                     properties.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM));
+        assertEquals(hexChecksum,
+                     properties.get(StorageProvider.PROPERTIES_CONTENT_MD5));
+        assertEquals(multipartETag, properties.get(Headers.ETAG));
+    }
+
+    @Test
+    public void testMultipartUpload() {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+
+        String part1Checksum = getChecksum("hello");
+        String part2Checksum = getChecksum("world");
+        Capture<InitiateMultipartUploadRequest> initRequest = new Capture<>();
+        EasyMock.expect(s3Client.initiateMultipartUpload(EasyMock.capture(initRequest)))
+                .andReturn(createInitiateResult());
+        EasyMock.expect(s3Client.uploadPart(EasyMock.isA(UploadPartRequest.class)))
+                .andAnswer(() -> {
+                    // The ETag of a part is the MD5 of the part
+                    UploadPartRequest request =
+                        (UploadPartRequest) EasyMock.getCurrentArguments()[0];
+                    UploadPartResult result = new UploadPartResult();
+                    result.setETag(getChecksum(
+                        IOUtil.readStringFromStream(request.getInputStream())));
+                    return result;
+                })
+                .times(2);
+        Capture<CompleteMultipartUploadRequest> completeRequest = new Capture<>();
+        CompleteMultipartUploadResult completeResult = new CompleteMultipartUploadResult();
+        completeResult.setETag(S3StorageProvider.getMultipartETag(
+            Arrays.asList(part1Checksum, part2Checksum)));
+        EasyMock.expect(s3Client.completeMultipartUpload(EasyMock.capture(completeRequest)))
+                .andReturn(completeResult);
+        EasyMock.expect(s3Client.getObjectMetadata(EasyMock.isA(String.class),
+                                                   EasyMock.eq("contentId")))
+                .andReturn(createMultipartMetadata(hexChecksum));
+        EasyMock.replay(s3Client);
+
+        S3StorageProvider provider = getProvider();
+        Map<String, String> properties = new HashMap<>();
+        properties.put("name", "value");
+        properties.put(StorageProvider.PROPERTIES_CONTENT_SIZE, "10");
+        String id = provider.startMultipartUpload(spaceId, "contentId", "text/plain",
+                                                  properties, hexChecksum);
+        assertEquals(uploadId, id);
+        assertEquals(part2Checksum,
+                     provider.addContentPart(spaceId, "contentId", uploadId, 2,
+                                             5, createStream("world")));
+        assertEquals(part1Checksum,
+                     provider.addContentPart(spaceId, "contentId", uploadId, 1,
+                                             5, createStream("hello")));
+        String md5 = provider.completeMultipartUpload(
+            spaceId, "contentId", uploadId, Arrays.asList(part1Checksum, part2Checksum));
+        assertEquals(hexChecksum, md5);
+
+        // The checksum of the whole content is kept with the object
+        ObjectMetadata metadata = initRequest.getValue().getObjectMetadata();
+        assertEquals("text/plain", metadata.getContentType());
+        assertEquals(S3StorageProvider.encodeHeaderValue("value"),
+                     metadata.getUserMetadata().get(S3StorageProvider.encodeHeaderKey("name")));
+        assertEquals(S3StorageProvider.encodeHeaderValue(hexChecksum),
+                     metadata.getUserMetadata().get(
+                         S3StorageProvider.encodeHeaderKey(
+                             StorageProvider.PROPERTIES_CONTENT_CHECKSUM)));
+        assertFalse(metadata.getUserMetadata().containsKey(
+            S3StorageProvider.encodeHeaderKey(StorageProvider.PROPERTIES_CONTENT_SIZE)));
+
+        List<PartETag> partETags = completeRequest.getValue().getPartETags();
+        assertEquals(2, partETags.size());
+        assertEquals(1, partETags.get(0).getPartNumber());
+        assertEquals(part1Checksum, partETags.get(0).getETag());
+        assertEquals(2, partETags.get(1).getPartNumber());
+        assertEquals(part2Checksum, partETags.get(1).getETag());
+        EasyMock.verify(s3Client);
+    }
+
+    @Test
+    public void testMultipartUploadPartMismatch() {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+        UploadPartResult result = new UploadPartResult();
+        result.setETag(getChecksum("other"));
+        EasyMock.expect(s3Client.uploadPart(EasyMock.isA(UploadPartRequest.class)))
+                .andAnswer(() -> {
+                    UploadPartRequest request =
+                        (UploadPartRequest) EasyMock.getCurrentArguments()[0];
+                    IOUtil.readStringFromStream(request.getInputStream());
+                    return result;
+                });
+        EasyMock.replay(s3Client);
+
+        try {
+            getProvider().addContentPart(spaceId, "contentId", uploadId, 1,
+                                         5, createStream("hello"));
+            fail("Exception expected");
+        } catch (ChecksumMismatchException e) {
+            assertNotNull(e.getMessage());
+        }
+        EasyMock.verify(s3Client);
+    }
+
+    @Test
+    public void testMultipartUploadAssemblyMismatch() {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+        CompleteMultipartUploadResult completeResult = new CompleteMultipartUploadResult();
+        completeResult.setETag(S3StorageProvider.getMultipartETag(
+            Collections.singletonList(getChecksum("hello"))));
+        EasyMock.expect(s3Client.completeMultipartUpload(
+            EasyMock.isA(CompleteMultipartUploadRequest.class)))
+                .andReturn(completeResult);
+        EasyMock.expect(s3Client.getObjectMetadata(EasyMock.isA(String.class),
+                                                   EasyMock.eq("contentId")))
+                .andReturn(createMultipartMetadata(hexChecksum));
+        EasyMock.replay(s3Client);
+
+        try {
+            getProvider().completeMultipartUpload(
+                spaceId, "contentId", uploadId,
+                Arrays.asList(getChecksum("hello"), getChecksum("world")));
+            fail("Exception expected");
+        } catch (ChecksumMismatchException e) {
+            assertNotNull(e.getMessage());
+        }
+        EasyMock.verify(s3Client);
+    }
+
+    @Test
+    public void testGetMultipartETag() {
+        // MD5 of the binary MD5s of the two parts, followed by the part count
+        assertEquals("065947336a2f2a95ba8899f3675c3be6-2",
+                     S3StorageProvider.getMultipartETag(
+                         Arrays.asList(getChecksum("hello"), getChecksum("world"))));
+    }
+
+    private String getChecksum(String value) {
+        return new ChecksumUtil(ChecksumUtil.Algorithm.MD5).generateChecksum(value);
+    }
+
+    @Test
+    public void testGetContentWithProperties() throws IOException {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(content.length());
+        metadata.setContentType("text/plain");
+        metadata.setHeader(Headers.ETAG, "\"" + hexChecksum + "\"");
+        metadata.addUserMetadata("name", "value");
+        S3Object s3Object = new S3Object();
+        s3Object.setObjectMetadata(metadata);
+        s3Object.setObjectContent(new ByteArrayInputStream(content.getBytes()));
+
+        // A single GET, the metadata is not requested separately
+        EasyMock.expect(s3Client.getObject(EasyMock.isA(String.class),
+                                           EasyMock.eq("contentId")))
+                .andReturn(s3Object);
+        EasyMock.replay(s3Client);
+
+        RetrievedContent retrieved =
+            getProvider().getContentWithProperties(spaceId, "contentId");
+        contentStream = retrieved.getContentStream();
+        assertEquals(content, IOUtil.readStringFromStream(contentStream));
+
+        Map<String, String> properties = retrieved.getContentProperties();
+        assertEquals(hexChecksum,
+                     properties.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM));
+        assertEquals(String.valueOf(content.length()),
+                     properties.get(StorageProvider.PROPERTIES_CONTENT_SIZE));
+        assertEquals("text/plain",
+                     properties.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE));
+        assertEquals("value", properties.get("name"));
+    }
+
+    private ObjectMetadata createLargeMetadata(String eTag) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(LARGE_CONTENT_SIZE);
+        metadata.setContentType("text/plain");
+        metadata.addUserMetadata("name*", "value");
+        if (null != eTag) {
+            metadata.setHeader(Headers.ETAG, eTag);
+        }
+        return metadata;
+    }
+
+    private ObjectMetadata createMultipartMetadata(String checksum) {
+        ObjectMetadata metadata = createLargeMetadata("\"" + multipartETag + "\"");
+        metadata.addUserMetadata(
+            S3StorageProvider.encodeHeaderKey(StorageProvider.PROPERTIES_CONTENT_CHECKSUM),
+            S3StorageProvider.encodeHeaderValue(checksum));
+        return metadata;
+    }
+
+    private InitiateMultipartUploadResult createInitiateResult() {
+        InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+        result.setUploadId(uploadId);
+        return result;
+    }
+
+    /*
+     * Any single copy request is rejected, as all of the objects used in
+     * these tests are larger than S3 allows for a single copy
+     */
+    private void expectSingleCopyLimit() {
+        EasyMock.expect(s3Client.copyObject(EasyMock.isA(CopyObjectRequest.class)))
+                .andThrow(new AmazonS3Exception(
+                    "The specified copy source is larger than the maximum " +
+                    "allowable size for a copy source: " +
+                    S3MultipartCopier.MAX_SINGLE_COPY_SIZE))
+                .anyTimes();
+    }
+
+    private Queue<CopyPartRequest> expectMultipartCopy(
+        Capture<InitiateMultipartUploadRequest> initRequest) {
+        EasyMock.expect(s3Client.initiateMultipartUpload(
+            EasyMock.capture(initRequest)))
+                .andReturn(createInitiateResult());
+
+        Queue<CopyPartRequest> partRequests = new ConcurrentLinkedQueue<>();
+        EasyMock.expect(s3Client.copyPart(EasyMock.isA(CopyPartRequest.class)))
+                .andAnswer(() -> {
+                    CopyPartRequest request =
+                        (CopyPartRequest) EasyMock.getCurrentArguments()[0];
+                    assertEquals(uploadId, request.getUploadId());
+                    assertTrue(request.getLastByte() - request.getFirstByte() + 1 <=
+                               S3MultipartCopier.MAX_SINGLE_COPY_SIZE);
+                    partRequests.add(request);
+                    CopyPartResult result = new CopyPartResult();
+                    result.setPartNumber(request.getPartNumber());
+                    result.setETag("etag-" + request.getPartNumber());
+                    return result;
+                }).atLeastOnce();
+
+        CompleteMultipartUploadResult completeResult =
+            new CompleteMultipartUploadResult();
+        completeResult.setETag(multipartETag);
+        EasyMock.expect(s3Client.completeMultipartUpload(
+            EasyMock.isA(CompleteMultipartUploadRequest.class)))
+                .andAnswer(() -> {
+                    CompleteMultipartUploadRequest request =
+                        (CompleteMultipartUploadRequest) EasyMock.getCurrentArguments()[0];
+                    assertEquals(partRequests.size(), request.getPartETags().size());
+                    return completeResult;
+                });
+        return partRequests;
+    }
+
+    private void verifyPartRanges(Queue<CopyPartRequest> partRequests,
+                                  String sourceKey) {
+        List<CopyPartRequest> parts = new ArrayList<>(partRequests);
+        Collections.sort(parts, (a, b) -> a.getPartNumber() - b.getPartNumber());
+        long nextByte = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            CopyPartRequest part = parts.get(i);
+            assertEquals(i + 1, part.getPartNumber());
+            assertEquals(sourceKey, part.getSourceKey());
+            assertEquals(nextByte, part.getFirstByte().longValue());
+            nextByte = part.getLastByte() + 1;
+        }
+        assertEquals(LARGE_CONTENT_SIZE, nextByte);
+    }
+
     @Test
     public void testGetSpaceCount1000() {
         MockS3StorageProvider provider = new MockS3StorageProvider();
@@ -424,6 +836,64 @@ public class S3StorageProviderTest {
 
     }
 
+    @Test
+    public void testDeleteContents() {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+
+        // No existence checks, one request per batch
+        Capture<DeleteObjectsRequest> requests = Capture.newInstance(CaptureType.ALL);
+        EasyMock.expect(s3Client.deleteObjects(EasyMock.capture(requests)))
+                .andReturn(null)
+                .times(2);
+        EasyMock.replay(s3Client);
+
+        List<String> contentIds = new ArrayList<>();
+        for (int i = 0; i < S3StorageProvider.MAX_DELETE_BATCH + 5; i++) {
+            contentIds.add("item" + i);
+        }
+        getProvider().deleteContents(spaceId, contentIds);
+
+        List<DeleteObjectsRequest> sent = requests.getValues();
+        assertEquals(2, sent.size());
+        assertEquals(accessKey + "." + spaceId, sent.get(0).getBucketName());
+        assertEquals(S3StorageProvider.MAX_DELETE_BATCH, sent.get(0).getKeys().size());
+        assertEquals(5, sent.get(1).getKeys().size());
+        assertEquals("item" + S3StorageProvider.MAX_DELETE_BATCH,
+                     sent.get(1).getKeys().get(0).getKey());
+        assertTrue(sent.get(0).getQuiet());
+    }
+
+    @Test
+    public void testDeleteContentsError() {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+
+        MultiObjectDeleteException.DeleteError error =
+            new MultiObjectDeleteException.DeleteError();
+        error.setKey("item1");
+        error.setCode("AccessDenied");
+        EasyMock.expect(s3Client.deleteObjects(EasyMock.isA(DeleteObjectsRequest.class)))
+                .andThrow(new MultiObjectDeleteException(
+                    Collections.singletonList(error),
+                    Collections.<DeleteObjectsResult.DeletedObject>emptyList()));
+        EasyMock.replay(s3Client);
+
+        List<String> contentIds = new ArrayList<>();
+        for (int i = 0; i < S3StorageProvider.MAX_DELETE_BATCH + 1; i++) {
+            contentIds.add("item" + i);
+        }
+        try {
+            getProvider().deleteContents(spaceId, contentIds);
+            fail("Exception expected");
+        } catch (DeleteContentsException e) {
+            assertTrue(e.getMessage().contains("item1 (AccessDenied)"));
+            // The failed item and the items of the batch not attempted
+            assertEquals(Arrays.asList("item1", "item" + S3StorageProvider.MAX_DELETE_BATCH),
+                         e.getUndeletedContentIds());
+        }
+    }
+
     @Test
     public void testDoesContentExist() {
         s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
@@ -532,6 +1002,117 @@ public class S3StorageProviderTest {
         EasyMock.verify(s3Client, objectListing);
     }
 
+    @Test
+    public void testGetAllSpacePropertiesSmallSpaceCount() throws Exception {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+        EasyMock.expect(
+            s3Client.getBucketTaggingConfiguration(EasyMock.isA(String.class)))
+                .andReturn(null)
+                .times(4);
+
+        // A space of fewer than 1000 items is listed only once
+        ObjectListing objectListing =
+            EasyMock.createMock("ObjectListing", ObjectListing.class);
+        setUpListObjects(objectListing, 2);
+        setUpListObjects(objectListing, 0);
+
+        // Only an item which does not already exist is added to the count
+        PutObjectResult putResult = new PutObjectResult();
+        putResult.setETag(hexChecksum);
+        EasyMock.expect(s3Client.putObject(EasyMock.isA(PutObjectRequest.class)))
+                .andReturn(putResult)
+                .times(2);
+        EasyMock.expect(s3Client.getObjectMetadata(accessKey + "." + spaceId, "item0"))
+                .andReturn(new ObjectMetadata());
+        AmazonS3Exception notFound = new AmazonS3Exception("Not Found");
+        notFound.setStatusCode(HttpStatus.SC_NOT_FOUND);
+        EasyMock.expect(s3Client.getObjectMetadata(accessKey + "." + spaceId, "item2"))
+                .andThrow(notFound);
+
+        EasyMock.replay(s3Client, objectListing);
+
+        S3StorageProvider provider = getProvider();
+        assertEquals("2", provider.getAllSpaceProperties(spaceId)
+                                  .get(StorageProvider.PROPERTIES_SPACE_COUNT));
+
+        contentStream = createStream(content);
+        provider.addContent(spaceId, "item0", "text/plain", null,
+                            content.length(), hexChecksum, contentStream);
+        assertEquals("2", provider.getAllSpaceProperties(spaceId)
+                                  .get(StorageProvider.PROPERTIES_SPACE_COUNT));
+
+        contentStream = createStream(content);
+        provider.addContent(spaceId, "item2", "text/plain", null,
+                            content.length(), hexChecksum, contentStream);
+        assertEquals("3", provider.getAllSpaceProperties(spaceId)
+                                  .get(StorageProvider.PROPERTIES_SPACE_COUNT));
+
+        // A provider which replaces this one keeps the count
+        S3StorageProvider replacement = getProvider();
+        replacement.setSpaceItemCounter(provider.spaceItemCounter);
+        assertEquals("3", replacement.getAllSpaceProperties(spaceId)
+                                     .get(StorageProvider.PROPERTIES_SPACE_COUNT));
+
+        EasyMock.verify(s3Client, objectListing);
+    }
+
+    @Test
+    public void testGetAllSpacePropertiesMaintainedCount() throws Exception {
+        s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
+        addListBucketsMock();
+        EasyMock.expect(
+            s3Client.getBucketTaggingConfiguration(EasyMock.isA(String.class)))
+                .andReturn(null)
+                .times(4);
+
+        // A space of 1000 or more items is listed only once
+        ObjectListing objectListing =
+            EasyMock.createMock("ObjectListing", ObjectListing.class);
+        setUpListObjects(objectListing, S3StorageProvider.MAX_ITEM_COUNT);
+
+        PutObjectResult putResult = new PutObjectResult();
+        putResult.setETag(hexChecksum);
+        EasyMock.expect(s3Client.putObject(EasyMock.isA(PutObjectRequest.class)))
+                .andReturn(putResult);
+        AmazonS3Exception notFound = new AmazonS3Exception("Not Found");
+        notFound.setStatusCode(HttpStatus.SC_NOT_FOUND);
+        EasyMock.expect(s3Client.getObjectMetadata(accessKey + "." + spaceId, "item2"))
+                .andThrow(notFound);
+        EasyMock.expect(s3Client.getObjectMetadata(accessKey + "." + spaceId, "item0"))
+                .andReturn(new ObjectMetadata());
+        s3Client.deleteObject(accessKey + "." + spaceId, "item0");
+        EasyMock.expectLastCall();
+
+        EasyMock.replay(s3Client, objectListing);
+
+        // The full count is made when scheduled
+        List<Runnable> fullCounts = new ArrayList<>();
+        S3StorageProvider provider = getProvider();
+        provider.spaceItemCounter =
+            new SpaceItemCounter(id -> 1500, SpaceItemCounter.DEFAULT_RECONCILE_MILLIS,
+                                 fullCounts::add);
+
+        assertEquals("1000+", provider.getAllSpaceProperties(spaceId)
+                                      .get(StorageProvider.PROPERTIES_SPACE_COUNT));
+        assertEquals(1, fullCounts.size());
+        fullCounts.get(0).run();
+        assertEquals("1500", provider.getAllSpaceProperties(spaceId)
+                                     .get(StorageProvider.PROPERTIES_SPACE_COUNT));
+
+        contentStream = createStream(content);
+        provider.addContent(spaceId, "item2", "text/plain", null,
+                            content.length(), hexChecksum, contentStream);
+        assertEquals("1501", provider.getAllSpaceProperties(spaceId)
+                                     .get(StorageProvider.PROPERTIES_SPACE_COUNT));
+
+        provider.deleteContent(spaceId, "item0");
+        assertEquals("1500", provider.getAllSpaceProperties(spaceId)
+                                     .get(StorageProvider.PROPERTIES_SPACE_COUNT));
+
+        EasyMock.verify(s3Client, objectListing);
+    }
+
     @Test
     public void testDoSetSpaceProperties() {
         s3Client = EasyMock.createMock("AmazonS3Client", AmazonS3Client.class);
@@ -614,15 +1195,14 @@ public class S3StorageProviderTest {
 
         List<String> spaceIds2 = new LinkedList<>(spaceIds);
         spaceIds2.add(spaceId);
-        addListBucketsMock(2, spaceIds2);
+        addListBucketsMock(1, spaceIds2);
         EasyMock.expect(s3Client.getBucketTaggingConfiguration(bucketName))
                 .andReturn(new BucketTaggingConfiguration());
         s3Client.setBucketTaggingConfiguration(EasyMock.eq(bucketName),
                                                EasyMock.isA(BucketTaggingConfiguration.class));
         EasyMock.expectLastCall().once();
 
-        EasyMock.expect(s3Client.listObjects(EasyMock.isA(ListObjectsRequest.class)))
-                .andReturn(new ObjectListing());
+        // The new space is known to be empty, so its contents are not listed
 
         EasyMock.replay(s3Client, bucket);
 
@@ -0,0 +1,89 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.s3storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.duracloud.storage.error.NotFoundException;
+import org.junit.Test;
+
+/**
+ * Tests the maintained space item counts
+ */
+public class SpaceItemCounterTest {
+
+    private final AtomicInteger fullCounts = new AtomicInteger();
+    private final List<Runnable> scheduled = new ArrayList<>();
+
+    private SpaceItemCounter createCounter(long reconcileMillis, long spaceSize) {
+        return new SpaceItemCounter(spaceId -> {
+            fullCounts.incrementAndGet();
+            if (spaceSize < 0) {
+                throw new NotFoundException(spaceId);
+            }
+            return spaceSize;
+        }, reconcileMillis, scheduled::add);
+    }
+
+    private void runScheduled() {
+        List<Runnable> tasks = new ArrayList<>(scheduled);
+        scheduled.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    public void testAdjust() {
+        SpaceItemCounter counter = createCounter(60000, 100);
+
+        // Counts which are not known are not adjusted
+        counter.adjust("space", 1);
+        assertNull(counter.getCount("space"));
+
+        counter.setCount("space", 10);
+        counter.adjust("space", 1);
+        counter.adjust("space", 1);
+        counter.adjust("space", -1);
+        assertEquals(11L, counter.getCount("space").longValue());
+
+        counter.clear("space");
+        assertNull(counter.getCount("space"));
+        assertEquals(0, scheduled.size());
+        assertEquals(0, fullCounts.get());
+    }
+
+    @Test
+    public void testReconcile() {
+        SpaceItemCounter counter = createCounter(0, 100);
+        counter.setCount("space", 90);
+
+        // The stale count is provided while a single full count is scheduled
+        assertEquals(90L, counter.getCount("space").longValue());
+        assertEquals(90L, counter.getCount("space").longValue());
+        assertEquals(1, scheduled.size());
+
+        runScheduled();
+        assertEquals(1, fullCounts.get());
+        assertEquals(100L, counter.getCount("space").longValue());
+    }
+
+    @Test
+    public void testReconcileMissingSpace() {
+        SpaceItemCounter counter = createCounter(0, -1);
+        counter.setCount("space", 5);
+        counter.getCount("space");
+
+        runScheduled();
+        assertNull(counter.getCount("space"));
+    }
+
+}
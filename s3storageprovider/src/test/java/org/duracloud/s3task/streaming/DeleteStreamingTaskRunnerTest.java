@@ -12,16 +12,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 
+import java.util.Collections;
 import java.util.Map;
 
 import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
-import com.amazonaws.services.cloudfront.model.DeleteStreamingDistributionRequest;
-import com.amazonaws.services.cloudfront.model.DeleteStreamingDistributionResult;
 import com.amazonaws.services.cloudfront.model.GetStreamingDistributionConfigRequest;
 import com.amazonaws.services.cloudfront.model.GetStreamingDistributionConfigResult;
-import com.amazonaws.services.cloudfront.model.GetStreamingDistributionRequest;
-import com.amazonaws.services.cloudfront.model.GetStreamingDistributionResult;
-import com.amazonaws.services.cloudfront.model.StreamingDistribution;
 import com.amazonaws.services.cloudfront.model.StreamingDistributionConfig;
 import com.amazonaws.services.cloudfront.model.UpdateStreamingDistributionRequest;
 import com.amazonaws.services.s3.AmazonS3Client;
@@ -37,6 +33,8 @@ import org.junit.Test;
  */
 public class DeleteStreamingTaskRunnerTest extends StreamingTaskRunnerTestBase {
 
+    private StreamingDistributionWatcher distributionWatcher;
+
     protected DeleteStreamingTaskRunner createRunner(StorageProvider s3Provider,
                                                      S3StorageProvider unwrappedS3Provider,
                                                      AmazonS3Client s3Client,
@@ -45,8 +43,15 @@ public class DeleteStreamingTaskRunnerTest extends StreamingTaskRunnerTestBase {
         this.unwrappedS3Provider = unwrappedS3Provider;
         this.s3Client = s3Client;
         this.cfClient = cfClient;
+        // Checks are not scheduled, so deletes are only registered
+        this.distributionWatcher =
+            new StreamingDistributionWatcher(cfClient, null, null, 0,
+                                             StreamingDistributionWatcher.DEFAULT_TIMEOUT_MILLIS,
+                                             Runnable::run, System::currentTimeMillis);
         return new DeleteStreamingTaskRunner(s3Provider, unwrappedS3Provider,
-                                             s3Client, cfClient);
+                                             s3Client, cfClient,
+                                             new StreamingDistributionCache(),
+                                             distributionWatcher);
     }
 
     @Test
@@ -101,7 +106,7 @@ public class DeleteStreamingTaskRunnerTest extends StreamingTaskRunnerTestBase {
 
     /*
      * Testing the case where a streaming distribution exists for the given
-     * bucket and will be deleted.
+     * bucket and will be deleted, once disabled, by the watcher.
      */
     @Test
     public void testPerformTask2() throws Exception {
@@ -118,7 +123,8 @@ public class DeleteStreamingTaskRunnerTest extends StreamingTaskRunnerTestBase {
         assertNotNull(results);
         testCapturedProps();
 
-        Thread.sleep(2000); // Give time for delete thread to execute before mock verify
+        assertEquals(Collections.singletonList("id"),
+                     distributionWatcher.getPendingIds());
     }
 
     /*
@@ -128,8 +134,6 @@ public class DeleteStreamingTaskRunnerTest extends StreamingTaskRunnerTestBase {
      * listStreamingDistributions (1) - return dist with matching bucket name, enabled
      * getStreamingDistributionConfig (1) - distribution config, enabled
      * updateStreamingDistribution (1) - return null
-     * getStreamingDistribution (1) - return valid dist, deployed
-     * deleteStreamingDistribution (1) - void return
      */
     private AmazonCloudFrontClient createMockCFClientV4() throws Exception {
         cfClient = EasyMock.createMock(AmazonCloudFrontClient.class);
@@ -146,7 +150,7 @@ public class DeleteStreamingTaskRunnerTest extends StreamingTaskRunnerTestBase {
             .expect(cfClient.getStreamingDistributionConfig(
                 EasyMock.isA(GetStreamingDistributionConfigRequest.class)))
             .andReturn(distConfigResult)
-            .times(2);
+            .times(1);
 
         EasyMock
             .expect(cfClient.updateStreamingDistribution(
@@ -154,22 +158,6 @@ public class DeleteStreamingTaskRunnerTest extends StreamingTaskRunnerTestBase {
             .andReturn(null)
             .times(1);
 
-        StreamingDistribution dist =
-            new StreamingDistribution().withStatus("Deployed");
-        GetStreamingDistributionResult distResult =
-            new GetStreamingDistributionResult().withStreamingDistribution(dist);
-        EasyMock
-            .expect(cfClient.getStreamingDistribution(
-                EasyMock.isA(GetStreamingDistributionRequest.class)))
-            .andReturn(distResult)
-            .times(1);
-
-        EasyMock
-            .expect(cfClient.deleteStreamingDistribution(
-                EasyMock.isA(DeleteStreamingDistributionRequest.class)))
-            .andReturn(new DeleteStreamingDistributionResult())
-            .times(1);
-
         EasyMock.replay(cfClient);
         return cfClient;
     }
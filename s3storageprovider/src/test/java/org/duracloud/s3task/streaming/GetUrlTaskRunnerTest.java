@@ -83,6 +83,32 @@ public class GetUrlTaskRunnerTest extends StreamingTaskRunnerTestBase {
         assertEquals(streamUrl, "rtmp://" + domainName + "/cfx/st/" + contentId);
     }
 
+    /*
+     * Testing the case where urls are generated by runners which share a
+     * distribution cache, the distributions are listed only once
+     */
+    @Test
+    public void testPerformTaskCached() throws Exception {
+        createRunner(createMockStorageProvider(),
+                     createMockUnwrappedS3StorageProvider(),
+                     createMockS3ClientV1(),
+                     createMockCFClientV4(false)); // Open dist
+        StreamingDistributionCache distributionCache = new StreamingDistributionCache();
+
+        GetUrlTaskParameters taskParams = new GetUrlTaskParameters();
+        taskParams.setSpaceId(spaceId);
+        taskParams.setContentId(contentId);
+
+        for (int i = 0; i < 3; i++) {
+            BaseStreamingTaskRunner runner =
+                new GetUrlTaskRunner(s3Provider, unwrappedS3Provider, cfClient,
+                                     distributionCache);
+            String results = runner.performTask(taskParams.serialize());
+            String streamUrl = GetUrlTaskResult.deserialize(results).getStreamUrl();
+            assertEquals(streamUrl, "rtmp://" + domainName + "/cfx/st/" + contentId);
+        }
+    }
+
     /*
      * Testing the case where a distribution does not exist,
      * an exception is expected
@@ -0,0 +1,130 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.s3task.streaming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
+import com.amazonaws.services.cloudfront.model.ListStreamingDistributionsRequest;
+import com.amazonaws.services.cloudfront.model.ListStreamingDistributionsResult;
+import com.amazonaws.services.cloudfront.model.S3Origin;
+import com.amazonaws.services.cloudfront.model.StreamingDistributionList;
+import com.amazonaws.services.cloudfront.model.StreamingDistributionSummary;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the caching of streaming distributions, by counting the calls made
+ * to list distributions
+ */
+public class StreamingDistributionCacheTest {
+
+    private static final long TTL_MILLIS = 1000;
+
+    private AmazonCloudFrontClient cfClient;
+    private AtomicLong now = new AtomicLong(0);
+    private StreamingDistributionCache cache;
+
+    @Before
+    public void setup() {
+        cfClient = EasyMock.createMock(AmazonCloudFrontClient.class);
+        cache = new StreamingDistributionCache(TTL_MILLIS, now::get);
+    }
+
+    @After
+    public void tearDown() {
+        EasyMock.verify(cfClient);
+    }
+
+    private StreamingDistributionSummary createDist(String id, String bucketName) {
+        S3Origin origin = new S3Origin().withDomainName(
+            bucketName + BaseStreamingTaskRunner.S3_ORIGIN_SUFFIX);
+        return new StreamingDistributionSummary().withId(id).withS3Origin(origin);
+    }
+
+    /*
+     * Expects one listing of all distributions, made up of one page per
+     * distribution
+     */
+    private void expectListing(StreamingDistributionSummary... dists) {
+        for (int i = 0; i < dists.length; i++) {
+            List<StreamingDistributionSummary> items = new ArrayList<>();
+            items.add(dists[i]);
+            ListStreamingDistributionsResult result =
+                new ListStreamingDistributionsResult()
+                    .withStreamingDistributionList(
+                        new StreamingDistributionList()
+                            .withItems(items)
+                            .withIsTruncated(i < dists.length - 1)
+                            .withNextMarker("marker-" + i));
+            EasyMock.expect(cfClient.listStreamingDistributions(
+                EasyMock.isA(ListStreamingDistributionsRequest.class)))
+                    .andReturn(result)
+                    .once();
+        }
+    }
+
+    @Test
+    public void testGetDistributions() {
+        expectListing(createDist("dist-1", "bucket-1"),
+                      createDist("dist-2", "bucket-2"),
+                      createDist("dist-3", "bucket-2"));
+        EasyMock.replay(cfClient);
+
+        // All pages are listed once, for any number of lookups
+        for (int i = 0; i < 3; i++) {
+            List<StreamingDistributionSummary> dists =
+                cache.getDistributions(cfClient, "bucket-1");
+            assertEquals(1, dists.size());
+            assertEquals("dist-1", dists.get(0).getId());
+
+            dists = cache.getDistributions(cfClient, "bucket-2");
+            assertEquals(2, dists.size());
+            assertEquals("dist-2", dists.get(0).getId());
+            assertEquals("dist-3", dists.get(1).getId());
+
+            assertTrue(cache.getDistributions(cfClient, "bucket-3").isEmpty());
+        }
+    }
+
+    @Test
+    public void testInvalidate() {
+        expectListing(createDist("dist-1", "bucket-1"));
+        expectListing(createDist("dist-2", "bucket-1"));
+        EasyMock.replay(cfClient);
+
+        assertEquals("dist-1", cache.getDistributions(cfClient, "bucket-1").get(0).getId());
+        assertEquals("dist-1", cache.getDistributions(cfClient, "bucket-1").get(0).getId());
+
+        cache.invalidate();
+        assertEquals("dist-2", cache.getDistributions(cfClient, "bucket-1").get(0).getId());
+        assertEquals("dist-2", cache.getDistributions(cfClient, "bucket-1").get(0).getId());
+    }
+
+    @Test
+    public void testTimeToLive() {
+        expectListing(createDist("dist-1", "bucket-1"));
+        expectListing(createDist("dist-2", "bucket-1"));
+        EasyMock.replay(cfClient);
+
+        assertEquals("dist-1", cache.getDistributions(cfClient, "bucket-1").get(0).getId());
+        now.addAndGet(TTL_MILLIS - 1);
+        assertEquals("dist-1", cache.getDistributions(cfClient, "bucket-1").get(0).getId());
+
+        now.addAndGet(1);
+        assertEquals("dist-2", cache.getDistributions(cfClient, "bucket-1").get(0).getId());
+    }
+
+}
@@ -0,0 +1,241 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.s3task.streaming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
+import com.amazonaws.services.cloudfront.model.DeleteStreamingDistributionRequest;
+import com.amazonaws.services.cloudfront.model.DeleteStreamingDistributionResult;
+import com.amazonaws.services.cloudfront.model.GetStreamingDistributionConfigRequest;
+import com.amazonaws.services.cloudfront.model.GetStreamingDistributionConfigResult;
+import com.amazonaws.services.cloudfront.model.ListStreamingDistributionsRequest;
+import com.amazonaws.services.cloudfront.model.ListStreamingDistributionsResult;
+import com.amazonaws.services.cloudfront.model.StreamingDistributionList;
+import com.amazonaws.services.cloudfront.model.StreamingDistributionSummary;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the streaming distribution watcher, with checks made directly
+ * against a virtual clock rather than on a schedule.
+ */
+public class StreamingDistributionWatcherTest {
+
+    private static final long TIMEOUT = 60000;
+
+    private AmazonCloudFrontClient cfClient;
+    private File stateFile;
+    private final AtomicLong clock = new AtomicLong(1000);
+    private final List<Runnable> deletes = new ArrayList<>();
+    private final Map<String, Exception> completed = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        cfClient = EasyMock.createMock(AmazonCloudFrontClient.class);
+        stateFile = new File("target", "streaming-deletes-" + System.nanoTime());
+    }
+
+    @After
+    public void tearDown() {
+        EasyMock.verify(cfClient);
+        stateFile.delete();
+    }
+
+    private StreamingDistributionWatcher createWatcher() {
+        return new StreamingDistributionWatcher(cfClient, stateFile,
+                                                completed::put, 0, TIMEOUT,
+                                                deletes::add, clock::get);
+    }
+
+    private void runDeletes() {
+        List<Runnable> tasks = new ArrayList<>(deletes);
+        deletes.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private StreamingDistributionSummary dist(String id, String status, boolean enabled) {
+        return new StreamingDistributionSummary().withId(id)
+                                                 .withStatus(status)
+                                                 .withEnabled(enabled);
+    }
+
+    private void expectList(boolean truncated, StreamingDistributionSummary... dists) {
+        ListStreamingDistributionsResult result =
+            new ListStreamingDistributionsResult()
+                .withStreamingDistributionList(
+                    new StreamingDistributionList()
+                        .withItems(Arrays.asList(dists))
+                        .withIsTruncated(truncated)
+                        .withNextMarker("marker"));
+        EasyMock
+            .expect(cfClient.listStreamingDistributions(
+                EasyMock.isA(ListStreamingDistributionsRequest.class)))
+            .andReturn(result)
+            .once();
+    }
+
+    private void expectDelete(int times) {
+        EasyMock
+            .expect(cfClient.getStreamingDistributionConfig(
+                EasyMock.isA(GetStreamingDistributionConfigRequest.class)))
+            .andReturn(new GetStreamingDistributionConfigResult().withETag("etag"))
+            .times(times);
+        EasyMock
+            .expect(cfClient.deleteStreamingDistribution(
+                EasyMock.isA(DeleteStreamingDistributionRequest.class)))
+            .andReturn(new DeleteStreamingDistributionResult())
+            .times(times);
+    }
+
+    @Test
+    public void testDeleteWhenDisabled() {
+        // Both distributions are checked from one (paged) listing
+        expectList(true, dist("other", "Deployed", true), dist("dist1", "InProgress", false));
+        expectList(false, dist("dist2", "Deployed", false));
+        // Only the distribution still waiting is listed for
+        expectList(false, dist("dist1", "Deployed", false));
+        expectDelete(2);
+        EasyMock.replay(cfClient);
+
+        StreamingDistributionWatcher watcher = createWatcher();
+        List<String> callbackIds = new ArrayList<>();
+        watcher.watchDelete("dist1", (distId, error) -> callbackIds.add(distId));
+        watcher.watchDelete("dist2");
+
+        watcher.checkPending();
+        runDeletes();
+        assertEquals(Collections.singletonList("dist1"), watcher.getPendingIds());
+        assertTrue(completed.containsKey("dist2"));
+        assertNull(completed.get("dist2"));
+        assertTrue(callbackIds.isEmpty());
+
+        watcher.checkPending();
+        runDeletes();
+        assertTrue(watcher.getPendingIds().isEmpty());
+        assertEquals(Collections.singletonList("dist1"), callbackIds);
+
+        // Nothing is waiting, so nothing is listed
+        watcher.checkPending();
+    }
+
+    @Test
+    public void testDeleteInProgress() {
+        expectList(false, dist("dist1", "Deployed", false));
+        expectDelete(1);
+        EasyMock.replay(cfClient);
+
+        StreamingDistributionWatcher watcher = createWatcher();
+        watcher.watchDelete("dist1");
+
+        // A distribution being deleted is not checked or deleted again
+        watcher.checkPending();
+        watcher.checkPending();
+        assertEquals(1, deletes.size());
+
+        runDeletes();
+        assertTrue(watcher.getPendingIds().isEmpty());
+        assertNull(completed.get("dist1"));
+    }
+
+    @Test
+    public void testAlreadyDeleted() {
+        expectList(false, dist("other", "Deployed", false));
+        EasyMock.replay(cfClient);
+
+        StreamingDistributionWatcher watcher = createWatcher();
+        watcher.watchDelete("dist1");
+        watcher.checkPending();
+
+        assertTrue(watcher.getPendingIds().isEmpty());
+        assertTrue(completed.containsKey("dist1"));
+        assertNull(completed.get("dist1"));
+        assertTrue(deletes.isEmpty());
+    }
+
+    @Test
+    public void testTimeout() {
+        expectList(false, dist("dist1", "InProgress", false));
+        expectList(false, dist("dist1", "InProgress", false));
+        EasyMock.replay(cfClient);
+
+        StreamingDistributionWatcher watcher = createWatcher();
+        watcher.watchDelete("dist1");
+
+        clock.addAndGet(TIMEOUT - 1);
+        watcher.checkPending();
+        assertEquals(Collections.singletonList("dist1"), watcher.getPendingIds());
+
+        clock.addAndGet(1);
+        watcher.checkPending();
+        assertTrue(watcher.getPendingIds().isEmpty());
+        assertNotNull(completed.get("dist1"));
+        assertTrue(deletes.isEmpty());
+    }
+
+    @Test
+    public void testResume() {
+        expectList(false, dist("dist1", "Deployed", false), dist("dist2", "InProgress", false));
+        expectDelete(1);
+        EasyMock.replay(cfClient);
+
+        StreamingDistributionWatcher watcher = createWatcher();
+        watcher.watchDelete("dist1");
+        watcher.watchDelete("dist2");
+
+        // A new watcher (as after a restart) continues the waiting deletes
+        StreamingDistributionWatcher resumed = createWatcher();
+        assertEquals(new HashSet<>(Arrays.asList("dist1", "dist2")),
+                     new HashSet<>(resumed.getPendingIds()));
+
+        resumed.checkPending();
+        runDeletes();
+        assertNull(completed.get("dist1"));
+
+        assertEquals(Collections.singletonList("dist2"),
+                     createWatcher().getPendingIds());
+    }
+
+    @Test
+    public void testSetCloudFrontClient() {
+        EasyMock.replay(cfClient);
+
+        StreamingDistributionWatcher watcher = createWatcher();
+        watcher.watchDelete("dist1");
+
+        // Checks and deletes use the replacement client
+        AmazonCloudFrontClient oldClient = cfClient;
+        cfClient = EasyMock.createMock(AmazonCloudFrontClient.class);
+        expectList(false, dist("dist1", "Deployed", false));
+        expectDelete(1);
+        EasyMock.replay(cfClient);
+        watcher.setCloudFrontClient(cfClient);
+
+        watcher.checkPending();
+        runDeletes();
+        assertTrue(watcher.getPendingIds().isEmpty());
+        assertNull(completed.get("dist1"));
+        EasyMock.verify(oldClient);
+    }
+
+}
@@ -46,7 +46,9 @@ public class UserDetailsServiceCache extends AbstractAccountComponentCache<Durac
                 eventType.equals(EventType.ACCOUNT_CHANGED)) {
                 remove(accountId);
             }
-        } else if (eventType.equals(EventType.ALL_ACCOUNTS_CHANGED)) {
+        } else if (eventType.equals(EventType.ALL_ACCOUNTS_CHANGED) ||
+                   eventType.equals(EventType.ROOT_USERS_CHANGED)) {
+            // Root users are among the users of every account
             removeAll();
         }
     }
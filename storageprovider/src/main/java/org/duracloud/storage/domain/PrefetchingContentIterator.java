@@ -0,0 +1,68 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.domain;
+
+import java.util.List;
+
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.PrefetchingPageIterator;
+
+/**
+ * Iterates over the content IDs in a space, retrieving the next page of IDs
+ * in the background while the current page is being consumed.
+ *
+ * @see PrefetchingPageIterator
+ */
+public class PrefetchingContentIterator extends PrefetchingPageIterator<String> {
+
+    public static final int DEFAULT_PREFETCH_DEPTH = 1;
+
+    public PrefetchingContentIterator(StorageProvider provider,
+                                      String spaceId,
+                                      String prefix) {
+        this(provider, spaceId, prefix, StorageProvider.DEFAULT_MAX_RESULTS,
+             DEFAULT_PREFETCH_DEPTH);
+    }
+
+    /**
+     * The first page is retrieved before the constructor returns, so errors
+     * such as a missing space are thrown from here.
+     *
+     * @param provider      provider of the space contents
+     * @param spaceId       space to iterate over
+     * @param prefix        only IDs starting with this prefix are included,
+     *                      may be null
+     * @param maxResults    number of IDs to retrieve in each page
+     * @param prefetchDepth number of pages to retrieve ahead of the page
+     *                      being consumed
+     */
+    public PrefetchingContentIterator(StorageProvider provider,
+                                      String spaceId,
+                                      String prefix,
+                                      long maxResults,
+                                      int prefetchDepth) {
+        super(getFirstPage(provider, spaceId, prefix, maxResults, prefetchDepth),
+              marker -> provider.getSpaceContentsChunked(spaceId, prefix,
+                                                         maxResults, marker),
+              prefetchDepth,
+              "space " + spaceId);
+    }
+
+    private static List<String> getFirstPage(StorageProvider provider,
+                                             String spaceId,
+                                             String prefix,
+                                             long maxResults,
+                                             int prefetchDepth) {
+        if (maxResults <= 0 || prefetchDepth <= 0) {
+            throw new IllegalArgumentException(
+                "Max results and prefetch depth must be greater than 0");
+        }
+        return provider.getSpaceContentsChunked(spaceId, prefix, maxResults, null);
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.domain;
+
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * A content item as retrieved from a storage provider: the content stream
+ * along with the properties of the content.
+ */
+public class RetrievedContent {
+
+    private InputStream contentStream;
+    private Map<String, String> contentProperties;
+
+    public RetrievedContent(InputStream contentStream,
+                            Map<String, String> contentProperties) {
+        this.contentStream = contentStream;
+        this.contentProperties = contentProperties;
+    }
+
+    public InputStream getContentStream() {
+        return contentStream;
+    }
+
+    public Map<String, String> getContentProperties() {
+        return contentProperties;
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.error;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Exception thrown when the removal of a set of content items fails part of
+ * the way through. The items which may not have been removed (those which
+ * failed, and those which were not attempted) are listed, all other items
+ * were removed.
+ */
+public class DeleteContentsException extends StorageException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> undeletedContentIds;
+
+    public DeleteContentsException(String message,
+                                   Throwable throwable,
+                                   boolean retry,
+                                   List<String> undeletedContentIds) {
+        super(message, throwable, retry);
+        this.undeletedContentIds = new ArrayList<>(undeletedContentIds);
+    }
+
+    /**
+     * @return IDs of the content items which may not have been removed
+     */
+    public List<String> getUndeletedContentIds() {
+        return Collections.unmodifiableList(undeletedContentIds);
+    }
+
+}
@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 
@@ -103,6 +104,15 @@ public class BrokeredStorageProvider
                                            contentId);
     }
 
+    @Override
+    public RetrievedContent getContentWithProperties(String spaceId,
+                                                     String contentId) {
+        return dispatchProvider.getContentWithProperties(targetProvider,
+                                                         storeId,
+                                                         spaceId,
+                                                         contentId);
+    }
+
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId)
         throws StorageException {
@@ -168,4 +178,83 @@ public class BrokeredStorageProvider
                                       spaceACLs);
     }
 
+    @Override
+    public boolean supportsRangeRetrieval() {
+        return dispatchProvider.supportsRangeRetrieval(targetProvider);
+    }
+
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        return dispatchProvider.getContent(targetProvider,
+                                           storeId,
+                                           spaceId,
+                                           contentId,
+                                           startByte,
+                                           endByte);
+    }
+
+    @Override
+    public boolean supportsMultipartUpload() {
+        return dispatchProvider.supportsMultipartUpload(targetProvider);
+    }
+
+    @Override
+    public String startMultipartUpload(String spaceId,
+                                       String contentId,
+                                       String contentMimeType,
+                                       Map<String, String> userProperties,
+                                       String contentChecksum) {
+        return dispatchProvider.startMultipartUpload(targetProvider,
+                                                     storeId,
+                                                     spaceId,
+                                                     contentId,
+                                                     contentMimeType,
+                                                     userProperties,
+                                                     contentChecksum);
+    }
+
+    @Override
+    public String addContentPart(String spaceId,
+                                 String contentId,
+                                 String uploadId,
+                                 int partNumber,
+                                 long partSize,
+                                 InputStream part) {
+        return dispatchProvider.addContentPart(targetProvider,
+                                               storeId,
+                                               spaceId,
+                                               contentId,
+                                               uploadId,
+                                               partNumber,
+                                               partSize,
+                                               part);
+    }
+
+    @Override
+    public String completeMultipartUpload(String spaceId,
+                                          String contentId,
+                                          String uploadId,
+                                          List<String> partChecksums) {
+        return dispatchProvider.completeMultipartUpload(targetProvider,
+                                                        storeId,
+                                                        spaceId,
+                                                        contentId,
+                                                        uploadId,
+                                                        partChecksums);
+    }
+
+    @Override
+    public void abortMultipartUpload(String spaceId,
+                                     String contentId,
+                                     String uploadId) {
+        dispatchProvider.abortMultipartUpload(targetProvider,
+                                              storeId,
+                                              spaceId,
+                                              contentId,
+                                              uploadId);
+    }
+
 }
@@ -11,12 +11,14 @@ import java.io.InputStream;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.duracloud.common.model.AclType;
 import org.duracloud.common.util.metrics.Metric;
-import org.duracloud.common.util.metrics.MetricException;
 import org.duracloud.common.util.metrics.MetricsProbed;
 import org.duracloud.common.util.metrics.MetricsTable;
+import org.duracloud.common.util.metrics.OperationMetrics;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 
@@ -24,6 +26,12 @@ import org.duracloud.storage.error.StorageException;
  * This class wraps a StorageProvider implementation, collecting timing metrics
  * while passing calls down.
  *
+ * The latency and error count of every call are recorded in an
+ * OperationMetrics, which may be shared by many threads. When a MetricsTable
+ * has been set, each call is also added to that table, along with the calls
+ * made within the probed core; as MetricsTables are not thread-safe, this
+ * should only be done from a single thread, as in tests.
+ *
  * @author Andrew Woods
  */
 public abstract class ProbedStorageProvider
@@ -35,12 +43,43 @@ public abstract class ProbedStorageProvider
 
     protected Metric metric;
 
+    protected OperationMetrics operationMetrics =
+        new OperationMetrics(getClass().getSimpleName());
+
     abstract protected MetricsProbed getProbedCore();
 
+    /**
+     * Passes a call down to the wrapped provider, recording its timing.
+     */
+    protected <T> T probe(String methodName, Supplier<T> call) {
+        startMetric(methodName);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            operationMetrics.record(methodName, System.nanoTime() - start, failed);
+            stopMetric(methodName);
+        }
+    }
+
+    protected void probe(String methodName, Runnable call) {
+        probe(methodName, () -> {
+            call.run();
+            return null;
+        });
+    }
+
     protected void startMetric(String methodName) {
+        if (metricsTable == null) {
+            return;
+        }
+
         if (metric == null) {
             metric = new Metric(getClass().getName(), methodName);
-            getMetricsTable().addMetric(metric);
+            metricsTable.addMetric(metric);
         } else {
             metric.addElement(methodName);
         }
@@ -54,7 +93,9 @@ public abstract class ProbedStorageProvider
     }
 
     protected void stopMetric(String methodName) {
-        metric.stop(methodName);
+        if (metric != null) {
+            metric.stop(methodName);
+        }
     }
 
     public void setMetricsTable(MetricsTable metricsTable) {
@@ -62,11 +103,16 @@ public abstract class ProbedStorageProvider
         this.metric = null;
     }
 
-    private MetricsTable getMetricsTable() {
-        if (this.metricsTable == null) {
-            throw new RuntimeException(new MetricException("Metrics table has not been set."));
-        }
-        return this.metricsTable;
+    public OperationMetrics getOperationMetrics() {
+        return operationMetrics;
+    }
+
+    /**
+     * Allows the metrics of several instances wrapping the same provider to
+     * be collected together.
+     */
+    public void setOperationMetrics(OperationMetrics operationMetrics) {
+        this.operationMetrics = operationMetrics;
     }
 
     protected void setStorageProvider(StorageProvider storageProvider) {
@@ -75,10 +121,8 @@ public abstract class ProbedStorageProvider
 
     @Override
     public StorageProviderType getStorageProviderType() {
-        startMetric("getStorageProviderType");
-        StorageProviderType type = storageProvider.getStorageProviderType();
-        stopMetric("getStorageProviderType");
-        return type;
+        return probe("getStorageProviderType", () ->
+            storageProvider.getStorageProviderType());
     }
 
     public String addContent(String spaceId,
@@ -88,16 +132,14 @@ public abstract class ProbedStorageProvider
                              long contentSize,
                              String contentChecksum,
                              InputStream content) throws StorageException {
-        startMetric("addContent");
-        String result = storageProvider.addContent(spaceId,
-                                                   contentId,
-                                                   contentMimeType,
-                                                   userProperties,
-                                                   contentSize,
-                                                   contentChecksum,
-                                                   content);
-        stopMetric("addContent");
-        return result;
+        return probe("addContent", () ->
+            storageProvider.addContent(spaceId,
+                                       contentId,
+                                       contentMimeType,
+                                       userProperties,
+                                       contentSize,
+                                       contentChecksum,
+                                       content));
     }
 
     @Override
@@ -105,59 +147,58 @@ public abstract class ProbedStorageProvider
                               String sourceContentId,
                               String destSpaceId,
                               String destContentId) {
-        startMetric("copyContent");
-        String result = storageProvider.copyContent(sourceSpaceId,
-                                                    sourceContentId,
-                                                    destSpaceId,
-                                                    destContentId);
-        stopMetric("copyContent");
-        return result;
+        return probe("copyContent", () ->
+            storageProvider.copyContent(sourceSpaceId,
+                                        sourceContentId,
+                                        destSpaceId,
+                                        destContentId));
     }
 
     public void createSpace(String spaceId) throws StorageException {
-        startMetric("createSpace");
-        storageProvider.createSpace(spaceId);
-        stopMetric("createSpace");
+        probe("createSpace", () -> storageProvider.createSpace(spaceId));
     }
 
     public void deleteContent(String spaceId, String contentId)
         throws StorageException {
-        startMetric("deleteContent");
-        storageProvider.deleteContent(spaceId, contentId);
-        stopMetric("deleteContent");
+        probe("deleteContent", () ->
+            storageProvider.deleteContent(spaceId, contentId));
+    }
+
+    @Override
+    public void deleteContents(String spaceId, List<String> contentIds)
+        throws StorageException {
+        probe("deleteContents", () ->
+            storageProvider.deleteContents(spaceId, contentIds));
     }
 
     public void deleteSpace(String spaceId) throws StorageException {
-        startMetric("deleteSpace");
-        storageProvider.deleteSpace(spaceId);
-        stopMetric("deleteSpace");
+        probe("deleteSpace", () -> storageProvider.deleteSpace(spaceId));
     }
 
     public InputStream getContent(String spaceId, String contentId)
         throws StorageException {
-        startMetric("getContent");
-        InputStream result = storageProvider.getContent(spaceId, contentId);
-        stopMetric("getContent");
-        return result;
+        return probe("getContent", () ->
+            storageProvider.getContent(spaceId, contentId));
+    }
+
+    @Override
+    public RetrievedContent getContentWithProperties(String spaceId,
+                                                     String contentId) {
+        return probe("getContentWithProperties", () ->
+            storageProvider.getContentWithProperties(spaceId, contentId));
     }
 
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId)
         throws StorageException {
-        startMetric("getContentProperties");
-        Map<String, String> result =
-            storageProvider.getContentProperties(spaceId, contentId);
-        stopMetric("getContentProperties");
-        return result;
+        return probe("getContentProperties", () ->
+            storageProvider.getContentProperties(spaceId, contentId));
     }
 
     public Iterator<String> getSpaceContents(String spaceId, String prefix)
         throws StorageException {
-        startMetric("getSpaceContents");
-        Iterator<String> result =
-            storageProvider.getSpaceContents(spaceId, prefix);
-        stopMetric("getSpaceContents");
-        return result;
+        return probe("getSpaceContents", () ->
+            storageProvider.getSpaceContents(spaceId, prefix));
     }
 
     public List<String> getSpaceContentsChunked(String spaceId,
@@ -165,54 +206,112 @@ public abstract class ProbedStorageProvider
                                                 long maxResults,
                                                 String marker)
         throws StorageException {
-        startMetric("getSpaceContents");
-        List<String> result = storageProvider.getSpaceContentsChunked(spaceId,
-                                                                      prefix,
-                                                                      maxResults,
-                                                                      marker);
-        stopMetric("getSpaceContents");
-        return result;
+        return probe("getSpaceContents", () ->
+            storageProvider.getSpaceContentsChunked(spaceId,
+                                                    prefix,
+                                                    maxResults,
+                                                    marker));
     }
 
     public Map<String, String> getSpaceProperties(String spaceId)
         throws StorageException {
-        startMetric("getSpaceProperties");
-        Map<String, String> result = storageProvider.getSpaceProperties(spaceId);
-        stopMetric("getSpaceProperties");
-        return result;
+        return probe("getSpaceProperties", () ->
+            storageProvider.getSpaceProperties(spaceId));
     }
 
     public Iterator<String> getSpaces() throws StorageException {
-        startMetric("getSpaces");
-        Iterator<String> result = storageProvider.getSpaces();
-        stopMetric("getSpaces");
-        return result;
+        return probe("getSpaces", () -> storageProvider.getSpaces());
     }
 
     public void setContentProperties(String spaceId,
                                      String contentId,
                                      Map<String, String> contentProperties)
         throws StorageException {
-        startMetric("setContentProperties");
-        storageProvider.setContentProperties(spaceId,
-                                             contentId,
-                                             contentProperties);
-        stopMetric("setContentProperties");
+        probe("setContentProperties", () ->
+            storageProvider.setContentProperties(spaceId,
+                                                 contentId,
+                                                 contentProperties));
     }
 
     @Override
     public Map<String, AclType> getSpaceACLs(String spaceId) {
-        startMetric("getSpaceACLs");
-        Map<String, AclType> result = storageProvider.getSpaceACLs(spaceId);
-        stopMetric("getSpaceACLs");
-        return result;
+        return probe("getSpaceACLs", () ->
+            storageProvider.getSpaceACLs(spaceId));
     }
 
     @Override
     public void setSpaceACLs(String spaceId, Map<String, AclType> spaceACLs) {
-        startMetric("setSpaceACLs");
-        storageProvider.setSpaceACLs(spaceId, spaceACLs);
-        stopMetric("setSpaceACLs");
+        probe("setSpaceACLs", () ->
+            storageProvider.setSpaceACLs(spaceId, spaceACLs));
+    }
+
+    @Override
+    public boolean supportsRangeRetrieval() {
+        return storageProvider.supportsRangeRetrieval();
+    }
+
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        return probe("getContent", () ->
+            storageProvider.getContent(spaceId, contentId, startByte, endByte));
+    }
+
+    @Override
+    public boolean supportsMultipartUpload() {
+        return storageProvider.supportsMultipartUpload();
+    }
+
+    @Override
+    public String startMultipartUpload(String spaceId,
+                                       String contentId,
+                                       String contentMimeType,
+                                       Map<String, String> userProperties,
+                                       String contentChecksum) {
+        return probe("startMultipartUpload", () ->
+            storageProvider.startMultipartUpload(spaceId,
+                                                 contentId,
+                                                 contentMimeType,
+                                                 userProperties,
+                                                 contentChecksum));
+    }
+
+    @Override
+    public String addContentPart(String spaceId,
+                                 String contentId,
+                                 String uploadId,
+                                 int partNumber,
+                                 long partSize,
+                                 InputStream part) {
+        return probe("addContentPart", () ->
+            storageProvider.addContentPart(spaceId,
+                                           contentId,
+                                           uploadId,
+                                           partNumber,
+                                           partSize,
+                                           part));
+    }
+
+    @Override
+    public String completeMultipartUpload(String spaceId,
+                                          String contentId,
+                                          String uploadId,
+                                          List<String> partChecksums) {
+        return probe("completeMultipartUpload", () ->
+            storageProvider.completeMultipartUpload(spaceId,
+                                                    contentId,
+                                                    uploadId,
+                                                    partChecksums));
+    }
+
+    @Override
+    public void abortMultipartUpload(String spaceId,
+                                     String contentId,
+                                     String uploadId) {
+        probe("abortMultipartUpload", () ->
+            storageProvider.abortMultipartUpload(spaceId, contentId, uploadId));
     }
 
 }
@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 
@@ -108,4 +109,56 @@ public interface StatelessStorageProvider {
                                       Map<String, AclType> spaceACLs)
         throws StorageException;
 
-}
\ No newline at end of file
+    public RetrievedContent getContentWithProperties(StorageProvider targetProvider,
+                                                     String storeId,
+                                                     String spaceId,
+                                                     String contentId)
+        throws StorageException;
+
+    public boolean supportsRangeRetrieval(StorageProvider targetProvider);
+
+    public InputStream getContent(StorageProvider targetProvider,
+                                  String storeId,
+                                  String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte)
+        throws StorageException;
+
+    public boolean supportsMultipartUpload(StorageProvider targetProvider);
+
+    public String startMultipartUpload(StorageProvider targetProvider,
+                                       String storeId,
+                                       String spaceId,
+                                       String contentId,
+                                       String contentMimeType,
+                                       Map<String, String> userProperties,
+                                       String contentChecksum)
+        throws StorageException;
+
+    public String addContentPart(StorageProvider targetProvider,
+                                 String storeId,
+                                 String spaceId,
+                                 String contentId,
+                                 String uploadId,
+                                 int partNumber,
+                                 long partSize,
+                                 InputStream part)
+        throws StorageException;
+
+    public String completeMultipartUpload(StorageProvider targetProvider,
+                                          String storeId,
+                                          String spaceId,
+                                          String contentId,
+                                          String uploadId,
+                                          List<String> partChecksums)
+        throws StorageException;
+
+    public void abortMultipartUpload(StorageProvider targetProvider,
+                                     String storeId,
+                                     String spaceId,
+                                     String contentId,
+                                     String uploadId)
+        throws StorageException;
+
+}
@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 
@@ -98,6 +99,18 @@ public class StatelessStorageProviderImpl
         return targetProvider.getContent(spaceId, contentId);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RetrievedContent getContentWithProperties(StorageProvider targetProvider,
+                                                     String storeId,
+                                                     String spaceId,
+                                                     String contentId)
+        throws StorageException {
+        return targetProvider.getContentWithProperties(spaceId, contentId);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -183,4 +196,83 @@ public class StatelessStorageProviderImpl
         targetProvider.setSpaceACLs(spaceId, spaceACLs);
     }
 
+    @Override
+    public boolean supportsRangeRetrieval(StorageProvider targetProvider) {
+        return targetProvider.supportsRangeRetrieval();
+    }
+
+    @Override
+    public InputStream getContent(StorageProvider targetProvider,
+                                  String storeId,
+                                  String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte)
+        throws StorageException {
+        return targetProvider.getContent(spaceId, contentId, startByte, endByte);
+    }
+
+    @Override
+    public boolean supportsMultipartUpload(StorageProvider targetProvider) {
+        return targetProvider.supportsMultipartUpload();
+    }
+
+    @Override
+    public String startMultipartUpload(StorageProvider targetProvider,
+                                       String storeId,
+                                       String spaceId,
+                                       String contentId,
+                                       String contentMimeType,
+                                       Map<String, String> userProperties,
+                                       String contentChecksum)
+        throws StorageException {
+        return targetProvider.startMultipartUpload(spaceId,
+                                                   contentId,
+                                                   contentMimeType,
+                                                   userProperties,
+                                                   contentChecksum);
+    }
+
+    @Override
+    public String addContentPart(StorageProvider targetProvider,
+                                 String storeId,
+                                 String spaceId,
+                                 String contentId,
+                                 String uploadId,
+                                 int partNumber,
+                                 long partSize,
+                                 InputStream part)
+        throws StorageException {
+        return targetProvider.addContentPart(spaceId,
+                                             contentId,
+                                             uploadId,
+                                             partNumber,
+                                             partSize,
+                                             part);
+    }
+
+    @Override
+    public String completeMultipartUpload(StorageProvider targetProvider,
+                                          String storeId,
+                                          String spaceId,
+                                          String contentId,
+                                          String uploadId,
+                                          List<String> partChecksums)
+        throws StorageException {
+        return targetProvider.completeMultipartUpload(spaceId,
+                                                      contentId,
+                                                      uploadId,
+                                                      partChecksums);
+    }
+
+    @Override
+    public void abortMultipartUpload(StorageProvider targetProvider,
+                                     String storeId,
+                                     String spaceId,
+                                     String contentId,
+                                     String uploadId)
+        throws StorageException {
+        targetProvider.abortMultipartUpload(spaceId, contentId, uploadId);
+    }
+
 }
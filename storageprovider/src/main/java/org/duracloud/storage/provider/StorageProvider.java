@@ -15,9 +15,12 @@ import java.util.List;
 import java.util.Map;
 
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.DeleteContentsException;
 import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.StorageException;
+import org.duracloud.storage.util.ContentRangeInputStream;
 
 /**
  * A Storage Provider provides services which allow content to be
@@ -235,6 +238,37 @@ public interface StorageProvider {
     public void deleteContent(String spaceId,
                               String contentId);
 
+    /**
+     * Removes a set of content items from a space. Content items which do
+     * not exist are skipped rather than reported. Providers which are able to
+     * remove several items with a single call to the underlying storage
+     * system should override this method, the default removes the items one
+     * at a time.
+     *
+     * @param spaceId    - ID of the space
+     * @param contentIds - IDs of the content items in the space
+     * @throws DeleteContentsException if errors occur after some of the
+     *                                 items may have been removed
+     * @throws StorageException        if errors occur
+     */
+    public default void deleteContents(String spaceId,
+                                       List<String> contentIds) {
+        for (int i = 0; i < contentIds.size(); i++) {
+            try {
+                deleteContent(spaceId, contentIds.get(i));
+            } catch (NotFoundException e) {
+                // Already gone
+            } catch (RuntimeException e) {
+                boolean retry = e instanceof StorageException &&
+                                ((StorageException) e).isRetry();
+                throw new DeleteContentsException(
+                    "Could not delete content " + contentIds.get(i) +
+                    " from space " + spaceId + " due to error: " + e.getMessage(),
+                    e, retry, contentIds.subList(i, contentIds.size()));
+            }
+        }
+    }
+
     /**
      * Sets the properties associated with content. This effectively
      * removes all of the current content properties and adds a new
@@ -278,4 +312,144 @@ public interface StorageProvider {
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId);
 
+    /**
+     * Gets content from a space along with the properties of that content.
+     * Providers which are able to retrieve both with a single call to the
+     * underlying storage system should override this method, the default
+     * retrieves the properties and the content separately.
+     *
+     * @param spaceId   - ID of the space
+     * @param contentId - ID of the content in the space
+     * @return the content stream and content properties
+     * @throws NotFoundException if space with ID spaceId does not exist or the
+     *                           content item with ID contentId does not exist
+     * @throws StorageException  if errors occur
+     */
+    public default RetrievedContent getContentWithProperties(String spaceId,
+                                                             String contentId) {
+        Map<String, String> properties = getContentProperties(spaceId, contentId);
+        return new RetrievedContent(getContent(spaceId, contentId), properties);
+    }
+
+    /**
+     * Indicates whether this provider is able to retrieve a byte range of a
+     * content item without reading the bytes which precede that range.
+     *
+     * @return true if ranged retrieval is handled natively by the provider
+     */
+    public default boolean supportsRangeRetrieval() {
+        return false;
+    }
+
+    /**
+     * Gets a byte range of a content item. Providers which do not support
+     * ranged retrieval natively fall back to reading and discarding the
+     * bytes which precede the range.
+     *
+     * @param spaceId   - ID of the space
+     * @param contentId - ID of the content in the space
+     * @param startByte - offset of the first byte to retrieve
+     * @param endByte   - offset of the last byte to retrieve (inclusive)
+     * @return stream providing the requested range of the content
+     * @throws NotFoundException if space with ID spaceId does not exist or the
+     *                           content item with ID contentId does not exist
+     * @throws StorageException  if errors occur
+     */
+    public default InputStream getContent(String spaceId,
+                                          String contentId,
+                                          long startByte,
+                                          long endByte) {
+        return new ContentRangeInputStream(getContent(spaceId, contentId),
+                                           startByte,
+                                           endByte);
+    }
+
+    /**
+     * Indicates whether this provider is able to assemble a content item from
+     * parts which are uploaded independently of each other.
+     *
+     * @return true if the multipart upload methods are supported
+     */
+    public default boolean supportsMultipartUpload() {
+        return false;
+    }
+
+    /**
+     * Begins a multipart upload of a content item. The content item does not
+     * become available until the upload is completed.
+     *
+     * @param spaceId         - ID of the space
+     * @param contentId       - ID of the content in the space
+     * @param contentMimeType - the MIME type of the content being added
+     * @param userProperties  - the metadata associated with the content
+     * @param contentChecksum - the MD5 checksum of the complete content
+     * @return ID of the upload, used to add parts to the upload
+     * @throws NotFoundException if space with ID spaceId does not exist
+     * @throws StorageException  if errors occur
+     */
+    public default String startMultipartUpload(String spaceId,
+                                               String contentId,
+                                               String contentMimeType,
+                                               Map<String, String> userProperties,
+                                               String contentChecksum) {
+        throw new UnsupportedOperationException(
+            "Multipart upload is not supported by " + getStorageProviderType());
+    }
+
+    /**
+     * Adds one part of a multipart upload. Parts may be added in any order
+     * and in parallel. Adding a part a second time replaces the earlier copy.
+     *
+     * @param spaceId    - ID of the space
+     * @param contentId  - ID of the content in the space
+     * @param uploadId   - ID of the upload, as provided by startMultipartUpload
+     * @param partNumber - position of the part in the content item, from 1
+     * @param partSize   - size (in bytes) of the part
+     * @param part       - content of the part
+     * @return The MD5 checksum of the part
+     * @throws StorageException if errors occur
+     */
+    public default String addContentPart(String spaceId,
+                                         String contentId,
+                                         String uploadId,
+                                         int partNumber,
+                                         long partSize,
+                                         InputStream part) {
+        throw new UnsupportedOperationException(
+            "Multipart upload is not supported by " + getStorageProviderType());
+    }
+
+    /**
+     * Completes a multipart upload, assembling the parts into the content item.
+     *
+     * @param spaceId       - ID of the space
+     * @param contentId     - ID of the content in the space
+     * @param uploadId      - ID of the upload, as provided by startMultipartUpload
+     * @param partChecksums - MD5 checksums of the parts, in part number order
+     * @return The MD5 checksum of the assembled content item
+     * @throws StorageException if errors occur
+     */
+    public default String completeMultipartUpload(String spaceId,
+                                                  String contentId,
+                                                  String uploadId,
+                                                  List<String> partChecksums) {
+        throw new UnsupportedOperationException(
+            "Multipart upload is not supported by " + getStorageProviderType());
+    }
+
+    /**
+     * Abandons a multipart upload, removing any parts which have been added.
+     *
+     * @param spaceId   - ID of the space
+     * @param contentId - ID of the content in the space
+     * @param uploadId  - ID of the upload, as provided by startMultipartUpload
+     * @throws StorageException if errors occur
+     */
+    public default void abortMultipartUpload(String spaceId,
+                                             String contentId,
+                                             String uploadId) {
+        throw new UnsupportedOperationException(
+            "Multipart upload is not supported by " + getStorageProviderType());
+    }
+
 }
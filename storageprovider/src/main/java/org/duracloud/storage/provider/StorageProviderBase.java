@@ -9,11 +9,14 @@ package org.duracloud.storage.provider;
 
 import static org.duracloud.storage.error.StorageException.NO_RETRY;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.duracloud.common.model.AclType;
 import org.duracloud.storage.error.NotFoundException;
@@ -34,9 +37,25 @@ public abstract class StorageProviderBase implements StorageProvider {
     protected static final String ACL_GROUP_WRITE = "acl-group-write";
     protected static final String ACL_DELIM = ":";
 
+    /*
+     * How long the result of a space existence check is reused. Spaces found
+     * to exist are cached for longer than spaces found missing; a missing
+     * space is only cached to avoid waiting for it to appear again and again.
+     */
+    protected static final long SPACE_EXISTS_TTL_MILLIS = 10000;
+    protected static final long SPACE_MISSING_TTL_MILLIS = 5000;
+    private static final int MAX_CACHED_SPACES = 1000;
+
+    // Number of content items passed to each deleteContents call when a
+    // space is deleted
+    protected static final int DELETE_BATCH_SIZE = 1000;
+
     protected final Logger log = LoggerFactory.getLogger(StorageProviderBase.class);
     private StorageProvider wrappedStorageProvider;
 
+    // Space ID -> (time at which the entry expires, negated if space missing)
+    private final Map<String, Long> spaceExistsCache = new ConcurrentHashMap<>();
+
     protected abstract boolean spaceExists(String spaceId);
 
     protected abstract void removeSpace(String spaceId);
@@ -265,20 +284,73 @@ public abstract class StorageProviderBase implements StorageProvider {
         throwIfSpaceNotExist(spaceId, true);
     }
 
+    /**
+     * Throws if the space does not exist. A space which has been found to
+     * exist within the last SPACE_EXISTS_TTL_MILLIS is not checked again. A
+     * space which has been found missing within the last
+     * SPACE_MISSING_TTL_MILLIS is checked again, but without waiting for it
+     * to become available.
+     *
+     * @param spaceId ID of the space
+     * @param wait    true to wait a short time for a new space to be available
+     */
     protected void throwIfSpaceNotExist(String spaceId, boolean wait) {
-        if (!spaceExists(spaceId)) {
+        Boolean cached = getCachedSpaceExists(spaceId);
+        if (Boolean.TRUE.equals(cached)) {
+            return;
+        }
+
+        boolean exists = spaceExists(spaceId);
+        if (!exists && wait && null == cached) {
+            waitForSpaceAvailable(spaceId);
+            exists = spaceExists(spaceId);
+        }
+        cacheSpaceExists(spaceId, exists);
+
+        if (!exists) {
             String msg = "Error: Space does not exist: " + spaceId;
-            if (wait) {
-                waitForSpaceAvailable(spaceId);
-                if (!spaceExists(spaceId)) {
-                    throw new NotFoundException(msg);
-                }
-            } else {
-                throw new NotFoundException(msg);
-            }
+            throw new NotFoundException(msg);
         }
     }
 
+    /**
+     * @return true or false if the existence of the space has been checked
+     * recently, null otherwise
+     */
+    private Boolean getCachedSpaceExists(String spaceId) {
+        Long entry = spaceExistsCache.get(spaceId);
+        if (null == entry) {
+            return null;
+        }
+        if (System.currentTimeMillis() > Math.abs(entry)) {
+            spaceExistsCache.remove(spaceId, entry);
+            return null;
+        }
+        return entry > 0;
+    }
+
+    private void cacheSpaceExists(String spaceId, boolean exists) {
+        if (spaceExistsCache.size() >= MAX_CACHED_SPACES) {
+            spaceExistsCache.clear();
+        }
+        long now = System.currentTimeMillis();
+        if (exists) {
+            spaceExistsCache.put(spaceId, now + SPACE_EXISTS_TTL_MILLIS);
+        } else {
+            spaceExistsCache.put(spaceId, -(now + SPACE_MISSING_TTL_MILLIS));
+        }
+    }
+
+    /**
+     * Drops any cached result of a space existence check. Must be called
+     * whenever a space is created or removed.
+     *
+     * @param spaceId ID of the space
+     */
+    protected void clearSpaceExists(String spaceId) {
+        spaceExistsCache.remove(spaceId);
+    }
+
     private void waitForSpaceAvailable(String spaceId) {
         int maxLoops = 6;
         for (
@@ -298,6 +370,7 @@ public abstract class StorageProviderBase implements StorageProvider {
     public void deleteSpace(String spaceId) {
         log.debug("deleteSpace(" + spaceId + ")");
         throwIfSpaceNotExist(spaceId);
+        clearSpaceExists(spaceId);
 
         Map<String, String> allProps = getAllSpaceProperties(spaceId);
         allProps.put("is-delete", "true");
@@ -315,6 +388,7 @@ public abstract class StorageProviderBase implements StorageProvider {
     public void deleteSpaceSync(String spaceId) {
         log.debug("deleteSpaceSync(" + spaceId + ")");
         throwIfSpaceNotExist(spaceId);
+        clearSpaceExists(spaceId);
 
         Map<String, String> allProps = getAllSpaceProperties(spaceId);
         allProps.put("is-delete", "true");
@@ -352,16 +426,22 @@ public abstract class StorageProviderBase implements StorageProvider {
                     sp = wrappedStorageProvider;
                 }
 
+                List<String> batch = new ArrayList<>();
                 while (contents.hasNext()) {
                     String contentId = contents.next();
                     log.debug("deleteContent(" + spaceId + ", " +
                               contentId + ") - count=" + count);
 
-                    try {
-                        sp.deleteContent(spaceId, contentId);
-                    } catch (Exception e) {
-                        log.error("Error deleting content " + contentId +
-                                  " in space " + spaceId, e);
+                    batch.add(contentId);
+                    if (batch.size() >= DELETE_BATCH_SIZE || !contents.hasNext()) {
+                        try {
+                            sp.deleteContents(spaceId, batch);
+                        } catch (Exception e) {
+                            log.error("Error deleting " + batch.size() +
+                                      " content items, ending with " + contentId +
+                                      ", in space " + spaceId, e);
+                        }
+                        batch = new ArrayList<>();
                     }
                 }
                 contents = getSpaceContents(spaceId, null);
@@ -377,6 +457,7 @@ public abstract class StorageProviderBase implements StorageProvider {
             } else {
                 log.debug("removeSpace(" + spaceId + ")");
                 removeSpace(spaceId);
+                clearSpaceExists(spaceId);
             }
             log.debug("SpaceDeleteWorker ended!");
         }
@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.RetrievedContent;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
@@ -108,6 +109,13 @@ public class MockStorageProvider
         return contentProperties;
     }
 
+    @Override
+    public RetrievedContent getContentWithProperties(String spaceId,
+                                                     String contentId)
+        throws StorageException {
+        return new RetrievedContent(content, contentProperties);
+    }
+
     public Iterator<String> getSpaceContents(String spaceId, String prefix)
         throws StorageException {
         return spaceContents.iterator();
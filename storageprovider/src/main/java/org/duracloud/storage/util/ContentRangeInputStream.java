@@ -0,0 +1,104 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Limits a full content stream to a byte range of that content. The bytes
+ * which precede the range are skipped on the first read, and the stream
+ * reports end of stream once the last byte of the range has been read.
+ */
+public class ContentRangeInputStream extends FilterInputStream {
+
+    private long toSkip;
+    private long remaining;
+
+    /**
+     * @param content   stream of the full content item
+     * @param startByte offset of the first byte in the range
+     * @param endByte   offset of the last byte in the range (inclusive)
+     */
+    public ContentRangeInputStream(InputStream content,
+                                   long startByte,
+                                   long endByte) {
+        super(content);
+        if (startByte < 0 || endByte < startByte) {
+            throw new IllegalArgumentException(
+                "Invalid byte range: " + startByte + "-" + endByte);
+        }
+        this.toSkip = startByte;
+        this.remaining = endByte - startByte + 1;
+    }
+
+    private void skipToStart() throws IOException {
+        while (toSkip > 0) {
+            long skipped = in.skip(toSkip);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new IOException("End of stream reached before the " +
+                                          "start of the requested range");
+                }
+                skipped = 1;
+            }
+            toSkip -= skipped;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        skipToStart();
+        if (remaining <= 0) {
+            return -1;
+        }
+        int value = in.read();
+        if (value >= 0) {
+            remaining--;
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        skipToStart();
+        if (remaining <= 0) {
+            return -1;
+        }
+        int read = in.read(b, off, (int) Math.min(len, remaining));
+        if (read > 0) {
+            remaining -= read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        skipToStart();
+        long skipped = in.skip(Math.min(n, remaining));
+        if (skipped > 0) {
+            remaining -= skipped;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        if (toSkip > 0) {
+            return 0;
+        }
+        return (int) Math.min(in.available(), remaining);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+}
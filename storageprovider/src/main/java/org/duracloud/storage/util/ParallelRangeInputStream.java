@@ -0,0 +1,241 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads a content item as a series of byte ranges which are retrieved in
+ * parallel, and provides them in order as a single stream.
+ *
+ * No more than one part per thread is held in memory or in flight at any
+ * time, so the memory used is bounded by threads * partSize. A part which
+ * fails part way through is requested again starting from the first byte
+ * which was not received, rather than from the start of the part.
+ */
+public class ParallelRangeInputStream extends InputStream {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(ParallelRangeInputStream.class);
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /**
+     * Retrieves one byte range of the content
+     */
+    public interface RangeReader {
+        /**
+         * @param startByte offset of the first byte in the range
+         * @param endByte   offset of the last byte in the range (inclusive)
+         */
+        InputStream read(long startByte, long endByte) throws IOException;
+    }
+
+    private final RangeReader reader;
+    private final long contentSize;
+    private final int partSize;
+    private final int maxAttempts;
+    private final String description;
+
+    private final ExecutorService executor;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    private long nextPartStart = 0;
+
+    private byte[] current = new byte[0];
+    private int position = 0;
+    private boolean closed = false;
+
+    /**
+     * Reads a content item through its storage provider.
+     *
+     * @param provider    storage provider holding the content item
+     * @param spaceId     space of the content item
+     * @param contentId   ID of the content item
+     * @param contentSize size of the content item in bytes
+     * @param partSize    size of each range which is retrieved
+     * @param threads     number of ranges retrieved at the same time
+     */
+    public ParallelRangeInputStream(StorageProvider provider,
+                                    String spaceId,
+                                    String contentId,
+                                    long contentSize,
+                                    int partSize,
+                                    int threads) {
+        this((startByte, endByte) -> provider.getContent(spaceId,
+                                                         contentId,
+                                                         startByte,
+                                                         endByte),
+             contentSize, partSize, threads, DEFAULT_MAX_ATTEMPTS,
+             spaceId + "/" + contentId);
+    }
+
+    /**
+     * @param reader      retrieves each range
+     * @param contentSize size of the content in bytes
+     * @param partSize    size of each range which is retrieved
+     * @param threads     number of ranges retrieved at the same time
+     * @param maxAttempts number of times each range is attempted
+     * @param description of the content, used in log and error messages
+     */
+    public ParallelRangeInputStream(RangeReader reader,
+                                    long contentSize,
+                                    int partSize,
+                                    int threads,
+                                    int maxAttempts,
+                                    String description) {
+        if (contentSize < 0 || partSize <= 0 || threads <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException(
+                "Content size must not be negative, part size, thread count " +
+                "and attempts must be greater than 0");
+        }
+        this.reader = reader;
+        this.contentSize = contentSize;
+        this.partSize = partSize;
+        this.maxAttempts = maxAttempts;
+        this.description = description;
+
+        this.executor = Executors.newFixedThreadPool(threads);
+        int started = 0;
+        while (started < threads && submitNextPart()) {
+            started++;
+        }
+    }
+
+    private boolean submitNextPart() {
+        if (nextPartStart >= contentSize) {
+            executor.shutdown();
+            return false;
+        }
+        long startByte = nextPartStart;
+        int length = (int) Math.min(partSize, contentSize - startByte);
+        nextPartStart += length;
+        pending.add(executor.submit(() -> readPart(startByte, length)));
+        return true;
+    }
+
+    private byte[] readPart(long startByte, int length) throws IOException {
+        long endByte = startByte + length - 1;
+        byte[] part = new byte[length];
+        int received = 0;
+        for (int attempt = 1; ; attempt++) {
+            try (InputStream content = reader.read(startByte + received, endByte)) {
+                while (received < length) {
+                    int read = content.read(part, received, length - received);
+                    if (read < 0) {
+                        throw new IOException("End of stream reached after " +
+                                              (startByte + received) + " bytes");
+                    }
+                    received += read;
+                }
+                return part;
+            } catch (NotFoundException e) {
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.warn("Attempt {} to read bytes {}-{} of {} failed, resuming " +
+                         "at byte {}: {}", attempt, startByte, endByte,
+                         description, startByte + received, e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Moves to the next part, once it has been retrieved, and starts the
+     * retrieval of the part after the last one in flight
+     */
+    private boolean nextPart() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        Future<byte[]> next = pending.poll();
+        if (null == next) {
+            return false;
+        }
+        try {
+            current = next.get();
+            position = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new InterruptedIOException("Interrupted while reading " +
+                                             description);
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Unable to read " + description, cause);
+        }
+        submitNextPart();
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        while (position >= current.length) {
+            if (!nextPart()) {
+                return -1;
+            }
+        }
+        return current[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (position >= current.length) {
+            if (!nextPart()) {
+                return -1;
+            }
+        }
+        int count = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current.length - position;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            for (Future<byte[]> part : pending) {
+                part.cancel(true);
+            }
+            pending.clear();
+            executor.shutdownNow();
+            current = new byte[0];
+            position = 0;
+        }
+    }
+
+}
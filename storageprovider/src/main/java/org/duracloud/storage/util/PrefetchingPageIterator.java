@@ -0,0 +1,223 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.util;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.duracloud.storage.error.StorageException;
+
+/**
+ * Iterates over a paged listing, retrieving the next page in the background
+ * while the current page is being consumed. Each page is requested using the
+ * last item of the previous page, an empty page ends the listing.
+ *
+ * At most prefetchDepth pages are held ahead of the page being consumed, and
+ * at most one page request is in flight, so memory use is bounded. The next
+ * request is only made once there is room for its result, which means that
+ * an iterator which is abandoned before it is exhausted does not hold on to
+ * a thread. Errors retrieving a page are thrown from hasNext() or next()
+ * once the pages retrieved before the error have been consumed; checked
+ * exceptions are wrapped in a RuntimeException.
+ *
+ * @param <T> type of the items listed
+ */
+public class PrefetchingPageIterator<T> implements Iterator<T>, AutoCloseable {
+
+    /**
+     * Retrieves a page of the listing.
+     *
+     * @param <T> type of the items listed
+     */
+    public interface PageFetcher<T> {
+
+        /**
+         * @param lastItem last item of the previous page
+         * @return the page following lastItem, empty if there are no more items
+         */
+        List<T> fetchPage(T lastItem) throws Exception;
+    }
+
+    // Shared by all iterators, each has at most one page request in flight
+    private static ExecutorService fetchExecutor;
+
+    private final PageFetcher<T> fetcher;
+    private final int prefetchDepth;
+    private final String description;
+
+    private List<T> current;
+    private int index = 0;
+
+    // Guarded by this
+    private final Deque<List<T>> ready = new ArrayDeque<>();
+    private T marker;
+    private Future<?> fetch = null;
+    private boolean done = false;
+    private boolean closed = false;
+    private Exception error = null;
+
+    /**
+     * The first page is retrieved by the caller, so that errors such as a
+     * missing listing are thrown from where the iterator is created.
+     *
+     * @param firstPage     first page of the listing
+     * @param fetcher       retrieves the pages following the first page
+     * @param prefetchDepth number of pages to retrieve ahead of the page
+     *                      being consumed
+     * @param description   describes the listing in error messages
+     */
+    public PrefetchingPageIterator(List<T> firstPage,
+                                   PageFetcher<T> fetcher,
+                                   int prefetchDepth,
+                                   String description) {
+        if (prefetchDepth <= 0) {
+            throw new IllegalArgumentException(
+                "Prefetch depth must be greater than 0");
+        }
+        this.fetcher = fetcher;
+        this.prefetchDepth = prefetchDepth;
+        this.description = description;
+
+        current = firstPage;
+        synchronized (this) {
+            if (current.isEmpty()) {
+                done = true;
+            } else {
+                marker = current.get(current.size() - 1);
+                startFetch();
+            }
+        }
+    }
+
+    /*
+     * Requests the next page, if there is room for it and no request is
+     * already in flight. Must be called while holding the lock.
+     */
+    private void startFetch() {
+        if (null == fetch && !done && !closed && ready.size() < prefetchDepth) {
+            T fetchMarker = marker;
+            fetch = getFetchExecutor().submit(() -> fetchPage(fetchMarker));
+        }
+    }
+
+    private void fetchPage(T fetchMarker) {
+        List<T> page = null;
+        Exception fetchError = null;
+        try {
+            page = fetcher.fetchPage(fetchMarker);
+        } catch (Exception e) {
+            fetchError = e;
+        }
+
+        synchronized (this) {
+            fetch = null;
+            if (closed) {
+                return;
+            }
+            if (null != fetchError) {
+                error = fetchError;
+                done = true;
+            } else if (page.isEmpty()) {
+                done = true;
+            } else {
+                ready.add(page);
+                marker = page.get(page.size() - 1);
+                startFetch();
+            }
+            notifyAll();
+        }
+    }
+
+    public boolean hasNext() {
+        while (index >= current.size()) {
+            List<T> page = takePage();
+            if (null == page) {
+                return false;
+            }
+            current = page;
+            index = 0;
+        }
+        return true;
+    }
+
+    /*
+     * Waits for the next page. Returns null once all pages have been consumed.
+     */
+    private synchronized List<T> takePage() {
+        while (ready.isEmpty() && !done && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StorageException("Interrupted while listing " +
+                                           description, e);
+            }
+        }
+        List<T> page = ready.poll();
+        if (null != page) {
+            startFetch();
+            return page;
+        }
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (null != error) {
+            throw new RuntimeException(error);
+        }
+        return null;
+    }
+
+    public T next() {
+        if (hasNext()) {
+            return current.get(index++);
+        } else {
+            throw new NoSuchElementException();
+        }
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Stops retrieving pages. Any page request in flight is interrupted, and
+     * the iterator reports no further items.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            if (null != fetch) {
+                fetch.cancel(true);
+                fetch = null;
+            }
+            ready.clear();
+            current = Collections.emptyList();
+            index = 0;
+            notifyAll();
+        }
+    }
+
+    private static synchronized ExecutorService getFetchExecutor() {
+        if (null == fetchExecutor) {
+            fetchExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "listing-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return fetchExecutor;
+    }
+
+}
@@ -35,6 +35,17 @@ public interface StorageProviderFactory {
 
     public void expireStorageProvider(String storageAccountId);
 
+    /**
+     * Expires a storage provider following an error, if the error indicates
+     * that a new provider may resolve it (see
+     * {@link StorageProviderUtil#isProviderRefreshRequired(Throwable)}).
+     * Implementations may also limit how often a provider is expired.
+     *
+     * @param storageAccountId - the ID of the storage provider account
+     * @param error            - the error raised by the storage provider
+     */
+    public void expireStorageProvider(String storageAccountId, Throwable error);
+
     public TaskQueue getAuditQueue();
 
 }
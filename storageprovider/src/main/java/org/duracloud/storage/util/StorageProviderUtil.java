@@ -24,10 +24,16 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 import org.duracloud.common.util.DateUtil;
 import org.duracloud.storage.error.ChecksumMismatchException;
+import org.duracloud.storage.error.InvalidIdException;
+import org.duracloud.storage.error.InvalidRequestException;
+import org.duracloud.storage.error.NotFoundException;
 import org.duracloud.storage.error.StorageException;
+import org.duracloud.storage.error.StorageStateException;
+import org.duracloud.storage.error.TaskException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +47,9 @@ public class StorageProviderUtil {
 
     private static Logger log = LoggerFactory.getLogger(StorageProviderUtil.class);
 
+    // Limits the walk through an error's causes, guards against cycles
+    private static final int MAX_CAUSE_DEPTH = 20;
+
     private StorageProviderUtil() {
         // Ensures no instances are made of this class, as there are only static members.
     }
@@ -270,4 +279,57 @@ public class StorageProviderUtil {
         return contentProperties;
 
     }
+
+    /**
+     * Determines if an error is transient: a network level failure, such as a
+     * timeout or a dropped connection, which is expected to clear up without
+     * any change to the client. The error or any of its causes may be the
+     * network failure.
+     *
+     * @param error
+     * @return true if the error is transient
+     */
+    public static boolean isTransientError(Throwable error) {
+        Throwable cause = error;
+        for (int i = 0; null != cause && i < MAX_CAUSE_DEPTH; i++) {
+            if (cause instanceof IOException ||
+                cause instanceof TimeoutException) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * Determines if an error raised by a storage provider may be resolved by
+     * discarding the provider and creating a new one (with new connections to
+     * the underlying storage). This is not the case for transient errors, or
+     * for errors which describe the request or the stored content (such as
+     * content which does not exist, a checksum mismatch, or an invalid ID).
+     *
+     * @param error
+     * @return true if a new storage provider may resolve the error
+     */
+    public static boolean isProviderRefreshRequired(Throwable error) {
+        if (null == error || isTransientError(error)) {
+            return false;
+        }
+
+        Throwable cause = error;
+        for (int i = 0; null != cause && i < MAX_CAUSE_DEPTH; i++) {
+            if (cause instanceof NotFoundException ||
+                cause instanceof StorageStateException ||
+                cause instanceof ChecksumMismatchException ||
+                cause instanceof InvalidIdException ||
+                cause instanceof InvalidRequestException ||
+                cause instanceof TaskException ||
+                cause instanceof IllegalArgumentException) {
+                return false;
+            }
+            cause = cause.getCause();
+        }
+        return true;
+    }
+
 }
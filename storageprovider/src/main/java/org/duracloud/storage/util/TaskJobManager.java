@@ -0,0 +1,140 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.util;
+
+import static org.duracloud.common.util.ChecksumUtil.Algorithm.MD5;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.duracloud.common.util.ChecksumUtil;
+
+/**
+ * Base for the managers which start and track the long running jobs of an
+ * account, such as space copies and content restores.
+ *
+ * Jobs are kept in memory by job ID, and wait in a queue until one of a
+ * limited number of job slots is available. Job IDs are derived from the job
+ * parameters, so starting a job which is already running returns the running
+ * job rather than starting it a second time. This relies on there being a
+ * single manager of each kind for an account.
+ *
+ * @param <J> type of the jobs managed
+ */
+public abstract class TaskJobManager<J extends TaskJobManager.Job> {
+
+    /**
+     * A job run by a manager
+     */
+    public interface Job extends Runnable {
+
+        /**
+         * @return true once the job has completed or failed
+         */
+        boolean isDone();
+    }
+
+    protected static final int MAX_RUNNING_JOBS = 2;
+    protected static final long IDLE_THREAD_SECONDS = 60;
+
+    private final ExecutorService jobExecutor;
+    private final Map<String, J> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * @param jobThreadName name given to the threads which run jobs
+     */
+    protected TaskJobManager(String jobThreadName) {
+        this.jobExecutor = createExecutor(MAX_RUNNING_JOBS, jobThreadName);
+    }
+
+    /**
+     * Starts a job, unless a job with the same ID is already running.
+     *
+     * @param jobId      ID of the job
+     * @param jobCreator creates the job from its ID, only called if the job
+     *                   is to be started
+     * @return ID of the job
+     */
+    protected synchronized String startJob(String jobId, Function<String, J> jobCreator) {
+        J existing = jobs.get(jobId);
+        if (null != existing && !existing.isDone()) {
+            return jobId;
+        }
+
+        J job = jobCreator.apply(jobId);
+        jobs.put(jobId, job);
+        jobExecutor.execute(job);
+        return jobId;
+    }
+
+    /**
+     * @return the job, or null if the job is not known
+     */
+    protected J getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * Stops tracking the jobs which match the filter.
+     */
+    protected void removeJobs(Predicate<J> filter) {
+        jobs.values().removeIf(filter);
+    }
+
+    /**
+     * @return the executor on which jobs are run
+     */
+    protected ExecutorService getJobExecutor() {
+        return jobExecutor;
+    }
+
+    /**
+     * @param jobParameters the parameters which identify a job
+     * @return ID of the job with the given parameters
+     */
+    protected static String generateJobId(String jobParameters) {
+        return new ChecksumUtil(MD5).generateChecksum(jobParameters);
+    }
+
+    /**
+     * Creates an executor with a fixed number of threads. Idle threads are not
+     * kept, as there is a manager for each account and most accounts have no
+     * jobs running.
+     */
+    protected static ExecutorService createExecutor(int threads, String threadName) {
+        ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(threads, threads,
+                                   IDLE_THREAD_SECONDS, TimeUnit.SECONDS,
+                                   new LinkedBlockingQueue<>(),
+                                   createThreadFactory(threadName));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Creates a factory of daemon threads, numbered after the given name.
+     */
+    protected static ThreadFactory createThreadFactory(String threadName) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable,
+                                       threadName + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
@@ -0,0 +1,232 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.error.StorageException;
+import org.duracloud.storage.provider.mock.MockStorageProvider;
+import org.junit.Test;
+
+/**
+ * Tests the prefetching content iterator against a provider which lists
+ * sequentially numbered items, with optional listing latency.
+ */
+public class PrefetchingContentIteratorTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Test
+    public void testIterator() throws Exception {
+        for (int items = 0; items < 31; items++) {
+            MockProvider provider = new MockProvider(items, 0);
+            try (PrefetchingContentIterator iterator =
+                     new PrefetchingContentIterator(provider, "spaceId", "prefix",
+                                                    PAGE_SIZE, 2)) {
+                int count = 0;
+                while (iterator.hasNext()) {
+                    assertEquals(provider.name(count), iterator.next());
+                    count++;
+                }
+                assertEquals(items, count);
+                assertFalse(iterator.hasNext());
+            }
+        }
+    }
+
+    @Test
+    public void testBoundedPrefetch() throws Exception {
+        MockProvider provider = new MockProvider(100, 0);
+        PrefetchingContentIterator iterator =
+            new PrefetchingContentIterator(provider, "spaceId", null, PAGE_SIZE, 2);
+
+        // The first page, plus two pages ahead of it
+        waitForRequests(provider, 3);
+        Thread.sleep(100);
+        assertEquals(3, provider.requests.get());
+
+        // Consuming a page makes room for one more
+        for (int i = 0; i <= PAGE_SIZE; i++) {
+            iterator.next();
+        }
+        waitForRequests(provider, 4);
+        Thread.sleep(100);
+        assertEquals(4, provider.requests.get());
+
+        iterator.close();
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testError() throws Exception {
+        MockProvider provider = new MockProvider(100, 0);
+        provider.failAt = 2;
+        PrefetchingContentIterator iterator =
+            new PrefetchingContentIterator(provider, "spaceId", null, PAGE_SIZE, 1);
+
+        // Pages retrieved before the failure are provided first
+        for (int i = 0; i < PAGE_SIZE * 2; i++) {
+            assertEquals(provider.name(i), iterator.next());
+        }
+        try {
+            iterator.hasNext();
+            fail("Exception expected");
+        } catch (StorageException e) {
+            assertEquals("listing failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMissingSpace() {
+        MockProvider provider = new MockProvider(10, 0);
+        provider.failAt = 0;
+        try {
+            new PrefetchingContentIterator(provider, "spaceId", null);
+            fail("Exception expected");
+        } catch (StorageException e) {
+            // Errors retrieving the first page are thrown by the constructor
+        }
+    }
+
+    @Test
+    public void testCloseInterruptsRequest() throws Exception {
+        MockProvider provider = new MockProvider(100, 10000);
+        provider.firstLatency = 0;
+        PrefetchingContentIterator iterator =
+            new PrefetchingContentIterator(provider, "spaceId", null, PAGE_SIZE, 1);
+        waitForRequests(provider, 2);
+
+        iterator.close();
+        long start = System.currentTimeMillis();
+        while (provider.interrupted.get() == 0 &&
+               System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, provider.interrupted.get());
+        assertFalse(iterator.hasNext());
+    }
+
+    /*
+     * Checks that the next page is being listed while the consumer works on
+     * the current page.
+     */
+    @Test
+    public void testListingOverlapsConsumer() throws Exception {
+        int pages = 10;
+        long latency = 50;
+        MockProvider provider = new MockProvider(PAGE_SIZE * pages, latency);
+
+        int overlappingPages;
+        try (PrefetchingContentIterator iterator =
+                 new PrefetchingContentIterator(provider, "spaceId", null, PAGE_SIZE, 1)) {
+            overlappingPages = consume(iterator, provider.inFlight, latency);
+        }
+
+        // The request listing the end of the space may complete before the
+        // last page is consumed, every other page overlaps with a request
+        assertTrue("Pages overlapping a request: " + overlappingPages,
+                   overlappingPages >= pages - 1);
+        assertEquals(1, provider.maxInFlight.get());
+    }
+
+    /*
+     * Consumes the iterator, doing work for each page. Returns the number of
+     * pages during which a listing request was seen in flight.
+     */
+    private int consume(Iterator<String> iterator,
+                        AtomicInteger inFlight,
+                        long pageWorkMillis) throws InterruptedException {
+        int count = 0;
+        int overlappingPages = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            if (++count % PAGE_SIZE == 0) {
+                boolean overlap = false;
+                long end = System.currentTimeMillis() + pageWorkMillis;
+                while (System.currentTimeMillis() < end) {
+                    overlap |= inFlight.get() > 0;
+                    Thread.sleep(1);
+                }
+                if (overlap) {
+                    overlappingPages++;
+                }
+            }
+        }
+        return overlappingPages;
+    }
+
+    private void waitForRequests(MockProvider provider, int requests)
+        throws InterruptedException {
+        long start = System.currentTimeMillis();
+        while (provider.requests.get() < requests &&
+               System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+        assertEquals(requests, provider.requests.get());
+    }
+
+    private static class MockProvider extends MockStorageProvider {
+
+        private final int contentItems;
+        private final long latency;
+        private volatile long firstLatency;
+        private volatile int failAt = -1;
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger interrupted = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        public MockProvider(int contentItems, long latency) {
+            this.contentItems = contentItems;
+            this.latency = latency;
+            this.firstLatency = latency;
+        }
+
+        private String name(int item) {
+            return String.format("item%05d", item);
+        }
+
+        @Override
+        public List<String> getSpaceContentsChunked(String spaceId,
+                                                    String prefix,
+                                                    long maxResults,
+                                                    String marker) {
+            int request = requests.getAndIncrement();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(request == 0 ? firstLatency : latency);
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+                throw new StorageException("interrupted", e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            if (request == failAt) {
+                throw request == 0 ? new NotFoundException(spaceId)
+                                   : new StorageException("listing failed");
+            }
+
+            int first = null == marker ? 0 : Integer.parseInt(marker.substring(4)) + 1;
+            List<String> contentList = new ArrayList<>();
+            for (int i = first; i < contentItems && contentList.size() < maxResults; i++) {
+                contentList.add(name(i));
+            }
+            return contentList;
+        }
+    }
+
+}
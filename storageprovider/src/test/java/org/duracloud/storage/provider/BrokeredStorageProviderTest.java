@@ -14,6 +14,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.io.IOUtils;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.mock.MockStorageProvider;
@@ -133,6 +134,17 @@ public class BrokeredStorageProviderTest {
         verify(content0, content1);
     }
 
+    @Test
+    public void getContentRange() throws Exception {
+        targetProvider.setContent(new ByteArrayInputStream("hello-world".getBytes()));
+
+        Assert.assertFalse(broker.supportsRangeRetrieval());
+        Assert.assertFalse(broker.supportsMultipartUpload());
+        try (InputStream range = broker.getContent(spaceId, contentId, 6, 9)) {
+            Assert.assertEquals("worl", IOUtils.toString(range, "UTF-8"));
+        }
+    }
+
     @Test
     public void getContentProperties() throws StorageException {
         directProvider.setContentProperties(spaceId,
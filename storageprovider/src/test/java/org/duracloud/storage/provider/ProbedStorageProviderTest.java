@@ -0,0 +1,97 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.duracloud.common.util.metrics.LatencySnapshot;
+import org.duracloud.common.util.metrics.MetricsProbed;
+import org.duracloud.common.util.metrics.MetricsTable;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.mock.MockStorageProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProbedStorageProviderTest {
+
+    private TestProbedStorageProvider probed;
+    private MetricsTable coreTable;
+
+    @Before
+    public void setUp() {
+        probed = new TestProbedStorageProvider(new MockStorageProvider() {
+            @Override
+            public void deleteSpace(String spaceId) {
+                throw new NotFoundException(spaceId);
+            }
+        });
+    }
+
+    @Test
+    public void testOperationMetrics() {
+        probed.createSpace("space-id");
+        probed.getSpaces();
+        probed.getSpaces();
+        try {
+            probed.deleteSpace("space-id");
+            fail("Exception expected");
+        } catch (NotFoundException e) {
+            // expected
+        }
+
+        List<LatencySnapshot> snapshots =
+            probed.getOperationMetrics().getSnapshots();
+        assertEquals(3, snapshots.size());
+        assertSnapshot(snapshots.get(0), "createSpace", 1, 0);
+        assertSnapshot(snapshots.get(1), "deleteSpace", 1, 1);
+        assertSnapshot(snapshots.get(2), "getSpaces", 2, 0);
+
+        // No metrics table is needed to collect operation metrics
+        assertNull(coreTable);
+    }
+
+    @Test
+    public void testMetricsTable() {
+        MetricsTable table = new MetricsTable();
+        probed.setMetricsTable(table);
+        probed.createSpace("space-id");
+
+        Iterator<?> metrics = table.getMetrics();
+        assertTrue(metrics.hasNext());
+        assertNotNull(coreTable);
+        assertEquals(1, probed.getOperationMetrics().getSnapshots().size());
+    }
+
+    private void assertSnapshot(LatencySnapshot snapshot,
+                                String name,
+                                long count,
+                                long errors) {
+        assertEquals(name, snapshot.getName());
+        assertEquals(count, snapshot.getCount());
+        assertEquals(errors, snapshot.getErrorCount());
+    }
+
+    private class TestProbedStorageProvider extends ProbedStorageProvider {
+        public TestProbedStorageProvider(StorageProvider provider) {
+            setStorageProvider(provider);
+        }
+
+        @Override
+        protected MetricsProbed getProbedCore() {
+            return table -> coreTable = table;
+        }
+    }
+
+}
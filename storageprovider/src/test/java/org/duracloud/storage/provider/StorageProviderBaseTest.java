@@ -320,6 +320,43 @@ public class StorageProviderBaseTest {
         providerBase.deleteSpace(spaceId);
     }
 
+    @Test
+    public void testSpaceExistsCached() {
+        // Only the first of several operations checks with the provider
+        EasyMock.expect(providerMock.spaceExists(spaceId)).andReturn(true).once();
+        replayMocks();
+
+        for (int i = 0; i < 5; i++) {
+            providerBase.throwIfSpaceNotExist(spaceId, true);
+        }
+    }
+
+    @Test
+    public void testSpaceExistsCleared() {
+        EasyMock.expect(providerMock.spaceExists(spaceId)).andReturn(true).times(2);
+        replayMocks();
+
+        providerBase.throwIfSpaceNotExist(spaceId, true);
+        providerBase.clearSpaceExists(spaceId);
+        providerBase.throwIfSpaceNotExist(spaceId, true);
+    }
+
+    @Test
+    public void testSpaceMissing() {
+        // A space recently found missing is checked again, but not waited for
+        EasyMock.expect(providerMock.spaceExists(spaceId)).andReturn(false).times(2);
+        replayMocks();
+
+        for (boolean wait : new boolean[] {false, true}) {
+            try {
+                providerBase.throwIfSpaceNotExist(spaceId, wait);
+                Assert.fail("Exception expected");
+            } catch (NotFoundException e) {
+                Assert.assertNotNull(e.getMessage());
+            }
+        }
+    }
+
     @Test
     public void testEmptyDeleteWorker() {
         EasyMock.expect(providerMock.getSpaceContents(EasyMock.eq(spaceId),
@@ -378,7 +415,44 @@ public class StorageProviderBaseTest {
                 .andReturn(contents.iterator())
                 .once();
 
-        wrappedProvider.deleteContent(spaceId, contentId);
+        wrappedProvider.deleteContents(spaceId, contents);
+        EasyMock.expectLastCall().once();
+
+        EasyMock.expect(providerMock.getSpaceContents(EasyMock.eq(spaceId),
+                                                      EasyMock.<String>isNull()))
+                .andReturn(new ArrayList<String>().iterator())
+                .once();
+
+        providerMock.removeSpace(spaceId);
+        EasyMock.expectLastCall().once();
+        EasyMock.replay(wrappedProvider);
+        replayMocks();
+
+        StorageProviderBase.SpaceDeleteWorker worker =
+            providerBase.getSpaceDeleteWorker(spaceId);
+        worker.run();
+
+        EasyMock.verify(wrappedProvider);
+    }
+
+    @Test
+    public void testBatchedDeleteWorker() {
+        List<String> contents = new ArrayList<String>();
+        for (int i = 0; i <= StorageProviderBase.DELETE_BATCH_SIZE; i++) {
+            contents.add("content-" + i);
+        }
+        StorageProvider wrappedProvider = EasyMock.createMock(StorageProvider.class);
+        providerBase.setWrappedStorageProvider(wrappedProvider);
+        EasyMock.expect(providerMock.getSpaceContents(EasyMock.eq(spaceId),
+                                                      EasyMock.<String>isNull()))
+                .andReturn(contents.iterator())
+                .once();
+
+        wrappedProvider.deleteContents(spaceId, contents.subList(
+            0, StorageProviderBase.DELETE_BATCH_SIZE));
+        EasyMock.expectLastCall().once();
+        wrappedProvider.deleteContents(spaceId, contents.subList(
+            StorageProviderBase.DELETE_BATCH_SIZE, contents.size()));
         EasyMock.expectLastCall().once();
 
         EasyMock.expect(providerMock.getSpaceContents(EasyMock.eq(spaceId),
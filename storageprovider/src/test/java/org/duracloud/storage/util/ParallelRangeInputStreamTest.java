@@ -0,0 +1,211 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.mock.MockStorageProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests parallel range reads against an in-process server which answers
+ * ranged GETs the way Swift does, and which can fail part way through a
+ * response.
+ */
+public class ParallelRangeInputStreamTest {
+
+    private static final int CONTENT_SIZE = 1000;
+    private static final int PART_SIZE = 64;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String objectUrl;
+    private byte[] content;
+
+    private final List<String> ranges = new CopyOnWriteArrayList<>();
+    private final Set<Long> failingStarts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        content = new byte[CONTENT_SIZE];
+        for (int i = 0; i < CONTENT_SIZE; i++) {
+            content[i] = (byte) (i * 31);
+        }
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/space/item", this::handle);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        objectUrl = "http://127.0.0.1:" + server.getAddress().getPort() +
+                    "/v1/space/item";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int running = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(running, Math::max);
+        try {
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            ranges.add(range);
+            String[] bytes = range.substring("bytes=".length()).split("-");
+            long start = Long.parseLong(bytes[0]);
+            long end = Math.min(Long.parseLong(bytes[1]), CONTENT_SIZE - 1);
+            int length = (int) (end - start + 1);
+
+            exchange.getResponseHeaders().add(
+                "Content-Range", "bytes " + start + "-" + end + "/" + CONTENT_SIZE);
+            exchange.sendResponseHeaders(206, length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                if (failingStarts.remove(start)) {
+                    // Send half of the range, then drop the connection
+                    out.write(content, (int) start, length / 2);
+                    out.flush();
+                    throw new IOException("Injected failure");
+                }
+                out.write(content, (int) start, length);
+            }
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private InputStream readRange(long startByte, long endByte) throws IOException {
+        HttpURLConnection connection =
+            (HttpURLConnection) new URL(objectUrl).openConnection();
+        connection.setRequestProperty("Range", "bytes=" + startByte + "-" + endByte);
+        if (connection.getResponseCode() != 206) {
+            throw new IOException("Unexpected status " + connection.getResponseCode());
+        }
+        return connection.getInputStream();
+    }
+
+    private ParallelRangeInputStream createStream(int threads) {
+        return new ParallelRangeInputStream(this::readRange, CONTENT_SIZE,
+                                            PART_SIZE, threads, 3, "space/item");
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        try (InputStream stream = createStream(4)) {
+            assertArrayEquals(content, IOUtils.toByteArray(stream));
+        }
+        assertEquals((CONTENT_SIZE + PART_SIZE - 1) / PART_SIZE, ranges.size());
+        assertTrue(ranges.contains("bytes=960-999"));
+        assertTrue(maxInFlight.get() <= 4);
+    }
+
+    @Test
+    public void testSingleByteReads() throws Exception {
+        try (InputStream stream = createStream(2)) {
+            for (int i = 0; i < CONTENT_SIZE; i++) {
+                assertEquals(content[i] & 0xFF, stream.read());
+            }
+            assertEquals(-1, stream.read());
+        }
+    }
+
+    @Test
+    public void testResumeAfterFailure() throws Exception {
+        failingStarts.add(128L);
+        failingStarts.add(960L);
+
+        try (InputStream stream = createStream(3)) {
+            assertArrayEquals(content, IOUtils.toByteArray(stream));
+        }
+
+        // Each failed range is resumed from the first byte not received
+        assertTrue(ranges.contains("bytes=160-191"));
+        assertTrue(ranges.contains("bytes=980-999"));
+    }
+
+    @Test
+    public void testTooManyFailures() throws Exception {
+        ParallelRangeInputStream stream =
+            new ParallelRangeInputStream((startByte, endByte) -> {
+                failingStarts.add(startByte);
+                return readRange(startByte, endByte);
+            }, CONTENT_SIZE, PART_SIZE, 2, 3, "space/item");
+        try {
+            IOUtils.toByteArray(stream);
+            fail("Exception expected");
+        } catch (IOException e) {
+            // Expected
+        }
+        try {
+            stream.read();
+            fail("Exception expected");
+        } catch (IOException e) {
+            assertEquals("Stream closed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testStorageProvider() throws Exception {
+        MockStorageProvider provider = new MockStorageProvider() {
+            @Override
+            public InputStream getContent(String spaceId,
+                                          String contentId,
+                                          long startByte,
+                                          long endByte) {
+                if (!"item".equals(contentId)) {
+                    throw new NotFoundException(contentId);
+                }
+                return new ByteArrayInputStream(content, (int) startByte,
+                                                (int) (endByte - startByte + 1));
+            }
+        };
+
+        try (InputStream stream = new ParallelRangeInputStream(
+            provider, "space", "item", CONTENT_SIZE, PART_SIZE, 2)) {
+            assertArrayEquals(content, IOUtils.toByteArray(stream));
+        }
+
+        InputStream missing = new ParallelRangeInputStream(
+            provider, "space", "missing", CONTENT_SIZE, PART_SIZE, 2);
+        try {
+            missing.read();
+            fail("Exception expected");
+        } catch (NotFoundException e) {
+            // Not found is not retried
+        }
+    }
+
+}
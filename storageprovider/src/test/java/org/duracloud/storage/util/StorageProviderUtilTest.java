@@ -16,12 +16,15 @@ import static junit.framework.Assert.fail;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.duracloud.storage.error.ChecksumMismatchException;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.junit.After;
 import org.junit.Before;
@@ -124,4 +127,32 @@ public class StorageProviderUtilTest {
         assertNotNull(props.get(StorageProvider.PROPERTIES_CONTENT_FILE_MODIFIED));
         assertNotNull(props.get(StorageProvider.PROPERTIES_CONTENT_FILE_PATH));
     }
+
+    @Test
+    public void testIsTransientError() {
+        assertFalse(StorageProviderUtil.isTransientError(null));
+        assertFalse(StorageProviderUtil.isTransientError(new StorageException("error")));
+        assertTrue(StorageProviderUtil.isTransientError(new IOException("reset")));
+        assertTrue(StorageProviderUtil.isTransientError(
+            new StorageException("error", new RuntimeException(
+                new SocketTimeoutException("timed out")))));
+    }
+
+    @Test
+    public void testIsProviderRefreshRequired() {
+        assertFalse(StorageProviderUtil.isProviderRefreshRequired(null));
+        assertFalse(StorageProviderUtil.isProviderRefreshRequired(
+            new StorageException("error", new IOException("reset"))));
+        assertFalse(StorageProviderUtil.isProviderRefreshRequired(
+            new NotFoundException("not found")));
+        assertFalse(StorageProviderUtil.isProviderRefreshRequired(
+            new ChecksumMismatchException("mismatch", false)));
+        assertFalse(StorageProviderUtil.isProviderRefreshRequired(
+            new RuntimeException(new IllegalArgumentException("bad"))));
+
+        assertTrue(StorageProviderUtil.isProviderRefreshRequired(
+            new StorageException("error")));
+        assertTrue(StorageProviderUtil.isProviderRefreshRequired(
+            new NullPointerException()));
+    }
 }
@@ -30,4 +30,13 @@ public class StorageTaskConstants {
     // Storage policy
     public static final String SET_STORAGE_POLICY_TASK_NAME = "set-storage-policy";
 
+    // Space copy
+    public static final String COPY_SPACE_TASK_NAME = "copy-space";
+    public static final String GET_COPY_SPACE_STATUS_TASK_NAME = "get-copy-space-status";
+
+    // Glacier restore
+    public static final String RESTORE_CONTENTS_TASK_NAME = "restore-contents";
+    public static final String GET_RESTORE_CONTENTS_STATUS_TASK_NAME =
+        "get-restore-contents-status";
+
 }
@@ -0,0 +1,89 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glacierstorageprovider.dto;
+
+import java.io.IOException;
+import java.util.List;
+import javax.xml.bind.annotation.XmlValue;
+
+import org.duracloud.common.json.JaxbJsonSerializer;
+import org.duracloud.error.TaskDataException;
+
+/**
+ * Parameters of a task which retrieves the progress of a content restore. When
+ * content IDs are given, the restore state of each of those items is included
+ * in the result.
+ */
+public class GetRestoreContentsStatusTaskParameters {
+
+    @XmlValue
+    private String jobId;
+
+    @XmlValue
+    private List<String> contentIds;
+
+    // Required by JAXB
+    public GetRestoreContentsStatusTaskParameters() {
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public List<String> getContentIds() {
+        return contentIds;
+    }
+
+    public void setContentIds(List<String> contentIds) {
+        this.contentIds = contentIds;
+    }
+
+    /**
+     * Creates a serialized version of task parameters
+     *
+     * @return JSON formatted task result info
+     */
+    public String serialize() {
+        JaxbJsonSerializer<GetRestoreContentsStatusTaskParameters> serializer =
+            new JaxbJsonSerializer<>(GetRestoreContentsStatusTaskParameters.class);
+        try {
+            return serializer.serialize(this);
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to create task parameters due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses properties from task parameter string
+     *
+     * @param taskParameters - JSON formatted set of parameters
+     */
+    public static GetRestoreContentsStatusTaskParameters deserialize(String taskParameters) {
+        JaxbJsonSerializer<GetRestoreContentsStatusTaskParameters> serializer =
+            new JaxbJsonSerializer<>(GetRestoreContentsStatusTaskParameters.class);
+        try {
+            GetRestoreContentsStatusTaskParameters params =
+                serializer.deserialize(taskParameters);
+            // Verify expected parameters
+            if (null == params.getJobId() || params.getJobId().isEmpty()) {
+                throw new TaskDataException(
+                    "Task parameter values may not be empty");
+            }
+            return params;
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to parse task parameters due to: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glacierstorageprovider.dto;
+
+import java.io.IOException;
+import java.util.Map;
+import javax.xml.bind.annotation.XmlValue;
+
+import org.duracloud.common.json.JaxbJsonSerializer;
+import org.duracloud.error.TaskDataException;
+
+/**
+ * Status of a content restore
+ */
+public class GetRestoreContentsStatusTaskResult {
+
+    @XmlValue
+    private String jobId;
+
+    @XmlValue
+    private String spaceId;
+
+    /**
+     * One of QUEUED, REQUESTING (restore requests are being made), WAITING
+     * (all restores have been requested), COMPLETE or FAILED
+     */
+    @XmlValue
+    private String status;
+
+    /**
+     * Number of stored content items (including chunks and manifests) which
+     * are part of the restore
+     */
+    @XmlValue
+    private long itemCount;
+
+    /**
+     * Number of items for which the restore has not yet finished
+     */
+    @XmlValue
+    private long itemsInProgress;
+
+    @XmlValue
+    private long itemsRestored;
+
+    /**
+     * Number of items which were not archived, so are available without a
+     * restore
+     */
+    @XmlValue
+    private long itemsNotArchived;
+
+    @XmlValue
+    private long itemsFailed;
+
+    /**
+     * Restore state of each of the content items which were asked about or,
+     * when none were, of (some of) the items which are not yet restored. One of
+     * PENDING, REQUESTED, IN_PROGRESS, RESTORED, NOT_ARCHIVED or FAILED.
+     */
+    @XmlValue
+    private Map<String, String> itemStates;
+
+    @XmlValue
+    private String error;
+
+    // Required by JAXB
+    public GetRestoreContentsStatusTaskResult() {
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getSpaceId() {
+        return spaceId;
+    }
+
+    public void setSpaceId(String spaceId) {
+        this.spaceId = spaceId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(long itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public long getItemsInProgress() {
+        return itemsInProgress;
+    }
+
+    public void setItemsInProgress(long itemsInProgress) {
+        this.itemsInProgress = itemsInProgress;
+    }
+
+    public long getItemsRestored() {
+        return itemsRestored;
+    }
+
+    public void setItemsRestored(long itemsRestored) {
+        this.itemsRestored = itemsRestored;
+    }
+
+    public long getItemsNotArchived() {
+        return itemsNotArchived;
+    }
+
+    public void setItemsNotArchived(long itemsNotArchived) {
+        this.itemsNotArchived = itemsNotArchived;
+    }
+
+    public long getItemsFailed() {
+        return itemsFailed;
+    }
+
+    public void setItemsFailed(long itemsFailed) {
+        this.itemsFailed = itemsFailed;
+    }
+
+    public Map<String, String> getItemStates() {
+        return itemStates;
+    }
+
+    public void setItemStates(Map<String, String> itemStates) {
+        this.itemStates = itemStates;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * Creates a serialized version of task results
+     *
+     * @return JSON formatted task result info
+     */
+    public String serialize() {
+        JaxbJsonSerializer<GetRestoreContentsStatusTaskResult> serializer =
+            new JaxbJsonSerializer<>(GetRestoreContentsStatusTaskResult.class);
+        try {
+            return serializer.serialize(this);
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to create task result due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses properties from task result
+     *
+     * @param taskResult - JSON formatted set of properties
+     */
+    public static GetRestoreContentsStatusTaskResult deserialize(String taskResult) {
+        JaxbJsonSerializer<GetRestoreContentsStatusTaskResult> serializer =
+            new JaxbJsonSerializer<>(GetRestoreContentsStatusTaskResult.class);
+        try {
+            return serializer.deserialize(taskResult);
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to create task result due to: " + e.getMessage());
+        }
+    }
+
+}
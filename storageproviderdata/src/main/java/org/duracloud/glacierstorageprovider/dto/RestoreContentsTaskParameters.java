@@ -0,0 +1,109 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glacierstorageprovider.dto;
+
+import java.io.IOException;
+import java.util.List;
+import javax.xml.bind.annotation.XmlValue;
+
+import org.duracloud.common.json.JaxbJsonSerializer;
+import org.duracloud.error.TaskDataException;
+
+/**
+ * Parameters of a task which restores archived content in a space. Either a
+ * prefix (all content with IDs starting with the prefix is restored, an empty
+ * prefix restores the whole space) or a list of content IDs is required.
+ * Chunked content is restored in full when either its ID or the ID of its
+ * manifest is included.
+ */
+public class RestoreContentsTaskParameters {
+
+    @XmlValue
+    private String spaceId;
+
+    @XmlValue
+    private String prefix;
+
+    @XmlValue
+    private List<String> contentIds;
+
+    // Required by JAXB
+    public RestoreContentsTaskParameters() {
+    }
+
+    public String getSpaceId() {
+        return spaceId;
+    }
+
+    public void setSpaceId(String spaceId) {
+        this.spaceId = spaceId;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public List<String> getContentIds() {
+        return contentIds;
+    }
+
+    public void setContentIds(List<String> contentIds) {
+        this.contentIds = contentIds;
+    }
+
+    /**
+     * Creates a serialized version of task parameters
+     *
+     * @return JSON formatted task result info
+     */
+    public String serialize() {
+        JaxbJsonSerializer<RestoreContentsTaskParameters> serializer =
+            new JaxbJsonSerializer<>(RestoreContentsTaskParameters.class);
+        try {
+            return serializer.serialize(this);
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to create task parameters due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses properties from task parameter string
+     *
+     * @param taskParameters - JSON formatted set of parameters
+     */
+    public static RestoreContentsTaskParameters deserialize(String taskParameters) {
+        JaxbJsonSerializer<RestoreContentsTaskParameters> serializer =
+            new JaxbJsonSerializer<>(RestoreContentsTaskParameters.class);
+        try {
+            RestoreContentsTaskParameters params =
+                serializer.deserialize(taskParameters);
+            // Verify expected parameters
+            if (null == params.getSpaceId() || params.getSpaceId().isEmpty()) {
+                throw new TaskDataException(
+                    "Task parameter values may not be empty");
+            }
+            boolean hasContentIds =
+                null != params.getContentIds() && !params.getContentIds().isEmpty();
+            if (hasContentIds == (null != params.getPrefix())) {
+                // Neither or both
+                throw new TaskDataException(
+                    "Either a prefix or a list of content IDs is required");
+            }
+            return params;
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to parse task parameters due to: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storageprovider.dto;
+
+import java.io.IOException;
+import javax.xml.bind.annotation.XmlValue;
+
+import org.duracloud.common.json.JaxbJsonSerializer;
+import org.duracloud.error.TaskDataException;
+
+/**
+ * Parameters of a task which copies all content in a space (or all content
+ * in a space with IDs starting with a given prefix) into another space. When
+ * no destination store is given, the destination space is in the same store
+ * as the source space.
+ */
+public class CopySpaceTaskParameters {
+
+    @XmlValue
+    private String spaceId;
+
+    @XmlValue
+    private String prefix;
+
+    @XmlValue
+    private String destStoreId;
+
+    @XmlValue
+    private String destSpaceId;
+
+    // Required by JAXB
+    public CopySpaceTaskParameters() {
+    }
+
+    public String getSpaceId() {
+        return spaceId;
+    }
+
+    public void setSpaceId(String spaceId) {
+        this.spaceId = spaceId;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String getDestStoreId() {
+        return destStoreId;
+    }
+
+    public void setDestStoreId(String destStoreId) {
+        this.destStoreId = destStoreId;
+    }
+
+    public String getDestSpaceId() {
+        return destSpaceId;
+    }
+
+    public void setDestSpaceId(String destSpaceId) {
+        this.destSpaceId = destSpaceId;
+    }
+
+    /**
+     * Creates a serialized version of task parameters
+     *
+     * @return JSON formatted task result info
+     */
+    public String serialize() {
+        JaxbJsonSerializer<CopySpaceTaskParameters> serializer =
+            new JaxbJsonSerializer<>(CopySpaceTaskParameters.class);
+        try {
+            return serializer.serialize(this);
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to create task parameters due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses properties from task parameter string
+     *
+     * @param taskParameters - JSON formatted set of parameters
+     */
+    public static CopySpaceTaskParameters deserialize(String taskParameters) {
+        JaxbJsonSerializer<CopySpaceTaskParameters> serializer =
+            new JaxbJsonSerializer<>(CopySpaceTaskParameters.class);
+        try {
+            CopySpaceTaskParameters params =
+                serializer.deserialize(taskParameters);
+            // Verify expected parameters
+            if (null == params.getSpaceId() || params.getSpaceId().isEmpty() ||
+                null == params.getDestSpaceId() || params.getDestSpaceId().isEmpty()) {
+                throw new TaskDataException(
+                    "Task parameter values may not be empty");
+            }
+            return params;
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to parse task parameters due to: " + e.getMessage());
+        }
+    }
+
+}
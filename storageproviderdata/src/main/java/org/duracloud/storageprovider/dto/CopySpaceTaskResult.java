@@ -0,0 +1,85 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storageprovider.dto;
+
+import java.io.IOException;
+import javax.xml.bind.annotation.XmlValue;
+
+import org.duracloud.common.json.JaxbJsonSerializer;
+import org.duracloud.error.TaskDataException;
+
+/**
+ * Result of starting a space copy. The job ID is used to request the status
+ * of the copy.
+ */
+public class CopySpaceTaskResult {
+
+    @XmlValue
+    private String jobId;
+
+    @XmlValue
+    private String result;
+
+    // Required by JAXB
+    public CopySpaceTaskResult() {
+    }
+
+    public CopySpaceTaskResult(String jobId, String result) {
+        this.jobId = jobId;
+        this.result = result;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    /**
+     * Creates a serialized version of task results
+     *
+     * @return JSON formatted task result info
+     */
+    public String serialize() {
+        JaxbJsonSerializer<CopySpaceTaskResult> serializer =
+            new JaxbJsonSerializer<>(CopySpaceTaskResult.class);
+        try {
+            return serializer.serialize(this);
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to create task result due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses properties from task result
+     *
+     * @param taskResult - JSON formatted set of properties
+     */
+    public static CopySpaceTaskResult deserialize(String taskResult) {
+        JaxbJsonSerializer<CopySpaceTaskResult> serializer =
+            new JaxbJsonSerializer<>(CopySpaceTaskResult.class);
+        try {
+            return serializer.deserialize(taskResult);
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to create task result due to: " + e.getMessage());
+        }
+    }
+
+}
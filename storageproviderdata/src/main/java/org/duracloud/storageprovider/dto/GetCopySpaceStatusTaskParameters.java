@@ -0,0 +1,75 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storageprovider.dto;
+
+import java.io.IOException;
+import javax.xml.bind.annotation.XmlValue;
+
+import org.duracloud.common.json.JaxbJsonSerializer;
+import org.duracloud.error.TaskDataException;
+
+/**
+ * Parameters of a task which retrieves the status of a space copy
+ */
+public class GetCopySpaceStatusTaskParameters {
+
+    @XmlValue
+    private String jobId;
+
+    // Required by JAXB
+    public GetCopySpaceStatusTaskParameters() {
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    /**
+     * Creates a serialized version of task parameters
+     *
+     * @return JSON formatted task result info
+     */
+    public String serialize() {
+        JaxbJsonSerializer<GetCopySpaceStatusTaskParameters> serializer =
+            new JaxbJsonSerializer<>(GetCopySpaceStatusTaskParameters.class);
+        try {
+            return serializer.serialize(this);
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to create task parameters due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses properties from task parameter string
+     *
+     * @param taskParameters - JSON formatted set of parameters
+     */
+    public static GetCopySpaceStatusTaskParameters deserialize(String taskParameters) {
+        JaxbJsonSerializer<GetCopySpaceStatusTaskParameters> serializer =
+            new JaxbJsonSerializer<>(GetCopySpaceStatusTaskParameters.class);
+        try {
+            GetCopySpaceStatusTaskParameters params =
+                serializer.deserialize(taskParameters);
+            // Verify expected parameters
+            if (null == params.getJobId() || params.getJobId().isEmpty()) {
+                throw new TaskDataException(
+                    "Task parameter values may not be empty");
+            }
+            return params;
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to parse task parameters due to: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storageprovider.dto;
+
+import java.io.IOException;
+import java.util.List;
+import javax.xml.bind.annotation.XmlValue;
+
+import org.duracloud.common.json.JaxbJsonSerializer;
+import org.duracloud.error.TaskDataException;
+
+/**
+ * Status of a space copy
+ */
+public class GetCopySpaceStatusTaskResult {
+
+    @XmlValue
+    private String jobId;
+
+    /**
+     * One of QUEUED, RUNNING, COMPLETE or FAILED
+     */
+    @XmlValue
+    private String status;
+
+    @XmlValue
+    private long itemsCopied;
+
+    @XmlValue
+    private long itemsFailed;
+
+    /**
+     * ID of the last content item of the source space for which it is known
+     * that it, and every item listed before it, has been handled
+     */
+    @XmlValue
+    private String lastContentId;
+
+    /**
+     * IDs of (some of) the content items which could not be copied
+     */
+    @XmlValue
+    private List<String> failedContentIds;
+
+    @XmlValue
+    private String error;
+
+    // Required by JAXB
+    public GetCopySpaceStatusTaskResult() {
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getItemsCopied() {
+        return itemsCopied;
+    }
+
+    public void setItemsCopied(long itemsCopied) {
+        this.itemsCopied = itemsCopied;
+    }
+
+    public long getItemsFailed() {
+        return itemsFailed;
+    }
+
+    public void setItemsFailed(long itemsFailed) {
+        this.itemsFailed = itemsFailed;
+    }
+
+    public String getLastContentId() {
+        return lastContentId;
+    }
+
+    public void setLastContentId(String lastContentId) {
+        this.lastContentId = lastContentId;
+    }
+
+    public List<String> getFailedContentIds() {
+        return failedContentIds;
+    }
+
+    public void setFailedContentIds(List<String> failedContentIds) {
+        this.failedContentIds = failedContentIds;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * Creates a serialized version of task results
+     *
+     * @return JSON formatted task result info
+     */
+    public String serialize() {
+        JaxbJsonSerializer<GetCopySpaceStatusTaskResult> serializer =
+            new JaxbJsonSerializer<>(GetCopySpaceStatusTaskResult.class);
+        try {
+            return serializer.serialize(this);
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to create task result due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses properties from task result
+     *
+     * @param taskResult - JSON formatted set of properties
+     */
+    public static GetCopySpaceStatusTaskResult deserialize(String taskResult) {
+        JaxbJsonSerializer<GetCopySpaceStatusTaskResult> serializer =
+            new JaxbJsonSerializer<>(GetCopySpaceStatusTaskResult.class);
+        try {
+            return serializer.deserialize(taskResult);
+        } catch (IOException e) {
+            throw new TaskDataException(
+                "Unable to create task result due to: " + e.getMessage());
+        }
+    }
+
+}
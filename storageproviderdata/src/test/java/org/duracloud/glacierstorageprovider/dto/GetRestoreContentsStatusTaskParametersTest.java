@@ -0,0 +1,74 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glacierstorageprovider.dto;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.junit.matchers.JUnitMatchers.containsString;
+
+import java.util.Arrays;
+
+import org.duracloud.error.TaskDataException;
+import org.junit.Test;
+
+public class GetRestoreContentsStatusTaskParametersTest {
+
+    private final String jobId = "job-id";
+    private final String contentId = "content-id";
+
+    @Test
+    public void testSerialize() {
+        GetRestoreContentsStatusTaskParameters taskParams =
+            new GetRestoreContentsStatusTaskParameters();
+        taskParams.setJobId(jobId);
+        taskParams.setContentIds(Arrays.asList(contentId));
+
+        String result = taskParams.serialize();
+        String cleanResult = result.replaceAll("\\s+", "");
+        assertThat(cleanResult, containsString("\"jobId\":\"" + jobId + "\""));
+        assertThat(cleanResult, containsString("\"contentIds\":[\"" + contentId + "\"]"));
+    }
+
+    @Test
+    public void testDeserialize() {
+        // Verify valid params
+        String taskParamsSerialized = "{\"jobId\" : \"" + jobId + "\"," +
+                                      "\"contentIds\" : [\"" + contentId + "\"]}";
+
+        GetRestoreContentsStatusTaskParameters taskParams =
+            GetRestoreContentsStatusTaskParameters.deserialize(taskParamsSerialized);
+        assertEquals(jobId, taskParams.getJobId());
+        assertEquals(Arrays.asList(contentId), taskParams.getContentIds());
+
+        // Verify that content IDs are optional
+        taskParamsSerialized = "{\"jobId\" : \"" + jobId + "\"}";
+        taskParams =
+            GetRestoreContentsStatusTaskParameters.deserialize(taskParamsSerialized);
+        assertNull(taskParams.getContentIds());
+
+        // Verify that empty params throw
+        taskParamsSerialized = "{\"jobId\" : \"\"}";
+        try {
+            GetRestoreContentsStatusTaskParameters.deserialize(taskParamsSerialized);
+            fail("Exception expected: Invalid params");
+        } catch (TaskDataException e) {
+            // Expected exception
+        }
+
+        // Verify that empty params throw
+        try {
+            GetRestoreContentsStatusTaskParameters.deserialize("");
+            fail("Exception expected: Invalid params");
+        } catch (TaskDataException e) {
+            // Expected exception
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glacierstorageprovider.dto;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.matchers.JUnitMatchers.containsString;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class GetRestoreContentsStatusTaskResultTest {
+
+    private final String jobId = "job-id";
+    private final String spaceId = "space-id";
+    private final String status = "WAITING";
+    private final long itemCount = 42;
+    private final long itemsInProgress = 30;
+    private final long itemsRestored = 10;
+    private final long itemsNotArchived = 1;
+    private final long itemsFailed = 1;
+    private final String contentId = "item-7";
+    private final String itemState = "IN_PROGRESS";
+
+    @Test
+    public void testSerialize() {
+        GetRestoreContentsStatusTaskResult taskResult =
+            new GetRestoreContentsStatusTaskResult();
+        taskResult.setJobId(jobId);
+        taskResult.setSpaceId(spaceId);
+        taskResult.setStatus(status);
+        taskResult.setItemCount(itemCount);
+        taskResult.setItemsInProgress(itemsInProgress);
+        taskResult.setItemsRestored(itemsRestored);
+        taskResult.setItemsNotArchived(itemsNotArchived);
+        taskResult.setItemsFailed(itemsFailed);
+        taskResult.setItemStates(Collections.singletonMap(contentId, itemState));
+
+        String result = taskResult.serialize();
+        String cleanResult = result.replaceAll("\\s+", "");
+        assertThat(cleanResult, containsString("\"jobId\":\"" + jobId + "\""));
+        assertThat(cleanResult, containsString("\"spaceId\":\"" + spaceId + "\""));
+        assertThat(cleanResult, containsString("\"status\":\"" + status + "\""));
+        assertThat(cleanResult, containsString("\"itemCount\":" + itemCount));
+        assertThat(cleanResult, containsString("\"itemsInProgress\":" + itemsInProgress));
+        assertThat(cleanResult, containsString("\"itemsRestored\":" + itemsRestored));
+        assertThat(cleanResult, containsString("\"itemsNotArchived\":" + itemsNotArchived));
+        assertThat(cleanResult, containsString("\"itemsFailed\":" + itemsFailed));
+        assertThat(cleanResult,
+                   containsString("\"itemStates\":{\"" + contentId + "\":\"" + itemState + "\"}"));
+    }
+
+    @Test
+    public void testDeserialize() {
+        String resultSerialized = "{\"jobId\" : \"" + jobId + "\"," +
+                                  "\"spaceId\" : \"" + spaceId + "\"," +
+                                  "\"status\" : \"" + status + "\"," +
+                                  "\"itemCount\" : " + itemCount + "," +
+                                  "\"itemsInProgress\" : " + itemsInProgress + "," +
+                                  "\"itemsRestored\" : " + itemsRestored + "," +
+                                  "\"itemsNotArchived\" : " + itemsNotArchived + "," +
+                                  "\"itemsFailed\" : " + itemsFailed + "," +
+                                  "\"itemStates\" : {\"" + contentId + "\" : \"" +
+                                  itemState + "\"}}";
+
+        GetRestoreContentsStatusTaskResult taskResult =
+            GetRestoreContentsStatusTaskResult.deserialize(resultSerialized);
+        assertEquals(jobId, taskResult.getJobId());
+        assertEquals(spaceId, taskResult.getSpaceId());
+        assertEquals(status, taskResult.getStatus());
+        assertEquals(itemCount, taskResult.getItemCount());
+        assertEquals(itemsInProgress, taskResult.getItemsInProgress());
+        assertEquals(itemsRestored, taskResult.getItemsRestored());
+        assertEquals(itemsNotArchived, taskResult.getItemsNotArchived());
+        assertEquals(itemsFailed, taskResult.getItemsFailed());
+        assertEquals(Collections.singletonMap(contentId, itemState),
+                     taskResult.getItemStates());
+    }
+
+}
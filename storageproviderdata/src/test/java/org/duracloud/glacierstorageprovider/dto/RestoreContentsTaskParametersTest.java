@@ -0,0 +1,87 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glacierstorageprovider.dto;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.junit.matchers.JUnitMatchers.containsString;
+
+import java.util.Arrays;
+
+import org.duracloud.error.TaskDataException;
+import org.junit.Test;
+
+public class RestoreContentsTaskParametersTest {
+
+    private final String spaceId = "space-id";
+    private final String prefix = "prefix/";
+    private final String contentId = "content-id";
+
+    @Test
+    public void testSerialize() {
+        RestoreContentsTaskParameters taskParams = new RestoreContentsTaskParameters();
+        taskParams.setSpaceId(spaceId);
+        taskParams.setPrefix(prefix);
+        taskParams.setContentIds(Arrays.asList(contentId));
+
+        String result = taskParams.serialize();
+        String cleanResult = result.replaceAll("\\s+", "");
+        assertThat(cleanResult, containsString("\"spaceId\":\"" + spaceId + "\""));
+        assertThat(cleanResult, containsString("\"prefix\":\"" + prefix + "\""));
+        assertThat(cleanResult, containsString("\"contentIds\":[\"" + contentId + "\"]"));
+    }
+
+    @Test
+    public void testDeserialize() {
+        // Verify valid params
+        String taskParamsSerialized = "{\"spaceId\" : \"" + spaceId + "\"," +
+                                      "\"prefix\" : \"" + prefix + "\"}";
+
+        RestoreContentsTaskParameters taskParams =
+            RestoreContentsTaskParameters.deserialize(taskParamsSerialized);
+        assertEquals(spaceId, taskParams.getSpaceId());
+        assertEquals(prefix, taskParams.getPrefix());
+        assertNull(taskParams.getContentIds());
+
+        taskParamsSerialized = "{\"spaceId\" : \"" + spaceId + "\"," +
+                               "\"contentIds\" : [\"" + contentId + "\"]}";
+        taskParams = RestoreContentsTaskParameters.deserialize(taskParamsSerialized);
+        assertNull(taskParams.getPrefix());
+        assertEquals(Arrays.asList(contentId), taskParams.getContentIds());
+
+        // Verify that an empty prefix (the whole space) is allowed
+        taskParamsSerialized = "{\"spaceId\" : \"" + spaceId + "\"," +
+                               "\"prefix\" : \"\"}";
+        taskParams = RestoreContentsTaskParameters.deserialize(taskParamsSerialized);
+        assertEquals("", taskParams.getPrefix());
+
+        // Verify that a prefix or content IDs are required, but not both
+        invalidParams("{\"spaceId\" : \"" + spaceId + "\"}");
+        invalidParams("{\"spaceId\" : \"" + spaceId + "\"," +
+                      "\"contentIds\" : []}");
+        invalidParams("{\"spaceId\" : \"" + spaceId + "\"," +
+                      "\"prefix\" : \"" + prefix + "\"," +
+                      "\"contentIds\" : [\"" + contentId + "\"]}");
+
+        // Verify that empty params throw
+        invalidParams("{\"spaceId\" : \"\", \"prefix\" : \"" + prefix + "\"}");
+        invalidParams("");
+    }
+
+    private void invalidParams(String taskParamsSerialized) {
+        try {
+            RestoreContentsTaskParameters.deserialize(taskParamsSerialized);
+            fail("Exception expected: Invalid params");
+        } catch (TaskDataException e) {
+            // Expected exception
+        }
+    }
+
+}
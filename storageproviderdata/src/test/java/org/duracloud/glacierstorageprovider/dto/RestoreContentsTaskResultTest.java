@@ -0,0 +1,43 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.glacierstorageprovider.dto;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.matchers.JUnitMatchers.containsString;
+
+import org.junit.Test;
+
+public class RestoreContentsTaskResultTest {
+
+    private final String jobId = "job-id";
+    private final String resultValue = "task-result";
+
+    @Test
+    public void testSerialize() {
+        RestoreContentsTaskResult taskResult =
+            new RestoreContentsTaskResult(jobId, resultValue);
+
+        String result = taskResult.serialize();
+        String cleanResult = result.replaceAll("\\s+", "");
+        assertThat(cleanResult, containsString("\"jobId\":\"" + jobId + "\""));
+        assertThat(cleanResult, containsString("\"result\":\"" + resultValue + "\""));
+    }
+
+    @Test
+    public void testDeserialize() {
+        String resultSerialized = "{\"jobId\" : \"" + jobId + "\"," +
+                                  "\"result\" : \"" + resultValue + "\"}";
+
+        RestoreContentsTaskResult taskResult =
+            RestoreContentsTaskResult.deserialize(resultSerialized);
+        assertEquals(jobId, taskResult.getJobId());
+        assertEquals(resultValue, taskResult.getResult());
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storageprovider.dto;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.junit.matchers.JUnitMatchers.containsString;
+
+import org.duracloud.error.TaskDataException;
+import org.junit.Test;
+
+public class CopySpaceTaskParametersTest {
+
+    private final String spaceId = "space-id";
+    private final String prefix = "prefix/";
+    private final String destStoreId = "1";
+    private final String destSpaceId = "dest-space-id";
+
+    @Test
+    public void testSerialize() {
+        CopySpaceTaskParameters taskParams = new CopySpaceTaskParameters();
+        taskParams.setSpaceId(spaceId);
+        taskParams.setPrefix(prefix);
+        taskParams.setDestStoreId(destStoreId);
+        taskParams.setDestSpaceId(destSpaceId);
+
+        String result = taskParams.serialize();
+        String cleanResult = result.replaceAll("\\s+", "");
+        assertThat(cleanResult, containsString("\"spaceId\":\"" + spaceId + "\""));
+        assertThat(cleanResult, containsString("\"prefix\":\"" + prefix + "\""));
+        assertThat(cleanResult, containsString("\"destStoreId\":\"" + destStoreId + "\""));
+        assertThat(cleanResult, containsString("\"destSpaceId\":\"" + destSpaceId + "\""));
+    }
+
+    @Test
+    public void testDeserialize() {
+        // Verify valid params
+        String taskParamsSerialized = "{\"spaceId\" : \"" + spaceId + "\"," +
+                                      "\"prefix\" : \"" + prefix + "\"," +
+                                      "\"destStoreId\" : \"" + destStoreId + "\"," +
+                                      "\"destSpaceId\" : \"" + destSpaceId + "\"}";
+
+        CopySpaceTaskParameters taskParams =
+            CopySpaceTaskParameters.deserialize(taskParamsSerialized);
+        assertEquals(spaceId, taskParams.getSpaceId());
+        assertEquals(prefix, taskParams.getPrefix());
+        assertEquals(destStoreId, taskParams.getDestStoreId());
+        assertEquals(destSpaceId, taskParams.getDestSpaceId());
+
+        // Verify that prefix and destination store are optional
+        taskParamsSerialized = "{\"spaceId\" : \"" + spaceId + "\"," +
+                               "\"destSpaceId\" : \"" + destSpaceId + "\"}";
+        taskParams = CopySpaceTaskParameters.deserialize(taskParamsSerialized);
+        assertNull(taskParams.getPrefix());
+        assertNull(taskParams.getDestStoreId());
+
+        // Verify that empty params throw
+        taskParamsSerialized = "{\"spaceId\" : \"\", " +
+                               "\"destSpaceId\" : \"\"}";
+        try {
+            CopySpaceTaskParameters.deserialize(taskParamsSerialized);
+            fail("Exception expected: Invalid params");
+        } catch (TaskDataException e) {
+            // Expected exception
+        }
+
+        // Verify that empty params throw
+        try {
+            CopySpaceTaskParameters.deserialize("");
+            fail("Exception expected: Invalid params");
+        } catch (TaskDataException e) {
+            // Expected exception
+        }
+    }
+
+}
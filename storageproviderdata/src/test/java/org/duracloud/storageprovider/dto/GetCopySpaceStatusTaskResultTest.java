@@ -0,0 +1,66 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storageprovider.dto;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.matchers.JUnitMatchers.containsString;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class GetCopySpaceStatusTaskResultTest {
+
+    private final String jobId = "job-id";
+    private final String status = "RUNNING";
+    private final long itemsCopied = 42;
+    private final long itemsFailed = 1;
+    private final String lastContentId = "item-41";
+    private final String failedContentId = "item-7";
+
+    @Test
+    public void testSerialize() {
+        GetCopySpaceStatusTaskResult taskResult = new GetCopySpaceStatusTaskResult();
+        taskResult.setJobId(jobId);
+        taskResult.setStatus(status);
+        taskResult.setItemsCopied(itemsCopied);
+        taskResult.setItemsFailed(itemsFailed);
+        taskResult.setLastContentId(lastContentId);
+        taskResult.setFailedContentIds(Arrays.asList(failedContentId));
+
+        String result = taskResult.serialize();
+        String cleanResult = result.replaceAll("\\s+", "");
+        assertThat(cleanResult, containsString("\"jobId\":\"" + jobId + "\""));
+        assertThat(cleanResult, containsString("\"status\":\"" + status + "\""));
+        assertThat(cleanResult, containsString("\"itemsCopied\":" + itemsCopied));
+        assertThat(cleanResult, containsString("\"itemsFailed\":" + itemsFailed));
+        assertThat(cleanResult, containsString("\"lastContentId\":\"" + lastContentId + "\""));
+        assertThat(cleanResult, containsString("\"failedContentIds\":[\"" + failedContentId + "\"]"));
+    }
+
+    @Test
+    public void testDeserialize() {
+        String resultSerialized = "{\"jobId\" : \"" + jobId + "\"," +
+                                  "\"status\" : \"" + status + "\"," +
+                                  "\"itemsCopied\" : " + itemsCopied + "," +
+                                  "\"itemsFailed\" : " + itemsFailed + "," +
+                                  "\"lastContentId\" : \"" + lastContentId + "\"," +
+                                  "\"failedContentIds\" : [\"" + failedContentId + "\"]}";
+
+        GetCopySpaceStatusTaskResult taskResult =
+            GetCopySpaceStatusTaskResult.deserialize(resultSerialized);
+        assertEquals(jobId, taskResult.getJobId());
+        assertEquals(status, taskResult.getStatus());
+        assertEquals(itemsCopied, taskResult.getItemsCopied());
+        assertEquals(itemsFailed, taskResult.getItemsFailed());
+        assertEquals(lastContentId, taskResult.getLastContentId());
+        assertEquals(Arrays.asList(failedContentId), taskResult.getFailedContentIds());
+    }
+
+}
@@ -140,6 +140,9 @@ public interface ContentStore {
      * order to retrieve the entire list. Allows for limiting the content id
      * list to items which start with a given prefix.
      *
+     * The next page of the list is requested in the background while the
+     * current page is consumed.
+     *
      * @param spaceId the identifier of the DuraCloud Space
      * @param prefix  only retrieve content ids with this prefix (null for all content ids)
      * @return Iterator for content IDs
@@ -384,6 +387,21 @@ public interface ContentStore {
                                                     String contentId)
         throws ContentStoreException;
 
+    /**
+     * Retrieves the properties associated with content, if the content exists.
+     * Unlike getContentProperties(), content which does not exist is reported
+     * after a single request rather than being retried.
+     *
+     * @param spaceId   the identifier of the DuraCloud Space
+     * @param contentId the identifier of the content item
+     * @return the map of properties values linked to the given contentId, or
+     * null if the space or content does not exist
+     * @throws ContentStoreException if an error occurs
+     */
+    public Map<String, String> getContentPropertiesIfExists(String spaceId,
+                                                            String contentId)
+        throws ContentStoreException;
+
     /**
      * Determines if a content item exists in a given space
      *
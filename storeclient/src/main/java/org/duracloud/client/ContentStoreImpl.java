@@ -310,7 +310,7 @@ public class ContentStoreImpl implements ContentStore {
             @Override
             public Iterator<String> retry() throws ContentStoreException {
                 // The actual method being executed
-                return new ContentIterator(store, spaceId, prefix);
+                return new PrefetchingContentIterator(store, spaceId, prefix);
             }
         });
     }
@@ -931,6 +931,26 @@ public class ContentStoreImpl implements ContentStore {
         });
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, String> getContentPropertiesIfExists(final String spaceId,
+                                                            final String contentId)
+        throws ContentStoreException {
+        return execute(new Retriable() {
+            @Override
+            public Map<String, String> retry() throws ContentStoreException {
+                // Content which is not found is not retried
+                try {
+                    return doGetContentProperties(spaceId, contentId);
+                } catch (NotFoundException e) {
+                    return null;
+                }
+            }
+        });
+    }
+
     private Map<String, String> doGetContentProperties(String spaceId,
                                                        String contentId)
         throws ContentStoreException {
@@ -0,0 +1,135 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.client;
+
+import java.util.List;
+
+import org.duracloud.common.util.WaitUtil;
+import org.duracloud.error.ContentStoreException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.PrefetchingPageIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterates over the content list in a DuraCloud space, in the same way as
+ * ContentIterator, but requests the next page of the listing as soon as the
+ * previous page has been received, so that listing requests overlap with the
+ * caller's processing of the items already listed. Errors retrieving a page
+ * (after retries) are thrown from hasNext() or next(), wrapped in a
+ * RuntimeException.
+ *
+ * @see PrefetchingPageIterator
+ */
+public class PrefetchingContentIterator extends PrefetchingPageIterator<String> {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(PrefetchingContentIterator.class);
+
+    public static final int DEFAULT_PREFETCH_DEPTH = 2;
+
+    private final SpaceLister lister;
+
+    public PrefetchingContentIterator(ContentStore store,
+                                      String spaceId,
+                                      String prefix) throws ContentStoreException {
+        this(store, spaceId, prefix, StorageProvider.DEFAULT_MAX_RESULTS,
+             DEFAULT_PREFETCH_DEPTH);
+    }
+
+    /**
+     * The first page is retrieved before the constructor returns.
+     *
+     * @param store         content store holding the space
+     * @param spaceId       space to iterate over
+     * @param prefix        only IDs starting with this prefix are included,
+     *                      may be null
+     * @param maxResults    number of IDs to retrieve in each page
+     * @param prefetchDepth number of pages to retrieve ahead of the page
+     *                      being consumed
+     */
+    public PrefetchingContentIterator(ContentStore store,
+                                      String spaceId,
+                                      String prefix,
+                                      long maxResults,
+                                      int prefetchDepth) throws ContentStoreException {
+        this(new SpaceLister(store, spaceId, prefix, maxResults, prefetchDepth),
+             prefetchDepth);
+    }
+
+    private PrefetchingContentIterator(SpaceLister lister, int prefetchDepth)
+        throws ContentStoreException {
+        super(lister.fetchPage(null), lister, prefetchDepth,
+              "space " + lister.spaceId);
+        this.lister = lister;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        if (maxRetries >= 0) {
+            lister.maxRetries = maxRetries;
+        }
+    }
+
+    /**
+     * Stops retrieving pages. Any listing request in flight is interrupted,
+     * and retries of a failed request are abandoned.
+     */
+    @Override
+    public void close() {
+        lister.closed = true;
+        super.close();
+    }
+
+    /*
+     * Lists pages of the space, retrying failed requests.
+     */
+    private static class SpaceLister implements PageFetcher<String> {
+
+        private final ContentStore store;
+        private final String spaceId;
+        private final String prefix;
+        private final long maxResults;
+        private volatile int maxRetries = 7;
+        private volatile boolean closed = false;
+
+        public SpaceLister(ContentStore store,
+                           String spaceId,
+                           String prefix,
+                           long maxResults,
+                           int prefetchDepth) {
+            if (maxResults <= 0 || prefetchDepth <= 0) {
+                throw new IllegalArgumentException(
+                    "Max results and prefetch depth must be greater than 0");
+            }
+            this.store = store;
+            this.spaceId = spaceId;
+            this.prefix = prefix;
+            this.maxResults = maxResults;
+        }
+
+        @Override
+        public List<String> fetchPage(String lastItem)
+            throws ContentStoreException {
+            ContentStoreException lastException =
+                new ContentStoreException("Listing of space " + spaceId + " was closed");
+            // Retries are abandoned once the iterator is closed
+            for (int i = 0; i <= maxRetries && !closed; i++) {
+                try {
+                    return store.getSpace(spaceId, prefix, maxResults, lastItem)
+                                .getContentIds();
+                } catch (ContentStoreException e) {
+                    lastException = e;
+                    log.warn(e.getMessage());
+                    WaitUtil.wait(i);
+                }
+            }
+            throw lastException;
+        }
+    }
+
+}
@@ -34,6 +34,7 @@ import org.duracloud.common.json.JaxbJsonSerializer;
 import org.duracloud.common.model.AclType;
 import org.duracloud.common.retry.Retriable;
 import org.duracloud.common.util.SerializationUtil;
+import org.duracloud.common.web.EncodeUtil;
 import org.duracloud.common.web.RestHttpHelper;
 import org.duracloud.domain.Content;
 import org.duracloud.domain.Space;
@@ -156,12 +157,28 @@ public class ContentStoreImplTest {
         EasyMock.expect(restHelper.get(fullURL)).andReturn(response);
         EasyMock.expect(response.getResponseHeaders()).andReturn(new Header[0]);
 
+        // The next page is requested in the background
+        RestHttpHelper.HttpResponse nextResponse =
+            EasyMock.createMock("NextHttpResponse", RestHttpHelper.HttpResponse.class);
+        String nextURL = baseURL + "/" + spaceId +
+                         "?maxResults=" + StorageProvider.DEFAULT_MAX_RESULTS +
+                         "&marker=" + EncodeUtil.urlEncode("Image 2") +
+                         "&storeID=" + storeId;
+        EasyMock.expect(nextResponse.getStatusCode()).andReturn(200);
+        EasyMock.expect(nextResponse.getResponseBody())
+                .andReturn("<space id=\"space1\"></space>");
+        EasyMock.expect(nextResponse.getResponseHeaders()).andReturn(new Header[0]);
+        EasyMock.expect(restHelper.get(nextURL)).andReturn(nextResponse);
+
         replayMocks();
+        EasyMock.replay(nextResponse);
 
         Iterator<String> spaceContents = contentStore.getSpaceContents(spaceId);
         Assert.assertNotNull(spaceContents);
         Assert.assertEquals("Image 1", spaceContents.next());
         Assert.assertEquals("Image 2", spaceContents.next());
+        Assert.assertFalse(spaceContents.hasNext());
+        EasyMock.verify(nextResponse);
     }
 
     @Test
@@ -429,6 +446,26 @@ public class ContentStoreImplTest {
         Assert.assertEquals("custom", props.get("custom-property"));
     }
 
+    /*
+     * Content which is not found is reported after a single request, while
+     * other errors are retried
+     */
+    @Test
+    public void testGetContentPropertiesIfExists() throws Exception {
+        String fullURL = baseURL + "/" + spaceId + "/" + contentId +
+                         "?storeID=" + storeId;
+        EasyMock.expect(response.getStatusCode())
+                .andReturn(HttpStatus.SC_SERVICE_UNAVAILABLE);
+        EasyMock.expect(response.getStatusCode())
+                .andReturn(HttpStatus.SC_NOT_FOUND);
+        EasyMock.expect(response.getResponseBody()).andReturn("").times(2);
+        EasyMock.expect(restHelper.head(fullURL)).andReturn(response).times(2);
+
+        replayMocks();
+
+        Assert.assertNull(contentStore.getContentPropertiesIfExists(spaceId, contentId));
+    }
+
     @Test
     public void testContentExists() throws Exception {
         String fullURL = baseURL + "/" + spaceId + "/" + contentId +
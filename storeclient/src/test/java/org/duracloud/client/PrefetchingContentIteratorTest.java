@@ -0,0 +1,214 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.duracloud.common.web.EncodeUtil;
+import org.duracloud.common.web.RestHttpHelper;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests the prefetching content iterator through a ContentStoreImpl against
+ * an in-process DuraStore stand-in which answers space listing requests
+ * after a delay.
+ */
+public class PrefetchingContentIteratorTest {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(PrefetchingContentIteratorTest.class);
+
+    private static final int ITEMS = 100;
+    private static final int PAGE_SIZE = 10;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ContentStore store;
+
+    private volatile long latency = 0;
+    private final Set<String> failingMarkers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/durastore/space1", this::handle);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        String baseURL = "http://127.0.0.1:" + server.getAddress().getPort() +
+                         "/durastore";
+        store = new ContentStoreImpl(baseURL, StorageProviderType.AMAZON_S3, "0",
+                                     new RestHttpHelper(), 0);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        inFlight.incrementAndGet();
+        try {
+            respond(exchange);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        String marker = null;
+        int maxResults = ITEMS;
+        for (String param : exchange.getRequestURI().getRawQuery().split("&")) {
+            String[] pair = param.split("=");
+            if ("marker".equals(pair[0])) {
+                marker = EncodeUtil.urlDecode(pair[1]);
+            } else if ("maxResults".equals(pair[0])) {
+                maxResults = Integer.parseInt(pair[1]);
+            }
+        }
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (null != marker && failingMarkers.contains(marker)) {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+            return;
+        }
+
+        int first = null == marker ? 0 : Integer.parseInt(marker.substring(5)) + 1;
+        StringBuilder xml = new StringBuilder("<space id=\"space1\">");
+        for (int i = first; i < ITEMS && i < first + maxResults; i++) {
+            xml.append("<item>").append(name(i)).append("</item>");
+        }
+        xml.append("</space>");
+
+        byte[] body = xml.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/xml");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private String name(int item) {
+        return String.format("item %03d", item);
+    }
+
+    @Test
+    public void testIterator() throws Exception {
+        try (PrefetchingContentIterator iterator =
+                 new PrefetchingContentIterator(store, "space1", null, PAGE_SIZE, 2)) {
+            for (int i = 0; i < ITEMS; i++) {
+                assertTrue(iterator.hasNext());
+                assertEquals(name(i), iterator.next());
+            }
+            assertFalse(iterator.hasNext());
+        }
+
+        // One request per page, plus the request which finds no more items
+        assertEquals(ITEMS / PAGE_SIZE + 1, requests.get());
+    }
+
+    @Test
+    public void testError() throws Exception {
+        failingMarkers.add(name(PAGE_SIZE * 3 - 1));
+        PrefetchingContentIterator iterator =
+            new PrefetchingContentIterator(store, "space1", null, PAGE_SIZE, 2);
+        iterator.setMaxRetries(0);
+
+        // Pages listed before the failure are provided first
+        for (int i = 0; i < PAGE_SIZE * 3; i++) {
+            assertEquals(name(i), iterator.next());
+        }
+        try {
+            iterator.hasNext();
+            fail("Exception expected");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("space1"));
+        }
+    }
+
+    /*
+     * Checks that the next page is being listed while the consumer works on
+     * the current page.
+     */
+    @Test
+    public void testListingOverlapsConsumer() throws Exception {
+        latency = 50;
+
+        int overlappingPages;
+        try (PrefetchingContentIterator iterator =
+                 new PrefetchingContentIterator(store, "space1", null, PAGE_SIZE, 2)) {
+            overlappingPages = consume(iterator, latency);
+        }
+
+        int pages = ITEMS / PAGE_SIZE;
+        log.info("{} of {} pages overlapped with a listing request",
+                 overlappingPages, pages);
+        // The request listing the end of the space may complete before the
+        // last page is consumed, every other page overlaps with a request
+        assertTrue("Pages overlapping a request: " + overlappingPages,
+                   overlappingPages >= pages - 1);
+    }
+
+    /*
+     * Consumes the iterator, doing work for each page. Returns the number of
+     * pages during which a listing request was seen in flight.
+     */
+    private int consume(Iterator<String> iterator, long pageWorkMillis)
+        throws InterruptedException {
+        int count = 0;
+        int overlappingPages = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            if (++count % PAGE_SIZE == 0) {
+                boolean overlap = false;
+                long end = System.currentTimeMillis() + pageWorkMillis;
+                while (System.currentTimeMillis() < end) {
+                    overlap |= inFlight.get() > 0;
+                    Thread.sleep(1);
+                }
+                if (overlap) {
+                    overlappingPages++;
+                }
+            }
+        }
+        assertEquals(ITEMS, count);
+        return overlappingPages;
+    }
+
+}
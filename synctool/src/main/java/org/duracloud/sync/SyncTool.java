@@ -19,6 +19,7 @@ import org.duracloud.common.util.ApplicationConfig;
 import org.duracloud.sync.backup.SyncBackupManager;
 import org.duracloud.sync.config.SyncToolConfig;
 import org.duracloud.sync.config.SyncToolConfigParser;
+import org.duracloud.sync.endpoint.ChunkDeleteRetryList;
 import org.duracloud.sync.endpoint.DuraStoreChunkSyncEndpoint;
 import org.duracloud.sync.endpoint.EndPointLogger;
 import org.duracloud.sync.endpoint.SyncEndpoint;
@@ -57,6 +58,8 @@ import org.slf4j.LoggerFactory;
 public class SyncTool {
 
     private static final String SYNCTOOL_PROPERTIES = "synctool.properties";
+    private static final String CHUNK_DELETE_RETRY_FILE =
+        "chunk-delete-retry.txt";
 
     private final Logger logger = LoggerFactory.getLogger(SyncTool.class);
     private SyncToolConfig syncConfig;
@@ -172,7 +175,7 @@ public class SyncTool {
                                           syncConfig.getPassword(),
                                           syncConfig.getStoreId());
 
-        syncEndpoint =
+        DuraStoreChunkSyncEndpoint chunkSyncEndpoint =
             new DuraStoreChunkSyncEndpoint(contentStore,
                                            syncConfig.getUsername(),
                                            syncConfig.getSpaceId(),
@@ -183,6 +186,12 @@ public class SyncTool {
                                            syncConfig.isJumpStart(),
                                            syncConfig.getUpdateSuffix(),
                                            syncConfig.getPrefix());
+        chunkSyncEndpoint.setChunkVerificationRate(
+            syncConfig.getChunkVerificationRate());
+        chunkSyncEndpoint.setChunkDeleteRetryList(
+            new ChunkDeleteRetryList(new File(syncConfig.getWorkDir(),
+                                              CHUNK_DELETE_RETRY_FILE)));
+        syncEndpoint = chunkSyncEndpoint;
 
         this.syncEndpoint.addEndPointListener(new EndPointLogger());
 
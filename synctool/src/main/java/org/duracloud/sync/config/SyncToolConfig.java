@@ -20,6 +20,7 @@ import java.util.List;
 public class SyncToolConfig implements Serializable {
 
     public static final String DEFAULT_UPDATE_SUFFIX = ".orig";
+    public static final double DEFAULT_CHUNK_VERIFICATION_RATE = 0.05;
     private static final long DEFAULT_BACKUP_FREQUENCY = 5 * 60 * 1000;
     private String host;
     private int port;
@@ -44,6 +45,7 @@ public class SyncToolConfig implements Serializable {
     private String updateSuffix = DEFAULT_UPDATE_SUFFIX;
     private String prefix;
     private boolean jumpStart = false;
+    private double chunkVerificationRate = DEFAULT_CHUNK_VERIFICATION_RATE;
 
     public String getPrintableConfig() {
         StringBuilder config = new StringBuilder();
@@ -94,6 +96,8 @@ public class SyncToolConfig implements Serializable {
         config.append(isCleanStart()).append("\n");
         config.append("Jump Start Mode: ");
         config.append(isJumpStart()).append("\n");
+        config.append("Chunk Verification Rate: ");
+        config.append(getChunkVerificationRate()).append("\n");
         config.append("SyncTool Exit on Completion: ");
         config.append(exitOnCompletion()).append("\n");
         config.append("Sync Updates: ");
@@ -283,6 +287,14 @@ public class SyncToolConfig implements Serializable {
         this.jumpStart = jumpStart;
     }
 
+    public double getChunkVerificationRate() {
+        return chunkVerificationRate;
+    }
+
+    public void setChunkVerificationRate(double chunkVerificationRate) {
+        this.chunkVerificationRate = chunkVerificationRate;
+    }
+
     public long getBackupFrequency() {
         return backupFrequency;
     }
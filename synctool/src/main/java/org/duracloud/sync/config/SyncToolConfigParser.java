@@ -225,6 +225,17 @@ public class SyncToolConfigParser {
         prefixOption.setRequired(false);
         cmdOptions.addOption(prefixOption);
 
+        Option verifyChunks =
+            new Option("v", "verify-chunks", true,
+                       "the fraction (between 0 and 1) of chunked files for " +
+                       "which each chunk is checked in DuraCloud when " +
+                       "determining whether the file needs to be synced; " +
+                       "other chunked files are compared using only their " +
+                       "manifest (optional, default value is " +
+                       SyncToolConfig.DEFAULT_CHUNK_VERIFICATION_RATE + ")");
+        verifyChunks.setRequired(false);
+        cmdOptions.addOption(verifyChunks);
+
         // Options to use Backup Config
         configFileOptions = new Options();
 
@@ -456,6 +467,24 @@ public class SyncToolConfigParser {
             config.setJumpStart(false);
         }
 
+        if (cmd.hasOption("v")) {
+            String error = "The value for verify-chunks (-v) must be a " +
+                           "number between 0 and 1.";
+            try {
+                double rate = Double.parseDouble(cmd.getOptionValue("v"));
+                if (rate >= 0 && rate <= 1) {
+                    config.setChunkVerificationRate(rate);
+                } else {
+                    throw new ParseException(error);
+                }
+            } catch (NumberFormatException e) {
+                throw new ParseException(error);
+            }
+        } else {
+            config.setChunkVerificationRate(
+                SyncToolConfig.DEFAULT_CHUNK_VERIFICATION_RATE);
+        }
+
         if (cmd.hasOption("x")) {
             config.setExitOnCompletion(true);
         } else {
@@ -0,0 +1,169 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.endpoint;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.duracloud.client.ContentStore;
+import org.duracloud.error.ContentStoreException;
+import org.duracloud.error.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks chunks which could not be deleted when their chunked content item
+ * was removed, so that the deletes can be retried later. When a backing file
+ * is provided, the list is written to that file on each change so that
+ * pending deletes survive a restart of the sync tool.
+ *
+ * Each line of the backing file holds one chunk, as the space ID followed
+ * by a '/' and the chunk ID.
+ */
+public class ChunkDeleteRetryList {
+
+    private final Logger log =
+        LoggerFactory.getLogger(ChunkDeleteRetryList.class);
+
+    private static final String SEPARATOR = "/";
+
+    private File retryFile;
+    private Set<String> pending = new LinkedHashSet<>();
+
+    /**
+     * Creates a retry list which is held only in memory
+     */
+    public ChunkDeleteRetryList() {
+        this(null);
+    }
+
+    /**
+     * Creates a retry list backed by the given file. Entries already in the
+     * file are loaded.
+     *
+     * @param retryFile file in which pending deletes are recorded
+     */
+    public ChunkDeleteRetryList(File retryFile) {
+        this.retryFile = retryFile;
+        if (null != retryFile && retryFile.exists()) {
+            load();
+        }
+    }
+
+    public synchronized void add(String spaceId, String chunkId) {
+        if (pending.add(spaceId + SEPARATOR + chunkId)) {
+            save();
+        }
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Attempts to delete each pending chunk. Chunks which are deleted, or
+     * which no longer exist, are removed from the list.
+     *
+     * @param contentStore store from which chunks are deleted
+     * @return the number of chunks which are still pending
+     */
+    public int retry(ContentStore contentStore) {
+        List<String> toRetry;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            toRetry = new ArrayList<>(pending);
+        }
+
+        List<String> completed = new ArrayList<>();
+        for (String entry : toRetry) {
+            int split = entry.indexOf(SEPARATOR);
+            String spaceId = entry.substring(0, split);
+            String chunkId = entry.substring(split + 1);
+            try {
+                contentStore.deleteContent(spaceId, chunkId);
+                completed.add(entry);
+            } catch (NotFoundException e) {
+                completed.add(entry);
+            } catch (ContentStoreException e) {
+                log.warn("Retry of delete for chunk {}/{} failed due to: {}",
+                         spaceId, chunkId, e.getMessage());
+            }
+        }
+
+        synchronized (this) {
+            if (pending.removeAll(completed)) {
+                save();
+            }
+            return pending.size();
+        }
+    }
+
+    private void load() {
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new FileInputStream(retryFile),
+                                  StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while (line != null) {
+                if (line.contains(SEPARATOR)) {
+                    pending.add(line);
+                }
+                line = reader.readLine();
+            }
+        } catch (IOException e) {
+            log.error("Unable to read chunk delete retry list " +
+                      retryFile.getAbsolutePath() + " due to: " +
+                      e.getMessage(), e);
+        }
+    }
+
+    private void save() {
+        if (null == retryFile) {
+            return;
+        }
+
+        File tempFile = new File(retryFile.getAbsolutePath() + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(tempFile),
+                                   StandardCharsets.UTF_8))) {
+            for (String entry : pending) {
+                writer.write(entry);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            log.error("Unable to write chunk delete retry list " +
+                      retryFile.getAbsolutePath() + " due to: " +
+                      e.getMessage(), e);
+            return;
+        }
+
+        try {
+            Files.move(tempFile.toPath(), retryFile.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("Unable to replace chunk delete retry list " +
+                      retryFile.getAbsolutePath() + " due to: " +
+                      e.getMessage(), e);
+        }
+    }
+
+}
@@ -7,13 +7,25 @@
  */
 package org.duracloud.sync.endpoint;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import org.duracloud.chunk.FileChunker;
 import org.duracloud.chunk.FileChunkerOptions;
 import org.duracloud.chunk.manifest.ChunksManifest;
 import org.duracloud.chunk.manifest.ChunksManifestBean;
+import org.duracloud.chunk.manifest.xml.ManifestDocumentBinding;
 import org.duracloud.chunk.util.ChunksManifestVerifier;
 import org.duracloud.chunk.writer.DuracloudContentWriter;
 import org.duracloud.client.ContentStore;
@@ -22,6 +34,7 @@ import org.duracloud.error.ContentStoreException;
 import org.duracloud.stitch.FileStitcher;
 import org.duracloud.stitch.datasource.impl.DuraStoreDataSource;
 import org.duracloud.stitch.impl.FileStitcherImpl;
+import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.sync.config.SyncToolConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,8 +50,16 @@ public class DuraStoreChunkSyncEndpoint extends DuraStoreSyncEndpoint {
 
     private FileStitcher stitcher;
 
-    private boolean jumpStart;
-    private FileChunkerOptions chunkerOptions;
+    private FileChunker chunker;
+    private double chunkVerificationRate =
+        SyncToolConfig.DEFAULT_CHUNK_VERIFICATION_RATE;
+
+    protected static final int CHUNK_DELETE_THREADS = 5;
+    protected static final long CHUNK_DELETE_RETRY_MINUTES = 10;
+    private ExecutorService chunkDeleteExecutor;
+    private ScheduledExecutorService chunkDeleteRetryExecutor;
+    private ChunkDeleteRetryList chunkDeleteRetryList =
+        new ChunkDeleteRetryList();
 
     public DuraStoreChunkSyncEndpoint(ContentStore contentStore,
                                       String username,
@@ -82,12 +103,35 @@ public class DuraStoreChunkSyncEndpoint extends DuraStoreSyncEndpoint {
             throw new RuntimeException("Max file size must be factor of 1000");
         }
 
-        this.jumpStart = jumpStart;
-        this.chunkerOptions = new FileChunkerOptions(maxFileSize);
+        // The writer and chunker are shared by all sync workers
+        DuracloudContentWriter contentWriter =
+            new DuracloudContentWriter(contentStore, username, true, jumpStart);
+        this.chunker = new FileChunker(contentWriter,
+                                       new FileChunkerOptions(maxFileSize));
 
         stitcher = new FileStitcherImpl(new DuraStoreDataSource(contentStore));
     }
 
+    /**
+     * Sets the fraction of chunked content items, between 0 and 1, for which
+     * each chunk listed in the manifest is verified against DuraCloud when
+     * determining whether the content has changed. Changes to other chunked
+     * items are detected using only the size and checksum recorded in the
+     * manifest header, which does not notice missing chunks. A rate of 1
+     * verifies every chunk of every chunked content item, at the cost of one
+     * request per chunk. Defaults to
+     * SyncToolConfig.DEFAULT_CHUNK_VERIFICATION_RATE.
+     *
+     * @param chunkVerificationRate fraction of chunked items to verify
+     */
+    public void setChunkVerificationRate(double chunkVerificationRate) {
+        if (chunkVerificationRate < 0 || chunkVerificationRate > 1) {
+            throw new IllegalArgumentException(
+                "Chunk verification rate must be between 0 and 1");
+        }
+        this.chunkVerificationRate = chunkVerificationRate;
+    }
+
     @Override
     protected Map<String, String> getContentProperties(String spaceId,
                                                        String contentId) {
@@ -95,22 +139,77 @@ public class DuraStoreChunkSyncEndpoint extends DuraStoreSyncEndpoint {
                                                                contentId);
 
         if (null == props) {
-            try {
-                ChunksManifest manifest = this.stitcher.getManifest(spaceId, getManifestId(contentId));
+            props = getManifestProperties(spaceId, getManifestId(contentId));
+        }
 
-                if (chunksInDuraCloudMatchChunksInManifest(spaceId, manifest)) {
-                    props = getManifestProperties(spaceId, manifest);
-                }
+        return props;
+    }
 
-            } catch (Exception ex) {
-                log.debug("Not a chunked content item: {}/{}", spaceId, contentId);
+    @Override
+    protected boolean contentMatches(Map<String, String> contentProperties,
+                                     MonitoredFile syncFile) {
+        // Avoid computing the checksum of the local file if sizes differ
+        String dcSize = contentProperties.get(ContentStore.CONTENT_SIZE);
+        if (null != dcSize) {
+            try {
+                if (Long.parseLong(dcSize) != syncFile.length()) {
+                    return false;
+                }
+            } catch (NumberFormatException e) {
+                log.debug("Unable to parse content size: {}", dcSize);
             }
+        }
+        return super.contentMatches(contentProperties, syncFile);
+    }
+
+    /*
+     * Retrieves the properties of a chunked content item from its manifest,
+     * using a single request. The size and checksum of the original file
+     * are taken from the manifest header.
+     */
+    private Map<String, String> getManifestProperties(String spaceId,
+                                                      String manifestId) {
+        Content manifestContent;
+        try {
+            manifestContent = getContentStore().getContent(spaceId, manifestId);
+        } catch (ContentStoreException e) {
+            log.debug("Not a chunked content item: {}/{}", spaceId, manifestId);
+            return null;
+        }
+
+        ChunksManifest manifest;
+        try (InputStream manifestStream = manifestContent.getStream()) {
+            manifest = ManifestDocumentBinding.createManifestFrom(manifestStream);
+        } catch (Exception e) {
+            log.warn("Unable to read chunks manifest: {}/{}, due to: {}",
+                     spaceId, manifestId, e.getMessage());
+            return null;
+        }
 
+        if (isChunkVerificationSelected() &&
+            !chunksInDuraCloudMatchChunksInManifest(spaceId, manifest)) {
+            return null;
         }
 
+        Map<String, String> props = new HashMap<>();
+        if (null != manifestContent.getProperties()) {
+            props.putAll(manifestContent.getProperties());
+        }
+        ChunksManifestBean.ManifestHeader header = manifest.getHeader();
+        props.put(ContentStore.CONTENT_SIZE,
+                  Long.toString(header.getSourceByteSize()));
+        props.put(ContentStore.CONTENT_MIMETYPE, header.getSourceMimetype());
+        props.put(StorageProvider.PROPERTIES_CONTENT_MD5, header.getSourceMD5());
+        props.put(ContentStore.CONTENT_CHECKSUM, header.getSourceMD5());
+        log.info("Manifest found for content: {}/{}", spaceId, manifestId);
         return props;
     }
 
+    private boolean isChunkVerificationSelected() {
+        return chunkVerificationRate > 0 &&
+               ThreadLocalRandom.current().nextDouble() < chunkVerificationRate;
+    }
+
     private boolean chunksInDuraCloudMatchChunksInManifest(String spaceId,
                                                            ChunksManifest manifest) {
         try {
@@ -125,29 +224,25 @@ public class DuraStoreChunkSyncEndpoint extends DuraStoreSyncEndpoint {
         }
     }
 
-    private Map<String, String> getManifestProperties(String spaceId,
-                                                      ChunksManifest manifest) {
-        Map<String, String> props = null;
-        String manifestId = manifest.getManifestId();
-        try {
-
-            Content manifesContentItem = stitcher.getContentFromManifest(spaceId,
-                                                                         manifestId);
-            props = manifesContentItem.getProperties();
-            log.info("Manifest found for content: {}/{}", spaceId, manifestId);
-
-        } catch (Exception e) {
-            log.debug("Not a chunked content item: {}/{}", spaceId, manifestId);
-        }
-
-        return props;
-    }
-
     protected String getManifestId(String contentId) {
         String manifestId = contentId + ChunksManifest.manifestSuffix;
         return manifestId;
     }
 
+    /**
+     * Sets the list used to record chunks which could not be deleted. By
+     * default the list is held only in memory. Chunks already in the list
+     * (left by an earlier run) are deleted in the background.
+     *
+     * @param chunkDeleteRetryList list of chunks to be deleted later
+     */
+    public void setChunkDeleteRetryList(ChunkDeleteRetryList chunkDeleteRetryList) {
+        this.chunkDeleteRetryList = chunkDeleteRetryList;
+        if (chunkDeleteRetryList.size() > 0) {
+            scheduleChunkDeleteRetries(0);
+        }
+    }
+
     @Override
     public void deleteContent(String spaceId, String contentId)
         throws ContentStoreException {
@@ -164,19 +259,96 @@ public class DuraStoreChunkSyncEndpoint extends DuraStoreSyncEndpoint {
             ChunksManifest manifest = getManifest(spaceId, contentId);
 
             if (null != manifest) {
+                // The manifest is removed first so that the content item is
+                // never visible with only some of its chunks in place
                 String manifestId = manifest.getManifestId();
+                log.info("Deleting manifest: {}/{}", spaceId, manifestId);
+                super.deleteContent(spaceId, manifestId);
 
                 log.info("Deleting all chunks in manifest, {}", manifestId);
-                for (ChunksManifestBean.ManifestEntry entry : manifest.getEntries()) {
-                    super.deleteContent(spaceId, entry.getChunkId());
+                deleteChunks(spaceId, manifest.getEntries());
+                chunkDeleteRetryList.retry(getContentStore());
+            }
+        }
+    }
+
+    /*
+     * Deletes chunks in parallel. Chunks which cannot be deleted are added
+     * to the retry list.
+     */
+    private void deleteChunks(String spaceId,
+                              List<ChunksManifestBean.ManifestEntry> entries) {
+        List<Future<?>> deletes = new ArrayList<>();
+        for (ChunksManifestBean.ManifestEntry entry : entries) {
+            String chunkId = entry.getChunkId();
+            deletes.add(getChunkDeleteExecutor().submit(() -> {
+                try {
+                    getContentStore().deleteContent(spaceId, chunkId);
+                    listenerList.fire().contentDeleted(getStoreId(),
+                                                       getSpaceId(),
+                                                       chunkId);
+                } catch (ContentStoreException e) {
+                    log.warn("Unable to delete chunk {}/{} due to: {}, " +
+                             "the delete will be retried",
+                             spaceId, chunkId, e.getMessage());
+                    chunkDeleteRetryList.add(spaceId, chunkId);
+                    scheduleChunkDeleteRetries(CHUNK_DELETE_RETRY_MINUTES);
                 }
+            }));
+        }
 
-                log.info("Deleting manifest: {}/{}", spaceId, manifestId);
-                super.deleteContent(spaceId, manifestId);
+        for (Future<?> delete : deletes) {
+            try {
+                delete.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.error("Unexpected error deleting chunk: " +
+                          e.getMessage(), e);
             }
         }
     }
 
+    /*
+     * Retries the chunk deletes in the retry list periodically, so that they
+     * are not left waiting for the next delete of chunked content.
+     */
+    private synchronized void scheduleChunkDeleteRetries(long initialDelayMinutes) {
+        if (null == chunkDeleteRetryExecutor) {
+            chunkDeleteRetryExecutor =
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "chunk-delete-retry");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            chunkDeleteRetryExecutor.scheduleWithFixedDelay(
+                this::retryChunkDeletes, initialDelayMinutes,
+                CHUNK_DELETE_RETRY_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+
+    private void retryChunkDeletes() {
+        // An exception would stop further retries from being scheduled
+        try {
+            chunkDeleteRetryList.retry(getContentStore());
+        } catch (RuntimeException e) {
+            log.warn("Unable to retry chunk deletes due to: {}", e.getMessage());
+        }
+    }
+
+    private synchronized ExecutorService getChunkDeleteExecutor() {
+        if (null == chunkDeleteExecutor) {
+            chunkDeleteExecutor =
+                Executors.newFixedThreadPool(CHUNK_DELETE_THREADS, runnable -> {
+                    Thread thread = new Thread(runnable, "chunk-delete");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        }
+        return chunkDeleteExecutor;
+    }
+
     private ChunksManifest getManifest(String spaceId, String contentId) {
         String manifestId = getManifestId(contentId);
         ChunksManifest manifest = null;
@@ -193,10 +365,6 @@ public class DuraStoreChunkSyncEndpoint extends DuraStoreSyncEndpoint {
     protected void addUpdateContent(String contentId,
                                     MonitoredFile syncFile) {
         Map<String, String> properties = createProps(syncFile.getAbsolutePath(), getUsername());
-        DuracloudContentWriter contentWriter =
-            new DuracloudContentWriter(getContentStore(), getUsername(), true, this.jumpStart);
-        FileChunker chunker = new FileChunker(contentWriter, chunkerOptions);
-
         chunker.addContent(getSpaceId(),
                            contentId,
                            syncFile.getChecksum(),
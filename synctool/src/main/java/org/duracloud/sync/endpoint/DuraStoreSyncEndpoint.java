@@ -174,9 +174,7 @@ public class DuraStoreSyncEndpoint implements SyncEndpoint {
 
             if (syncFile.exists()) {
                 if (dcFileExists) { // File was updated
-                    String dcChecksum =
-                        contentProperties.get(ContentStore.CONTENT_CHECKSUM);
-                    if (dcChecksum.equals(syncFile.getChecksum())) {
+                    if (contentMatches(contentProperties, syncFile)) {
                         logger.debug("Checksum for local file {} matches " +
                                      "file in DuraCloud, no update needed.",
                                      absPath);
@@ -259,6 +257,21 @@ public class DuraStoreSyncEndpoint implements SyncEndpoint {
                                               contentId, absPath);
     }
 
+    /**
+     * Determines whether the content in DuraCloud, as described by its
+     * properties, matches the local file.
+     *
+     * @param contentProperties properties of the content in DuraCloud
+     * @param syncFile          local file
+     * @return true if the content in DuraCloud matches the local file
+     */
+    protected boolean contentMatches(Map<String, String> contentProperties,
+                                     MonitoredFile syncFile) {
+        String dcChecksum =
+            contentProperties.get(ContentStore.CONTENT_CHECKSUM);
+        return dcChecksum.equals(syncFile.getChecksum());
+    }
+
     protected Map<String, String> getContentProperties(String spaceId,
                                                        String contentId) {
         Map<String, String> props = null;
@@ -340,6 +353,10 @@ public class DuraStoreSyncEndpoint implements SyncEndpoint {
         return contentStore;
     }
 
+    protected String getStoreId() {
+        return storeId;
+    }
+
     protected String getSpaceId() {
         return spaceId;
     }
@@ -12,11 +12,15 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
-import org.apache.commons.io.IOCase;
-import org.apache.commons.io.filefilter.WildcardFileFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,13 +28,29 @@ import org.slf4j.LoggerFactory;
  * This class provides a mechanism for clients to determine whether or not
  * a particular file should be ignored.
  *
+ * Exclusion rules are file or directory names which may include the
+ * wildcards '*' and '?', matched without regard to case. The rules are
+ * compiled once: rules without wildcards are held in a set of names and
+ * the remaining rules are joined into a single regular expression. The
+ * decision made for each directory is cached, so the ancestors of a file
+ * are only evaluated once per directory rather than once per file.
+ *
  * @author Daniel Bernstein
  * @since July 27, 2017
  */
 public class FileExclusionManager {
     private static Logger log = LoggerFactory.getLogger(FileExclusionManager.class);
 
-    private WildcardFileFilter fileFilter;
+    /**
+     * Upper bound on the number of cached directory decisions. The cache is
+     * cleared when this size is reached, which keeps memory bounded on very
+     * large trees at the cost of re-evaluating some directories.
+     */
+    protected static final int MAX_CACHED_DIRS = 100000;
+
+    private Set<String> excludedNames;
+    private Pattern excludedPattern;
+    private Map<File, Boolean> dirDecisions = new ConcurrentHashMap<>();
 
     public FileExclusionManager(File excludeFile) {
         if (excludeFile == null) {
@@ -49,7 +69,55 @@ public class FileExclusionManager {
     }
 
     private void setExcludeList(List<String> excludeList) {
-        fileFilter = new WildcardFileFilter(excludeList, IOCase.INSENSITIVE);
+        Set<String> names = new HashSet<>();
+        StringBuilder regex = new StringBuilder();
+        for (String rule : excludeList) {
+            if (rule.indexOf('*') < 0 && rule.indexOf('?') < 0) {
+                names.add(toKey(rule));
+            } else {
+                if (regex.length() > 0) {
+                    regex.append('|');
+                }
+                regex.append(toRegex(rule));
+            }
+        }
+
+        this.excludedNames = names;
+        this.excludedPattern = regex.length() > 0 ?
+                               Pattern.compile(regex.toString(),
+                                               Pattern.CASE_INSENSITIVE |
+                                               Pattern.DOTALL |
+                                               Pattern.UNICODE_CASE) :
+                               null;
+        this.dirDecisions.clear();
+    }
+
+    /*
+     * Converts a wildcard rule into an equivalent regular expression, with
+     * all characters other than the wildcards matched literally.
+     */
+    private String toRegex(String rule) {
+        StringBuilder regex = new StringBuilder("(?:");
+        StringBuilder literal = new StringBuilder();
+        for (char c : rule.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.append(')').toString();
+    }
+
+    private String toKey(String name) {
+        return name.toLowerCase(Locale.ENGLISH);
     }
 
     private List<String> readExcludeFile(File excludeFile) {
@@ -72,16 +140,45 @@ public class FileExclusionManager {
     }
 
     public boolean isExcluded(File file) {
-        if (null != fileFilter) {
-            do {
-                if (fileFilter.accept(file)) {
-                    log.info("{} matched one or more exclude rules: excluding...",
-                             file.getAbsolutePath());
-                    return true;
-                }
-                file = file.getParentFile();
-            } while (file != null);
+        if (excludedNames.isEmpty() && null == excludedPattern) {
+            return false;
+        }
+
+        boolean excluded = matches(file) || isDirExcluded(file.getParentFile());
+        if (excluded) {
+            log.debug("{} matched one or more exclude rules: excluding...",
+                      file.getAbsolutePath());
+        }
+        return excluded;
+    }
+
+    /*
+     * Determines if a directory, or any of its ancestors, matches a rule.
+     * Results are cached so that excluded subtrees are pruned after the
+     * first lookup.
+     */
+    private boolean isDirExcluded(File dir) {
+        if (null == dir) {
+            return false;
+        }
+
+        Boolean decision = dirDecisions.get(dir);
+        if (null == decision) {
+            decision = matches(dir) || isDirExcluded(dir.getParentFile());
+            if (dirDecisions.size() >= MAX_CACHED_DIRS) {
+                dirDecisions.clear();
+            }
+            dirDecisions.put(dir, decision);
+        }
+        return decision;
+    }
+
+    private boolean matches(File file) {
+        String name = file.getName();
+        if (excludedNames.contains(toKey(name))) {
+            return true;
         }
-        return false;
+        return null != excludedPattern &&
+               excludedPattern.matcher(name).matches();
     }
 }
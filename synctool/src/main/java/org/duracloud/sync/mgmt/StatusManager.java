@@ -8,15 +8,23 @@
 package org.duracloud.sync.mgmt;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.duracloud.common.util.DateUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Singleton class which tracks the status of the sync queue
+ * Singleton class which tracks the status of the sync queue.
+ *
+ * Status is updated concurrently by all sync workers, so counters are held
+ * in LongAdders and the most recently completed syncs are kept in a fixed
+ * size ring buffer, allowing updates to proceed without locking.
  *
  * @author: Bill Branan
  * Date: Apr 2, 2010
@@ -24,19 +32,32 @@ import org.slf4j.LoggerFactory;
 public class StatusManager {
     private Logger log = LoggerFactory.getLogger(StatusManager.class);
 
-    private long inWork;
-    private long succeeded;
-    private List<SyncSummary> failed;
-    private List<SyncSummary> recentlyCompleted;
+    protected static final int RECENTLY_COMPLETED_SIZE = 100;
+
+    /**
+     * Windows, in minutes, over which throughput is reported
+     */
+    public static final int[] THROUGHPUT_WINDOWS = {1, 5, 15};
+
+    private LongAdder inWork;
+    private LongAdder succeeded;
+    private Queue<SyncSummary> failed;
+    private AtomicReferenceArray<SyncSummary> recentlyCompleted;
+    private AtomicLong completedCount;
+    private ThroughputMeter throughputMeter;
     private String startTime;
     private ChangedList changedList;
     private String version;
 
-    private static StatusManager instance;
+    private static volatile StatusManager instance;
 
     public static StatusManager getInstance() {
         if (instance == null) {
-            instance = new StatusManager();
+            synchronized (StatusManager.class) {
+                if (instance == null) {
+                    instance = new StatusManager();
+                }
+            }
         }
         return instance;
     }
@@ -49,53 +70,89 @@ public class StatusManager {
     }
 
     private void init() {
-        succeeded = 0;
-        failed = new ArrayList<>();
+        inWork = new LongAdder();
+        succeeded = new LongAdder();
+        failed = new ConcurrentLinkedQueue<>();
+        recentlyCompleted =
+            new AtomicReferenceArray<>(RECENTLY_COMPLETED_SIZE);
+        completedCount = new AtomicLong();
+        throughputMeter = createThroughputMeter();
         startTime = DateUtil.nowLong();
         changedList = ChangedList.getInstance();
-        recentlyCompleted = new LinkedList<>();
+    }
+
+    protected ThroughputMeter createThroughputMeter() {
+        return new ThroughputMeter();
     }
 
     public int getQueueSize() {
         return changedList.getListSize();
     }
 
-    public synchronized void startingWork() {
-        inWork++;
+    public void startingWork() {
+        inWork.increment();
     }
 
-    public synchronized void stoppingWork() {
-        inWork--;
+    public void stoppingWork() {
+        inWork.decrement();
     }
 
-    public synchronized void successfulCompletion(SyncSummary summary) {
-        succeeded++;
-        inWork--;
-        this.recentlyCompleted.add(0, summary);
-        while (this.recentlyCompleted.size() > 100) {
-            this.recentlyCompleted.remove(this.recentlyCompleted.size() - 1);
-        }
+    public void successfulCompletion(SyncSummary summary) {
+        succeeded.increment();
+        inWork.decrement();
+        throughputMeter.record(summary.getLength());
+
+        long position = completedCount.getAndIncrement();
+        recentlyCompleted.set((int) (position % RECENTLY_COMPLETED_SIZE),
+                              summary);
     }
 
-    public synchronized void failedCompletion(SyncSummary file) {
+    public void failedCompletion(SyncSummary file) {
         failed.add(file);
-        inWork--;
+        inWork.decrement();
     }
 
     public long getInWork() {
-        return inWork;
+        return inWork.sum();
     }
 
     public long getSucceeded() {
-        return succeeded;
+        return succeeded.sum();
+    }
+
+    /**
+     * @return a snapshot of the syncs which have failed
+     */
+    public List<SyncSummary> getFailed() {
+        return new ArrayList<>(failed);
     }
 
-    public synchronized List<SyncSummary> getFailed() {
-        return failed;
+    /**
+     * @return the most recently completed syncs, newest first
+     */
+    public List<SyncSummary> getRecentlyCompleted() {
+        List<SyncSummary> recent = new ArrayList<>(RECENTLY_COMPLETED_SIZE);
+        long newest = completedCount.get() - 1;
+        long oldest = Math.max(0, newest - RECENTLY_COMPLETED_SIZE + 1);
+        for (long position = newest; position >= oldest; position--) {
+            SyncSummary summary = recentlyCompleted.get(
+                (int) (position % RECENTLY_COMPLETED_SIZE));
+            if (null != summary) {
+                recent.add(summary);
+            }
+        }
+        return recent;
     }
 
-    public synchronized List<SyncSummary> getRecentlyCompleted() {
-        return new ArrayList<SyncSummary>(this.recentlyCompleted);
+    /**
+     * @return sync throughput over each of the THROUGHPUT_WINDOWS
+     */
+    public List<Throughput> getThroughput() {
+        List<Throughput> throughput = new ArrayList<>();
+        for (int window : THROUGHPUT_WINDOWS) {
+            throughput.add(throughputMeter.getThroughput(window));
+        }
+        return throughput;
     }
 
     public void setVersion(String version) {
@@ -104,9 +161,7 @@ public class StatusManager {
 
     public void clearFailed() {
         log.info("clearing failed list");
-        if (this.failed != null) {
-            this.failed.clear();
-        }
+        this.failed.clear();
     }
 
     public void clear() {
@@ -124,8 +179,16 @@ public class StatusManager {
         status.append("Sync Queue Size: " + getQueueSize() + "\n");
         status.append("Syncs In Process: " + getInWork() + "\n");
         status.append("Successful Syncs: " + getSucceeded() + "\n");
-        status.append("Failed Syncs: " + getFailed().size() + "\n");
-        for (SyncSummary failedFile : getFailed()) {
+        for (Throughput throughput : getThroughput()) {
+            status.append(String.format(
+                "Throughput (%d min): %.2f files/sec, %.0f bytes/sec\n",
+                throughput.getWindowMinutes(),
+                throughput.getFilesPerSecond(),
+                throughput.getBytesPerSecond()));
+        }
+        List<SyncSummary> failedFiles = getFailed();
+        status.append("Failed Syncs: " + failedFiles.size() + "\n");
+        for (SyncSummary failedFile : failedFiles) {
             status.append("  " + failedFile.getAbsolutePath() + "\n");
         }
         status.append("-------------------------------------------\n");
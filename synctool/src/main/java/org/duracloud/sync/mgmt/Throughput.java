@@ -0,0 +1,40 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+/**
+ * Transfer rates measured over a rolling window of time.
+
+ */
+public class Throughput {
+
+    private int windowMinutes;
+    private double filesPerSecond;
+    private double bytesPerSecond;
+
+    public Throughput(int windowMinutes,
+                      double filesPerSecond,
+                      double bytesPerSecond) {
+        this.windowMinutes = windowMinutes;
+        this.filesPerSecond = filesPerSecond;
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    public double getFilesPerSecond() {
+        return filesPerSecond;
+    }
+
+    public double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the rate at which files and bytes are transferred over rolling
+ * time windows. Completions are recorded into per-second buckets held in a
+ * ring which covers the longest supported window, so recording and reading
+ * rates never block and memory use is fixed.
+
+ */
+public class ThroughputMeter {
+
+    public static final int MAX_WINDOW_MINUTES = 15;
+
+    private static final int BUCKET_COUNT = MAX_WINDOW_MINUTES * 60;
+
+    private final AtomicReferenceArray<Bucket> buckets =
+        new AtomicReferenceArray<>(BUCKET_COUNT);
+    private final long startSecond;
+
+    public ThroughputMeter() {
+        this.startSecond = currentSecond();
+    }
+
+    /**
+     * Records the completed transfer of a single file.
+     *
+     * @param bytes size of the file transferred
+     */
+    public void record(long bytes) {
+        Bucket bucket = getBucket(currentSecond());
+        bucket.files.increment();
+        bucket.bytes.add(bytes);
+    }
+
+    /**
+     * Computes the file and byte transfer rates over the most recent
+     * windowMinutes minutes. Until the tool has been running for the full
+     * window, rates are computed over the time elapsed so far.
+     *
+     * @param windowMinutes size of the window, 1 to MAX_WINDOW_MINUTES
+     * @return throughput over the window
+     */
+    public Throughput getThroughput(int windowMinutes) {
+        if (windowMinutes < 1 || windowMinutes > MAX_WINDOW_MINUTES) {
+            throw new IllegalArgumentException(
+                "Window must be between 1 and " + MAX_WINDOW_MINUTES +
+                " minutes");
+        }
+
+        long now = currentSecond();
+        long windowSeconds = Math.min(windowMinutes * 60L,
+                                      now - startSecond + 1);
+        long oldest = now - windowSeconds;
+
+        long files = 0;
+        long bytes = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            Bucket bucket = buckets.get(i);
+            if (null != bucket && bucket.second > oldest &&
+                bucket.second <= now) {
+                files += bucket.files.sum();
+                bytes += bucket.bytes.sum();
+            }
+        }
+        return new Throughput(windowMinutes,
+                              (double) files / windowSeconds,
+                              (double) bytes / windowSeconds);
+    }
+
+    /*
+     * Retrieves the bucket for the given second, replacing the bucket
+     * which previously occupied its slot in the ring if necessary.
+     */
+    private Bucket getBucket(long second) {
+        int index = (int) (second % BUCKET_COUNT);
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (null != bucket && bucket.second == second) {
+                return bucket;
+            }
+            Bucket replacement = new Bucket(second);
+            if (buckets.compareAndSet(index, bucket, replacement)) {
+                return replacement;
+            }
+        }
+    }
+
+    protected long currentSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static class Bucket {
+        private final long second;
+        private final LongAdder files = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        Bucket(long second) {
+            this.second = second;
+        }
+    }
+
+}
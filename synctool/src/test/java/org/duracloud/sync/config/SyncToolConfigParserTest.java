@@ -96,6 +96,7 @@ public class SyncToolConfigParserTest {
         argsMap.remove("-n");
         argsMap.remove("-o");
         argsMap.remove("-j");
+        argsMap.remove("-v");
 
         // Process configs, make sure optional params are set to defaults
         syncConfig =
@@ -119,6 +120,8 @@ public class SyncToolConfigParserTest {
         assertFalse(syncConfig.isRenameUpdates());
         assertTrue(syncConfig.isSyncUpdates());
         assertFalse(syncConfig.isJumpStart());
+        assertEquals(SyncToolConfig.DEFAULT_CHUNK_VERIFICATION_RATE,
+                     syncConfig.getChunkVerificationRate(), 0);
 
         // Make sure error is thrown on missing required params
         for (String arg : argsMap.keySet()) {
@@ -139,6 +142,9 @@ public class SyncToolConfigParserTest {
         failMsg = "Max file size arg should be between 1 and 5";
         addArgFailTest(argsMap, "-m", "0", failMsg);
         addArgFailTest(argsMap, "-m", "6", failMsg);
+        failMsg = "Verify chunks arg should be between 0 and 1";
+        addArgFailTest(argsMap, "-v", "nonNum", failMsg);
+        addArgFailTest(argsMap, "-v", "1.5", failMsg);
     }
 
     private HashMap<String, String> getArgsMap() {
@@ -158,6 +164,7 @@ public class SyncToolConfigParserTest {
         argsMap.put("-x", "");
         argsMap.put("-a", "prefix/");
         argsMap.put("-j", "");
+        argsMap.put("-v", "0.5");
         return argsMap;
     }
 
@@ -181,6 +188,8 @@ public class SyncToolConfigParserTest {
                      String.valueOf(syncConfig.getMaxFileSize() /
                                     SyncToolConfigParser.GIGABYTE));
         assertEquals(argsMap.get("-a"), syncConfig.getPrefix());
+        assertEquals(argsMap.get("-v"),
+                     String.valueOf(syncConfig.getChunkVerificationRate()));
         assertEquals(true, syncConfig.syncDeletes());
         assertEquals(true, syncConfig.isCleanStart());
         assertEquals(true, syncConfig.exitOnCompletion());
@@ -11,6 +11,7 @@ import static org.duracloud.chunk.manifest.ChunksManifest.chunkSuffix;
 import static org.duracloud.chunk.manifest.ChunksManifest.manifestSuffix;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
@@ -18,22 +19,27 @@ import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.duracloud.chunk.manifest.ChunksManifest;
 import org.duracloud.client.ContentStore;
 import org.duracloud.common.model.AclType;
 import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.common.util.ChecksumUtil.Algorithm;
 import org.duracloud.common.util.IOUtil;
 import org.duracloud.common.util.OperationTimer;
+import org.duracloud.domain.Content;
 import org.duracloud.error.ContentStoreException;
+import org.duracloud.error.NotFoundException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
@@ -127,6 +133,181 @@ public class DuraStoreChunkSyncEndpointTest {
         setEndpoint(maxFileSize);
     }
 
+    @Test
+    public void testGetContentPropertiesFromManifest() throws Exception {
+        String contentId = "contentId";
+        ChunksManifest manifest = createManifest(contentId);
+
+        EasyMock.expect(contentStore.getSpaceContents(spaceId))
+                .andReturn(new ArrayList<String>().iterator());
+        EasyMock.expect(contentStore.getContentProperties(spaceId, contentId))
+                .andThrow(new NotFoundException("not found"));
+        Content manifestContent = new Content();
+        manifestContent.setStream(manifest.getBody());
+        manifestContent.setProperties(new HashMap<>());
+        EasyMock.expect(contentStore.getContent(spaceId,
+                                                contentId + manifestSuffix))
+                .andReturn(manifestContent);
+
+        // No chunk properties are retrieved
+        replayMocks();
+        setEndpoint();
+        endpoint.setChunkVerificationRate(0);
+
+        Map<String, String> props =
+            endpoint.getContentProperties(spaceId, contentId);
+        assertEquals("source-md5", props.get(ContentStore.CONTENT_CHECKSUM));
+        assertEquals("2000", props.get(ContentStore.CONTENT_SIZE));
+    }
+
+    @Test
+    public void testGetContentPropertiesVerifyChunks() throws Exception {
+        String contentId = "contentId";
+        ChunksManifest manifest = createManifest(contentId);
+
+        EasyMock.expect(contentStore.getSpaceContents(spaceId))
+                .andReturn(new ArrayList<String>().iterator());
+        EasyMock.expect(contentStore.getContentProperties(spaceId, contentId))
+                .andThrow(new NotFoundException("not found"));
+        Content manifestContent = new Content();
+        manifestContent.setStream(manifest.getBody());
+        EasyMock.expect(contentStore.getContent(spaceId,
+                                                contentId + manifestSuffix))
+                .andReturn(manifestContent);
+
+        Map<String, String> chunkProps = new HashMap<>();
+        chunkProps.put(ContentStore.CONTENT_CHECKSUM, "chunk-md5");
+        chunkProps.put(ContentStore.CONTENT_SIZE, "1000");
+        EasyMock.expect(contentStore.getContentProperties(spaceId,
+                                                          contentId + chunkSuffix + "0001"))
+                .andReturn(chunkProps);
+        EasyMock.expect(contentStore.getContentProperties(spaceId,
+                                                          contentId + chunkSuffix + "0002"))
+                .andThrow(new NotFoundException("not found"));
+
+        replayMocks();
+        setEndpoint();
+        endpoint.setChunkVerificationRate(1);
+
+        // A missing chunk means the content must be synced again
+        assertNull(endpoint.getContentProperties(spaceId, contentId));
+    }
+
+    @Test
+    public void testDeleteChunkedContent() throws Exception {
+        String contentId = "contentId";
+        String manifestId = contentId + manifestSuffix;
+        int chunkCount = 20;
+        String failingChunkId = contentId + chunkSuffix + "0005";
+
+        ChunksManifest manifest =
+            new ChunksManifest(contentId, "text/plain", chunkCount * 1000);
+        for (int i = 1; i <= chunkCount; i++) {
+            manifest.addEntry(manifest.nextChunkId(), "chunk-md5", 1000);
+        }
+
+        EasyMock.expect(contentStore.getSpaceContents(spaceId))
+                .andReturn(new ArrayList<String>().iterator());
+        Content manifestContent = new Content();
+        manifestContent.setStream(manifest.getBody());
+        EasyMock.expect(contentStore.getContent(spaceId, manifestId))
+                .andReturn(manifestContent);
+
+        List<String> deleted = new CopyOnWriteArrayList<>();
+        AtomicInteger active = new AtomicInteger(0);
+        AtomicInteger maxActive = new AtomicInteger(0);
+        contentStore.deleteContent(EasyMock.eq(spaceId),
+                                   EasyMock.isA(String.class));
+        EasyMock.expectLastCall().andAnswer(() -> {
+            String deleteId = (String) EasyMock.getCurrentArguments()[1];
+            int current = active.incrementAndGet();
+            maxActive.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(20);
+                if (deleteId.equals(contentId)) {
+                    throw new NotFoundException("not found");
+                } else if (deleteId.equals(failingChunkId)) {
+                    throw new ContentStoreException("delete failed");
+                }
+                deleted.add(deleteId);
+                return null;
+            } finally {
+                active.decrementAndGet();
+            }
+        }).anyTimes();
+
+        replayMocks();
+        setEndpoint();
+        List<String> reported = new CopyOnWriteArrayList<>();
+        endpoint.addEndPointListener(new EndPointLogger() {
+            @Override
+            public void contentDeleted(String storeId, String spaceId, String contentId) {
+                reported.add(contentId);
+            }
+        });
+
+        File retryFile = File.createTempFile("chunk-delete-retry", ".txt");
+        retryFile.deleteOnExit();
+        ChunkDeleteRetryList retryList = new ChunkDeleteRetryList(retryFile);
+        endpoint.setChunkDeleteRetryList(retryList);
+
+        endpoint.deleteContent(spaceId, contentId);
+
+        // Manifest is deleted before any chunk
+        assertEquals(manifestId, deleted.get(0));
+        assertEquals(chunkCount, deleted.size());
+
+        // Each deleted chunk is reported to listeners
+        assertEquals(new HashSet<>(deleted), new HashSet<>(reported));
+
+        // Chunks are deleted in parallel, within the thread limit
+        assertTrue(maxActive.get() > 1);
+        assertTrue(maxActive.get() <=
+                   DuraStoreChunkSyncEndpoint.CHUNK_DELETE_THREADS);
+
+        // The failed chunk delete is recorded for later retry
+        assertEquals(1, retryList.size());
+        assertEquals(spaceId + "/" + failingChunkId,
+                     FileUtils.readFileToString(retryFile).trim());
+        assertEquals(1, new ChunkDeleteRetryList(retryFile).size());
+    }
+
+    @Test
+    public void testRetryChunkDeletesOnStart() throws Exception {
+        String chunkId = "contentId" + chunkSuffix + "0001";
+        EasyMock.expect(contentStore.getSpaceContents(spaceId))
+                .andReturn(new ArrayList<String>().iterator());
+        contentStore.deleteContent(spaceId, chunkId);
+        EasyMock.expectLastCall().once();
+
+        replayMocks();
+        setEndpoint();
+
+        // A chunk delete left from an earlier run
+        File retryFile = File.createTempFile("chunk-delete-retry", ".txt");
+        retryFile.deleteOnExit();
+        new ChunkDeleteRetryList(retryFile).add(spaceId, chunkId);
+
+        ChunkDeleteRetryList retryList = new ChunkDeleteRetryList(retryFile);
+        endpoint.setChunkDeleteRetryList(retryList);
+
+        long start = System.currentTimeMillis();
+        while (retryList.size() > 0 &&
+               System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, retryList.size());
+    }
+
+    private ChunksManifest createManifest(String contentId) {
+        ChunksManifest manifest =
+            new ChunksManifest(contentId, "text/plain", 2000);
+        manifest.setMD5OfSourceContent("source-md5");
+        manifest.addEntry(contentId + chunkSuffix + "0001", "chunk-md5", 1000);
+        manifest.addEntry(contentId + chunkSuffix + "0002", "chunk-md5", 1000);
+        return manifest;
+    }
+
     @Test
     public void testAddUpdateFile() throws Exception {
         String contentId = "contentId";
@@ -238,9 +419,9 @@ public class DuraStoreChunkSyncEndpointTest {
                 .andReturn(false)
                 .times(threadCount);
 
-        EasyMock.expect(contentStore.contentExists(EasyMock.eq(spaceId),
-                                                   EasyMock.isA(String.class)))
-                .andReturn(false)
+        EasyMock.expect(contentStore.getContentProperties(EasyMock.eq(spaceId),
+                                                          EasyMock.isA(String.class)))
+                .andThrow(new NotFoundException("not found"))
                 .times(chunkCount * threadCount);
 
         // setup file
@@ -7,6 +7,7 @@
  */
 package org.duracloud.sync.mgmt;
 
+import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
 
@@ -16,9 +17,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOCase;
+import org.apache.commons.io.filefilter.WildcardFileFilter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author: Daniel Bernstein
@@ -26,6 +31,9 @@ import org.junit.Test;
  */
 public class FileExclusionManagerTest {
 
+    private final Logger log =
+        LoggerFactory.getLogger(FileExclusionManagerTest.class);
+
     @Before
     public void setUp() throws Exception {
     }
@@ -115,6 +123,94 @@ public class FileExclusionManagerTest {
         assertFalse(testExcluded(testPath, fileWildStar));
     }
 
+    @Test
+    public void testExcludeSpecialCharacters() {
+        assertTrue(testExcluded("dir" + File.separator + "a+b(1).txt",
+                                "a+b(1).txt"));
+        assertTrue(testExcluded("dir" + File.separator + "a+b(1).txt",
+                                "a+b(?).*"));
+        assertFalse(testExcluded("dir" + File.separator + "aab1.txt",
+                                 "a+b(?).*"));
+        assertTrue(testExcluded("dir" + File.separator + "File.TXT",
+                                "file.txt"));
+    }
+
+    @Test
+    public void testExcludeDirectoryCached() {
+        FileExclusionManager fem =
+            new FileExclusionManager(buildExcludeList("files-*"));
+
+        File excludedDir = new File("top", "files-A1");
+        for (int i = 0; i < 10; i++) {
+            assertTrue(fem.isExcluded(new File(excludedDir, "file" + i)));
+            assertFalse(fem.isExcluded(new File("top", "file" + i)));
+        }
+        assertTrue(fem.isExcluded(excludedDir));
+    }
+
+    /**
+     * Compares the per-path cost of the compiled exclusion rules against
+     * applying a WildcardFileFilter to each path and its ancestors, using
+     * 120 rules and paths 20 directories deep.
+     */
+    @Test
+    public void testPerPathCost() {
+        List<String> rules = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            rules.add("excluded-name-" + i);
+            rules.add("*.ext" + i);
+        }
+        rules.add("*.tmp");
+        rules.add("cache-??");
+
+        List<File> paths = new ArrayList<>();
+        for (int dirs = 0; dirs < 50; dirs++) {
+            File dir = new File("root");
+            for (int depth = 1; depth < 20; depth++) {
+                dir = new File(dir, "dir-" + dirs + "-" + depth);
+            }
+            for (int file = 0; file < 100; file++) {
+                paths.add(new File(dir, "file-" + file +
+                                        (file % 10 == 0 ? ".tmp" : ".txt")));
+            }
+        }
+
+        WildcardFileFilter filter =
+            new WildcardFileFilter(rules, IOCase.INSENSITIVE);
+        FileExclusionManager fem = new FileExclusionManager(rules);
+
+        int filterExcluded = 0;
+        long filterStart = System.nanoTime();
+        for (File path : paths) {
+            File file = path;
+            do {
+                if (filter.accept(file)) {
+                    filterExcluded++;
+                    break;
+                }
+                file = file.getParentFile();
+            } while (file != null);
+        }
+        long filterTime = System.nanoTime() - filterStart;
+
+        int femExcluded = 0;
+        long femStart = System.nanoTime();
+        for (File path : paths) {
+            if (fem.isExcluded(path)) {
+                femExcluded++;
+            }
+        }
+        long femTime = System.nanoTime() - femStart;
+
+        assertEquals(paths.size() / 10, femExcluded);
+        assertEquals(filterExcluded, femExcluded);
+
+        log.info("Per-path exclusion cost with {} rules at depth 20: " +
+                 "wildcard filter {} ns, compiled rules {} ns",
+                 rules.size(), filterTime / paths.size(),
+                 femTime / paths.size());
+    }
+
     private boolean testExcluded(String test,
                                  String... rules) {
 
@@ -10,7 +10,9 @@ package org.duracloud.sync.mgmt;
 import static junit.framework.Assert.assertEquals;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import org.duracloud.sync.endpoint.SyncResultType;
 import org.junit.Test;
@@ -60,4 +62,65 @@ public class StatusManagerTest {
         assertEquals(50, status.getSucceeded());
         assertEquals(50, status.getFailed().size());
     }
+
+    @Test
+    public void testRecentlyCompleted() {
+        StatusManager status = new StatusManager();
+        assertEquals(0, status.getRecentlyCompleted().size());
+
+        int total = StatusManager.RECENTLY_COMPLETED_SIZE + 25;
+        for (int i = 0; i < total; i++) {
+            status.startingWork();
+            status.successfulCompletion(createSummary("file-" + i));
+        }
+
+        List<SyncSummary> recent = status.getRecentlyCompleted();
+        assertEquals(StatusManager.RECENTLY_COMPLETED_SIZE, recent.size());
+        assertEquals("file-" + (total - 1), recent.get(0).getFilename());
+        assertEquals("file-25", recent.get(recent.size() - 1).getFilename());
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        final StatusManager status = new StatusManager();
+        final int threadCount = 10;
+        final int perThread = 1000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    status.startingWork();
+                    if (i % 2 == 0) {
+                        status.successfulCompletion(createSummary("test"));
+                    } else {
+                        status.failedCompletion(createSummary("test"));
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int total = threadCount * perThread;
+        assertEquals(0, status.getInWork());
+        assertEquals(total / 2, status.getSucceeded());
+        assertEquals(total / 2, status.getFailed().size());
+        assertEquals(StatusManager.RECENTLY_COMPLETED_SIZE,
+                     status.getRecentlyCompleted().size());
+        assertEquals(StatusManager.THROUGHPUT_WINDOWS.length,
+                     status.getThroughput().size());
+    }
+
+    private SyncSummary createSummary(String name) {
+        return new SyncSummary(new File(name),
+                               new Date(),
+                               new Date(),
+                               SyncResultType.ADDED,
+                               "success");
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import static junit.framework.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ThroughputMeterTest {
+
+    private static final double DELTA = 0.0001;
+
+    private long now;
+    private ThroughputMeter meter;
+
+    @Before
+    public void setUp() {
+        now = 1000000;
+        meter = new ThroughputMeter() {
+            @Override
+            protected long currentSecond() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void testThroughputWindows() {
+        // One file of 100 bytes per second for 15 minutes
+        for (int i = 0; i < 15 * 60; i++) {
+            meter.record(100);
+            now++;
+        }
+
+        // Only the most recent 2 minutes see a heavier load
+        now -= 120;
+        for (int i = 0; i < 120; i++) {
+            meter.record(200);
+            meter.record(200);
+            now++;
+        }
+        now--;
+
+        Throughput oneMin = meter.getThroughput(1);
+        assertEquals(1, oneMin.getWindowMinutes());
+        assertEquals(3.0, oneMin.getFilesPerSecond(), DELTA);
+        assertEquals(500.0, oneMin.getBytesPerSecond(), DELTA);
+
+        Throughput fiveMin = meter.getThroughput(5);
+        assertEquals((300 + 240) / 300.0, fiveMin.getFilesPerSecond(), DELTA);
+        assertEquals((300 * 100 + 120 * 400) / 300.0,
+                     fiveMin.getBytesPerSecond(), DELTA);
+
+        Throughput fifteenMin = meter.getThroughput(15);
+        assertEquals((900 + 240) / 900.0,
+                     fifteenMin.getFilesPerSecond(), DELTA);
+    }
+
+    @Test
+    public void testThroughputExpires() {
+        meter.record(1000);
+        now += 60;
+        meter.record(1000);
+
+        // Until a full window has passed, rates use the elapsed time
+        assertEquals(1, meter.getThroughput(1).getFilesPerSecond() * 60,
+                     DELTA);
+        assertEquals(2, meter.getThroughput(5).getFilesPerSecond() * 61,
+                     DELTA);
+
+        // Ring slots are reused once their second leaves the longest window
+        now += ThroughputMeter.MAX_WINDOW_MINUTES * 60;
+        assertEquals(0, meter.getThroughput(15).getFilesPerSecond(), DELTA);
+        meter.record(1000);
+        assertEquals(1000.0 / 900,
+                     meter.getThroughput(15).getBytesPerSecond(), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWindow() {
+        meter.getThroughput(ThroughputMeter.MAX_WINDOW_MINUTES + 1);
+    }
+
+}
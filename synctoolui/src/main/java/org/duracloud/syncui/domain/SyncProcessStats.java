@@ -7,7 +7,11 @@
  */
 package org.duracloud.syncui.domain;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+
+import org.duracloud.sync.mgmt.Throughput;
 
 /**
  * A Read-only data object deCribing the state of the sync tool from the user's
@@ -23,6 +27,7 @@ public class SyncProcessStats {
     private long currentUpBytesPerSecond;
     private long averageUpBytesPerSecond;
     private int queueSize;
+    private List<Throughput> throughput;
 
     public SyncProcessStats() {
         this.startDate = new Date();
@@ -31,6 +36,7 @@ public class SyncProcessStats {
         this.currentUpBytesPerSecond = 2 * 1000 * 1000;
         this.averageUpBytesPerSecond = 2 * 1000 * 1000;
         this.queueSize = 0;
+        this.throughput = new ArrayList<>();
     }
 
     public SyncProcessStats(Date startDate, Date estimatedCompletionDate,
@@ -42,6 +48,24 @@ public class SyncProcessStats {
         this.currentUpBytesPerSecond = currentUpBytesPerSecond;
         this.averageUpBytesPerSecond = averageUpBytesPerSecond;
         this.queueSize = queueSize;
+        this.throughput = new ArrayList<>();
+    }
+
+    public SyncProcessStats(Date startDate, Date estimatedCompletionDate,
+                            int errorCount, int queueSize,
+                            List<Throughput> throughput) {
+        this.startDate = startDate;
+        this.estimatedCompletionDate = estimatedCompletionDate;
+        this.errorCount = errorCount;
+        this.queueSize = queueSize;
+        this.throughput = throughput;
+        if (!throughput.isEmpty()) {
+            this.currentUpBytesPerSecond =
+                (long) throughput.get(0).getBytesPerSecond();
+            this.averageUpBytesPerSecond =
+                (long) throughput.get(throughput.size() - 1)
+                                 .getBytesPerSecond();
+        }
     }
 
     public Date getStartDate() {
@@ -67,4 +91,12 @@ public class SyncProcessStats {
     public int getQueueSize() {
         return this.queueSize;
     }
+
+    /**
+     * @return sync throughput over each of the reporting windows, shortest
+     * window first
+     */
+    public List<Throughput> getThroughput() {
+        return this.throughput;
+    }
 }
@@ -22,10 +22,10 @@ import org.duracloud.client.ContentStoreManager;
 import org.duracloud.common.model.Credential;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.sync.backup.SyncBackupManager;
+import org.duracloud.sync.endpoint.ChunkDeleteRetryList;
 import org.duracloud.sync.endpoint.DuraStoreChunkSyncEndpoint;
 import org.duracloud.sync.endpoint.EndPointLogger;
 import org.duracloud.sync.endpoint.MonitoredFile;
-import org.duracloud.sync.endpoint.SyncEndpoint;
 import org.duracloud.sync.mgmt.ChangedList;
 import org.duracloud.sync.mgmt.ChangedListListener;
 import org.duracloud.sync.mgmt.FileExclusionManager;
@@ -55,6 +55,8 @@ import org.springframework.stereotype.Component;
 @Component("syncProcessManager")
 public class SyncProcessManagerImpl implements SyncProcessManager {
     private static final int CHANGE_LIST_MONITOR_FREQUENCY = 5000;
+    private static final String CHUNK_DELETE_RETRY_FILE =
+        "chunk-delete-retry.txt";
     private static final int BACKUP_FREQUENCY = 5 * 60 * 1000;
 
     private static Logger log =
@@ -302,7 +304,7 @@ public class SyncProcessManagerImpl implements SyncProcessManager {
             ContentStore contentStore = csm.getPrimaryContentStore();
             boolean syncDeletes = this.syncConfigurationManager.isSyncDeletes();
             String prefix = this.syncConfigurationManager.getPrefix();
-            SyncEndpoint syncEndpoint =
+            DuraStoreChunkSyncEndpoint syncEndpoint =
                 new DuraStoreChunkSyncEndpoint(contentStore,
                                                username,
                                                spaceId,
@@ -313,6 +315,10 @@ public class SyncProcessManagerImpl implements SyncProcessManager {
                                                this.syncConfigurationManager.isJumpStart(),
                                                this.syncConfigurationManager.getUpdateSuffix(),
                                                prefix);
+            syncEndpoint.setChunkDeleteRetryList(
+                new ChunkDeleteRetryList(
+                    new File(this.syncConfigurationManager.getWorkDirectory(),
+                             CHUNK_DELETE_RETRY_FILE)));
 
             syncEndpoint.addEndPointListener(new EndPointLogger());
 
@@ -415,13 +421,13 @@ public class SyncProcessManagerImpl implements SyncProcessManager {
 
     private SyncProcessStats getProcessStatsImpl() {
         int queueSize = ChangedList.getInstance().getListSize();
-        int errorSize = StatusManager.getInstance().getFailed().size();
+        StatusManager statusManager = StatusManager.getInstance();
+        int errorSize = statusManager.getFailed().size();
         return new SyncProcessStats(this.syncStartedDate,
                                     null,
                                     errorSize,
-                                    0,
-                                    0,
-                                    queueSize);
+                                    queueSize,
+                                    statusManager.getThroughput());
     }
 
     private void shutdownSyncProcess() {
@@ -174,6 +174,17 @@
                     <td><spring:message code="errorCount" /></td>
                     <td>${syncProcessStats.errorCount}</td>
                   </tr>
+
+                  <c:forEach items="${syncProcessStats.throughput}" var="throughput">
+                    <tr>
+                      <td><spring:message code="throughput" arguments="${throughput.windowMinutes}" /></td>
+                      <td>
+                        <fmt:formatNumber value="${throughput.filesPerSecond}" maxFractionDigits="2" />
+                        <spring:message code="filesPerSecond" />,
+                        ${fileSizeFormatter.format(throughput.bytesPerSecond)}/s
+                      </td>
+                    </tr>
+                  </c:forEach>
                 </tbody>
               </table>
             </div>